@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2023-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.cli;
@@ -10,7 +10,10 @@ import com.opencastsoftware.yvette.handlers.graphical.GraphicalReportHandler;
 import com.opencastsoftware.yvette.handlers.graphical.RgbColours;
 import org.apache.commons.lang3.function.Failable;
 import org.mina_lang.BuildInfo;
+import org.mina_lang.main.CompilerOptions;
+import org.mina_lang.main.IoMode;
 import org.mina_lang.main.Main;
+import org.mina_lang.main.PhaseExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine;
@@ -31,6 +34,7 @@ public class MinaCommandLine implements Callable<Integer> {
         paramLabel = "path",
         description = {
             "The destination path for compiled class files.",
+            "A path ending in .jar compiles into a single jar rather than a directory.",
             "Defaults to the current directory." })
     private Path destination = Paths.get(".");
 
@@ -43,6 +47,72 @@ public class MinaCommandLine implements Callable<Integer> {
         parameterConsumer = ClasspathParameterConsumer.class)
     private URL[] classpath = new URL[0];
 
+    @Option(
+        names = { "--mutual-tail-calls" },
+        description = {
+            "Compile groups of functions which call each other in tail position into a single method.",
+            "Tail calls within a group become jumps rather than method calls." })
+    private boolean mutualTailCalls = false;
+
+    @Option(
+        names = { "--specialise-constructors" },
+        description = {
+            "Generate constructor classes with unboxed fields for data types instantiated at Int, Long or Double.",
+            "Pattern matching uses the unboxed fields when it encounters these classes." })
+    private boolean specialiseConstructors = false;
+
+    @Option(
+        names = { "--verify-classes" },
+        paramLabel = "rate",
+        arity = "0..1",
+        fallbackValue = "1.0",
+        description = {
+            "Check emitted class files with the bytecode verifier.",
+            "An optional rate between 0 and 1 verifies a random sample of the classes.",
+            "Defaults to no verification." })
+    private double verificationRate = 0.0;
+
+    @Option(
+        names = { "--store-jar-entries" },
+        description = {
+            "Store the entries of a destination jar without compressing them.",
+            "This makes the jar larger but quicker to write and to load classes from." })
+    private boolean storeJarEntries = false;
+
+    @Option(
+        names = { "--phase-executor" },
+        paramLabel = "executor",
+        description = {
+            "How the work of each compiler phase is scheduled: ${COMPLETION-CANDIDATES}.",
+            "FORK_JOIN runs each namespace as a task in a work-stealing thread pool.",
+            "Defaults to ${DEFAULT-VALUE}." })
+    private PhaseExecutor phaseExecutor = PhaseExecutor.REACTOR;
+
+    @Option(
+        names = { "--io-mode" },
+        paramLabel = "mode",
+        description = {
+            "Where source files are read and class files are written: ${COMPLETION-CANDIDATES}.",
+            "VIRTUAL_THREADS uses a virtual thread per file, and requires a Java 21 or later runtime.",
+            "Defaults to ${DEFAULT-VALUE}." })
+    private IoMode ioMode = IoMode.ELASTIC;
+
+    @Option(
+        names = { "--io-concurrency" },
+        paramLabel = "files",
+        description = {
+            "The maximum number of files read or written at once with VIRTUAL_THREADS I/O.",
+            "Must be at least 1, and defaults to ${DEFAULT-VALUE}." },
+        converter = PositiveIntegerConverter.class)
+    private int ioConcurrency = IoMode.DEFAULT_CONCURRENCY;
+
+    @Option(
+        names = { "--profile-typechecker" },
+        description = {
+            "Measure the cost of typechecking each declaration.",
+            "The most expensive declarations in each namespace are reported as hints." })
+    private boolean profileTypechecker = false;
+
     @Parameters(description = { "The source paths from which to compile *.mina files." }, arity = "1..*")
     private Path[] paths;
 
@@ -79,19 +149,42 @@ public class MinaCommandLine implements Callable<Integer> {
         return paths;
     }
 
+    public CompilerOptions compilerOptions() {
+        var defaults = CompilerOptions.defaults();
+        return defaults
+            .withCodegen(
+                defaults.codegen()
+                    .withMutualTailCalls(mutualTailCalls)
+                    .withSpecialiseConstructors(specialiseConstructors)
+                    .withVerificationRate(verificationRate)
+                    .withStoreJarEntries(storeJarEntries))
+            .withPhaseExecutor(phaseExecutor)
+            .withIoMode(ioMode)
+            .withIoConcurrency(ioConcurrency)
+            .withProfileTypechecker(profileTypechecker);
+    }
+
     public IExecutionExceptionHandler exceptionHandler() {
         return exceptionHandler;
     }
 
     public int compileSourcePaths() throws IOException {
-        compilerMain.compileSourcePaths(classpath, destination, paths).join();
-
         var mainCollector = compilerMain.getMainCollector();
 
-        Failable.stream(mainCollector.getDiagnostics()).forEach(diagnostic -> {
-            reportHandler.display(diagnostic, System.err);
+        // Diagnostics are displayed as they are reported, rather than once compilation has finished
+        var displaying = mainCollector.onDiagnostics(diagnostics -> {
+            Failable.stream(diagnostics).forEach(diagnostic -> {
+                reportHandler.display(diagnostic, System.err);
+            });
         });
 
+        try {
+            compilerMain.compileSourcePaths(compilerOptions(), classpath, destination, paths).join();
+        } finally {
+            mainCollector.complete();
+            displaying.join();
+        }
+
         return mainCollector.hasErrors() ? ExitCode.SOFTWARE : ExitCode.OK;
     }
 
@@ -0,0 +1,27 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.cli;
+
+import picocli.CommandLine;
+
+// Converts the values of options which must be at least 1, such as limits on the amount of work in flight
+class PositiveIntegerConverter implements CommandLine.ITypeConverter<Integer> {
+    @Override
+    public Integer convert(String value) {
+        int parsed;
+
+        try {
+            parsed = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new CommandLine.TypeConversionException("'" + value + "' is not an int");
+        }
+
+        if (parsed < 1) {
+            throw new CommandLine.TypeConversionException("'" + value + "' must be at least 1");
+        }
+
+        return parsed;
+    }
+}
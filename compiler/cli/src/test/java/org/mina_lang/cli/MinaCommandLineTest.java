@@ -1,10 +1,12 @@
 /*
- * SPDX-FileCopyrightText:  © 2023-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.cli;
 
 import org.junit.jupiter.api.Test;
+import org.mina_lang.main.IoMode;
+import org.mina_lang.main.PhaseExecutor;
 import picocli.CommandLine;
 import picocli.CommandLine.ExitCode;
 import picocli.CommandLine.MissingParameterException;
@@ -119,4 +121,145 @@ public class MinaCommandLineTest {
             exception.getMessage(),
             is("Invalid value for option '--classpath': Unable to convert classpath segment to a path: ./\u0000jars"));
     }
+
+    @Test
+    public void disablesMutualTailCallsByDefault() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().codegen().mutualTailCalls(), is(false));
+    }
+
+    @Test
+    public void enablesMutualTailCallsFromArgs() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("--mutual-tail-calls", "./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().codegen().mutualTailCalls(), is(true));
+    }
+
+    @Test
+    public void disablesConstructorSpecialisationByDefault() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().codegen().specialiseConstructors(), is(false));
+    }
+
+    @Test
+    public void enablesConstructorSpecialisationFromArgs() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("--specialise-constructors", "./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().codegen().specialiseConstructors(), is(true));
+    }
+
+    @Test
+    public void disablesClassVerificationByDefault() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().codegen().verificationRate(), is(0.0));
+    }
+
+    @Test
+    public void verifiesAllClassesFromArgs() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("./examples", "--verify-classes");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().codegen().verificationRate(), is(1.0));
+    }
+
+    @Test
+    public void verifiesSampleOfClassesFromArgs() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("--verify-classes=0.1", "./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().codegen().verificationRate(), is(0.1));
+    }
+
+    @Test
+    public void compressesJarEntriesByDefault() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("-d", "build/out.jar", "./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().codegen().storeJarEntries(), is(false));
+    }
+
+    @Test
+    public void storesJarEntriesFromArgs() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("-d", "build/out.jar", "--store-jar-entries", "./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().codegen().storeJarEntries(), is(true));
+    }
+
+    @Test
+    public void usesReactorPhaseExecutorByDefault() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().phaseExecutor(), is(PhaseExecutor.REACTOR));
+    }
+
+    @Test
+    public void parsesPhaseExecutorFromArgs() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("--phase-executor", "FORK_JOIN", "./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().phaseExecutor(), is(PhaseExecutor.FORK_JOIN));
+    }
+
+    @Test
+    public void usesElasticIoByDefault() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().ioMode(), is(IoMode.ELASTIC));
+        assertThat(minaCli.compilerOptions().ioConcurrency(), is(IoMode.DEFAULT_CONCURRENCY));
+    }
+
+    @Test
+    public void parsesIoModeFromArgs() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("--io-mode", "VIRTUAL_THREADS", "--io-concurrency", "32", "./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().ioMode(), is(IoMode.VIRTUAL_THREADS));
+        assertThat(minaCli.compilerOptions().ioConcurrency(), is(32));
+    }
+
+    @Test
+    public void throwsExceptionWhenIoConcurrencyIsNotPositive() {
+        for (var ioConcurrency : new String[] { "0", "-1" }) {
+            var minaCli = new MinaCommandLine();
+            var exception = assertThrows(
+                CommandLine.ParameterException.class,
+                () -> new CommandLine(minaCli).parseArgs("--io-concurrency", ioConcurrency, "./examples"));
+            assertThat(exception.getMessage(), containsString("--io-concurrency"));
+            assertThat(exception.getMessage(), containsString("must be at least 1"));
+        }
+    }
+
+    @Test
+    public void exitsWithUsageErrorWhenIoConcurrencyIsZero() {
+        var minaCli = new MinaCommandLine();
+        var exitCode = new CommandLine(minaCli).execute("--io-concurrency", "0", "./examples");
+        assertEquals(ExitCode.USAGE, exitCode);
+    }
+
+    @Test
+    public void doesNotProfileTypecheckerByDefault() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().profileTypechecker(), is(false));
+    }
+
+    @Test
+    public void parsesProfileTypecheckerFromArgs() {
+        var minaCli = new MinaCommandLine();
+        var parseResult = new CommandLine(minaCli).parseArgs("--profile-typechecker", "./examples");
+        assertThat(parseResult.errors(), is(empty()));
+        assertThat(minaCli.compilerOptions().profileTypechecker(), is(true));
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.common.diagnostics;
@@ -9,64 +9,127 @@ import org.eclipse.collections.api.list.ImmutableList;
 import org.mina_lang.common.Location;
 
 import java.util.List;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public abstract class BaseDiagnosticCollector implements DiagnosticCollector, DiagnosticReporter, DiagnosticEnumerator {
     protected ConcurrentLinkedQueue<Diagnostic> diagnostics = new ConcurrentLinkedQueue<>();
     AtomicInteger errorCount = new AtomicInteger(0);
     AtomicInteger warningCount = new AtomicInteger(0);
+    protected final DiagnosticPublisher publisher;
+
+    // Diagnostics are delivered to subscribers on the threads which report them
+    public BaseDiagnosticCollector() {
+        this(Runnable::run);
+    }
+
+    // Diagnostics are delivered to subscribers on the given executor,
+    // e.g. so that they can be handed to APIs which must be called from a particular thread
+    public BaseDiagnosticCollector(Executor publisherExecutor) {
+        this.publisher = new DiagnosticPublisher(publisherExecutor);
+    }
 
     public List<Diagnostic> getDiagnostics() {
         return diagnostics.stream().toList();
     }
 
+    // Subscribes to batches of the diagnostics reported from now on
+    public void subscribe(Flow.Subscriber<? super List<Diagnostic>> subscriber) {
+        publisher.subscribe(subscriber);
+    }
+
+    // Consumes batches of the diagnostics reported from now on, requesting the next batch
+    // once the consumer has finished with the previous one.
+    // The returned future completes once the collector is completed and all diagnostics are consumed.
+    public CompletableFuture<Void> onDiagnostics(Consumer<List<Diagnostic>> batchConsumer) {
+        var consumed = new CompletableFuture<Void>();
+
+        subscribe(new Flow.Subscriber<>() {
+            Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(List<Diagnostic> batch) {
+                batchConsumer.accept(batch);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                consumed.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                consumed.complete(null);
+            }
+        });
+
+        return consumed;
+    }
+
+    // Signals to subscribers that no more diagnostics will be reported
+    public void complete() {
+        publisher.complete();
+    }
+
+    protected void collect(Diagnostic diagnostic) {
+        diagnostics.offer(diagnostic);
+        publisher.publish(diagnostic);
+    }
+
     @Override
     public void reportError(Location location, String message) {
-        diagnostics.offer(new Diagnostic(location, Severity.Error, message));
+        collect(new Diagnostic(location, Severity.Error, message));
         errorCount.incrementAndGet();
     }
 
     @Override
     public void reportError(Location location, String message,
             ImmutableList<DiagnosticRelatedInformation> relatedInformation) {
-        diagnostics.offer(new Diagnostic(location, Severity.Error, message, relatedInformation));
+        collect(new Diagnostic(location, Severity.Error, message, relatedInformation));
         errorCount.incrementAndGet();
     }
 
     @Override
     public void reportWarning(Location location, String message) {
-        diagnostics.offer(new Diagnostic(location, Severity.Warning, message));
+        collect(new Diagnostic(location, Severity.Warning, message));
         warningCount.incrementAndGet();
     }
 
     @Override
     public void reportWarning(Location location, String message,
             ImmutableList<DiagnosticRelatedInformation> relatedInformation) {
-        diagnostics.offer(new Diagnostic(location, Severity.Warning, message, relatedInformation));
+        collect(new Diagnostic(location, Severity.Warning, message, relatedInformation));
         warningCount.incrementAndGet();
     }
 
     @Override
     public void reportInfo(Location location, String message) {
-        diagnostics.offer(new Diagnostic(location, Severity.Information, message));
+        collect(new Diagnostic(location, Severity.Information, message));
     }
 
     @Override
     public void reportInfo(Location location, String message,
             ImmutableList<DiagnosticRelatedInformation> relatedInformation) {
-        diagnostics.offer(new Diagnostic(location, Severity.Information, message, relatedInformation));
+        collect(new Diagnostic(location, Severity.Information, message, relatedInformation));
     }
 
     @Override
     public void reportHint(Location location, String message) {
-        diagnostics.offer(new Diagnostic(location, Severity.Hint, message));
+        collect(new Diagnostic(location, Severity.Hint, message));
     }
 
     @Override
     public void reportHint(Location location, String message,
             ImmutableList<DiagnosticRelatedInformation> relatedInformation) {
-        diagnostics.offer(new Diagnostic(location, Severity.Hint, message, relatedInformation));
+        collect(new Diagnostic(location, Severity.Hint, message, relatedInformation));
     }
 
     @Override
@@ -0,0 +1,142 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.common.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Publishes diagnostics to subscribers in batches as they are reported.
+// Each subscriber receives the diagnostics reported after it subscribed.
+// Diagnostics are buffered while a subscriber has no outstanding demand,
+// and are delivered together in the next batch once it requests more.
+// Delivery is serialised per subscriber and runs on the publisher's executor,
+// so slow subscribers never hold up the threads which report diagnostics.
+public class DiagnosticPublisher implements Flow.Publisher<List<Diagnostic>> {
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private final Executor executor;
+    private final int maxBatchSize;
+    private final CopyOnWriteArrayList<DiagnosticSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean completed = false;
+
+    public DiagnosticPublisher(Executor executor) {
+        this(executor, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    public DiagnosticPublisher(Executor executor, int maxBatchSize) {
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<Diagnostic>> subscriber) {
+        var subscription = new DiagnosticSubscription(subscriber);
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        if (completed) {
+            subscription.complete();
+        }
+    }
+
+    public void publish(Diagnostic diagnostic) {
+        subscriptions.forEach(subscription -> subscription.offer(diagnostic));
+    }
+
+    public void complete() {
+        completed = true;
+        subscriptions.forEach(DiagnosticSubscription::complete);
+    }
+
+    class DiagnosticSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super List<Diagnostic>> subscriber;
+        private final ConcurrentLinkedQueue<Diagnostic> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicLong demand = new AtomicLong(0L);
+        private final AtomicInteger workInProgress = new AtomicInteger(0);
+        private volatile boolean completed = false;
+        private volatile boolean terminated = false;
+
+        DiagnosticSubscription(Flow.Subscriber<? super List<Diagnostic>> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void offer(Diagnostic diagnostic) {
+            if (!terminated) {
+                pending.offer(diagnostic);
+                schedule();
+            }
+        }
+
+        void complete() {
+            completed = true;
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                terminate();
+                subscriber.onError(new IllegalArgumentException("Requested a non-positive number of diagnostic batches: " + n));
+            } else {
+                demand.getAndAccumulate(n, (current, requested) -> {
+                    var total = current + requested;
+                    return total < 0 ? Long.MAX_VALUE : total;
+                });
+                schedule();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            terminate();
+        }
+
+        void terminate() {
+            terminated = true;
+            pending.clear();
+            subscriptions.remove(this);
+        }
+
+        void schedule() {
+            if (workInProgress.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            var missed = 1;
+            do {
+                while (!terminated && demand.get() > 0 && !pending.isEmpty()) {
+                    List<Diagnostic> batch = new ArrayList<>();
+                    Diagnostic diagnostic;
+                    while (batch.size() < maxBatchSize && (diagnostic = pending.poll()) != null) {
+                        batch.add(diagnostic);
+                    }
+                    if (demand.get() != Long.MAX_VALUE) {
+                        demand.decrementAndGet();
+                    }
+                    try {
+                        subscriber.onNext(List.copyOf(batch));
+                    } catch (RuntimeException e) {
+                        terminate();
+                        subscriber.onError(e);
+                    }
+                }
+
+                if (!terminated && completed && pending.isEmpty()) {
+                    terminate();
+                    subscriber.onComplete();
+                }
+
+                missed = workInProgress.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
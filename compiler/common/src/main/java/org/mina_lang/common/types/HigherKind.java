@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.common.types;
@@ -21,6 +21,11 @@ public record HigherKind(ImmutableList<Kind> argKinds, Kind resultKind) implemen
                 kinds[kinds.length - 1]);
     }
 
+    @Override
+    public boolean containsUnsolved() {
+        return argKinds.anySatisfy(Kind::containsUnsolved) || resultKind.containsUnsolved();
+    }
+
     @Override
     public <A> A accept(KindFolder<A> visitor) {
         return visitor.visitHigherKind(this);
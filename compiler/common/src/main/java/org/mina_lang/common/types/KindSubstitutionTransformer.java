@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.common.types;
@@ -28,6 +28,11 @@ public class KindSubstitutionTransformer implements KindTransformer {
 
     @Override
     public HigherKind visitHigherKind(HigherKind higher) {
+        // Ground kinds are returned as they are, so that substitution preserves sharing
+        if (!higher.containsUnsolved()) {
+            return higher;
+        }
+
         return new HigherKind(
             higher.argKinds().collect(argKind -> argKind.accept(this)),
             higher.resultKind().accept(this));
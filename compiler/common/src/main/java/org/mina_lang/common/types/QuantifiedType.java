@@ -1,12 +1,25 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.common.types;
 
 import org.eclipse.collections.api.list.ImmutableList;
 
-public record QuantifiedType(ImmutableList<TypeVar> args, Type body, Kind kind) implements PolyType {
+// The containsUnsolved component is always derived from the others when the type is constructed,
+// so that substitution can skip over ground types without traversing them.
+// Any value passed for it is ignored, so it can't contradict the rest of the type.
+public record QuantifiedType(ImmutableList<TypeVar> args, Type body, Kind kind, boolean containsUnsolved) implements PolyType {
+
+    public QuantifiedType {
+        containsUnsolved = args.anySatisfy(Type::containsUnsolved) ||
+            body.containsUnsolved() ||
+            kind.containsUnsolved();
+    }
+
+    public QuantifiedType(ImmutableList<TypeVar> args, Type body, Kind kind) {
+        this(args, body, kind, true);
+    }
 
     @Override
     public void accept(TypeVisitor visitor) {
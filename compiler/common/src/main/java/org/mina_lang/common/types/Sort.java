@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.common.types;
@@ -7,4 +7,7 @@ package org.mina_lang.common.types;
 public sealed interface Sort permits Type, Kind {
     <A> A accept(SortFolder<A> visitor);
     void accept(SortVisitor visitor);
+
+    // Whether this sort mentions any unsolved type or kind variables, and so may be changed by substitution
+    boolean containsUnsolved();
 }
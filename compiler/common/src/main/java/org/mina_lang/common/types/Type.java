@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.common.types;
@@ -30,6 +30,11 @@ sealed public interface Type extends Sort permits PolyType, MonoType {
         visitor.visitType(this);
     }
 
+    @Override
+    default boolean containsUnsolved() {
+        return kind().containsUnsolved();
+    }
+
     public void accept(TypeVisitor visitor);
 
     public <A> A accept(TypeFolder<A> visitor);
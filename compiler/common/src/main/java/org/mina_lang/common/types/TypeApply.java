@@ -1,12 +1,25 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.common.types;
 
 import org.eclipse.collections.api.list.ImmutableList;
 
-public record TypeApply(Type type, ImmutableList<Type> typeArguments, Kind kind) implements MonoType {
+// The containsUnsolved component is always derived from the others when the type is constructed,
+// so that substitution can skip over ground types without traversing them.
+// Any value passed for it is ignored, so it can't contradict the rest of the type.
+public record TypeApply(Type type, ImmutableList<Type> typeArguments, Kind kind, boolean containsUnsolved) implements MonoType {
+
+    public TypeApply {
+        containsUnsolved = type.containsUnsolved() ||
+            typeArguments.anySatisfy(Type::containsUnsolved) ||
+            kind.containsUnsolved();
+    }
+
+    public TypeApply(Type type, ImmutableList<Type> typeArguments, Kind kind) {
+        this(type, typeArguments, kind, true);
+    }
 
     @Override
     public void accept(TypeVisitor visitor) {
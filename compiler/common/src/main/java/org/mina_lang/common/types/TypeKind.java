@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.common.types;
@@ -7,6 +7,11 @@ package org.mina_lang.common.types;
 public enum TypeKind implements Kind {
     INSTANCE;
 
+    @Override
+    public boolean containsUnsolved() {
+        return false;
+    }
+
     @Override
     public <A> A accept(KindFolder<A> visitor) {
         return visitor.visitTypeKind(INSTANCE);
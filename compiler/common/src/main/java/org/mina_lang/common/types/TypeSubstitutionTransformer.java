@@ -1,9 +1,11 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.common.types;
 
+import org.eclipse.collections.api.list.ImmutableList;
+
 public class TypeSubstitutionTransformer implements TypeTransformer {
 
     protected UnionFind<MonoType> typeSubstitution;
@@ -31,41 +33,49 @@ public class TypeSubstitutionTransformer implements TypeTransformer {
         this.typeSubstitution = typeSubstitution;
     }
 
+    // Types without unsolved variables are returned as they are, and a type is only rebuilt
+    // when one of its components changes, so that substitution preserves the sharing of the input.
+
     @Override
     public QuantifiedType visitQuantifiedType(QuantifiedType quant) {
-        return new QuantifiedType(
-                // Safe to cast, since do not manipulate type variables here
-                quant.args().collect(tyArg -> (TypeVar) tyArg.accept(this)),
-                quant.body().accept(this),
-                quant.kind().accept(kindTransformer));
+        if (!quant.containsUnsolved()) {
+            return quant;
+        }
+
+        // Safe to cast, since do not manipulate type variables here
+        var newArgs = quant.args().collect(tyArg -> (TypeVar) tyArg.accept(this));
+        var newBody = quant.body().accept(this);
+        var newKind = quant.kind().accept(kindTransformer);
+
+        if (sameElements(newArgs, quant.args()) && newBody == quant.body() && newKind == quant.kind()) {
+            return quant;
+        }
+
+        return new QuantifiedType(newArgs, newBody, newKind);
     }
 
     @Override
     public ForAllVar visitForAllVar(ForAllVar forall) {
-        return new ForAllVar(
-                forall.name(),
-                forall.kind().accept(kindTransformer));
+        var newKind = forall.kind().accept(kindTransformer);
+        return newKind == forall.kind() ? forall : new ForAllVar(forall.name(), newKind);
     }
 
     @Override
     public ExistsVar visitExistsVar(ExistsVar exists) {
-        return new ExistsVar(
-                exists.name(),
-                exists.kind().accept(kindTransformer));
+        var newKind = exists.kind().accept(kindTransformer);
+        return newKind == exists.kind() ? exists : new ExistsVar(exists.name(), newKind);
     }
 
     @Override
     public MonoType visitSyntheticVar(SyntheticVar syn) {
-        return new SyntheticVar(
-            syn.id(),
-            syn.kind().accept(kindTransformer));
+        var newKind = syn.kind().accept(kindTransformer);
+        return newKind == syn.kind() ? syn : new SyntheticVar(syn.id(), newKind);
     }
 
     @Override
     public TypeConstructor visitTypeConstructor(TypeConstructor tyCon) {
-        return new TypeConstructor(
-                tyCon.name(),
-                tyCon.kind().accept(kindTransformer));
+        var newKind = tyCon.kind().accept(kindTransformer);
+        return newKind == tyCon.kind() ? tyCon : new TypeConstructor(tyCon.name(), newKind);
     }
 
     @Override
@@ -75,10 +85,19 @@ public class TypeSubstitutionTransformer implements TypeTransformer {
 
     @Override
     public TypeApply visitTypeApply(TypeApply tyApp) {
-        return new TypeApply(
-                tyApp.type().accept(this),
-                tyApp.typeArguments().collect(tyArg -> tyArg.accept(this)),
-                tyApp.kind().accept(kindTransformer));
+        if (!tyApp.containsUnsolved()) {
+            return tyApp;
+        }
+
+        var newType = tyApp.type().accept(this);
+        var newArgs = tyApp.typeArguments().collect(tyArg -> tyArg.accept(this));
+        var newKind = tyApp.kind().accept(kindTransformer);
+
+        if (newType == tyApp.type() && sameElements(newArgs, tyApp.typeArguments()) && newKind == tyApp.kind()) {
+            return tyApp;
+        }
+
+        return new TypeApply(newType, newArgs, newKind);
     }
 
     @Override
@@ -87,9 +106,17 @@ public class TypeSubstitutionTransformer implements TypeTransformer {
         if (!solution.equals(unsolved)) {
             return solution.accept(this);
         } else {
-            return new UnsolvedType(
-                    unsolved.id(),
-                    unsolved.kind().accept(kindTransformer));
+            var newKind = unsolved.kind().accept(kindTransformer);
+            return newKind == unsolved.kind() ? unsolved : new UnsolvedType(unsolved.id(), newKind);
+        }
+    }
+
+    static boolean sameElements(ImmutableList<? extends Type> left, ImmutableList<? extends Type> right) {
+        for (var i = 0; i < left.size(); i++) {
+            if (left.get(i) != right.get(i)) {
+                return false;
+            }
         }
+        return true;
     }
 }
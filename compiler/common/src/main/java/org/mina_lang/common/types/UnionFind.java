@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.common.types;
@@ -20,6 +20,11 @@ public class UnionFind<A> {
     private final MutableObjectIntMap<A> rank = ObjectIntMaps.mutable.empty();
     private final BinaryOperator<A> chooseRep;
 
+    // Counts of the operations performed, which are only kept while profiling the typechecker
+    private boolean countingOperations = false;
+    private long unionCount = 0;
+    private long findCount = 0;
+
     UnionFind(BinaryOperator<A> chooseRep) {
         this.chooseRep = chooseRep;
     }
@@ -120,7 +125,22 @@ public class UnionFind<A> {
         }
     }
 
+    public void countOperations() {
+        countingOperations = true;
+    }
+
+    public long unionCount() {
+        return unionCount;
+    }
+
+    public long findCount() {
+        return findCount;
+    }
+
     public A find(A element) {
+        if (countingOperations) {
+            findCount++;
+        }
         var elementParent = parent.getOrDefault(element, element);
         while (!element.equals(elementParent)) {
             var elementGrandparent = parent.getOrDefault(elementParent, elementParent);
@@ -141,6 +161,9 @@ public class UnionFind<A> {
     }
 
     public void union(A left, A right) {
+        if (countingOperations) {
+            unionCount++;
+        }
         A leftRoot = root(left);
         A rightRoot = root(right);
 
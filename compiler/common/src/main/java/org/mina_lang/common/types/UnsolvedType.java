@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.common.types;
@@ -12,6 +12,11 @@ public record UnsolvedType(int id, Kind kind) implements MonoType {
         return "?" + prefixChar + div;
     }
 
+    @Override
+    public boolean containsUnsolved() {
+        return true;
+    }
+
     @Override
     public void accept(TypeVisitor visitor) {
         visitor.visitUnsolvedType(this);
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.common.types;
@@ -9,12 +9,20 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class UnsolvedVariableSupply {
     private final AtomicInteger unsolvedType = new AtomicInteger();
     private final AtomicInteger unsolvedKind = new AtomicInteger();
+    // Type variable ids are shared with synthetic variables, so unsolved types are counted separately
+    private final AtomicInteger unsolvedTypeCount = new AtomicInteger();
+
+    public int unsolvedTypeCount() {
+        return unsolvedTypeCount.get();
+    }
 
     public UnsolvedType newUnsolvedType(Kind kind) {
+        unsolvedTypeCount.incrementAndGet();
         return new UnsolvedType(unsolvedType.getAndIncrement(), kind);
     }
 
     public UnsolvedType newUnsolvedType() {
+        unsolvedTypeCount.incrementAndGet();
         return new UnsolvedType(unsolvedType.getAndIncrement(), newUnsolvedKind());
     }
 
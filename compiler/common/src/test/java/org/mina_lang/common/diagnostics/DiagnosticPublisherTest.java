@@ -0,0 +1,147 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.common.diagnostics;
+
+import com.opencastsoftware.yvette.Range;
+import org.junit.jupiter.api.Test;
+import org.mina_lang.common.Location;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DiagnosticPublisherTest {
+    static final Location LOCATION = new Location(URI.create("file:///Mina/Test/Publisher.mina"), new Range(0, 0, 0, 1));
+
+    static class Collector extends BaseDiagnosticCollector {}
+
+    @Test
+    void deliversDiagnosticsReportedAfterSubscribing() throws Exception {
+        var collector = new Collector();
+        var received = new CopyOnWriteArrayList<String>();
+
+        collector.reportError(LOCATION, "Before subscribing");
+
+        var consumed = collector.onDiagnostics(batch -> batch.forEach(diagnostic -> received.add(diagnostic.message())));
+
+        for (var i = 0; i < 1000; i++) {
+            collector.reportWarning(LOCATION, "Warning " + i);
+        }
+
+        collector.complete();
+        consumed.get(10, TimeUnit.SECONDS);
+
+        var expected = new ArrayList<String>();
+        for (var i = 0; i < 1000; i++) {
+            expected.add("Warning " + i);
+        }
+
+        assertThat(received, is(equalTo(expected)));
+        assertThat(collector.getDiagnostics(), hasSize(1001));
+    }
+
+    @Test
+    void deliversOnReportingThreadByDefault() throws Exception {
+        var collector = new Collector();
+        var deliveryThreads = new CopyOnWriteArrayList<Thread>();
+
+        var consumed = collector.onDiagnostics(batch -> deliveryThreads.add(Thread.currentThread()));
+
+        collector.reportError(LOCATION, "Error");
+        collector.complete();
+        consumed.get(10, TimeUnit.SECONDS);
+
+        assertThat(deliveryThreads, contains(Thread.currentThread()));
+    }
+
+    @Test
+    void deliversOnSuppliedExecutor() throws Exception {
+        var executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "diagnostic-delivery"));
+        try {
+            var collector = new BaseDiagnosticCollector(executor) {};
+            var deliveryThreads = new CopyOnWriteArrayList<String>();
+
+            var consumed = collector.onDiagnostics(batch -> deliveryThreads.add(Thread.currentThread().getName()));
+
+            collector.reportError(LOCATION, "Error");
+            collector.complete();
+            consumed.get(10, TimeUnit.SECONDS);
+
+            assertThat(deliveryThreads, everyItem(is("diagnostic-delivery")));
+            assertThat(deliveryThreads, is(not(empty())));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void batchesDiagnosticsWhileSubscriberIsBusy() throws Exception {
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var collector = new BaseDiagnosticCollector(executor) {};
+            var batches = new CopyOnWriteArrayList<List<Diagnostic>>();
+
+            // Hold up the delivery thread so that diagnostics queue up behind it
+            var blocker = new CountDownLatch(1);
+            executor.execute(() -> {
+                try {
+                    blocker.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            var consumed = collector.onDiagnostics(batches::add);
+
+            for (var i = 0; i < 10; i++) {
+                collector.reportInfo(LOCATION, "Info " + i);
+            }
+
+            collector.complete();
+            blocker.countDown();
+            consumed.get(10, TimeUnit.SECONDS);
+
+            assertThat(batches, hasSize(1));
+            assertThat(batches.get(0), hasSize(10));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void completesExceptionallyWhenConsumerFails() {
+        var collector = new Collector();
+
+        var consumed = collector.onDiagnostics(batch -> {
+            throw new IllegalStateException("Consumer failed");
+        });
+
+        collector.reportHint(LOCATION, "Hint");
+        collector.complete();
+
+        var exception = assertThrows(CompletionException.class, consumed::join);
+        assertThat(exception.getCause(), is(instanceOf(IllegalStateException.class)));
+    }
+
+    @Test
+    void completesLateSubscribersImmediately() throws Exception {
+        var collector = new Collector();
+        collector.complete();
+
+        var received = new CopyOnWriteArrayList<Diagnostic>();
+        collector.onDiagnostics(received::addAll).get(10, TimeUnit.SECONDS);
+
+        assertThat(received, is(empty()));
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.common.types;
+
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.jupiter.api.Test;
+import org.mina_lang.common.names.NamespaceName;
+import org.mina_lang.common.names.QualifiedName;
+
+import java.util.function.BinaryOperator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TypeSubstitutionTransformerTest {
+
+    BinaryOperator<MonoType> chooseTypeConstant = (l, r) -> l instanceof UnsolvedType ? r : l;
+
+    BinaryOperator<Kind> chooseKindConstant = (l, r) -> l instanceof UnsolvedKind ? r : l;
+
+    TypeConstructor listType = new TypeConstructor(
+        new QualifiedName(new NamespaceName(Lists.immutable.of("Mina", "Test"), "Substitution"), "List"),
+        new HigherKind(TypeKind.INSTANCE, TypeKind.INSTANCE));
+
+    @Test
+    void tracksUnsolvedVariables() {
+        var unsolved = new UnsolvedType(0, TypeKind.INSTANCE);
+        var ground = Type.function(Type.INT, new TypeApply(listType, Lists.immutable.of(Type.STRING), TypeKind.INSTANCE));
+        var nonGround = Type.function(Type.INT, new TypeApply(listType, Lists.immutable.of(unsolved), TypeKind.INSTANCE));
+        var unsolvedKind = new TypeConstructor(listType.name(), new HigherKind(new UnsolvedKind(0), TypeKind.INSTANCE));
+
+        assertThat(ground.containsUnsolved(), is(false));
+        assertThat(nonGround.containsUnsolved(), is(true));
+        assertThat(unsolvedKind.containsUnsolved(), is(true));
+        assertThat(
+            new QuantifiedType(Lists.immutable.of(new ForAllVar("A", TypeKind.INSTANCE)), nonGround, TypeKind.INSTANCE).containsUnsolved(),
+            is(true));
+    }
+
+    @Test
+    void derivesUnsolvedVariablesFromContents() {
+        var unsolved = new UnsolvedType(0, TypeKind.INSTANCE);
+        var forAllA = new ForAllVar("A", TypeKind.INSTANCE);
+
+        var nonGround = new TypeApply(listType, Lists.immutable.of(unsolved), TypeKind.INSTANCE, false);
+        var ground = new TypeApply(listType, Lists.immutable.of(Type.STRING), TypeKind.INSTANCE, true);
+        var quantified = new QuantifiedType(Lists.immutable.of(forAllA), forAllA, TypeKind.INSTANCE, true);
+
+        assertThat(nonGround.containsUnsolved(), is(true));
+        assertThat(ground.containsUnsolved(), is(false));
+        assertThat(quantified.containsUnsolved(), is(false));
+
+        assertThat(ground, is(equalTo(new TypeApply(listType, Lists.immutable.of(Type.STRING), TypeKind.INSTANCE))));
+        assertThat(ground.hashCode(), is(new TypeApply(listType, Lists.immutable.of(Type.STRING), TypeKind.INSTANCE).hashCode()));
+        assertThat(quantified, is(equalTo(new QuantifiedType(Lists.immutable.of(forAllA), forAllA, TypeKind.INSTANCE))));
+    }
+
+    @Test
+    void returnsGroundTypesUnchanged() {
+        var unsolved = new UnsolvedType(0, TypeKind.INSTANCE);
+        var transformer = new TypeSubstitutionTransformer(
+            UnionFind.of(chooseTypeConstant, unsolved),
+            UnionFind.<Kind>of(chooseKindConstant));
+
+        var forAllA = new ForAllVar("A", TypeKind.INSTANCE);
+        var ground = new QuantifiedType(
+            Lists.immutable.of(forAllA),
+            Type.function(forAllA, new TypeApply(listType, Lists.immutable.of(forAllA), TypeKind.INSTANCE)),
+            TypeKind.INSTANCE);
+
+        assertThat(ground.accept(transformer), is(sameInstance(ground)));
+    }
+
+    @Test
+    void preservesSharedSubtrees() {
+        var unsolved = new UnsolvedType(0, TypeKind.INSTANCE);
+        var typeSubstitution = UnionFind.of(chooseTypeConstant, unsolved, Type.INT);
+        typeSubstitution.union(unsolved, Type.INT);
+
+        var transformer = new TypeSubstitutionTransformer(typeSubstitution, UnionFind.<Kind>of(chooseKindConstant));
+
+        var groundArg = new TypeApply(listType, Lists.immutable.of(Type.STRING), TypeKind.INSTANCE);
+        var function = Type.function(groundArg, unsolved);
+        var substituted = (TypeApply) function.accept(transformer);
+
+        assertThat(substituted, is(equalTo(Type.function(groundArg, Type.INT))));
+        assertThat(substituted.containsUnsolved(), is(false));
+        assertThat(substituted.type(), is(sameInstance(function.type())));
+        assertThat(substituted.typeArguments().get(0), is(sameInstance(groundArg)));
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.common.types;
@@ -39,6 +39,23 @@ public class UnionFindTest {
         }
     }
 
+    @Property
+    void countsOperationsOnlyWhenRequested(@ForAll("kinds") Kind left, @ForAll("kinds") Kind right) {
+        var unionFind = UnionFind.of(chooseKindConstant, left, right);
+
+        unionFind.union(left, right);
+        unionFind.find(left);
+        assertThat(unionFind.unionCount(), is(0L));
+        assertThat(unionFind.findCount(), is(0L));
+
+        unionFind.countOperations();
+        unionFind.union(left, right);
+        unionFind.find(left);
+        unionFind.find(right);
+        assertThat(unionFind.unionCount(), is(1L));
+        assertThat(unionFind.findCount(), is(2L));
+    }
+
     @Property
     void findReturnsSelfBeforeUnion(@ForAll("kinds") Kind kind) {
         var unionFind = UnionFind.of(chooseKindConstant, kind);
@@ -7,6 +7,9 @@ dependencies {
     // Syntax Tree Definitions
     api(project(":compiler:mina-compiler-syntax"))
 
+    // Escape Analysis
+    implementation(project(":compiler:mina-compiler-optimiser"))
+
     // Protobuf Serialization
     implementation(project(":compiler:mina-compiler-proto"))
 
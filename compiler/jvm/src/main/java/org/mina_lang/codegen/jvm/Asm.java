@@ -225,6 +225,27 @@ public class Asm {
         getterVisitor.endMethod();
     }
 
+    public static void emitBoxingFieldGetter(
+            ClassWriter classWriter,
+            Type constrType,
+            String fieldName,
+            Type fieldType,
+            Type boxedType) {
+        // Overrides the generic getter of a specialised field by delegating to its unboxed getter
+        var getterVisitor = new GeneratorAdapter(
+                ACC_PUBLIC + ACC_SYNTHETIC + ACC_BRIDGE,
+                new Method(fieldName, Type.getMethodDescriptor(boxedType)),
+                null,
+                null,
+                classWriter);
+
+        getterVisitor.loadThis();
+        getterVisitor.invokeVirtual(constrType, new Method(fieldName, Type.getMethodDescriptor(fieldType)));
+        getterVisitor.box(fieldType);
+        getterVisitor.returnValue();
+        getterVisitor.endMethod();
+    }
+
     public static void emitObjectBootstrapMethod(
             String methodName,
             Type returnType,
@@ -234,6 +255,28 @@ public class Asm {
             String thisSignature,
             String methodSignature,
             ImmutableList<ConstructorParamNode<Attributes>> constrParams) {
+        emitObjectBootstrapMethod(
+                methodName,
+                returnType,
+                argTypes,
+                classWriter,
+                constrType,
+                thisSignature,
+                methodSignature,
+                constrParams,
+                false);
+    }
+
+    public static void emitObjectBootstrapMethod(
+            String methodName,
+            Type returnType,
+            ImmutableList<Type> argTypes,
+            ClassWriter classWriter,
+            Type constrType,
+            String thisSignature,
+            String methodSignature,
+            ImmutableList<ConstructorParamNode<Attributes>> constrParams,
+            boolean virtualGetters) {
 
         var methodDescriptor = Type.getMethodDescriptor(
                 returnType,
@@ -272,12 +315,20 @@ public class Asm {
                         constrParams.collect(ConstructorParamNode::name).makeString(";")) // names
                         .newWithAll(
                                 constrParams.collect(param -> {
-                                    return new Handle(
-                                            H_GETFIELD,
-                                            constrType.getInternalName(),
-                                            param.name(),
-                                            Types.asmType(param).getDescriptor(),
-                                            false); // getters
+                                    // Virtual getters see the unboxed fields of specialised subclasses
+                                    return virtualGetters
+                                            ? new Handle(
+                                                    H_INVOKEVIRTUAL,
+                                                    constrType.getInternalName(),
+                                                    param.name(),
+                                                    Type.getMethodDescriptor(Types.asmType(param)),
+                                                    false)
+                                            : new Handle(
+                                                    H_GETFIELD,
+                                                    constrType.getInternalName(),
+                                                    param.name(),
+                                                    Types.asmType(param).getDescriptor(),
+                                                    false); // getters
                                 }))
                         .toArray());
 
@@ -338,6 +389,17 @@ public class Asm {
                 false);
     }
 
+    public static void pushDefaultValue(GeneratorAdapter methodWriter, Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN -> methodWriter.push(false);
+            case Type.CHAR, Type.BYTE, Type.SHORT, Type.INT -> methodWriter.push(0);
+            case Type.LONG -> methodWriter.push(0L);
+            case Type.FLOAT -> methodWriter.push(0F);
+            case Type.DOUBLE -> methodWriter.push(0D);
+            default -> methodWriter.visitInsn(ACONST_NULL);
+        }
+    }
+
     public static void boxUnboxArgExpr(
             GeneratorAdapter methodWriter,
             org.mina_lang.common.types.Type interfaceType,
@@ -0,0 +1,192 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.codegen.jvm;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Writes class files into a destination directory on a small pool of background threads.
+// The queue of pending writes is bounded, so code generation runs the write
+// itself when the writers fall behind rather than buffering every class in memory.
+// The namespaces which are written are added to the directory's namespace index once every class is written.
+// Alternatively the writes can be handed to a caller-provided executor, such as one which starts a virtual thread
+// per file, in which case the number of writes in flight is bounded by a semaphore instead of a queue.
+public class ClassFileWriter implements ClassOutput {
+    private static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    // Separate compilations may write into the same directory, so updates to its index are serialized
+    private static final Object indexLock = new Object();
+
+    private final Path destination;
+    private final double verificationRate;
+    private final ConcurrentHashMap<Path, Path> createdDirectories = new ConcurrentHashMap<>();
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+    private final ConcurrentLinkedQueue<NamespaceIndex.Entry> indexEntries = new ConcurrentLinkedQueue<>();
+    private final Executor executor;
+
+    // Only used when writing on a caller-provided executor
+    private final Semaphore writePermits;
+    private final int maxConcurrentWrites;
+
+    public ClassFileWriter(Path destination, double verificationRate) {
+        this(destination, verificationRate, Math.min(4, Runtime.getRuntime().availableProcessors()), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public ClassFileWriter(Path destination, double verificationRate, int writerThreads, int queueCapacity) {
+        var threadId = new AtomicInteger(0);
+        this.destination = destination;
+        this.verificationRate = verificationRate;
+        this.executor = new ThreadPoolExecutor(
+                writerThreads, writerThreads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "mina-class-writer-" + threadId.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.writePermits = null;
+        this.maxConcurrentWrites = 0;
+    }
+
+    public ClassFileWriter(Path destination, double verificationRate, Executor ioExecutor, int maxConcurrentWrites) {
+        // Without any permits the first write would wait forever
+        if (maxConcurrentWrites < 1) {
+            throw new IllegalArgumentException("The number of concurrent writes must be at least 1, but got " + maxConcurrentWrites);
+        }
+        this.destination = destination;
+        this.verificationRate = verificationRate;
+        this.executor = ioExecutor;
+        this.writePermits = new Semaphore(maxConcurrentWrites);
+        this.maxConcurrentWrites = maxConcurrentWrites;
+    }
+
+    @Override
+    public void write(Path classFile, byte[] classData) {
+        var path = destination.resolve(classFile);
+        if (writePermits != null) {
+            // Blocks code generation until one of the writes in flight completes
+            writePermits.acquireUninterruptibly();
+        }
+        executor.execute(() -> {
+            try {
+                if (ClassOutput.shouldVerify(verificationRate)) {
+                    ClassOutput.verify(path, classData);
+                }
+                createDirectories(path.getParent());
+                Files.write(path, classData);
+                var indexEntry = NamespaceIndex.locate(path, classData);
+                if (indexEntry != null) {
+                    indexEntries.add(indexEntry);
+                }
+            } catch (IOException e) {
+                recordFailure(e);
+            } catch (UncheckedIOException e) {
+                recordFailure(e.getCause());
+            } finally {
+                if (writePermits != null) {
+                    writePermits.release();
+                }
+            }
+        });
+    }
+
+    void recordFailure(IOException exception) {
+        if (!failure.compareAndSet(null, exception)) {
+            failure.get().addSuppressed(exception);
+        }
+    }
+
+    void createDirectories(Path directory) {
+        // Each package directory is created once, by the first class written into it
+        createdDirectories.computeIfAbsent(directory, dir -> {
+            try {
+                return Files.createDirectories(dir);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            awaitWrites();
+        } catch (InterruptedException e) {
+            abort();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing class files", e);
+        }
+
+        var exception = failure.get();
+        if (exception != null) {
+            throw exception;
+        }
+
+        if (!indexEntries.isEmpty()) {
+            updateIndex();
+        }
+    }
+
+    void awaitWrites() throws InterruptedException {
+        if (writePermits == null) {
+            var writerPool = (ExecutorService) executor;
+            writerPool.shutdown();
+            while (!writerPool.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Keep waiting for slow filesystems
+            }
+        } else {
+            // Every permit is free once the writes in flight have completed
+            writePermits.acquire(maxConcurrentWrites);
+            writePermits.release(maxConcurrentWrites);
+        }
+    }
+
+    // Entries for namespaces whose classes have since been deleted are dropped from the index
+    void updateIndex() throws IOException {
+        var indexFile = destination.resolve(NamespaceIndex.RESOURCE_NAME);
+
+        synchronized (indexLock) {
+            var index = NamespaceIndex.empty();
+
+            if (Files.exists(indexFile)) {
+                try (var indexData = Files.newInputStream(indexFile)) {
+                    var existingIndex = NamespaceIndex.read(indexData);
+                    if (existingIndex != null) {
+                        index = existingIndex.select(entry -> Files.exists(destination.resolve(entry.classResource())));
+                    }
+                } catch (IOException e) {
+                    // The index is rebuilt from the classes that we have written
+                }
+            }
+
+            Files.createDirectories(indexFile.getParent());
+
+            // Replace the index atomically so that readers never see a partially written index
+            var tempFile = Files.createTempFile(indexFile.getParent(), "namespaces", ".idx");
+            try {
+                Files.write(tempFile, index.withEntries(indexEntries).toBytes());
+                Files.move(tempFile, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+    }
+
+    @Override
+    public void abort() {
+        // Writes on a caller-provided executor are left to finish, as it may be shared with other work
+        if (writePermits == null) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.codegen.jvm;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.util.CheckClassAdapter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+
+// A destination for the class files emitted by code generation.
+// Class files are written from many code generation threads at once,
+// and their paths are relative to the root of the output.
+public interface ClassOutput extends AutoCloseable {
+    void write(Path classFile, byte[] classData);
+
+    // Waits for the pending writes to complete, reporting the first failure
+    @Override
+    void close() throws IOException;
+
+    // Discards any writes which have not started yet
+    void abort();
+
+    // Destinations ending in .jar are written as a single jar, otherwise class files are written into a directory
+    static ClassOutput open(Path destination, CodegenOptions options) {
+        if (isJar(destination)) {
+            try {
+                return new JarClassWriter(destination, options.storeJarEntries(), options.verificationRate());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to open jar " + destination, e);
+            }
+        } else {
+            return new ClassFileWriter(destination, options.verificationRate());
+        }
+    }
+
+    static boolean isJar(Path destination) {
+        var fileName = destination.getFileName();
+        return fileName != null && fileName.toString().endsWith(".jar");
+    }
+
+    static boolean shouldVerify(double verificationRate) {
+        return verificationRate >= 1.0 ||
+            (verificationRate > 0.0 && ThreadLocalRandom.current().nextDouble() < verificationRate);
+    }
+
+    static void verify(Path path, byte[] classData) {
+        try {
+            var verifier = new ClassReader(classData);
+            var verifyWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+            var verifyAdapter = new CheckClassAdapter(verifyWriter, true);
+            verifier.accept(verifyAdapter, 0);
+        } catch (Exception e) {
+            System.err.printf("Exception while verifying class data for %s - %s%n", path, e);
+            e.printStackTrace(System.err);
+        }
+    }
+}
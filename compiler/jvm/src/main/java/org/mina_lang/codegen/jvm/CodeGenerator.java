@@ -1,13 +1,20 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.codegen.jvm;
 
 import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.multimap.list.MutableListMultimap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.api.tuple.Pair;
 import org.eclipse.collections.impl.factory.Lists;
 import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.factory.Multimaps;
+import org.eclipse.collections.impl.factory.Sets;
+import org.eclipse.collections.impl.tuple.Tuples;
 import org.mina_lang.codegen.jvm.scopes.*;
 import org.mina_lang.common.Attributes;
 import org.mina_lang.common.Meta;
@@ -17,77 +24,78 @@ import org.mina_lang.common.operators.BinaryOp;
 import org.mina_lang.common.operators.UnaryOp;
 import org.mina_lang.common.types.Sort;
 import org.mina_lang.common.types.TypeApply;
+import org.mina_lang.optimiser.EscapeAnalysis;
+import org.mina_lang.optimiser.KnownCalls;
 import org.mina_lang.proto.ProtobufWriter;
 import org.mina_lang.syntax.*;
 import org.objectweb.asm.*;
 import org.objectweb.asm.commons.GeneratorAdapter;
 import org.objectweb.asm.commons.Method;
-import org.objectweb.asm.util.CheckClassAdapter;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
 import static org.mina_lang.syntax.SyntaxNodes.*;
-import static org.objectweb.asm.Opcodes.H_INVOKESTATIC;
+import static org.objectweb.asm.Opcodes.*;
 
 public class CodeGenerator {
     CodegenEnvironment environment = CodegenEnvironment.empty();
 
+    CodegenOptions options;
+
     ProtobufWriter protobufWriter = new ProtobufWriter();
 
     MutableMap<Named, byte[]> classes = Maps.mutable.empty();
 
+    MutableMap<LetName, ImmutableList<TailCalls.TopLevelFunction>> tailCallGroups = Maps.mutable.empty();
+
+    MutableSet<LetName> generatedTailCallGroupMembers = Sets.mutable.empty();
+
+    MutableListMultimap<ConstructorName, Specialisations.Specialisation> specialisations = Multimaps.mutable.list.empty();
+
+    public CodeGenerator() {
+        this(CodegenOptions.defaults());
+    }
+
+    public CodeGenerator(CodegenOptions options) {
+        this.options = options;
+    }
+
     public void generate(Path destination, NamespaceNode<Attributes> namespace) throws IOException {
+        try (var classOutput = ClassOutput.open(destination, options)) {
+            generate(classOutput, namespace);
+        }
+    }
+
+    // Returns the paths of the class files which are written for the namespace,
+    // relative to the root of the class output
+    public ImmutableList<Path> generate(ClassOutput classOutput, NamespaceNode<Attributes> namespace) {
         generateNamespace(namespace);
 
+        MutableList<Path> classFiles = Lists.mutable.empty();
+        var root = Path.of("");
+
         classes.forEachKeyValue((name, classData) -> {
+            Path classPath = null;
             if (name instanceof NamespaceName nsName) {
-                var path = Paths.namespacePath(destination, nsName);
-                try {
-                    if (!Files.exists(path.getParent())) {
-                        Files.createDirectories(path.getParent());
-                    }
-                    Files.write(path, classData);
-                } catch (IOException e) {
-                    System.err.printf("Exception while writing class data to %s - %s%n", path, e);
-                }
+                classPath = Paths.namespacePath(root, nsName);
             } else if (name instanceof DataName dataName) {
-                var path = Paths.dataPath(destination, dataName);
-                try {
-                    if (!Files.exists(path.getParent())) {
-                        Files.createDirectories(path.getParent());
-                    }
-                    Files.write(path, classData);
-                } catch (IOException e) {
-                    System.err.printf("Exception while writing class data to %s - %s%n", path, e);
-                }
+                classPath = Paths.dataPath(root, dataName);
             } else if (name instanceof ConstructorName constrName) {
-                var path = Paths.constructorPath(destination, constrName);
-                try {
-                    if (!Files.exists(path.getParent())) {
-                        Files.createDirectories(path.getParent());
-                    }
-                    Files.write(path, classData);
-                } catch (IOException e) {
-                    System.err.printf("Exception while writing class data to %s - %s%n", path, e);
-                }
+                classPath = Paths.constructorPath(root, constrName);
             }
-
-            try {
-                var verifier = new ClassReader(classData);
-                var verifyWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
-                var verifyAdapter = new CheckClassAdapter(verifyWriter, true);
-                verifier.accept(verifyAdapter, 0);
-            } catch (Exception e) {
-                System.err.printf("Exception while verifying class data - %s%n", e);
-                e.printStackTrace(System.err);
+            if (classPath != null) {
+                classOutput.write(classPath, classData);
+                classFiles.add(classPath);
             }
         });
+
+        return classFiles.toImmutable();
     }
 
     Meta<Attributes> updateMetaWith(Meta<Attributes> meta, Sort sort) {
@@ -167,6 +175,18 @@ public class CodeGenerator {
         withScope(NamespaceGenScope.open(namespace, protobufWriter), namespaceScope -> {
             populateTopLevel(namespace);
 
+            if (options.mutualTailCalls()) {
+                TailCalls.mutualTailCallGroups(TailCalls.topLevelFunctions(namespace)).forEach(group -> {
+                    group.forEach(fn -> tailCallGroups.put(fn.name(), group));
+                });
+            }
+
+            if (options.specialiseConstructors()) {
+                Specialisations.collect(namespace).forEach(specialisation -> {
+                    specialisations.put(specialisation.constrName(), specialisation);
+                });
+            }
+
             namespace.declarationGroups()
                     .forEach(decls -> decls.forEach(this::generateDeclaration));
 
@@ -177,7 +197,14 @@ public class CodeGenerator {
     }
 
     public void generateDeclaration(DeclarationNode<Attributes> declaration) {
-        if (declaration instanceof DataNode<Attributes> data) {
+        var tailCallGroup = tailCallGroups.get(Names.getName(declaration));
+        if (tailCallGroup != null) {
+            // The whole group is generated when we reach its first member
+            if (!generatedTailCallGroupMembers.contains(Names.getName(declaration))) {
+                tailCallGroup.forEach(fn -> generatedTailCallGroupMembers.add(fn.name()));
+                generateTailCallGroup(tailCallGroup);
+            }
+        } else if (declaration instanceof DataNode<Attributes> data) {
             generateData(data);
         } else if (declaration instanceof LetFnNode<Attributes> letFn) {
             generateTopLevelLetFn(letFn);
@@ -198,11 +225,19 @@ public class CodeGenerator {
 
     public void generateConstructor(ConstructorNode<Attributes> constr) {
         var dataScope = environment.enclosingData().get();
+        var constrSpecialisations = specialisations.get((ConstructorName) Names.getName(constr));
+        var specialised = constrSpecialisations.notEmpty();
 
-        withScope(ConstructorGenScope.open(constr, dataScope.data()), constrScope -> {
+        withScope(ConstructorGenScope.open(constr, dataScope.data(), specialised), constrScope -> {
             dataScope.classWriter()
                     .visitPermittedSubclass(constrScope.constrType().getInternalName());
 
+            // Specialised constructors only permit their primitive specialisations as subclasses
+            constrSpecialisations.forEach(specialisation -> {
+                constrScope.classWriter()
+                        .visitPermittedSubclass(specialisation.specialisedType().getInternalName());
+            });
+
             constr.params()
                     .forEachWithIndex(this::generateConstructorParam);
 
@@ -214,7 +249,8 @@ public class CodeGenerator {
                     constrScope.constrType(),
                     JavaSignature.forConstructorInstance(constr),
                     null,
-                    constr.params());
+                    constr.params(),
+                    specialised);
 
             Asm.emitObjectBootstrapMethod(
                     "hashCode",
@@ -224,7 +260,8 @@ public class CodeGenerator {
                     constrScope.constrType(),
                     JavaSignature.forConstructorInstance(constr),
                     null,
-                    constr.params());
+                    constr.params(),
+                    specialised);
 
             Asm.emitObjectBootstrapMethod(
                     "toString",
@@ -234,12 +271,82 @@ public class CodeGenerator {
                     constrScope.constrType(),
                     JavaSignature.forConstructorInstance(constr),
                     null,
-                    constr.params());
+                    constr.params(),
+                    specialised);
 
             classes.put(
                     Names.getName(constr),
                     constrScope.finaliseConstructor());
         });
+
+        constrSpecialisations.forEach(this::generateConstructorSpecialisation);
+    }
+
+    public void generateConstructorSpecialisation(Specialisations.Specialisation specialisation) {
+        var constrType = Types.getConstructorAsmType(specialisation.constrName());
+        var specialisedType = specialisation.specialisedType();
+        var classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+
+        // Visit a subclass of the constructor class with unboxed fields
+        classWriter.visit(
+                V17,
+                ACC_PUBLIC + ACC_FINAL + ACC_SUPER,
+                specialisedType.getInternalName(),
+                null,
+                constrType.getInternalName(),
+                null);
+
+        var initWriter = new GeneratorAdapter(
+                ACC_PUBLIC,
+                new Method("<init>", Type.VOID_TYPE, specialisation.specialisedArgTypes()),
+                null,
+                null,
+                classWriter);
+
+        specialisation.fieldNames().forEach(fieldName -> initWriter.visitParameter(fieldName, ACC_FINAL));
+
+        // The superclass fields of specialised params are left empty. They are private and are never read,
+        // as every access to them goes through the accessors which are overridden below.
+        initWriter.loadThis();
+        specialisation.fieldNames().forEachWithIndex((fieldName, index) -> {
+            if (specialisation.isSpecialised(index)) {
+                Asm.pushDefaultValue(initWriter, Types.asmType(specialisation.genericFieldTypes().get(index)));
+            } else {
+                initWriter.loadArg(index);
+            }
+        });
+        initWriter.invokeConstructor(constrType, new Method("<init>", Type.VOID_TYPE, specialisation.genericArgTypes()));
+
+        specialisation.fieldNames().forEachWithIndex((fieldName, index) -> {
+            if (specialisation.isSpecialised(index)) {
+                var fieldType = Types.asmType(specialisation.fieldTypes().get(index));
+                var genericFieldType = Types.asmType(specialisation.genericFieldTypes().get(index));
+
+                Asm.emitConstructorField(classWriter, initWriter, specialisedType, index, fieldName, fieldType, null);
+                Asm.emitFieldGetter(classWriter, specialisedType, fieldName, fieldType, null, null);
+                Asm.emitBoxingFieldGetter(classWriter, specialisedType, fieldName, fieldType, genericFieldType);
+            }
+        });
+
+        initWriter.returnValue();
+        initWriter.endMethod();
+
+        classWriter.visitEnd();
+
+        classes.put(specialisation.specialisedName(), classWriter.toByteArray());
+    }
+
+    Optional<Specialisations.Specialisation> lookupSpecialisation(
+            ConstructorName constrName,
+            org.mina_lang.common.types.Type constrType,
+            org.mina_lang.common.types.Type instantiatedType) {
+        if (specialisations.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Specialisations.specialisedFieldTypes(constrType, instantiatedType)
+                .flatMap(fieldTypes -> specialisations.get(constrName)
+                        .detectOptional(specialisation -> specialisation.fieldTypes().equals(fieldTypes)));
     }
 
     public void generateConstructorParam(ConstructorParamNode<Attributes> param, int paramIndex) {
@@ -251,9 +358,11 @@ public class CodeGenerator {
         var paramType = Types.asmType(paramMinaType);
         var paramSignature = JavaSignature.forType(paramMinaType);
 
-        classWriter
-                .visitRecordComponent(param.name(), paramType.getDescriptor(), paramSignature)
-                .visitEnd();
+        if (constructor.isRecord()) {
+            classWriter
+                    .visitRecordComponent(param.name(), paramType.getDescriptor(), paramSignature)
+                    .visitEnd();
+        }
 
         Asm.emitConstructorField(
                 classWriter,
@@ -282,6 +391,147 @@ public class CodeGenerator {
         });
     }
 
+    public void generateTailCallGroup(ImmutableList<TailCalls.TopLevelFunction> group) {
+        var namespace = environment.enclosingNamespace().get();
+        var namespaceWriter = namespace.classWriter();
+
+        // The functions of the group share a single method so that their tail calls
+        // to each other can be compiled into jumps. The first argument of the method
+        // selects the function to enter, followed by the parameters of every function.
+        MutableList<Integer> paramOffsets = Lists.mutable.empty();
+        var nextParamOffset = 1;
+        for (var fn : group) {
+            paramOffsets.add(nextParamOffset);
+            nextParamOffset += fn.params().size();
+        }
+
+        var groupArgTypes = Lists.immutable.of(Type.INT_TYPE)
+                .newWithAll(group.flatCollect(fn -> fn.params().collect(Types::asmType)));
+
+        var groupWriter = Asm.methodWriter(
+                ACC_PRIVATE + ACC_STATIC + ACC_SYNTHETIC,
+                "tailcalls$" + group.getFirst().name().localName(),
+                group.getFirst().body(),
+                groupArgTypes,
+                null,
+                namespaceWriter);
+
+        var groupMethod = new Method(
+                groupWriter.getName(),
+                groupWriter.getReturnType(),
+                groupWriter.getArgumentTypes());
+
+        var startLabel = new Label();
+        var endLabel = new Label();
+        var invalidEntryLabel = new Label();
+        var entryLabels = group.collect(fn -> new Label());
+
+        var tailCallTargets = group.collectWithIndex((fn, index) -> {
+            var paramOffset = paramOffsets.get(index);
+            return Tuples.pair(
+                    fn.name(),
+                    new TailCallTarget(
+                            entryLabels.get(index),
+                            fn.params().collectWithIndex((param, paramIndex) -> paramOffset + paramIndex),
+                            fn.params().collect(Types::getType)));
+        }).toImmutableMap(Pair::getOne, Pair::getTwo);
+
+        groupWriter.visitParameter("entry", ACC_FINAL + ACC_SYNTHETIC);
+        group.forEach(fn -> {
+            fn.params().forEach(param -> groupWriter.visitParameter(param.name(), ACC_FINAL));
+        });
+
+        groupWriter.visitCode();
+        groupWriter.visitLabel(startLabel);
+        groupWriter.loadArg(0);
+        groupWriter.visitTableSwitchInsn(
+                0, group.size() - 1,
+                invalidEntryLabel,
+                entryLabels.toArray(new Label[group.size()]));
+
+        var nextLambdaId = new AtomicInteger(0);
+
+        group.forEachWithIndex((fn, index) -> {
+            var paramOffset = paramOffsets.get(index);
+
+            var methodParams = fn.params().collectWithIndex((param, paramIndex) -> {
+                var paramMinaType = Types.getType(param);
+                return Tuples.pair(
+                        Names.getName(param),
+                        new LocalVar(
+                                ACC_FINAL,
+                                paramOffset + paramIndex,
+                                param.name(),
+                                Types.asmType(paramMinaType).getDescriptor(),
+                                JavaSignature.forType(paramMinaType),
+                                startLabel,
+                                endLabel));
+            }).toImmutableMap(Pair::getOne, Pair::getTwo);
+
+            groupWriter.visitLabel(entryLabels.get(index));
+
+            var letScope = new TopLevelLetGenScope(
+                    groupWriter, startLabel, endLabel, methodParams, nextLambdaId,
+                    tailCallTargets, TailCalls.tailApplications(fn.body()));
+
+            withScope(letScope, scope -> {
+                generateExpr(fn.body());
+                groupWriter.returnValue();
+            });
+        });
+
+        // The entry methods only ever pass valid indices
+        groupWriter.visitLabel(invalidEntryLabel);
+        groupWriter.throwException(Type.getType(IllegalStateException.class), "Invalid tail call group entry");
+
+        groupWriter.visitLabel(endLabel);
+
+        var paramSlot = Type.INT_TYPE.getSize();
+        for (var fn : group) {
+            for (var param : fn.params()) {
+                var paramMinaType = Types.getType(param);
+                var paramType = Types.asmType(paramMinaType);
+                groupWriter.getDelegate().visitLocalVariable(
+                        param.name(),
+                        paramType.getDescriptor(),
+                        JavaSignature.forType(paramMinaType),
+                        startLabel,
+                        endLabel,
+                        paramSlot);
+                paramSlot += paramType.getSize();
+            }
+        }
+
+        groupWriter.endMethod();
+
+        // Each function keeps a static method with its usual descriptor which enters the group
+        group.forEachWithIndex((fn, index) -> {
+            var entryWriter = Asm.methodWriter(
+                    fn.name().localName(),
+                    fn.body(),
+                    fn.params().collect(Types::asmType),
+                    JavaSignature.forMethod(fn.declaration()),
+                    namespaceWriter);
+
+            fn.params().forEach(param -> entryWriter.visitParameter(param.name(), ACC_FINAL));
+
+            entryWriter.visitCode();
+            entryWriter.push(index);
+
+            group.forEach(member -> {
+                if (member == fn) {
+                    entryWriter.loadArgs();
+                } else {
+                    member.params().forEach(param -> Asm.pushDefaultValue(entryWriter, Types.asmType(param)));
+                }
+            });
+
+            entryWriter.invokeStatic(namespace.namespaceType(), groupMethod);
+            entryWriter.returnValue();
+            entryWriter.endMethod();
+        });
+    }
+
     public void generateTopLevelLet(LetNode<Attributes> let) {
         var namespace = environment.enclosingNamespace().get();
         var namespaceWriter = namespace.classWriter();
@@ -290,6 +540,27 @@ public class CodeGenerator {
         if (let.expr() instanceof LambdaNode<Attributes> lambda) {
             withScope(TopLevelLetGenScope.open(let, lambda, namespaceWriter), letScope -> {
                 generateExpr(lambda.body());
+                letScope.finaliseLet();
+            });
+        } else if (org.mina_lang.common.types.Type.isFunction(Types.getUnderlyingType(let)) &&
+                KnownCalls.knownCallee(let.expr(), name -> Optional.empty()).isPresent()) {
+            // When an eta-reduced function refers to a known function, we can
+            // generate an entry point which calls it directly.
+            withScope(TopLevelLetGenScope.open(let, namespaceWriter), letScope -> {
+                var funType = (TypeApply) Types.getUnderlyingType(let);
+                var knownCallee = KnownCalls.knownCallee(let.expr(), name -> Optional.empty()).get();
+
+                var paramRefs = funType.typeArguments()
+                        .take(funType.typeArguments().size() - 1)
+                        .collectWithIndex((paramTy, index) -> {
+                            var paramName = new LocalName("arg" + index, 0);
+                            return (ExprNode<Attributes>) refNode(Meta.of(paramName, paramTy), "arg" + index);
+                        });
+
+                var applyMeta = let.meta().withMeta(Attributes.nameless(funType.typeArguments().getLast()));
+
+                generateExpr(applyNode(applyMeta, knownCallee.callee(), knownCallee.appliedArgs(paramRefs)));
+
                 letScope.finaliseLet();
             });
         } else if (org.mina_lang.common.types.Type.isFunction(Types.getUnderlyingType(let))) {
@@ -387,12 +658,22 @@ public class CodeGenerator {
         var namespaceWriter = namespace.classWriter();
 
         if (expr instanceof BlockNode<Attributes> block) {
-            withScope(BlockGenScope.open(method, block), blockScope -> {
+            var nonEscapingLambdas = EscapeAnalysis.nonEscapingLambdas(block);
+
+            withScope(BlockGenScope.open(method, block, nonEscapingLambdas), blockScope -> {
                 block.declarations().forEach(decl -> {
                     var declName = Names.getName(decl);
-                    var localVar = blockScope.localVars().get(declName);
-                    generateExpr(decl.expr());
-                    method.methodWriter().storeLocal(localVar.index());
+                    if (nonEscapingLambdas.contains(declName) && decl.expr() instanceof LambdaNode<Attributes> lambda) {
+                        // Lambdas which are only applied directly are lifted without allocating a closure
+                        blockScope.liftedLambdas().put(declName, generateLiftedLambda(lambda));
+                    } else {
+                        var localVar = blockScope.localVars().get(declName);
+                        generateExpr(decl.expr());
+                        method.methodWriter().storeLocal(localVar.index());
+                        // Remember aliases of known functions so that they can be called directly
+                        KnownCalls.knownCallee(decl.expr(), name -> environment.lookupKnownCalleeIn(method.methodWriter(), name))
+                                .ifPresent(callee -> blockScope.knownCallees().put(declName, callee));
+                    }
                 });
 
                 block.result().ifPresentOrElse(this::generateExpr, () -> {
@@ -517,6 +798,16 @@ public class CodeGenerator {
                 appliedArgs = apply.args();
             }
 
+            // Call local aliases of known functions directly
+            var knownCall = KnownCalls.knownLocalCall(
+                    appliedExpr, appliedArgs,
+                    name -> environment.lookupKnownCalleeIn(method.methodWriter(), name));
+
+            if (knownCall.isPresent()) {
+                appliedExpr = knownCall.get().callee();
+                appliedArgs = knownCall.get().appliedArgs(appliedArgs);
+            }
+
             Name appliedName = appliedExpr.meta().meta().name();
             TypeApply appliedType = (TypeApply) Types.getUnderlyingType(appliedExpr);
 
@@ -526,7 +817,13 @@ public class CodeGenerator {
                     .collect(Types::asmType)
                     .toArray(new Type[appliedType.typeArguments().size() - 1]);
 
-            if (appliedName instanceof LetName letName) {
+            var tailCallTarget = environment.enclosingTopLevelLet()
+                    .filter(letScope -> letScope == method)
+                    .flatMap(letScope -> letScope.tailCallTarget(apply));
+
+            if (tailCallTarget.isPresent()) {
+                generateTailCall(appliedArgs, tailCallTarget.get());
+            } else if (appliedName instanceof LetName letName) {
                 var namespaceName = letName.name().ns();
                 var declarationName = letName.name().name();
                 var ownerType = Types.getNamespaceAsmType(namespaceName);
@@ -540,16 +837,28 @@ public class CodeGenerator {
                 Asm.boxUnboxReturnValue(method.methodWriter(), appliedType.typeArguments().getLast(), applyType);
 
             } else if (appliedName instanceof ConstructorName constrName) {
-                var constrType = Types.getConstructorAsmType(constrName);
+                var specialisation = lookupSpecialisation(constrName, Types.getType(appliedExpr), applyType);
+
+                var constrType = specialisation
+                        .map(Specialisations.Specialisation::specialisedType)
+                        .orElseGet(() -> Types.getConstructorAsmType(constrName));
+
+                var constrArgTypes = specialisation
+                        .map(Specialisations.Specialisation::specialisedArgTypes)
+                        .orElse(funArgTypes);
+
+                var constrArgMinaTypes = specialisation
+                        .map(Specialisations.Specialisation::fieldTypes)
+                        .orElseGet(appliedType::typeArguments);
 
                 method.methodWriter().newInstance(constrType);
                 method.methodWriter().dup();
 
                 appliedArgs
-                        .zip(appliedType.typeArguments())
+                        .zip(constrArgMinaTypes)
                         .forEach(pair -> generateArgExpr(pair.getOne(), pair.getTwo()));
 
-                method.methodWriter().invokeConstructor(constrType, new Method("<init>", Type.VOID_TYPE, funArgTypes));
+                method.methodWriter().invokeConstructor(constrType, new Method("<init>", Type.VOID_TYPE, constrArgTypes));
                 // Not exactly necessary - this is here to upcast constructors into their parent
                 // data type.
                 // It was added to avoid a case in the ASM verifier which requires the generated
@@ -557,6 +866,20 @@ public class CodeGenerator {
                 // checks).
                 method.methodWriter().checkCast(Types.getDataAsmType(constrName.enclosing()));
 
+            } else if (appliedName instanceof LocalName localName &&
+                    environment.lookupLiftedLambdaIn(method.methodWriter(), localName).isPresent()) {
+                var liftedLambda = environment.lookupLiftedLambdaIn(method.methodWriter(), localName).get();
+                // Pass the captured variables as leading arguments
+                liftedLambda.freeVariables().forEach(this::generateExpr);
+
+                appliedArgs
+                        .zip(liftedLambda.lambda().params())
+                        .forEach(pair -> generateArgExpr(pair.getOne(), Types.getType(pair.getTwo())));
+
+                method.methodWriter().invokeStatic(namespace.namespaceType(), liftedLambda.method());
+
+                Asm.boxUnboxReturnValue(method.methodWriter(), Types.getType(liftedLambda.lambda().body()), applyType);
+
             } else if (appliedName.equals(Nameless.INSTANCE) || appliedName instanceof LocalName) {
                 generateExpr(appliedExpr);
 
@@ -678,6 +1001,39 @@ public class CodeGenerator {
         }
     }
 
+    public LiftedLambda generateLiftedLambda(LambdaNode<Attributes> lambda) {
+        var namespace = environment.enclosingNamespace().get();
+        var enclosingLifter = environment.enclosingLambdaLifter().get();
+
+        var lambdaScope = LambdaGenScope.open(enclosingLifter, lambda, namespace.classWriter());
+
+        withScope(lambdaScope, scope -> {
+            generateExpr(lambda.body());
+            scope.finaliseLambda();
+        });
+
+        var liftedMethod = new Method(
+                lambdaScope.methodWriter().getName(),
+                lambdaScope.methodWriter().getReturnType(),
+                lambdaScope.methodWriter().getArgumentTypes());
+
+        return new LiftedLambda(liftedMethod, lambdaScope.freeVariables(), lambda);
+    }
+
+    public void generateTailCall(ImmutableList<ExprNode<Attributes>> args, TailCallTarget target) {
+        var method = environment.enclosingJavaMethod().get();
+
+        args.zip(target.paramTypes())
+                .forEach(pair -> generateArgExpr(pair.getOne(), pair.getTwo()));
+
+        // The arguments are all evaluated before any parameter is overwritten
+        target.paramIndices()
+                .asReversed()
+                .forEach(paramIndex -> method.methodWriter().storeArg(paramIndex));
+
+        method.methodWriter().goTo(target.entryLabel());
+    }
+
     public void generateArgExpr(ExprNode<Attributes> argExpr, org.mina_lang.common.types.Type funArgType) {
         var method = environment.enclosingJavaMethod().get();
         var appliedArgType = Types.getType(argExpr);
@@ -867,30 +1223,94 @@ public class CodeGenerator {
             method.methodWriter().instanceOf(constrType);
             method.methodWriter().ifZCmp(GeneratorAdapter.EQ, caseScope.endLabel());
 
-            constrPat.fields().forEach(fieldPat -> {
-                var fieldMeta = environment.lookupField(constrName, fieldPat.field()).get();
-                var fieldMinaType = (org.mina_lang.common.types.Type) fieldMeta.meta().sort();
-                var fieldType = Types.asmType(fieldMinaType);
-
-                var patMinaType = Types.getType(fieldPat);
-                var patType = Types.asmType(patMinaType);
+            var fieldLocals = constrPat.fields().collect(fieldPat -> {
+                return method.methodWriter().newLocal(Types.asmType(fieldPat));
+            });
 
-                var getterDescriptor = Type.getMethodDescriptor(fieldType);
-                var getterMethod = new Method(fieldPat.field(), getterDescriptor);
+            var specialisation = lookupSpecialisation(
+                    constrName,
+                    (org.mina_lang.common.types.Type) constrMeta.meta().sort(),
+                    Types.getType(constrPat));
 
-                var nestedPatLocal = method.methodWriter().newLocal(patType);
+            specialisation.ifPresentOrElse(spec -> {
+                var genericFieldsLabel = new Label();
+                var fieldsLoadedLabel = new Label();
 
+                // Specialised instances can be created by the generic constructor too
                 method.methodWriter().loadLocal(scrutineeLocal);
-                method.methodWriter().checkCast(constrType);
-                method.methodWriter().invokeVirtual(constrType, getterMethod);
+                method.methodWriter().instanceOf(spec.specialisedType());
+                method.methodWriter().ifZCmp(GeneratorAdapter.EQ, genericFieldsLabel);
+
+                constrPat.fields().forEachWithIndex((fieldPat, index) -> {
+                    var fieldIndex = spec.fieldNames().indexOf(fieldPat.field());
+                    if (spec.isSpecialised(fieldIndex)) {
+                        generateFieldLoad(
+                                spec.specialisedType(),
+                                spec.fieldTypes().get(fieldIndex),
+                                fieldPat,
+                                scrutineeLocal,
+                                fieldLocals.get(index));
+                    } else {
+                        generateFieldLoad(constrName, fieldPat, scrutineeLocal, fieldLocals.get(index));
+                    }
+                });
+
+                method.methodWriter().goTo(fieldsLoadedLabel);
+                method.methodWriter().visitLabel(genericFieldsLabel);
 
-                Asm.boxUnboxReturnValue(method.methodWriter(), fieldMinaType, patMinaType);
+                constrPat.fields().forEachWithIndex((fieldPat, index) -> {
+                    generateFieldLoad(constrName, fieldPat, scrutineeLocal, fieldLocals.get(index));
+                });
 
-                method.methodWriter().storeLocal(nestedPatLocal);
+                method.methodWriter().visitLabel(fieldsLoadedLabel);
+            }, () -> {
+                constrPat.fields().forEachWithIndex((fieldPat, index) -> {
+                    generateFieldLoad(constrName, fieldPat, scrutineeLocal, fieldLocals.get(index));
+                });
+            });
 
-                generatePattern(fieldPat.pattern(), nestedPatLocal);
+            constrPat.fields().forEachWithIndex((fieldPat, index) -> {
+                generatePattern(fieldPat.pattern(), fieldLocals.get(index));
             });
         }
 
     }
+
+    public void generateFieldLoad(
+            ConstructorName constrName,
+            FieldPatternNode<Attributes> fieldPat,
+            int scrutineeLocal,
+            int fieldLocal) {
+        var fieldMeta = environment.lookupField(constrName, fieldPat.field()).get();
+        var fieldMinaType = (org.mina_lang.common.types.Type) fieldMeta.meta().sort();
+        generateFieldLoad(
+                Types.getConstructorAsmType(constrName),
+                fieldMinaType,
+                fieldPat,
+                scrutineeLocal,
+                fieldLocal);
+    }
+
+    public void generateFieldLoad(
+            Type constrType,
+            org.mina_lang.common.types.Type fieldMinaType,
+            FieldPatternNode<Attributes> fieldPat,
+            int scrutineeLocal,
+            int fieldLocal) {
+        var method = environment.enclosingJavaMethod().get();
+
+        var fieldType = Types.asmType(fieldMinaType);
+        var patMinaType = Types.getType(fieldPat);
+
+        var getterDescriptor = Type.getMethodDescriptor(fieldType);
+        var getterMethod = new Method(fieldPat.field(), getterDescriptor);
+
+        method.methodWriter().loadLocal(scrutineeLocal);
+        method.methodWriter().checkCast(constrType);
+        method.methodWriter().invokeVirtual(constrType, getterMethod);
+
+        Asm.boxUnboxReturnValue(method.methodWriter(), fieldMinaType, patMinaType);
+
+        method.methodWriter().storeLocal(fieldLocal);
+    }
 }
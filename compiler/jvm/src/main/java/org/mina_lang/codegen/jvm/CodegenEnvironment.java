@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2023-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.codegen.jvm;
@@ -11,6 +11,7 @@ import org.mina_lang.common.Attributes;
 import org.mina_lang.common.Environment;
 import org.mina_lang.common.Meta;
 import org.mina_lang.common.names.Named;
+import org.mina_lang.optimiser.KnownCalls;
 import org.mina_lang.syntax.MetaNode;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.commons.GeneratorAdapter;
@@ -112,6 +113,28 @@ public record CodegenEnvironment(MutableStack<CodegenScope> scopes) implements E
                 .flatMap(varBinder -> ((VarBindingScope) varBinder).lookupLocalVar(varName));
     }
 
+    public Optional<LiftedLambda> lookupLiftedLambdaIn(GeneratorAdapter methodWriter, Named lambdaName) {
+        return scopes()
+                .select(scope -> {
+                    return scope instanceof BlockGenScope blockScope &&
+                        blockScope.methodWriter().equals(methodWriter) && // Lifted lambdas can only be called from the same Java method
+                        blockScope.hasLiftedLambda(lambdaName);
+                })
+                .getFirstOptional()
+                .map(blockScope -> ((BlockGenScope) blockScope).liftedLambdas().get(lambdaName));
+    }
+
+    public Optional<KnownCalls.KnownCallee> lookupKnownCalleeIn(GeneratorAdapter methodWriter, Named aliasName) {
+        return scopes()
+                .select(scope -> {
+                    return scope instanceof BlockGenScope blockScope &&
+                        blockScope.methodWriter().equals(methodWriter) && // Bound arguments are only in scope in the same Java method
+                        blockScope.hasKnownCallee(aliasName);
+                })
+                .getFirstOptional()
+                .map(blockScope -> ((BlockGenScope) blockScope).knownCallees().get(aliasName));
+    }
+
     public int putLocalVar(MetaNode<Attributes> localVar, Label startLabel, Label endLabel) {
         return enclosingVarBinding()
                 .map(varBinder -> varBinder.putLocalVar(localVar, startLabel, endLabel))
@@ -0,0 +1,29 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.codegen.jvm;
+
+// The verification rate is the fraction of emitted classes which are checked by the ASM verifier.
+// When compiling into a jar, entries are stored uncompressed if storeJarEntries is set.
+public record CodegenOptions(boolean mutualTailCalls, boolean specialiseConstructors, double verificationRate, boolean storeJarEntries) {
+    public static CodegenOptions defaults() {
+        return new CodegenOptions(false, false, 0.0, false);
+    }
+
+    public CodegenOptions withMutualTailCalls(boolean mutualTailCalls) {
+        return new CodegenOptions(mutualTailCalls, specialiseConstructors, verificationRate, storeJarEntries);
+    }
+
+    public CodegenOptions withSpecialiseConstructors(boolean specialiseConstructors) {
+        return new CodegenOptions(mutualTailCalls, specialiseConstructors, verificationRate, storeJarEntries);
+    }
+
+    public CodegenOptions withVerificationRate(double verificationRate) {
+        return new CodegenOptions(mutualTailCalls, specialiseConstructors, verificationRate, storeJarEntries);
+    }
+
+    public CodegenOptions withStoreJarEntries(boolean storeJarEntries) {
+        return new CodegenOptions(mutualTailCalls, specialiseConstructors, verificationRate, storeJarEntries);
+    }
+}
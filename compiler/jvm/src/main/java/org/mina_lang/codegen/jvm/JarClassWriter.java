@@ -0,0 +1,207 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.codegen.jvm;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+// Packs class files into a single jar.
+// Entries arrive from every code generation thread but are collected by a single writer thread,
+// so the jar is written without a directory of loose class files in between.
+// The queue of pending entries is bounded, so code generation waits when the writer falls behind.
+// The jar must have the same bytes whenever it is built from the same classes, so that build caches can reuse it,
+// so entries are written in order of their names once every class has arrived, and every entry has the same timestamp.
+// An index of the namespaces in the jar is appended after the classes,
+// so that their environments can be found without scanning the jar's entries.
+public class JarClassWriter implements ClassOutput {
+    private static final int DEFAULT_QUEUE_CAPACITY = 64;
+
+    // The earliest time that a zip entry can record, which is the same in every time zone
+    static final LocalDateTime ENTRY_TIME = LocalDateTime.of(1980, 2, 1, 0, 0);
+
+    private final Path jarFile;
+    private final boolean storeEntries;
+    private final double verificationRate;
+    private final JarOutputStream jarStream;
+    private final AtomicReference<IOException> failure = new AtomicReference<>();
+    private final ThreadPoolExecutor executor;
+
+    // Only accessed from the writer thread until it has finished
+    private final SortedMap<String, byte[]> classEntries = new TreeMap<>();
+    private final List<NamespaceIndex.Entry> indexEntries = new ArrayList<>();
+
+    public JarClassWriter(Path jarFile, boolean storeEntries, double verificationRate) throws IOException {
+        this(jarFile, storeEntries, verificationRate, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public JarClassWriter(Path jarFile, boolean storeEntries, double verificationRate, int queueCapacity) throws IOException {
+        this.jarFile = jarFile;
+        this.storeEntries = storeEntries;
+        this.verificationRate = verificationRate;
+
+        var parentDir = jarFile.toAbsolutePath().getParent();
+        if (parentDir != null) {
+            Files.createDirectories(parentDir);
+        }
+
+        this.jarStream = new JarOutputStream(new BufferedOutputStream(Files.newOutputStream(jarFile)));
+
+        this.executor = new ThreadPoolExecutor(
+                1, 1,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    var thread = new Thread(runnable, "mina-jar-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> {
+                    // Entries can only be appended by the writer thread, so wait for space in the queue
+                    try {
+                        if (!pool.isShutdown()) {
+                            pool.getQueue().put(runnable);
+                        } else {
+                            throw new RejectedExecutionException("The jar writer has already been closed");
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting to write " + jarFile, e);
+                    }
+                });
+    }
+
+    @Override
+    public void write(Path classFile, byte[] classData) {
+        var entryName = entryName(classFile);
+
+        // Verify and index on the calling thread so that the writer thread only has to append entries
+        if (ClassOutput.shouldVerify(verificationRate)) {
+            ClassOutput.verify(classFile, classData);
+        }
+
+        var indexEntry = NamespaceIndex.locate(classFile, classData);
+
+        executor.execute(() -> {
+            if (classEntries.putIfAbsent(entryName, classData) != null) {
+                recordFailure(new ZipException("duplicate entry: " + entryName));
+            } else if (indexEntry != null) {
+                indexEntries.add(indexEntry);
+            }
+        });
+    }
+
+    static String entryName(Path classFile) {
+        var segments = new StringBuilder();
+        for (var segment : classFile) {
+            if (!segments.isEmpty()) {
+                segments.append('/');
+            }
+            segments.append(segment);
+        }
+        return segments.toString();
+    }
+
+    void writeEntry(String entryName, byte[] data) throws IOException {
+        var entry = new JarEntry(entryName);
+        entry.setTimeLocal(ENTRY_TIME);
+
+        if (storeEntries) {
+            // Stored entries must declare their size and checksum up front
+            var crc = new CRC32();
+            crc.update(data);
+            entry.setMethod(ZipEntry.STORED);
+            entry.setSize(data.length);
+            entry.setCompressedSize(data.length);
+            entry.setCrc(crc.getValue());
+        }
+
+        jarStream.putNextEntry(entry);
+        jarStream.write(data);
+        jarStream.closeEntry();
+    }
+
+    static byte[] manifest() throws IOException {
+        var manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        var manifestBytes = new ByteArrayOutputStream();
+        manifest.write(manifestBytes);
+        return manifestBytes.toByteArray();
+    }
+
+    void recordFailure(IOException exception) {
+        if (!failure.compareAndSet(null, exception)) {
+            failure.get().addSuppressed(exception);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Keep waiting for slow filesystems
+            }
+        } catch (InterruptedException e) {
+            abort();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing " + jarFile, e);
+        }
+
+        var exception = failure.get();
+        if (exception != null) {
+            abort();
+            throw exception;
+        }
+
+        try (jarStream) {
+            writeEntry(JarFile.MANIFEST_NAME, manifest());
+            for (var classEntry : classEntries.entrySet()) {
+                writeEntry(classEntry.getKey(), classEntry.getValue());
+            }
+            writeEntry(NamespaceIndex.RESOURCE_NAME, NamespaceIndex.empty().withEntries(indexEntries).toBytes());
+        } catch (IOException e) {
+            abort();
+            throw e;
+        }
+    }
+
+    // A partially written jar is unreadable, so it is deleted
+    @Override
+    public void abort() {
+        executor.shutdownNow();
+        try {
+            // Wait for any entry which is being appended before closing the stream under it
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+            jarStream.close();
+        } catch (IOException e) {
+            // The jar is being discarded anyway
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            Files.deleteIfExists(jarFile);
+        } catch (IOException e) {
+            // Nothing more we can do
+        }
+    }
+}
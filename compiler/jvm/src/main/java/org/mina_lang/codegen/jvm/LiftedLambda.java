@@ -0,0 +1,19 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.codegen.jvm;
+
+import org.eclipse.collections.api.list.ImmutableList;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.syntax.LambdaNode;
+import org.mina_lang.syntax.ReferenceNode;
+import org.objectweb.asm.commons.Method;
+
+// A local lambda which does not escape its block, compiled into a static method
+// which is called directly with its free variables as leading arguments.
+public record LiftedLambda(
+        Method method,
+        ImmutableList<ReferenceNode<Attributes>> freeVariables,
+        LambdaNode<Attributes> lambda) {
+}
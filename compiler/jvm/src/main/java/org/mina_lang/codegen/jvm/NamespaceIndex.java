@@ -0,0 +1,178 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.codegen.jvm;
+
+import org.eclipse.collections.api.map.ImmutableMap;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+import org.mina_lang.common.names.NamespaceName;
+import org.objectweb.asm.Attribute;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Label;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.function.Predicate;
+
+import static org.objectweb.asm.Opcodes.ASM9;
+
+// An index of the namespaces in a compiled artifact, which is written to META-INF/mina/namespaces.idx.
+// Each entry records where the serialized environment of a namespace is found within its namespace class,
+// so that imports can be resolved without searching the classpath for the class or parsing it.
+public record NamespaceIndex(ImmutableMap<NamespaceName, NamespaceIndex.Entry> entries) {
+    public static final String RESOURCE_NAME = "META-INF/mina/namespaces.idx";
+
+    private static final String HEADER = "mina-namespaces 1";
+
+    private static final String NAMESPACE_CLASS_NAME = "$namespace.class";
+
+    // The offset and length of the environment are relative to the start of the namespace class,
+    // and the size of the class is recorded so that entries which no longer match the class can be detected
+    public record Entry(NamespaceName namespace, int classSize, int offset, int length) {
+        public String classResource() {
+            return Names.getInternalName(namespace) + ".class";
+        }
+
+        // Checks that the class has the recorded size and that the environment attribute's length
+        // immediately precedes the recorded offset
+        public boolean matches(byte[] classData) {
+            if (classData.length != classSize || offset < 6 || offset + length > classData.length) {
+                return false;
+            }
+
+            var attributeLength =
+                ((classData[offset - 4] & 0xFF) << 24) |
+                ((classData[offset - 3] & 0xFF) << 16) |
+                ((classData[offset - 2] & 0xFF) << 8) |
+                (classData[offset - 1] & 0xFF);
+
+            return attributeLength == length;
+        }
+    }
+
+    public static NamespaceIndex empty() {
+        return new NamespaceIndex(Maps.immutable.empty());
+    }
+
+    public NamespaceIndex withEntries(Iterable<Entry> newEntries) {
+        MutableMap<NamespaceName, Entry> updated = Maps.mutable.withMapIterable(entries);
+        newEntries.forEach(entry -> updated.put(entry.namespace(), entry));
+        return new NamespaceIndex(updated.toImmutable());
+    }
+
+    public NamespaceIndex select(Predicate<Entry> predicate) {
+        return new NamespaceIndex(entries.select((nsName, entry) -> predicate.test(entry)));
+    }
+
+    // Returns the index entry for a namespace class, or null for any other class file
+    public static Entry locate(Path classFile, byte[] classData) {
+        var fileName = classFile.getFileName();
+
+        if (fileName == null || !NAMESPACE_CLASS_NAME.equals(fileName.toString())) {
+            return null;
+        }
+
+        var locator = new EnvironmentLocator();
+        ClassReader classReader;
+
+        try {
+            classReader = new ClassReader(classData);
+            classReader.accept(
+                locator, new Attribute[] { locator.prototype() },
+                ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        } catch (RuntimeException e) {
+            // Namespaces which can't be indexed are still found by searching the classpath
+            return null;
+        }
+
+        if (locator.offset < 0) {
+            return null;
+        }
+
+        var internalName = classReader.getClassName();
+        var segments = Lists.mutable.with(internalName.split("/"));
+        // Drop the $namespace class name
+        segments.remove(segments.size() - 1);
+        var name = segments.remove(segments.size() - 1);
+        var nsName = new NamespaceName(segments.toImmutable(), name);
+
+        return new Entry(nsName, classData.length, locator.offset, locator.length);
+    }
+
+    // A header line followed by one line per namespace, with tab-separated fields:
+    // canonical namespace name, class size, environment offset and environment length
+    public byte[] toBytes() {
+        var index = new StringBuilder(HEADER).append('\n');
+
+        entries.valuesView()
+            .toSortedListBy(entry -> entry.namespace().canonicalName())
+            .forEach(entry -> {
+                index.append(entry.namespace().canonicalName()).append('\t')
+                    .append(entry.classSize()).append('\t')
+                    .append(entry.offset()).append('\t')
+                    .append(entry.length()).append('\n');
+            });
+
+        return index.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Returns null for indexes written in a format that we don't understand
+    public static NamespaceIndex read(InputStream indexData) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(indexData, StandardCharsets.UTF_8));
+
+        if (!HEADER.equals(reader.readLine())) {
+            return null;
+        }
+
+        MutableMap<NamespaceName, Entry> entries = Maps.mutable.empty();
+
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) { continue; }
+                var fields = line.split("\t");
+                var segments = Lists.mutable.with(fields[0].split("/"));
+                var name = segments.remove(segments.size() - 1);
+                var nsName = new NamespaceName(segments.toImmutable(), name);
+                entries.put(nsName, new Entry(
+                    nsName,
+                    Integer.parseInt(fields[1]),
+                    Integer.parseInt(fields[2]),
+                    Integer.parseInt(fields[3])));
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed namespace index", e);
+        }
+
+        return new NamespaceIndex(entries.toImmutable());
+    }
+
+    // Records the position of the environment attribute as the class is read
+    static class EnvironmentLocator extends ClassVisitor {
+        int offset = -1;
+        int length = -1;
+
+        EnvironmentLocator() {
+            super(ASM9);
+        }
+
+        Attribute prototype() {
+            return new Attribute("MinaEnvironment") {
+                @Override
+                protected Attribute read(ClassReader classReader, int offset, int length, char[] charBuffer, int codeAttributeOffset, Label[] labels) {
+                    EnvironmentLocator.this.offset = offset;
+                    EnvironmentLocator.this.length = length;
+                    return super.read(classReader, offset, length, charBuffer, codeAttributeOffset, labels);
+                }
+            };
+        }
+    }
+}
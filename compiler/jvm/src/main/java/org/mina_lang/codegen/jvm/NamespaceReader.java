@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2024-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.codegen.jvm;
@@ -14,6 +14,7 @@ import org.objectweb.asm.Attribute;
 import org.objectweb.asm.ClassReader;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public class NamespaceReader {
     private static final Attribute[] prototypes = new Attribute[] {
@@ -33,4 +34,12 @@ public class NamespaceReader {
             return protobufReader.fromProto(protoEnv);
         }
     }
+
+    // Decodes the environment directly from the location recorded in a namespace index,
+    // returning null if the class doesn't match the index entry
+    public static Scope<Meta<Attributes>> readScope(byte[] classData, NamespaceIndex.Entry indexEntry) throws IOException {
+        if (!indexEntry.matches(classData)) { return null; }
+        var protoEnv = Environment.parseFrom(ByteBuffer.wrap(classData, indexEntry.offset(), indexEntry.length()));
+        return protobufReader.fromProto(protoEnv);
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.codegen.jvm;
+
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.ImmutableSet;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.factory.Sets;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.names.ConstructorName;
+import org.mina_lang.common.names.QualifiedName;
+import org.mina_lang.common.types.TypeApply;
+import org.mina_lang.common.types.TypeVar;
+import org.mina_lang.syntax.*;
+import org.objectweb.asm.Type;
+
+import java.util.Optional;
+
+public class Specialisations {
+    // Only these types are worth specialising, as the others are small enough to be cached by their box types
+    static final ImmutableSet<org.mina_lang.common.types.Type> SPECIALISED_TYPES = Sets.immutable.of(
+            org.mina_lang.common.types.Type.INT,
+            org.mina_lang.common.types.Type.LONG,
+            org.mina_lang.common.types.Type.DOUBLE);
+
+    // A constructor whose polymorphic fields are instantiated at primitive types.
+    // Specialisations are compiled into subclasses of the constructor class with unboxed fields.
+    public record Specialisation(
+            ConstructorName constrName,
+            ImmutableList<String> fieldNames,
+            ImmutableList<org.mina_lang.common.types.Type> genericFieldTypes,
+            ImmutableList<org.mina_lang.common.types.Type> fieldTypes) {
+
+        public boolean isSpecialised(int fieldIndex) {
+            return !fieldTypes.get(fieldIndex).equals(genericFieldTypes.get(fieldIndex));
+        }
+
+        public ConstructorName specialisedName() {
+            var suffix = fieldTypes
+                    .collectWithIndex((fieldType, index) -> {
+                        return isSpecialised(index) ? Types.asmType(fieldType).getDescriptor() : "L";
+                    })
+                    .makeString("");
+            return new ConstructorName(
+                    constrName.enclosing(),
+                    new QualifiedName(constrName.name().ns(), constrName.name().name() + "$" + suffix));
+        }
+
+        public Type specialisedType() {
+            return Types.getConstructorAsmType(specialisedName());
+        }
+
+        public Type[] genericArgTypes() {
+            return genericFieldTypes.collect(Types::asmType).toArray(new Type[genericFieldTypes.size()]);
+        }
+
+        public Type[] specialisedArgTypes() {
+            return fieldTypes.collect(Types::asmType).toArray(new Type[fieldTypes.size()]);
+        }
+    }
+
+    // Determines the field types of a constructor when its data type is instantiated at `instantiatedType`,
+    // if any of its fields can be specialised.
+    public static Optional<ImmutableList<org.mina_lang.common.types.Type>> specialisedFieldTypes(
+            org.mina_lang.common.types.Type constrType,
+            org.mina_lang.common.types.Type instantiatedType) {
+        var underlyingType = Types.getUnderlyingType(constrType);
+
+        if (org.mina_lang.common.types.Type.isFunction(underlyingType) &&
+                underlyingType instanceof TypeApply constrFunType &&
+                constrFunType.typeArguments().getLast() instanceof TypeApply dataType &&
+                instantiatedType instanceof TypeApply instantiatedDataType) {
+
+            var genericFieldTypes = constrFunType.typeArguments()
+                    .take(constrFunType.typeArguments().size() - 1);
+
+            var fieldTypes = genericFieldTypes.collect(fieldType -> {
+                var typeArgIndex = dataType.typeArguments().indexOf(fieldType);
+                if (fieldType instanceof TypeVar &&
+                        typeArgIndex >= 0 &&
+                        typeArgIndex < instantiatedDataType.typeArguments().size()) {
+                    var typeArg = instantiatedDataType.typeArguments().get(typeArgIndex);
+                    if (SPECIALISED_TYPES.contains(typeArg)) {
+                        return typeArg;
+                    }
+                }
+                return fieldType;
+            });
+
+            if (!fieldTypes.equals(genericFieldTypes)) {
+                return Optional.of(fieldTypes);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    // Finds the primitive instantiations of the namespace's own constructors
+    public static ImmutableList<Specialisation> collect(NamespaceNode<Attributes> namespace) {
+        MutableMap<ConstructorName, ConstructorNode<Attributes>> constructors = Maps.mutable.empty();
+
+        namespace.declarationGroups().forEach(decls -> {
+            decls.forEach(decl -> {
+                if (decl instanceof DataNode<Attributes> data) {
+                    data.constructors().forEach(constr -> {
+                        constructors.put((ConstructorName) Names.getName(constr), constr);
+                    });
+                }
+            });
+        });
+
+        MutableList<Specialisation> specialisations = Lists.mutable.empty();
+
+        namespace.accept(new SyntaxNodeVisitor() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void visitApply(ApplyNode<?> node) {
+                var apply = (ApplyNode<Attributes>) node;
+                var appliedExpr = apply.expr() instanceof SelectNode<Attributes> select ? select.selection() : apply.expr();
+                if (appliedExpr.meta().meta().name() instanceof ConstructorName constrName &&
+                        constructors.containsKey(constrName)) {
+                    var constr = constructors.get(constrName);
+                    specialisedFieldTypes(Types.getType(constr), Types.getType(apply)).ifPresent(fieldTypes -> {
+                        var constrFunType = (TypeApply) Types.getUnderlyingType(constr);
+                        specialisations.add(new Specialisation(
+                                constrName,
+                                constr.params().collect(ConstructorParamNode::name),
+                                constrFunType.typeArguments().take(fieldTypes.size()),
+                                fieldTypes));
+                    });
+                }
+            }
+        });
+
+        return specialisations.distinct().toImmutable();
+    }
+}
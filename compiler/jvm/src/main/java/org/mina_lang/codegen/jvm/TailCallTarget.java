@@ -0,0 +1,15 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.codegen.jvm;
+
+import org.eclipse.collections.api.list.ImmutableList;
+import org.mina_lang.common.types.Type;
+import org.objectweb.asm.Label;
+
+public record TailCallTarget(
+        Label entryLabel,
+        ImmutableList<Integer> paramIndices,
+        ImmutableList<Type> paramTypes) {
+}
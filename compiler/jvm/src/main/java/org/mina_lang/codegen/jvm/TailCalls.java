@@ -0,0 +1,171 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.codegen.jvm;
+
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.ImmutableMap;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.block.factory.HashingStrategies;
+import org.eclipse.collections.impl.factory.HashingStrategySets;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.tuple.Tuples;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.names.LetName;
+import org.mina_lang.syntax.*;
+
+import java.util.Optional;
+
+public class TailCalls {
+    public record TopLevelFunction(
+            LetName name,
+            DeclarationNode<Attributes> declaration,
+            ImmutableList<ParamNode<Attributes>> params,
+            ExprNode<Attributes> body) {
+    }
+
+    public static Optional<TopLevelFunction> topLevelFunction(DeclarationNode<Attributes> declaration) {
+        if (declaration instanceof LetFnNode<Attributes> letFn) {
+            return Optional.of(new TopLevelFunction(
+                    (LetName) Names.getName(letFn), letFn, letFn.valueParams(), letFn.expr()));
+        } else if (declaration instanceof LetNode<Attributes> let &&
+                let.expr() instanceof LambdaNode<Attributes> lambda) {
+            return Optional.of(new TopLevelFunction(
+                    (LetName) Names.getName(let), let, lambda.params(), lambda.body()));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    public static ImmutableList<TopLevelFunction> topLevelFunctions(NamespaceNode<Attributes> namespace) {
+        MutableList<TopLevelFunction> functions = Lists.mutable.empty();
+        namespace.declarationGroups().forEach(decls -> {
+            decls.forEach(decl -> topLevelFunction(decl).ifPresent(functions::add));
+        });
+        return functions.toImmutable();
+    }
+
+    // Collects the applications in tail position of an expression.
+    // Lambda bodies are not traversed as they are compiled into separate methods.
+    public static MutableSet<ApplyNode<Attributes>> tailApplications(ExprNode<Attributes> expr) {
+        MutableSet<ApplyNode<Attributes>> applications = HashingStrategySets.mutable
+                .of(HashingStrategies.identityStrategy());
+        collectTailApplications(expr, applications);
+        return applications;
+    }
+
+    static void collectTailApplications(ExprNode<Attributes> expr, MutableSet<ApplyNode<Attributes>> applications) {
+        if (expr instanceof ApplyNode<Attributes> apply) {
+            applications.add(apply);
+        } else if (expr instanceof BlockNode<Attributes> block) {
+            block.result().ifPresent(result -> collectTailApplications(result, applications));
+        } else if (expr instanceof IfNode<Attributes> ifExpr) {
+            collectTailApplications(ifExpr.consequent(), applications);
+            collectTailApplications(ifExpr.alternative(), applications);
+        } else if (expr instanceof MatchNode<Attributes> match) {
+            match.cases().forEach(cse -> collectTailApplications(cse.consequent(), applications));
+        }
+    }
+
+    public static Optional<LetName> appliedLetName(ApplyNode<Attributes> apply) {
+        var appliedExpr = apply.expr() instanceof SelectNode<Attributes> select ? select.selection() : apply.expr();
+        return appliedExpr.meta().meta().name() instanceof LetName letName ? Optional.of(letName) : Optional.empty();
+    }
+
+    public static ImmutableList<ExprNode<Attributes>> appliedArgs(ApplyNode<Attributes> apply) {
+        if (apply.expr() instanceof SelectNode<Attributes> select) {
+            return Lists.immutable.of(select.receiver()).newWithAll(apply.args());
+        } else {
+            return apply.args();
+        }
+    }
+
+    // Finds the groups of functions which call each other in tail position,
+    // i.e. the non-trivial strongly connected components of the tail call graph.
+    // Only functions with the same return type can share a method, so members
+    // with a different return type are left to be compiled separately.
+    public static ImmutableList<ImmutableList<TopLevelFunction>> mutualTailCallGroups(
+            ImmutableList<TopLevelFunction> functions) {
+        ImmutableMap<LetName, TopLevelFunction> functionsByName = functions
+                .collect(fn -> Tuples.pair(fn.name(), fn))
+                .toImmutableMap(Pair::getOne, Pair::getTwo);
+
+        ImmutableMap<LetName, ImmutableList<TopLevelFunction>> tailCallees = functions
+                .collect(fn -> {
+                    var callees = tailApplications(fn.body())
+                            .toList()
+                            .collectIf(
+                                    apply -> appliedLetName(apply)
+                                            .map(functionsByName::get)
+                                            .filter(callee -> callee != fn)
+                                            .filter(callee -> callee.params().size() == appliedArgs(apply).size())
+                                            .filter(callee -> Types.asmType(callee.body()).equals(Types.asmType(fn.body())))
+                                            .isPresent(),
+                                    apply -> functionsByName.get(appliedLetName(apply).get()))
+                            .distinct()
+                            .toImmutable();
+                    return Tuples.pair(fn.name(), callees);
+                })
+                .toImmutableMap(Pair::getOne, Pair::getTwo);
+
+        var finder = new GroupFinder(tailCallees);
+        functions.forEach(fn -> {
+            if (!finder.indices.containsKey(fn.name())) {
+                finder.visit(fn);
+            }
+        });
+
+        // Keep the members of each group in declaration order
+        return finder.groups
+                .collect(group -> functions.select(group::contains))
+                .toImmutable();
+    }
+
+    // Tarjan's strongly connected components algorithm
+    static class GroupFinder {
+        final ImmutableMap<LetName, ImmutableList<TopLevelFunction>> tailCallees;
+        final MutableMap<LetName, Integer> indices = Maps.mutable.empty();
+        final MutableMap<LetName, Integer> lowLinks = Maps.mutable.empty();
+        final MutableList<TopLevelFunction> stack = Lists.mutable.empty();
+        final MutableList<ImmutableList<TopLevelFunction>> groups = Lists.mutable.empty();
+        int nextIndex = 0;
+
+        GroupFinder(ImmutableMap<LetName, ImmutableList<TopLevelFunction>> tailCallees) {
+            this.tailCallees = tailCallees;
+        }
+
+        void visit(TopLevelFunction fn) {
+            indices.put(fn.name(), nextIndex);
+            lowLinks.put(fn.name(), nextIndex);
+            nextIndex++;
+            stack.add(fn);
+
+            tailCallees.get(fn.name()).forEach(callee -> {
+                if (!indices.containsKey(callee.name())) {
+                    visit(callee);
+                    lowLinks.put(fn.name(), Math.min(lowLinks.get(fn.name()), lowLinks.get(callee.name())));
+                } else if (stack.contains(callee)) {
+                    lowLinks.put(fn.name(), Math.min(lowLinks.get(fn.name()), indices.get(callee.name())));
+                }
+            });
+
+            if (lowLinks.get(fn.name()).equals(indices.get(fn.name()))) {
+                MutableList<TopLevelFunction> group = Lists.mutable.empty();
+                TopLevelFunction member;
+                do {
+                    member = stack.remove(stack.size() - 1);
+                    group.add(member);
+                } while (member != fn);
+
+                if (group.size() > 1) {
+                    groups.add(group.toImmutable());
+                }
+            }
+        }
+    }
+}
@@ -1,16 +1,21 @@
 /*
- * SPDX-FileCopyrightText:  © 2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.codegen.jvm.scopes;
 
 import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.SetIterable;
 import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.factory.Sets;
+import org.mina_lang.codegen.jvm.LiftedLambda;
 import org.mina_lang.codegen.jvm.LocalVar;
+import org.mina_lang.codegen.jvm.Names;
 import org.mina_lang.common.Attributes;
 import org.mina_lang.common.Meta;
 import org.mina_lang.common.names.ConstructorName;
 import org.mina_lang.common.names.Named;
+import org.mina_lang.optimiser.KnownCalls;
 import org.mina_lang.syntax.BlockNode;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.commons.GeneratorAdapter;
@@ -22,7 +27,9 @@ public record BlockGenScope(
         MutableMap<String, Meta<Attributes>> values,
         MutableMap<String, Meta<Attributes>> types,
         MutableMap<ConstructorName, MutableMap<String, Meta<Attributes>>> fields,
-        MutableMap<Named, LocalVar> localVars) implements VarBindingScope {
+        MutableMap<Named, LocalVar> localVars,
+        MutableMap<Named, LiftedLambda> liftedLambdas,
+        MutableMap<Named, KnownCalls.KnownCallee> knownCallees) implements VarBindingScope {
     public BlockGenScope(JavaMethodScope enclosingMethod, Label startLabel, Label endLabel) {
         this(
                 enclosingMethod,
@@ -31,6 +38,8 @@ public record BlockGenScope(
                 Maps.mutable.empty(),
                 Maps.mutable.empty(),
                 Maps.mutable.empty(),
+                Maps.mutable.empty(),
+                Maps.mutable.empty(),
                 Maps.mutable.empty());
     }
 
@@ -40,6 +49,13 @@ public record BlockGenScope(
     }
 
     public static BlockGenScope open(JavaMethodScope enclosingMethod, BlockNode<Attributes> block) {
+        return open(enclosingMethod, block, Sets.immutable.empty());
+    }
+
+    public static BlockGenScope open(
+            JavaMethodScope enclosingMethod,
+            BlockNode<Attributes> block,
+            SetIterable<? extends Named> liftedLambdaNames) {
         var startLabel = new Label();
         var endLabel = new Label();
 
@@ -48,12 +64,23 @@ public record BlockGenScope(
         var blockScope = new BlockGenScope(enclosingMethod, startLabel, endLabel);
 
         block.declarations().forEach(decl -> {
-            blockScope.putLocalVar(decl, startLabel, endLabel);
+            // Lifted lambdas are never stored, so they don't need a local variable
+            if (!liftedLambdaNames.contains(Names.getName(decl))) {
+                blockScope.putLocalVar(decl, startLabel, endLabel);
+            }
         });
 
         return blockScope;
     }
 
+    public boolean hasLiftedLambda(Named name) {
+        return liftedLambdas.containsKey(name);
+    }
+
+    public boolean hasKnownCallee(Named name) {
+        return knownCallees.containsKey(name);
+    }
+
     public void finaliseBlock() {
         enclosingMethod
                 .methodWriter()
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.codegen.jvm.scopes;
@@ -35,7 +35,8 @@ public record ConstructorGenScope(
         MutableMap<String, Meta<Attributes>> types,
         MutableMap<ConstructorName, MutableMap<String, Meta<Attributes>>> fields,
         ImmutableMap<Named, LocalVar> methodParams,
-        MutableMap<Named, LocalVar> localVars) implements JavaMethodScope {
+        MutableMap<Named, LocalVar> localVars,
+        boolean isRecord) implements JavaMethodScope {
 
     public ConstructorGenScope(
             ConstructorNode<Attributes> constr,
@@ -44,7 +45,8 @@ public record ConstructorGenScope(
             GeneratorAdapter initWriter,
             Label startLabel,
             Label endLabel,
-            ImmutableMap<Named, LocalVar> methodParams) {
+            ImmutableMap<Named, LocalVar> methodParams,
+            boolean isRecord) {
         this(
                 constr,
                 constrType,
@@ -56,7 +58,8 @@ public record ConstructorGenScope(
                 Maps.mutable.empty(),
                 Maps.mutable.empty(),
                 methodParams,
-                Maps.mutable.empty());
+                Maps.mutable.empty(),
+                isRecord);
     }
 
     @Override
@@ -81,6 +84,13 @@ public record ConstructorGenScope(
     }
 
     public static ConstructorGenScope open(ConstructorNode<Attributes> constructor, DataNode<Attributes> data) {
+        return open(constructor, data, false);
+    }
+
+    public static ConstructorGenScope open(
+            ConstructorNode<Attributes> constructor,
+            DataNode<Attributes> data,
+            boolean specialised) {
         var classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
 
         var initWriter = Asm.constructor(
@@ -90,13 +100,18 @@ public record ConstructorGenScope(
 
         var constrType = Types.getConstructorAsmType(constructor);
 
-        // Visit a new record class implementing our data type interface
+        // Visit a new record class implementing our data type interface.
+        // Record classes must be final, so specialised constructors are compiled into
+        // plain classes with the same accessors, which are extended by their primitive specialisations.
+        var isRecord = !specialised;
+        var superType = isRecord ? Types.RECORD_TYPE : Types.OBJECT_TYPE;
+
         classWriter.visit(
                 V17,
-                ACC_PUBLIC + ACC_FINAL + ACC_SUPER + ACC_RECORD,
+                ACC_PUBLIC + ACC_SUPER + (isRecord ? ACC_FINAL + ACC_RECORD : 0),
                 constrType.getInternalName(),
                 JavaSignature.forConstructor(data, constructor),
-                Types.RECORD_TYPE.getInternalName(),
+                superType.getInternalName(),
                 new String[] { Types.getDataAsmType(data).getInternalName() });
 
         // Start and end labels for variable debug info of the Java constructor
@@ -133,7 +148,7 @@ public record ConstructorGenScope(
         // Invoke superclass constructor
         initWriter.loadThis();
         initWriter.invokeConstructor(
-                Types.RECORD_TYPE,
+                superType,
                 new Method("<init>", Type.getMethodDescriptor(Type.VOID_TYPE)));
 
         return new ConstructorGenScope(
@@ -142,7 +157,8 @@ public record ConstructorGenScope(
                 classWriter,
                 initWriter,
                 startLabel, endLabel,
-                methodParams);
+                methodParams,
+                isRecord);
     }
 
     public byte[] finaliseConstructor() {
@@ -1,28 +1,35 @@
 /*
- * SPDX-FileCopyrightText:  © 2023-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.codegen.jvm.scopes;
 
+import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.map.ImmutableMap;
 import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.SetIterable;
 import org.eclipse.collections.api.tuple.Pair;
 import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.factory.Sets;
 import org.eclipse.collections.impl.tuple.Tuples;
 import org.mina_lang.codegen.jvm.*;
 import org.mina_lang.common.Attributes;
 import org.mina_lang.common.Meta;
 import org.mina_lang.common.names.ConstructorName;
+import org.mina_lang.common.names.LetName;
 import org.mina_lang.common.names.LocalName;
 import org.mina_lang.common.names.Named;
 import org.mina_lang.common.types.TypeApply;
+import org.mina_lang.syntax.ApplyNode;
 import org.mina_lang.syntax.LambdaNode;
 import org.mina_lang.syntax.LetFnNode;
 import org.mina_lang.syntax.LetNode;
+import org.mina_lang.syntax.ParamNode;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.commons.GeneratorAdapter;
 
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.objectweb.asm.Opcodes.*;
@@ -36,13 +43,33 @@ public record TopLevelLetGenScope(
         MutableMap<ConstructorName, MutableMap<String, Meta<Attributes>>> fields,
         ImmutableMap<Named, LocalVar> methodParams,
         MutableMap<Named, LocalVar> localVars,
-        AtomicInteger nextLambdaId) implements LambdaLiftingScope {
+        AtomicInteger nextLambdaId,
+        ImmutableMap<LetName, TailCallTarget> tailCallTargets,
+        SetIterable<ApplyNode<Attributes>> tailApplications) implements LambdaLiftingScope {
 
     public TopLevelLetGenScope(
             GeneratorAdapter methodWriter,
             Label startLabel,
             Label endLabel,
             ImmutableMap<Named, LocalVar> methodParams) {
+        this(
+                methodWriter,
+                startLabel,
+                endLabel,
+                methodParams,
+                new AtomicInteger(0),
+                Maps.immutable.empty(),
+                Sets.immutable.empty());
+    }
+
+    public TopLevelLetGenScope(
+            GeneratorAdapter methodWriter,
+            Label startLabel,
+            Label endLabel,
+            ImmutableMap<Named, LocalVar> methodParams,
+            AtomicInteger nextLambdaId,
+            ImmutableMap<LetName, TailCallTarget> tailCallTargets,
+            SetIterable<ApplyNode<Attributes>> tailApplications) {
         this(
                 methodWriter,
                 startLabel,
@@ -52,7 +79,16 @@ public record TopLevelLetGenScope(
                 Maps.mutable.empty(),
                 methodParams,
                 Maps.mutable.empty(),
-                new AtomicInteger(0));
+                nextLambdaId,
+                tailCallTargets,
+                tailApplications);
+    }
+
+    static TailCallTarget selfTailCall(Label entryLabel, ImmutableList<ParamNode<Attributes>> params) {
+        return new TailCallTarget(
+                entryLabel,
+                params.collectWithIndex((param, index) -> index),
+                params.collect(Types::getType));
     }
 
     public static TopLevelLetGenScope open(
@@ -94,7 +130,11 @@ public record TopLevelLetGenScope(
         methodWriter.visitCode();
         methodWriter.visitLabel(startLabel);
 
-        return new TopLevelLetGenScope(methodWriter, startLabel, endLabel, methodParams);
+        // Self tail calls reassign the parameters and jump back to the start of the method
+        return new TopLevelLetGenScope(
+                methodWriter, startLabel, endLabel, methodParams, new AtomicInteger(0),
+                Maps.immutable.of((LetName) Names.getName(letFn), selfTailCall(startLabel, letFn.valueParams())),
+                TailCalls.tailApplications(letFn.expr()));
     }
 
     public static TopLevelLetGenScope open(
@@ -138,7 +178,10 @@ public record TopLevelLetGenScope(
         methodWriter.visitCode();
         methodWriter.visitLabel(startLabel);
 
-        return new TopLevelLetGenScope(methodWriter, startLabel, endLabel, methodParams);
+        return new TopLevelLetGenScope(
+                methodWriter, startLabel, endLabel, methodParams, new AtomicInteger(0),
+                Maps.immutable.of((LetName) Names.getName(let), selfTailCall(startLabel, lambda.params())),
+                TailCalls.tailApplications(lambda.body()));
     }
 
     public static TopLevelLetGenScope open(
@@ -191,6 +234,16 @@ public record TopLevelLetGenScope(
         return new TopLevelLetGenScope(methodWriter, startLabel, endLabel, methodParams);
     }
 
+    public Optional<TailCallTarget> tailCallTarget(ApplyNode<Attributes> apply) {
+        if (!tailApplications.contains(apply)) {
+            return Optional.empty();
+        }
+
+        return TailCalls.appliedLetName(apply)
+                .map(tailCallTargets::get)
+                .filter(target -> target.paramIndices().size() == TailCalls.appliedArgs(apply).size());
+    }
+
     public void finaliseLet() {
         finaliseMethod();
     }
@@ -0,0 +1,109 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.codegen.jvm;
+
+import org.apache.commons.lang3.function.Failable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class ClassFileWriterTest {
+    private Path createTempDir() throws IOException {
+        return Files.createTempDirectory("mina-codegen-writer-test");
+    }
+
+    private void clearTempDir(Path tempDir) throws IOException {
+        try (var paths = Files.walk(tempDir)) {
+            Failable
+                .stream(paths.sorted(Comparator.reverseOrder()))
+                .forEach(Files::delete);
+        }
+    }
+
+    @Test
+    public void writesClassesIntoPackageDirectories() throws IOException {
+        var tempDir = createTempDir();
+        try {
+            // Use a tiny queue so that the caller also ends up writing classes
+            try (var classFileWriter = new ClassFileWriter(tempDir, 0.0, 2, 1)) {
+                for (var i = 0; i < 20; i++) {
+                    var pkgPath = tempDir.resolve("Mina").resolve("Test" + (i % 3));
+                    classFileWriter.write(pkgPath.resolve("Class" + i + ".class"), new byte[] { (byte) i });
+                }
+            }
+
+            for (var i = 0; i < 20; i++) {
+                var pkgPath = tempDir.resolve("Mina").resolve("Test" + (i % 3));
+                assertThat(Files.readAllBytes(pkgPath.resolve("Class" + i + ".class")), is(equalTo(new byte[] { (byte) i })));
+            }
+        } finally {
+            clearTempDir(tempDir);
+        }
+    }
+
+    @Test
+    public void writesClassesOnProvidedExecutor() throws IOException {
+        var tempDir = createTempDir();
+        var ioExecutor = Executors.newCachedThreadPool();
+        var submitted = new AtomicInteger(0);
+        try {
+            // Closing the writer must wait for the writes in flight without shutting down the executor
+            try (var classFileWriter = new ClassFileWriter(tempDir, 0.0, task -> {
+                submitted.incrementAndGet();
+                ioExecutor.execute(task);
+            }, 3)) {
+                for (var i = 0; i < 50; i++) {
+                    var pkgPath = tempDir.resolve("Mina").resolve("Test" + (i % 3));
+                    classFileWriter.write(pkgPath.resolve("Class" + i + ".class"), new byte[] { (byte) i });
+                }
+            }
+
+            assertThat(submitted.get(), is(50));
+            assertThat(ioExecutor.isShutdown(), is(false));
+
+            for (var i = 0; i < 50; i++) {
+                var pkgPath = tempDir.resolve("Mina").resolve("Test" + (i % 3));
+                assertThat(Files.readAllBytes(pkgPath.resolve("Class" + i + ".class")), is(equalTo(new byte[] { (byte) i })));
+            }
+        } finally {
+            ioExecutor.shutdown();
+            clearTempDir(tempDir);
+        }
+    }
+
+    @Test
+    public void rejectsExecutorWritesWithoutPermits() {
+        var tempDir = Path.of("unused");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ClassFileWriter(tempDir, 0.0, Runnable::run, 0));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ClassFileWriter(tempDir, 0.0, Runnable::run, -1));
+    }
+
+    @Test
+    public void reportsWriteFailuresOnClose() throws IOException {
+        var tempDir = createTempDir();
+        try {
+            // A file where the package directory should be
+            var blockedPath = tempDir.resolve("Mina");
+            Files.write(blockedPath, new byte[0]);
+
+            var classFileWriter = new ClassFileWriter(tempDir, 0.0);
+            classFileWriter.write(blockedPath.resolve("Test").resolve("$namespace.class"), new byte[0]);
+
+            Assertions.assertThrows(IOException.class, classFileWriter::close);
+        } finally {
+            clearTempDir(tempDir);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2024-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.codegen.jvm;
@@ -38,8 +38,22 @@ public class CodeGeneratorTest {
     // Shrinking doesn't work well with such complex arbitraries
     @Property(shrinking = ShrinkingMode.OFF)
     public void generatesArbitraryNamespaces(@ForAll NamespaceNode<Attributes> namespace) throws IOException {
+        generatesNamespace(CodegenOptions.defaults(), namespace);
+    }
+
+    @Property(shrinking = ShrinkingMode.OFF)
+    public void generatesArbitraryNamespacesWithMutualTailCalls(@ForAll NamespaceNode<Attributes> namespace) throws IOException {
+        generatesNamespace(CodegenOptions.defaults().withMutualTailCalls(true), namespace);
+    }
+
+    @Property(shrinking = ShrinkingMode.OFF)
+    public void generatesArbitraryNamespacesWithSpecialisedConstructors(@ForAll NamespaceNode<Attributes> namespace) throws IOException {
+        generatesNamespace(CodegenOptions.defaults().withSpecialiseConstructors(true), namespace);
+    }
+
+    private void generatesNamespace(CodegenOptions options, NamespaceNode<Attributes> namespace) throws IOException {
         var contextLoader = Thread.currentThread().getContextClassLoader();
-        var codeGenerator = new CodeGenerator();
+        var codeGenerator = new CodeGenerator(options.withVerificationRate(1.0));
         var tempDir = createTempDir();
         try (var urlLoader = URLClassLoader.newInstance(new URL[] { tempDir.toUri().toURL() }, contextLoader)) {
             var namespaceClassName = namespace.getName().canonicalName().replace('/', '.') + ".$namespace";
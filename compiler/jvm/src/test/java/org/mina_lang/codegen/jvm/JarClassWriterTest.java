@@ -0,0 +1,212 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.codegen.jvm;
+
+import org.apache.commons.lang3.function.Failable;
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mina_lang.common.names.NamespaceName;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class JarClassWriterTest {
+    private Path createTempDir() throws IOException {
+        return Files.createTempDirectory("mina-codegen-jar-test");
+    }
+
+    private void clearTempDir(Path tempDir) throws IOException {
+        try (var paths = Files.walk(tempDir)) {
+            Failable
+                .stream(paths.sorted(Comparator.reverseOrder()))
+                .forEach(Files::delete);
+        }
+    }
+
+    @Test
+    public void writesClassesFromManyThreads() throws Exception {
+        var tempDir = createTempDir();
+        try {
+            var jarPath = tempDir.resolve("out").resolve("classes.jar");
+
+            // Use a tiny queue so that the code generation threads have to wait for the writer
+            try (var jarWriter = new JarClassWriter(jarPath, false, 0.0, 1)) {
+                var executor = Executors.newFixedThreadPool(4);
+                for (var i = 0; i < 20; i++) {
+                    var classIndex = i;
+                    executor.execute(() -> {
+                        var pkgPath = Path.of("Mina", "Test" + (classIndex % 3));
+                        jarWriter.write(pkgPath.resolve("Class" + classIndex + ".class"), new byte[] { (byte) classIndex });
+                    });
+                }
+                executor.shutdown();
+                assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+            }
+
+            try (var jarFile = new JarFile(jarPath.toFile())) {
+                assertThat(jarFile.getManifest(), is(notNullValue()));
+                for (var i = 0; i < 20; i++) {
+                    var entry = jarFile.getJarEntry("Mina/Test" + (i % 3) + "/Class" + i + ".class");
+                    assertThat(entry, is(notNullValue()));
+                    assertThat(jarFile.getInputStream(entry).readAllBytes(), is(equalTo(new byte[] { (byte) i })));
+                }
+            }
+        } finally {
+            clearTempDir(tempDir);
+        }
+    }
+
+    private byte[] namespaceClass(String internalName, byte[] environment) {
+        var classWriter = new ClassWriter(0);
+        classWriter.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL, internalName, null, "java/lang/Object", null);
+        classWriter.visitAttribute(new Asm.EnvironmentAttribute(environment));
+        classWriter.visitEnd();
+        return classWriter.toByteArray();
+    }
+
+    @Test
+    public void writesNamespaceIndex() throws IOException {
+        var tempDir = createTempDir();
+        try {
+            var jarPath = tempDir.resolve("classes.jar");
+            var mainEnvironment = new byte[] { 1, 2, 3 };
+            var listsEnvironment = new byte[] { 4, 5 };
+            var mainClass = namespaceClass("Mina/Test/Main/$namespace", mainEnvironment);
+            var listsClass = namespaceClass("Mina/Test/Lists/$namespace", listsEnvironment);
+
+            try (var jarWriter = new JarClassWriter(jarPath, false, 0.0)) {
+                jarWriter.write(Path.of("Mina", "Test", "Main", "$namespace.class"), mainClass);
+                jarWriter.write(Path.of("Mina", "Test", "Main", "List.class"), new byte[0]);
+                jarWriter.write(Path.of("Mina", "Test", "Lists", "$namespace.class"), listsClass);
+            }
+
+            try (var jarFile = new JarFile(jarPath.toFile())) {
+                var index = NamespaceIndex.read(jarFile.getInputStream(jarFile.getJarEntry(NamespaceIndex.RESOURCE_NAME)));
+                var mainName = new NamespaceName(Lists.immutable.of("Mina", "Test"), "Main");
+                var listsName = new NamespaceName(Lists.immutable.of("Mina", "Test"), "Lists");
+
+                assertThat(index.entries().keysView().toSet(), containsInAnyOrder(mainName, listsName));
+
+                var mainEntry = index.entries().get(mainName);
+                assertThat(mainEntry.classResource(), is(equalTo("Mina/Test/Main/$namespace.class")));
+                assertThat(mainEntry.matches(mainClass), is(true));
+                assertThat(
+                    Arrays.copyOfRange(mainClass, mainEntry.offset(), mainEntry.offset() + mainEntry.length()),
+                    is(equalTo(mainEnvironment)));
+
+                var listsEntry = index.entries().get(listsName);
+                assertThat(listsEntry.matches(listsClass), is(true));
+                assertThat(listsEntry.matches(mainClass), is(false));
+            }
+        } finally {
+            clearTempDir(tempDir);
+        }
+    }
+
+    @Test
+    public void storesUncompressedEntries() throws IOException {
+        var tempDir = createTempDir();
+        try {
+            var jarPath = tempDir.resolve("classes.jar");
+            var classData = new byte[] { 1, 2, 3, 4 };
+
+            try (var jarWriter = new JarClassWriter(jarPath, true, 0.0)) {
+                jarWriter.write(Path.of("Mina", "Test", "Main", "$namespace.class"), classData);
+            }
+
+            try (var jarFile = new JarFile(jarPath.toFile())) {
+                var entry = jarFile.getJarEntry("Mina/Test/Main/$namespace.class");
+                assertThat(entry.getMethod(), is(ZipEntry.STORED));
+                assertThat(jarFile.getInputStream(entry).readAllBytes(), is(equalTo(classData)));
+            }
+        } finally {
+            clearTempDir(tempDir);
+        }
+    }
+
+    @Test
+    public void writesIdenticalJarsRegardlessOfWriteOrder() throws IOException {
+        var tempDir = createTempDir();
+        try {
+            var classFiles = Lists.mutable.<Path>empty();
+            for (var i = 0; i < 10; i++) {
+                classFiles.add(Path.of("Mina", "Test" + (i % 3), "Class" + i + ".class"));
+            }
+
+            var firstJar = tempDir.resolve("first.jar");
+            try (var jarWriter = new JarClassWriter(firstJar, false, 0.0)) {
+                classFiles.forEach(classFile -> jarWriter.write(classFile, classFile.toString().getBytes()));
+            }
+
+            var secondJar = tempDir.resolve("second.jar");
+            try (var jarWriter = new JarClassWriter(secondJar, false, 0.0)) {
+                classFiles.asReversed().forEach(classFile -> jarWriter.write(classFile, classFile.toString().getBytes()));
+            }
+
+            assertThat(Files.readAllBytes(secondJar), is(equalTo(Files.readAllBytes(firstJar))));
+
+            try (var jarFile = new JarFile(firstJar.toFile())) {
+                assertThat(jarFile.getManifest(), is(notNullValue()));
+
+                var entries = jarFile.stream().toList();
+                var classEntryNames = entries.stream()
+                    .map(ZipEntry::getName)
+                    .filter(name -> name.endsWith(".class"))
+                    .toList();
+
+                assertThat(classEntryNames, is(equalTo(classEntryNames.stream().sorted().toList())));
+                for (var entry : entries) {
+                    assertThat(entry.getTimeLocal(), is(JarClassWriter.ENTRY_TIME));
+                }
+            }
+        } finally {
+            clearTempDir(tempDir);
+        }
+    }
+
+    @Test
+    public void discardsJarOnAbort() throws IOException {
+        var tempDir = createTempDir();
+        try {
+            var jarPath = tempDir.resolve("classes.jar");
+
+            var jarWriter = new JarClassWriter(jarPath, false, 0.0);
+            jarWriter.write(Path.of("Mina", "Test", "Main", "$namespace.class"), new byte[0]);
+            jarWriter.abort();
+
+            assertThat(Files.exists(jarPath), is(false));
+        } finally {
+            clearTempDir(tempDir);
+        }
+    }
+
+    @Test
+    public void rejectsWritesAfterClose() throws IOException {
+        var tempDir = createTempDir();
+        try {
+            var jarWriter = new JarClassWriter(tempDir.resolve("classes.jar"), false, 0.0);
+            jarWriter.close();
+
+            Assertions.assertThrows(
+                RuntimeException.class,
+                () -> jarWriter.write(Path.of("Mina", "Test", "Main", "$namespace.class"), new byte[0]));
+        } finally {
+            clearTempDir(tempDir);
+        }
+    }
+}
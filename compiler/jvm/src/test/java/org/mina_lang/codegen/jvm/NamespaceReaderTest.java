@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2024-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.codegen.jvm;
@@ -59,4 +59,27 @@ public class NamespaceReaderTest {
             clearTempDir(tempDir);
         }
     }
+
+    @Property(shrinking = ShrinkingMode.OFF)
+    public void roundTripsArbitraryNamespacesThroughIndex(@ForAll NamespaceNode<Attributes> namespace) throws IOException {
+        var originalScope = namespace.getScope();
+        var codeGenerator = new CodeGenerator();
+        var tempDir = createTempDir();
+        try {
+            try {
+                codeGenerator.generate(tempDir, namespace);
+            } catch (Exception e) {
+                System.err.println(namespace.accept(printer).render(80));
+                Assertions.fail("Exception while generating code for namespace" + namespace.getName().canonicalName(), e);
+            }
+            try (var indexData = Files.newInputStream(tempDir.resolve(NamespaceIndex.RESOURCE_NAME))) {
+                var indexEntry = NamespaceIndex.read(indexData).entries().get(namespace.getName());
+                var classData = Files.readAllBytes(tempDir.resolve(indexEntry.classResource()));
+                var classpathScope = NamespaceReader.readScope(classData, indexEntry);
+                assertThat(classpathScope, is(equalTo(originalScope)));
+            }
+        } finally {
+            clearTempDir(tempDir);
+        }
+    }
 }
@@ -31,7 +31,8 @@ dependencies {
     implementation(project(":compiler:mina-compiler-optimiser"))
 
     // JVM Bytecode Generation
-    implementation(project(":compiler:mina-compiler-jvm"))
+    // CodegenOptions appears in the public API
+    api(project(":compiler:mina-compiler-jvm"))
 
     // Graph Data Structures
     implementation(libs.jgrapht)
@@ -39,6 +40,23 @@ dependencies {
 
     // Logging
     implementation(libs.slf4jApi)
+
+    // Runtime (needed to load compiled namespaces in tests)
+    testImplementation(project(":mina-runtime"))
+}
+
+// Benchmarks are slow, so they only run when requested
+tasks.test { useJUnitPlatform { excludeTags("benchmark") } }
+
+val benchmark by tasks.registering(Test::class) {
+    description = "Times the compiler phases with each phase executor."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    useJUnitPlatform { includeTags("benchmark") }
+    testLogging { showStandardStreams = true }
+    // Timings are only useful when they are measured again
+    outputs.upToDateWhen { false }
 }
 
 buildInfo {
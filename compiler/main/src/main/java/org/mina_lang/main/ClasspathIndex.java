@@ -0,0 +1,187 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.main;
+
+import org.mina_lang.codegen.jvm.NamespaceIndex;
+import org.mina_lang.codegen.jvm.NamespaceReader;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.Meta;
+import org.mina_lang.common.Scope;
+import org.mina_lang.common.names.NamespaceName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarFile;
+
+// Locates the namespaces on a classpath using the namespace indexes that the compiler writes
+// into each jar and class directory. The indexes of every classpath entry are read in a single pass,
+// so resolving an import is a map lookup rather than a search through every entry of the classpath.
+// Namespaces from classpath entries without an index are still found by searching the classpath.
+public class ClasspathIndex implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ClasspathIndex.class);
+
+    private final Map<NamespaceName, Location> locations;
+    private final List<JarFile> jarFiles;
+
+    public sealed interface Location {
+        NamespaceIndex.Entry entry();
+
+        // The file whose modification indicates that the namespace may have changed
+        Path file();
+
+        // Identifies the namespace class in the scope cache
+        String classUrl();
+
+        byte[] readClass() throws IOException;
+
+        // Returns null if the namespace class no longer matches the index
+        default Scope<Meta<Attributes>> readScope() throws IOException {
+            return NamespaceReader.readScope(readClass(), entry());
+        }
+    }
+
+    record JarLocation(Path file, JarFile jarFile, NamespaceIndex.Entry entry) implements Location {
+        @Override
+        public String classUrl() {
+            return "jar:" + file.toUri() + "!/" + entry.classResource();
+        }
+
+        @Override
+        public byte[] readClass() throws IOException {
+            var jarEntry = jarFile.getJarEntry(entry.classResource());
+            if (jarEntry == null) { return new byte[0]; }
+            try (var classData = jarFile.getInputStream(jarEntry)) {
+                return classData.readAllBytes();
+            }
+        }
+    }
+
+    record DirectoryLocation(Path directory, NamespaceIndex.Entry entry) implements Location {
+        @Override
+        public Path file() {
+            return directory.resolve(entry.classResource());
+        }
+
+        @Override
+        public String classUrl() {
+            return file().toUri().toString();
+        }
+
+        @Override
+        public byte[] readClass() throws IOException {
+            return Files.isRegularFile(file()) ? Files.readAllBytes(file()) : new byte[0];
+        }
+    }
+
+    ClasspathIndex(Map<NamespaceName, Location> locations, List<JarFile> jarFiles) {
+        this.locations = locations;
+        this.jarFiles = jarFiles;
+    }
+
+    public static ClasspathIndex empty() {
+        return new ClasspathIndex(Map.of(), List.of());
+    }
+
+    // Where a namespace appears in more than one classpath entry, the first entry wins as it does for the class loader
+    public static ClasspathIndex read(URL[] classpath) {
+        var locations = new HashMap<NamespaceName, Location>();
+        var jarFiles = new ArrayList<JarFile>();
+
+        for (var url : classpath) {
+            if (!"file".equals(url.getProtocol())) { continue; }
+            try {
+                var path = Path.of(url.toURI());
+                if (Files.isDirectory(path)) {
+                    readDirectoryIndex(path, locations);
+                } else if (Files.isRegularFile(path)) {
+                    readJarIndex(path, locations, jarFiles);
+                }
+            } catch (URISyntaxException | IOException e) {
+                logger.debug("Unable to read the namespace index of classpath entry {}", url, e);
+            }
+        }
+
+        return new ClasspathIndex(locations, jarFiles);
+    }
+
+    static void readDirectoryIndex(Path directory, Map<NamespaceName, Location> locations) throws IOException {
+        var indexFile = directory.resolve(NamespaceIndex.RESOURCE_NAME);
+
+        if (!Files.isRegularFile(indexFile)) { return; }
+
+        try (var indexData = Files.newInputStream(indexFile)) {
+            var index = NamespaceIndex.read(indexData);
+            if (index != null) {
+                index.entries().forEachKeyValue((nsName, entry) -> {
+                    locations.putIfAbsent(nsName, new DirectoryLocation(directory, entry));
+                });
+            }
+        }
+    }
+
+    static void readJarIndex(Path jar, Map<NamespaceName, Location> locations, List<JarFile> jarFiles) throws IOException {
+        var jarFile = new JarFile(jar.toFile());
+        var indexEntry = jarFile.getJarEntry(NamespaceIndex.RESOURCE_NAME);
+
+        NamespaceIndex index = null;
+
+        if (indexEntry != null) {
+            try (var indexData = jarFile.getInputStream(indexEntry)) {
+                index = NamespaceIndex.read(indexData);
+            } catch (IOException e) {
+                jarFile.close();
+                throw e;
+            }
+        }
+
+        // Only jars that contain indexed namespaces are kept open
+        if (index == null || index.entries().isEmpty()) {
+            jarFile.close();
+        } else {
+            jarFiles.add(jarFile);
+            index.entries().forEachKeyValue((nsName, entry) -> {
+                locations.putIfAbsent(nsName, new JarLocation(jar, jarFile, entry));
+            });
+        }
+    }
+
+    public Location locate(NamespaceName namespace) {
+        return locations.get(namespace);
+    }
+
+    public int size() {
+        return locations.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+
+        for (var jarFile : jarFiles) {
+            try {
+                jarFile.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -1,20 +1,22 @@
 /*
- * SPDX-FileCopyrightText:  © 2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2024-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.main;
 
-import org.mina_lang.codegen.jvm.NamespaceReader;
 import org.mina_lang.common.Attributes;
 import org.mina_lang.common.Meta;
 import org.mina_lang.common.Scope;
 import org.mina_lang.common.names.NamespaceName;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.ParallelFlux;
 
 import java.io.IOException;
+import java.net.URLClassLoader;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -24,10 +26,14 @@ public class ClasspathResolutionPhase implements ParallelPhase<NamespaceName, Co
     private final ParallelFlux<NamespaceName> importedNamespaces;
     private final ConcurrentHashMap<NamespaceName, Scope<Meta<Attributes>>> classpathScopes = new ConcurrentHashMap<>();
 
-    private final ClassLoader classLoader;
+    private final URLClassLoader classLoader;
+    private final ClasspathScopeCache scopeCache;
 
-    public ClasspathResolutionPhase(ClassLoader classLoader, Set<NamespaceName> importedNamespaces) {
+    private volatile ClasspathIndex classpathIndex = ClasspathIndex.empty();
+
+    public ClasspathResolutionPhase(URLClassLoader classLoader, ClasspathScopeCache scopeCache, Set<NamespaceName> importedNamespaces) {
         this.classLoader = classLoader;
+        this.scopeCache = scopeCache;
         this.importedNamespaces = Flux
             .fromIterable(importedNamespaces)
             .parallel();
@@ -38,10 +44,23 @@ public class ClasspathResolutionPhase implements ParallelPhase<NamespaceName, Co
         return importedNamespaces;
     }
 
+    @Override
+    public Mono<ConcurrentHashMap<NamespaceName, Scope<Meta<Attributes>>>> runPhase() {
+        // The namespace indexes of the whole classpath are read once, before resolving any imports
+        return Mono.using(() -> {
+            classpathIndex = ClasspathIndex.read(classLoader.getURLs());
+            logger.info("Indexed {} namespaces from the classpath", classpathIndex.size());
+            return classpathIndex;
+        }, index -> ParallelPhase.super.runPhase(), index -> {
+            try { index.close(); }
+            catch (IOException e) { throw Exceptions.propagate(e); }
+        });
+    }
+
     @Override
     public void consumeInput(NamespaceName importedNamespace) throws IOException {
         logger.info("Resolving imported namespace {}", importedNamespace.canonicalName());
-        var classpathScope = NamespaceReader.readScope(classLoader, importedNamespace);
+        var classpathScope = scopeCache.readScope(classLoader, classpathIndex, importedNamespace);
         if (classpathScope != null) {
             classpathScopes.put(importedNamespace, classpathScope);
         }
@@ -0,0 +1,185 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.main;
+
+import org.mina_lang.codegen.jvm.NamespaceReader;
+import org.mina_lang.codegen.jvm.Names;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.Meta;
+import org.mina_lang.common.Scope;
+import org.mina_lang.common.names.NamespaceName;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Caches the scopes decoded from namespaces on the classpath, so that a long-lived compiler
+// doesn't decode the same dependencies again for every compilation.
+// Entries are keyed by the location of the namespace class and are discarded when the
+// jar or class file that contains it changes. The least recently used entries are evicted
+// once the cache is full, and the scopes are softly referenced so that they are released
+// under heap pressure.
+public class ClasspathScopeCache {
+    public static final int DEFAULT_MAX_ENTRIES = 4096;
+
+    private final Map<String, CachedScope> scopes;
+    private final AtomicLong hits = new AtomicLong(0L);
+    private final AtomicLong misses = new AtomicLong(0L);
+
+    record CachedScope(long lastModified, long size, SoftReference<Scope<Meta<Attributes>>> scope) {
+        boolean isCurrent(FileStamp stamp) {
+            return lastModified == stamp.lastModified() && size == stamp.size();
+        }
+    }
+
+    record FileStamp(long lastModified, long size) {}
+
+    public ClasspathScopeCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public ClasspathScopeCache(int maxEntries) {
+        this.scopes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedScope> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    // Namespaces that are listed in the classpath index are read from the location in the index,
+    // and any others are found by searching the classpath
+    public Scope<Meta<Attributes>> readScope(ClassLoader classLoader, ClasspathIndex classpathIndex, NamespaceName namespace) throws IOException {
+        var location = classpathIndex.locate(namespace);
+
+        if (location != null) {
+            var stamp = fileStamp(location.file());
+            var scope = stamp != null ? cachedScope(location.classUrl(), stamp) : null;
+
+            if (scope != null) {
+                return scope;
+            }
+
+            misses.incrementAndGet();
+
+            scope = location.readScope();
+
+            if (scope != null) {
+                cacheScope(location.classUrl(), stamp, scope);
+                return scope;
+            }
+
+            // The index is out of date, so fall back to searching the classpath
+        }
+
+        return readScope(classLoader, namespace);
+    }
+
+    public Scope<Meta<Attributes>> readScope(ClassLoader classLoader, NamespaceName namespace) throws IOException {
+        var classUrl = classLoader.getResource(Names.getInternalName(namespace) + ".class");
+
+        if (classUrl == null) {
+            return null;
+        }
+
+        var stamp = fileStamp(classUrl);
+
+        // We can't tell whether classes from other kinds of location have changed
+        if (stamp == null) {
+            misses.incrementAndGet();
+            return NamespaceReader.readScope(classLoader, namespace);
+        }
+
+        var cacheKey = classUrl.toString();
+        var cached = cachedScope(cacheKey, stamp);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        misses.incrementAndGet();
+
+        var scope = NamespaceReader.readScope(classLoader, namespace);
+
+        if (scope != null) {
+            cacheScope(cacheKey, stamp, scope);
+        }
+
+        return scope;
+    }
+
+    Scope<Meta<Attributes>> cachedScope(String cacheKey, FileStamp stamp) {
+        synchronized (scopes) {
+            var cached = scopes.get(cacheKey);
+            if (cached != null && cached.isCurrent(stamp)) {
+                var scope = cached.scope().get();
+                if (scope != null) {
+                    hits.incrementAndGet();
+                    return scope;
+                }
+            }
+            return null;
+        }
+    }
+
+    void cacheScope(String cacheKey, FileStamp stamp, Scope<Meta<Attributes>> scope) {
+        if (stamp != null) {
+            synchronized (scopes) {
+                scopes.put(cacheKey, new CachedScope(stamp.lastModified(), stamp.size(), new SoftReference<>(scope)));
+            }
+        }
+    }
+
+    FileStamp fileStamp(URL classUrl) throws IOException {
+        try {
+            Path file;
+            if ("jar".equals(classUrl.getProtocol())) {
+                var jarConnection = (JarURLConnection) classUrl.openConnection();
+                var jarUrl = jarConnection.getJarFileURL();
+                if (!"file".equals(jarUrl.getProtocol())) { return null; }
+                file = Path.of(jarUrl.toURI());
+            } else if ("file".equals(classUrl.getProtocol())) {
+                file = Path.of(classUrl.toURI());
+            } else {
+                return null;
+            }
+            return fileStamp(file);
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    FileStamp fileStamp(Path file) throws IOException {
+        if (!Files.exists(file)) { return null; }
+        return new FileStamp(Files.getLastModifiedTime(file).toMillis(), Files.size(file));
+    }
+
+    public int size() {
+        synchronized (scopes) {
+            return scopes.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    public void clear() {
+        synchronized (scopes) {
+            scopes.clear();
+        }
+    }
+}
@@ -1,45 +1,65 @@
 /*
- * SPDX-FileCopyrightText:  © 2023-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.main;
 
+import org.eclipse.collections.api.list.ImmutableList;
+import org.mina_lang.codegen.jvm.ClassOutput;
 import org.mina_lang.codegen.jvm.CodeGenerator;
+import org.mina_lang.codegen.jvm.CodegenOptions;
 import org.mina_lang.common.Attributes;
 import org.mina_lang.common.names.NamespaceName;
 import org.mina_lang.parser.ANTLRDiagnosticReporter;
 import org.mina_lang.syntax.NamespaceNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.publisher.ParallelFlux;
-import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.concurrent.ConcurrentHashMap;
 
-public class CodegenPhase implements ParallelPhase<NamespaceNode<Attributes>, Void> {
+public class CodegenPhase implements ParallelPhase<NamespaceNode<Attributes>, ConcurrentHashMap<NamespaceName, ImmutableList<Path>>> {
     private static final Logger logger = LoggerFactory.getLogger(CodegenPhase.class);
 
-    private final Path destinationPath;
+    private final CodegenOptions options;
     private final ConcurrentHashMap<NamespaceName, NamespaceNode<Attributes>> namespaceNodes;
     private final ConcurrentHashMap<NamespaceName, ANTLRDiagnosticReporter> scopedDiagnostics;
+    private final ClassOutput classOutput;
+    private final ConcurrentHashMap<NamespaceName, ImmutableList<Path>> classFiles = new ConcurrentHashMap<>();
 
-    public CodegenPhase(Path destinationPath,
+    private PhaseExecutor executor = PhaseExecutor.REACTOR;
+
+    public CodegenPhase(CodegenOptions options,
+            Path destinationPath,
+            ConcurrentHashMap<NamespaceName, NamespaceNode<Attributes>> namespaceNodes,
+            ConcurrentHashMap<NamespaceName, ANTLRDiagnosticReporter> scopedDiagnostics) {
+        this(options, ClassOutput.open(destinationPath, options), namespaceNodes, scopedDiagnostics);
+    }
+
+    public CodegenPhase(CodegenOptions options,
+            ClassOutput classOutput,
             ConcurrentHashMap<NamespaceName, NamespaceNode<Attributes>> namespaceNodes,
             ConcurrentHashMap<NamespaceName, ANTLRDiagnosticReporter> scopedDiagnostics) {
-        this.destinationPath = destinationPath;
+        this.options = options;
         this.namespaceNodes = namespaceNodes;
         this.scopedDiagnostics = scopedDiagnostics;
+        this.classOutput = classOutput;
+    }
+
+    public CodegenPhase withExecutor(PhaseExecutor executor) {
+        this.executor = executor;
+        return this;
     }
 
     @Override
     public ParallelFlux<NamespaceNode<Attributes>> inputFlux() {
         return Flux.fromIterable(namespaceNodes.values())
                 .parallel()
-                .runOn(Schedulers.parallel());
+                .runOn(executor.scheduler());
     }
 
     @Override
@@ -48,17 +68,28 @@ public class CodegenPhase implements ParallelPhase<NamespaceNode<Attributes>, Vo
         var nsDiagnostics = scopedDiagnostics.get(nsName);
         if (!nsDiagnostics.hasErrors()) {
             logger.info("Emitting namespace {}", nsName.canonicalName());
-            var codegen = new CodeGenerator();
-            try {
-                codegen.generate(destinationPath, typecheckedNode);
-            } catch (IOException e) {
-                throw Exceptions.propagate(e);
-            }
+            var codegen = new CodeGenerator(options);
+            classFiles.put(nsName, codegen.generate(classOutput, typecheckedNode));
         }
     }
 
     @Override
-    public Void transformedData() {
-        return null;
+    public Mono<ConcurrentHashMap<NamespaceName, ImmutableList<Path>>> runPhase() {
+        // Wait for the class files which are still being written before completing the phase
+        return ParallelPhase.super.runPhase()
+                .then(Mono.defer(() -> {
+                    try {
+                        classOutput.close();
+                        return Mono.just(classFiles);
+                    } catch (IOException e) {
+                        return Mono.error(e);
+                    }
+                }))
+                .doOnError(e -> classOutput.abort());
+    }
+
+    @Override
+    public ConcurrentHashMap<NamespaceName, ImmutableList<Path>> transformedData() {
+        return classFiles;
     }
 }
@@ -0,0 +1,40 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.main;
+
+import org.mina_lang.codegen.jvm.CodegenOptions;
+
+public record CompilerOptions(CodegenOptions codegen, PhaseExecutor phaseExecutor, IoMode ioMode, int ioConcurrency, boolean profileTypechecker) {
+    public CompilerOptions {
+        // No file could ever be read or written with fewer
+        if (ioConcurrency < 1) {
+            throw new IllegalArgumentException("The I/O concurrency must be at least 1, but got " + ioConcurrency);
+        }
+    }
+
+    public static CompilerOptions defaults() {
+        return new CompilerOptions(CodegenOptions.defaults(), PhaseExecutor.REACTOR, IoMode.ELASTIC, IoMode.DEFAULT_CONCURRENCY, false);
+    }
+
+    public CompilerOptions withCodegen(CodegenOptions codegen) {
+        return new CompilerOptions(codegen, phaseExecutor, ioMode, ioConcurrency, profileTypechecker);
+    }
+
+    public CompilerOptions withPhaseExecutor(PhaseExecutor phaseExecutor) {
+        return new CompilerOptions(codegen, phaseExecutor, ioMode, ioConcurrency, profileTypechecker);
+    }
+
+    public CompilerOptions withIoMode(IoMode ioMode) {
+        return new CompilerOptions(codegen, phaseExecutor, ioMode, ioConcurrency, profileTypechecker);
+    }
+
+    public CompilerOptions withIoConcurrency(int ioConcurrency) {
+        return new CompilerOptions(codegen, phaseExecutor, ioMode, ioConcurrency, profileTypechecker);
+    }
+
+    public CompilerOptions withProfileTypechecker(boolean profileTypechecker) {
+        return new CompilerOptions(codegen, phaseExecutor, ioMode, ioConcurrency, profileTypechecker);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2023-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.main;
@@ -19,7 +19,10 @@ import reactor.core.scheduler.Schedulers;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public non-sealed abstract class GraphPhase<A, B>
@@ -36,6 +39,8 @@ public non-sealed abstract class GraphPhase<A, B>
     private final Set<NamespaceName> rootNodes;
     private final Map<NamespaceName, AtomicInteger> namespaceDependencies;
 
+    private PhaseExecutor executor = PhaseExecutor.REACTOR;
+
     GraphPhase(
             Graph<NamespaceName, DefaultEdge> namespaceGraph,
             ConcurrentHashMap<NamespaceName, A> namespaceNodes,
@@ -58,6 +63,11 @@ public non-sealed abstract class GraphPhase<A, B>
 
     abstract Mono<B> transformNode(A inputNode);
 
+    public GraphPhase<A, B> withExecutor(PhaseExecutor executor) {
+        this.executor = executor;
+        return this;
+    }
+
     ParallelFlux<B> topoTraverseFrom(NamespaceName startNode) {
         return Optional.ofNullable(inputNodes.get(startNode))
                 .map(inputNode -> {
@@ -95,6 +105,10 @@ public non-sealed abstract class GraphPhase<A, B>
     }
 
     public Mono<ConcurrentHashMap<NamespaceName, B>> runPhase() {
+        if (executor == PhaseExecutor.FORK_JOIN) {
+            return Mono.fromFuture(() -> forkJoinTraverse(executor.forkJoinPool()));
+        }
+
         return Flux.fromIterable(rootNodes)
                 .parallel()
                 .runOn(Schedulers.parallel())
@@ -103,6 +117,96 @@ public non-sealed abstract class GraphPhase<A, B>
                 .thenReturn(transformedData());
     }
 
+    CompletableFuture<ConcurrentHashMap<NamespaceName, B>> forkJoinTraverse(ForkJoinPool pool) {
+        var result = new CompletableFuture<ConcurrentHashMap<NamespaceName, B>>();
+        pool.execute(new TraversalTask(result));
+        return result;
+    }
+
+    // Returns whether the namespace was transformed without errors, so that its importers can proceed.
+    // The phases produce their results synchronously, so waiting for them doesn't block a worker for long.
+    boolean transformNamespace(NamespaceName namespace) {
+        var inputNode = inputNodes.get(namespace);
+
+        // This may happen if the node had errors in a previous phase
+        if (inputNode == null || scopedDiagnostics.get(namespace).hasErrors()) {
+            return false;
+        }
+
+        var transformedNode = transformNode(inputNode).block();
+
+        if (transformedNode == null) {
+            return false;
+        }
+
+        transformedNodes.put(namespace, transformedNode);
+
+        return !scopedDiagnostics.get(namespace).hasErrors();
+    }
+
+    // Completes once every namespace task that it has forked, directly or indirectly, has completed
+    class TraversalTask extends CountedCompleter<Void> {
+        private final CompletableFuture<ConcurrentHashMap<NamespaceName, B>> result;
+
+        TraversalTask(CompletableFuture<ConcurrentHashMap<NamespaceName, B>> result) {
+            this.result = result;
+        }
+
+        @Override
+        public void compute() {
+            setPendingCount(rootNodes.size());
+            rootNodes.forEach(rootNode -> new NamespaceTask(this, rootNode).fork());
+            tryComplete();
+        }
+
+        @Override
+        public void onCompletion(CountedCompleter<?> caller) {
+            result.complete(transformedData());
+        }
+
+        @Override
+        public boolean onExceptionalCompletion(Throwable exception, CountedCompleter<?> caller) {
+            result.completeExceptionally(exception);
+            return false;
+        }
+    }
+
+    class NamespaceTask extends CountedCompleter<Void> {
+        private final NamespaceName namespace;
+
+        NamespaceTask(CountedCompleter<?> parent, NamespaceName namespace) {
+            super(parent);
+            this.namespace = namespace;
+        }
+
+        @Override
+        public void compute() {
+            var current = namespace;
+
+            while (current != null) {
+                NamespaceName next = null;
+
+                if (transformNamespace(current)) {
+                    for (var successor : Graphs.successorListOf(namespaceGraph, current)) {
+                        if (namespaceDependencies.get(successor).decrementAndGet() == 0) {
+                            // Fork all but one of the released importers, and continue with the last one
+                            // in this task, so that a chain of imports doesn't pay for a task per namespace
+                            if (next != null) {
+                                addToPendingCount(1);
+                                new NamespaceTask(this, next).fork();
+                            }
+                            next = successor;
+                        }
+                    }
+                }
+
+                current = next;
+            }
+
+            tryComplete();
+        }
+    }
+
     public ConcurrentHashMap<NamespaceName, B> transformedData() {
         return transformedNodes;
     }
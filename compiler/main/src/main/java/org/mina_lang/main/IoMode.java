@@ -0,0 +1,63 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.main;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Selects where the blocking file I/O of a compilation runs: finding and reading source files, and writing class files.
+// ELASTIC uses Reactor's bounded elastic scheduler for reading and a small pool of writer threads for writing.
+// VIRTUAL_THREADS runs each file operation on its own virtual thread, bounded only by the configured I/O concurrency,
+// which keeps many reads and writes in flight on high-latency filesystems without tying up platform threads.
+// The compiler still targets Java 17, so virtual threads are looked up when the compiler starts;
+// on older runtimes VIRTUAL_THREADS falls back to ELASTIC.
+public enum IoMode {
+    ELASTIC,
+    VIRTUAL_THREADS;
+
+    public static final int DEFAULT_CONCURRENCY = 256;
+
+    // Created on first use, so that the lookup only happens when virtual threads are selected
+    private static final class VirtualThreads {
+        static final ExecutorService executor = createExecutor();
+
+        static final Scheduler scheduler = executor != null
+            ? Schedulers.fromExecutorService(executor, "mina-io")
+            : null;
+
+        static ExecutorService createExecutor() {
+            try {
+                var newExecutor = MethodHandles.publicLookup().findStatic(
+                    Executors.class,
+                    "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+                return (ExecutorService) newExecutor.invoke();
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+    }
+
+    public boolean isAvailable() {
+        return this == ELASTIC || VirtualThreads.executor != null;
+    }
+
+    public boolean usesVirtualThreads() {
+        return this == VIRTUAL_THREADS && isAvailable();
+    }
+
+    public Scheduler scheduler() {
+        return usesVirtualThreads() ? VirtualThreads.scheduler : Schedulers.boundedElastic();
+    }
+
+    ExecutorService virtualThreadExecutor() {
+        return VirtualThreads.executor;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2023-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.main;
@@ -7,14 +7,20 @@ package org.mina_lang.main;
 import com.opencastsoftware.yvette.Range;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CharStreams;
+import org.eclipse.collections.api.factory.Lists;
 import org.eclipse.collections.api.factory.Maps;
 import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.MutableSet;
 import org.jgrapht.Graph;
 import org.jgrapht.alg.cycle.HawickJamesSimpleCycles;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.graph.builder.GraphTypeBuilder;
 import org.jgrapht.nio.DefaultAttribute;
 import org.jgrapht.nio.dot.DOTExporter;
+import org.mina_lang.codegen.jvm.ClassFileWriter;
+import org.mina_lang.codegen.jvm.ClassOutput;
 import org.mina_lang.common.diagnostics.BaseDiagnosticCollector;
 import org.mina_lang.common.names.NamespaceName;
 import org.mina_lang.parser.ANTLRDiagnosticReporter;
@@ -26,6 +32,7 @@ import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.ParallelFlux;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
@@ -37,6 +44,7 @@ import java.nio.file.FileVisitOption;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
@@ -48,6 +56,7 @@ public class Main {
     private static Logger logger = LoggerFactory.getLogger(Main.class);
 
     private BaseDiagnosticCollector mainCollector;
+    private ClasspathScopeCache classpathScopeCache;
 
     private ConcurrentHashMap<NamespaceName, NamespaceNode<Void>> namespaceNodes;
     private ConcurrentHashMap<NamespaceName, ANTLRDiagnosticReporter> scopedDiagnostics;
@@ -55,7 +64,13 @@ public class Main {
     private DOTExporter<NamespaceName, DefaultEdge> dotExporter = new DOTExporter<>();
 
     public Main(BaseDiagnosticCollector diagnostics) {
+        this(diagnostics, new ClasspathScopeCache());
+    }
+
+    // Compilers that share a scope cache don't need to decode the same classpath namespaces again
+    public Main(BaseDiagnosticCollector diagnostics, ClasspathScopeCache classpathScopeCache) {
         this.mainCollector = diagnostics;
+        this.classpathScopeCache = classpathScopeCache;
         this.namespaceNodes = new ConcurrentHashMap<>();
         this.scopedDiagnostics = new ConcurrentHashMap<>();
         dotExporter.setVertexAttributeProvider(nsName -> Maps.mutable.of(
@@ -99,17 +114,17 @@ public class Main {
                 FileVisitOption.FOLLOW_LINKS);
     }
 
-    Publisher<Path> createPathStream(Path startPath) {
+    Publisher<Path> createPathStream(Scheduler ioScheduler, Path startPath) {
         return Flux.using(
                 () -> findMinaFiles(startPath),
                 Flux::fromStream,
                 Stream::close)
-                .subscribeOn(Schedulers.boundedElastic());
+                .subscribeOn(ioScheduler);
     }
 
-    Flux<Path> pathStreamFrom(Path... sourcePaths) {
+    Flux<Path> pathStreamFrom(Scheduler ioScheduler, Path... sourcePaths) {
         return Flux.just(sourcePaths)
-                .flatMap(this::createPathStream);
+                .flatMap(startPath -> createPathStream(ioScheduler, startPath));
     }
 
     CharStream readFileContent(Path filePath) throws IOException {
@@ -126,7 +141,40 @@ public class Main {
     }
 
     public ParallelFlux<CharStream> readSourceData(Path... sourcePaths) {
-        return pathStreamFrom(sourcePaths)
+        return readSourceData(CompilerOptions.defaults(), sourcePaths);
+    }
+
+    public ParallelFlux<CharStream> readSourceData(CompilerOptions options, Path... sourcePaths) {
+        var executor = options.phaseExecutor();
+        var ioMode = options.ioMode();
+
+        if (!ioMode.isAvailable()) {
+            logger.warn("Virtual threads are not supported by this Java runtime, falling back to {} I/O", IoMode.ELASTIC);
+        }
+
+        if (ioMode.usesVirtualThreads()) {
+            // Each file is read on its own virtual thread, and handed to the phase threads for parsing
+            var ioScheduler = ioMode.scheduler();
+            return pathStreamFrom(ioScheduler, sourcePaths)
+                    .flatMap(filePath -> {
+                        return Mono
+                                .fromCallable(() -> readFileContent(filePath))
+                                .subscribeOn(ioScheduler);
+                    }, options.ioConcurrency())
+                    .parallel()
+                    .runOn(executor.scheduler());
+        }
+
+        if (executor == PhaseExecutor.FORK_JOIN) {
+            // Source files are small, so read each one in the task that goes on to parse it
+            // rather than hopping to another scheduler and back
+            return pathStreamFrom(Schedulers.boundedElastic(), sourcePaths)
+                    .parallel()
+                    .runOn(executor.scheduler())
+                    .flatMap(filePath -> Mono.fromCallable(() -> readFileContent(filePath)));
+        }
+
+        return pathStreamFrom(Schedulers.boundedElastic(), sourcePaths)
                 .parallel()
                 .runOn(Schedulers.boundedElastic())
                 .flatMap(filePath -> {
@@ -137,6 +185,21 @@ public class Main {
                 .runOn(Schedulers.parallel());
     }
 
+    ClassOutput openClassOutput(CompilerOptions options, Path destinationPath) {
+        var ioMode = options.ioMode();
+
+        // Jars are written sequentially by a single writer, so only directories are written on virtual threads
+        if (ioMode.usesVirtualThreads() && !ClassOutput.isJar(destinationPath)) {
+            return new ClassFileWriter(
+                    destinationPath,
+                    options.codegen().verificationRate(),
+                    ioMode.virtualThreadExecutor(),
+                    options.ioConcurrency());
+        }
+
+        return ClassOutput.open(destinationPath, options.codegen());
+    }
+
     public void checkForImportCycles(Graph<NamespaceName, DefaultEdge> namespaceGraph) {
         // TODO: Figure out why JohnsonSimpleCycles throws exception
         var cycleDetector = new HawickJamesSimpleCycles<>(namespaceGraph);
@@ -193,10 +256,109 @@ public class Main {
     }
 
     public CompletableFuture<Void> compileSourcePaths(URL[] classpath, Path destinationPath, Path... sourcePaths) throws IOException {
+        return compileSourcePaths(CompilerOptions.defaults(), classpath, destinationPath, sourcePaths);
+    }
+
+    public CompletableFuture<Void> compileSourcePaths(CompilerOptions options, URL[] classpath, Path destinationPath, Path... sourcePaths) throws IOException {
+        return compile(options, classpath, destinationPath, sourcePaths).then().toFuture();
+    }
+
+    // Recompiles the changed source files along with the namespaces that import anything defined in
+    // the changed or removed source files, using the outputs recorded by the previous compilation.
+    // The class files of the other namespaces are left in place and are resolved from the destination directory.
+    public CompletableFuture<NamespaceOutputs> compileSourceChanges(
+        CompilerOptions options, URL[] classpath, Path destinationPath,
+        NamespaceOutputs previousOutputs, Set<Path> changedSources, Set<Path> removedSources) throws IOException {
+        if (ClassOutput.isJar(destinationPath)) {
+            throw new IllegalArgumentException("Incremental compilation requires a destination directory, but got " + destinationPath);
+        }
+
+        MutableSet<Path> changedPaths = Sets.mutable.empty();
+        changedSources.forEach(path -> changedPaths.add(path.toAbsolutePath()));
+
+        MutableSet<Path> removedPaths = Sets.mutable.empty();
+        removedSources.forEach(path -> removedPaths.add(path.toAbsolutePath()));
+
+        // The namespaces defined in changed or removed source files
+        var staleNamespaces = previousOutputs.namespacesOf(changedPaths.union(removedPaths));
+        // The namespaces which need to be recompiled because they depend upon a stale namespace
+        var importers = previousOutputs.importersOf(staleNamespaces).difference(staleNamespaces);
+        var recompiledNamespaces = staleNamespaces.union(importers);
+
+        previousOutputs.deleteClassFiles(destinationPath, recompiledNamespaces);
+
+        var unaffectedOutputs = previousOutputs.withoutNamespaces(recompiledNamespaces);
+
+        MutableSet<Path> sourcesToCompile = Sets.mutable.withAll(changedPaths);
+        importers.forEach(importer -> sourcesToCompile.add(previousOutputs.namespaces().get(importer).sourceFile()));
+        sourcesToCompile.removeAll(removedPaths);
+
+        if (sourcesToCompile.isEmpty()) {
+            return CompletableFuture.completedFuture(unaffectedOutputs);
+        }
+
+        logger.info(
+            "Compiling {} changed source files and {} importing namespaces",
+            changedPaths.size(), importers.size());
+
+        Files.createDirectories(destinationPath);
+
+        var incrementalClasspath = Arrays.copyOf(classpath, classpath.length + 1);
+        incrementalClasspath[classpath.length] = destinationPath.toUri().toURL();
+
+        return compile(options, incrementalClasspath, destinationPath, sourcesToCompile.toArray(new Path[0]))
+            .map(classFiles -> {
+                MutableMap<NamespaceName, NamespaceOutputs.Entry> compiledOutputs = Maps.mutable.empty();
+
+                classFiles.forEach((namespaceName, namespaceClassFiles) -> {
+                    var sourceFile = sourceFileOf(namespaceName);
+                    var imports = namespaceNodes.get(namespaceName)
+                        .imports()
+                        .collect(imp -> imp.namespace().getName())
+                        .toSet()
+                        .toImmutable();
+                    compiledOutputs.put(namespaceName, new NamespaceOutputs.Entry(sourceFile, imports, namespaceClassFiles));
+                });
+
+                return unaffectedOutputs.withNamespaces(compiledOutputs.toImmutable());
+            })
+            .defaultIfEmpty(unaffectedOutputs)
+            .toFuture();
+    }
+
+    // Parses the source files to work out how they can be split into shards for compilation.
+    // If the sources can't be parsed, or have import cycles, they are left in a single shard
+    // so that compiling them reports the problems in the usual way.
+    public CompletableFuture<ShardPlan> planShards(int maxShards, Path... sourcePaths) {
         var sourceData = readSourceData(sourcePaths);
 
         var parsingPhase = new ParsingPhase(sourceData, scopedDiagnostics, namespaceNodes, mainCollector);
 
+        return parsingPhase.runPhase().map(parsedNodes -> {
+            var namespaceGraph = constructNamespaceGraph(parsedNodes, Sets.mutable.empty());
+
+            if (mainCollector.hasErrors()) {
+                return ShardPlan.singleShard(Lists.immutable.of(sourcePaths));
+            }
+
+            return ShardPlan.partition(
+                namespaceGraph,
+                this::sourceFileOf,
+                nsName -> sourceFileOf(nsName).toFile().length(),
+                maxShards);
+        }).toFuture();
+    }
+
+    Path sourceFileOf(NamespaceName namespaceName) {
+        return Path.of(scopedDiagnostics.get(namespaceName).getSourceUri());
+    }
+
+    Mono<ConcurrentHashMap<NamespaceName, ImmutableList<Path>>> compile(CompilerOptions options, URL[] classpath, Path destinationPath, Path... sourcePaths) {
+        var executor = options.phaseExecutor();
+        var sourceData = readSourceData(options, sourcePaths);
+
+        var parsingPhase = new ParsingPhase(sourceData, scopedDiagnostics, namespaceNodes, mainCollector);
+
         return parsingPhase.runPhase().flatMap(parsedNodes -> {
             Set<NamespaceName> importedNamespaces = Sets.mutable.empty();
             var namespaceGraph = constructNamespaceGraph(parsedNodes, importedNamespaces);
@@ -206,21 +368,28 @@ public class Main {
                 return Mono.empty();
             } else {
                 return Mono.using(() -> new URLClassLoader(classpath), classLoader -> {
-                    var classpathResolutionPhase = new ClasspathResolutionPhase(classLoader, importedNamespaces);
+                    var classpathResolutionPhase = new ClasspathResolutionPhase(classLoader, classpathScopeCache, importedNamespaces);
 
                     return classpathResolutionPhase.runPhase().flatMap(classpathScopes -> {
 
-                        var renamingPhase = new RenamingPhase(namespaceGraph, classpathScopes, parsedNodes, scopedDiagnostics);
+                        var renamingPhase = new RenamingPhase(namespaceGraph, classpathScopes, parsedNodes, scopedDiagnostics)
+                            .withExecutor(executor);
 
                         var typecheckingPhase = Phase.andThen(renamingPhase, renamedNodes -> {
-                            return new TypecheckingPhase(namespaceGraph, classpathScopes, renamedNodes, scopedDiagnostics);
+                            return new TypecheckingPhase(namespaceGraph, classpathScopes, renamedNodes, scopedDiagnostics)
+                                .withProfiling(options.profileTypechecker())
+                                .withExecutor(executor);
                         });
 
                         // For now, we just run the optimiser alongside codegen, since codegen uses unoptimised trees
                         return Phase.runMono(typecheckingPhase).flatMap(typecheckedNodes -> {
-                            var optimiserPhase = new OptimiserPhase(namespaceGraph, typecheckedNodes, scopedDiagnostics);
-                            var codegenPhase = new CodegenPhase(destinationPath, typecheckedNodes, scopedDiagnostics);
-                            return optimiserPhase.runPhase().and(codegenPhase.runPhase());
+                            var optimiserPhase = new OptimiserPhase(namespaceGraph, typecheckedNodes, scopedDiagnostics)
+                                .withExecutor(executor);
+                            var codegenPhase = new CodegenPhase(options.codegen(), openClassOutput(options, destinationPath), typecheckedNodes, scopedDiagnostics)
+                                .withExecutor(executor);
+                            return optimiserPhase.runPhase()
+                                .and(codegenPhase.runPhase())
+                                .then(Mono.fromSupplier(codegenPhase::transformedData));
                         });
                     });
                 }, classLoader -> {
@@ -228,6 +397,6 @@ public class Main {
                     catch (IOException e) { throw Exceptions.propagate(e); }
                 });
             }
-        }).then().toFuture();
+        });
     }
 }
@@ -0,0 +1,150 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.main;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.factory.Sets;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.map.ImmutableMap;
+import org.eclipse.collections.api.set.ImmutableSet;
+import org.eclipse.collections.api.set.MutableSet;
+import org.mina_lang.common.names.NamespaceName;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.stream.StreamSupport;
+
+// Records the source file, imports and class files of each namespace produced by a compilation,
+// so that a later compilation can work out which namespaces are affected by a change to the sources.
+// Class files are recorded relative to the destination directory.
+public record NamespaceOutputs(ImmutableMap<NamespaceName, NamespaceOutputs.Entry> namespaces) {
+    static final String HEADER = "mina-namespace-outputs 1";
+
+    public record Entry(Path sourceFile, ImmutableSet<NamespaceName> imports, ImmutableList<Path> classFiles) {}
+
+    public static NamespaceOutputs empty() {
+        return new NamespaceOutputs(Maps.immutable.empty());
+    }
+
+    public ImmutableSet<NamespaceName> namespacesOf(Collection<Path> sourceFiles) {
+        var sourceSet = Sets.mutable.ofAll(sourceFiles);
+        return namespaces
+            .select((nsName, entry) -> sourceSet.contains(entry.sourceFile()))
+            .keysView()
+            .toSet()
+            .toImmutable();
+    }
+
+    // Finds the namespaces which import any of the given namespaces, directly or indirectly
+    public ImmutableSet<NamespaceName> importersOf(ImmutableSet<NamespaceName> importedNamespaces) {
+        MutableSet<NamespaceName> importers = Sets.mutable.empty();
+        var pending = new ArrayDeque<NamespaceName>(importedNamespaces.castToSet());
+
+        while (!pending.isEmpty()) {
+            var imported = pending.poll();
+            namespaces.forEachKeyValue((nsName, entry) -> {
+                if (entry.imports().contains(imported) && importers.add(nsName)) {
+                    pending.add(nsName);
+                }
+            });
+        }
+
+        return importers.toImmutable();
+    }
+
+    public NamespaceOutputs withoutNamespaces(ImmutableSet<NamespaceName> removedNamespaces) {
+        return new NamespaceOutputs(namespaces.reject((nsName, entry) -> removedNamespaces.contains(nsName)));
+    }
+
+    public NamespaceOutputs withNamespaces(ImmutableMap<NamespaceName, Entry> addedNamespaces) {
+        return new NamespaceOutputs(namespaces.newWithAllKeyValues(addedNamespaces.keyValuesView()));
+    }
+
+    public void deleteClassFiles(Path destination, ImmutableSet<NamespaceName> namespacesToDelete) throws IOException {
+        for (var nsName : namespacesToDelete) {
+            var entry = namespaces.get(nsName);
+            if (entry != null) {
+                for (var classFile : entry.classFiles()) {
+                    Files.deleteIfExists(destination.resolve(classFile));
+                }
+            }
+        }
+    }
+
+    // One line per namespace, with tab-separated fields:
+    // namespace, source file, comma-separated imports, comma-separated class files
+    public void write(Path outputsFile) throws IOException {
+        var lines = Lists.mutable.of(HEADER);
+
+        namespaces.forEachKeyValue((nsName, entry) -> {
+            lines.add(String.join("\t",
+                nsName.canonicalName(),
+                entry.sourceFile().toString(),
+                entry.imports().collect(NamespaceName::canonicalName).toSortedList().makeString(","),
+                entry.classFiles().collect(NamespaceOutputs::pathString).makeString(",")));
+        });
+
+        Files.createDirectories(outputsFile.toAbsolutePath().getParent());
+        Files.write(outputsFile, lines, StandardCharsets.UTF_8);
+    }
+
+    public static NamespaceOutputs read(Path outputsFile) throws IOException {
+        var lines = Files.readAllLines(outputsFile, StandardCharsets.UTF_8);
+
+        if (lines.isEmpty() || !HEADER.equals(lines.get(0))) {
+            throw new IOException("Unrecognised namespace outputs file " + outputsFile);
+        }
+
+        var namespaces = Maps.mutable.<NamespaceName, Entry>empty();
+
+        for (var line : lines.subList(1, lines.size())) {
+            var fields = line.split("\t", -1);
+
+            if (fields.length != 4) {
+                throw new IOException("Malformed entry in namespace outputs file " + outputsFile + ": " + line);
+            }
+
+            var imports = splitList(fields[2])
+                .collect(NamespaceOutputs::parseNamespaceName)
+                .toSet()
+                .toImmutable();
+
+            var classFiles = splitList(fields[3])
+                .collect(Path::of)
+                .toImmutable();
+
+            namespaces.put(
+                parseNamespaceName(fields[0]),
+                new Entry(Path.of(fields[1]), imports, classFiles));
+        }
+
+        return new NamespaceOutputs(namespaces.toImmutable());
+    }
+
+    static ImmutableList<String> splitList(String field) {
+        return field.isEmpty()
+            ? Lists.immutable.empty()
+            : Lists.immutable.of(field.split(","));
+    }
+
+    static String pathString(Path path) {
+        // Use the same separator on every platform
+        return Lists.immutable
+            .fromStream(StreamSupport.stream(path.spliterator(), false).map(Path::toString))
+            .makeString("/");
+    }
+
+    static NamespaceName parseNamespaceName(String canonicalName) {
+        var segments = Lists.immutable.of(canonicalName.split("/"));
+        return new NamespaceName(
+            segments.take(segments.size() - 1),
+            segments.getLast());
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.main;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Selects how the work of each compiler phase is scheduled.
+// REACTOR runs every phase as a parallel Reactor pipeline on the shared parallel scheduler.
+// FORK_JOIN runs each namespace as a task in a work-stealing ForkJoinPool, where namespaces are released
+// by counting down their remaining imports, rather than building a reactive pipeline for every namespace.
+public enum PhaseExecutor {
+    REACTOR,
+    FORK_JOIN;
+
+    // Created on first use so that the pool isn't started when it isn't selected
+    private static final class ForkJoin {
+        private static final AtomicInteger threadId = new AtomicInteger(0);
+
+        static final ForkJoinPool pool = new ForkJoinPool(
+            Runtime.getRuntime().availableProcessors(),
+            forkJoinPool -> {
+                var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                thread.setName("mina-phase-" + threadId.getAndIncrement());
+                return thread;
+            },
+            null,
+            false);
+
+        static final Scheduler scheduler = Schedulers.fromExecutorService(pool, "mina-phase");
+    }
+
+    public Scheduler scheduler() {
+        return this == FORK_JOIN ? ForkJoin.scheduler : Schedulers.parallel();
+    }
+
+    ForkJoinPool forkJoinPool() {
+        return ForkJoin.pool;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.main;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+import org.jgrapht.Graph;
+import org.jgrapht.Graphs;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.traverse.TopologicalOrderIterator;
+import org.mina_lang.common.names.NamespaceName;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+// Splits the source files of a compilation into shards that can be compiled separately.
+// The shards are grouped into waves: every namespace in a wave only imports namespaces from earlier waves,
+// so the shards within a wave can be compiled in parallel once the earlier waves have been compiled.
+public record ShardPlan(ImmutableList<ImmutableList<ImmutableList<Path>>> waves) {
+
+    public static ShardPlan singleShard(ImmutableList<Path> sourcePaths) {
+        return new ShardPlan(Lists.immutable.of(Lists.immutable.of(sourcePaths)));
+    }
+
+    public static ShardPlan partition(
+        Graph<NamespaceName, DefaultEdge> namespaceGraph,
+        Function<NamespaceName, Path> sourceFile,
+        ToLongFunction<NamespaceName> weight,
+        int maxShards) {
+        var waves = partitionNamespaces(namespaceGraph, weight, maxShards);
+        return new ShardPlan(waves.collect(wave -> wave.collect(shard -> shard.collect(sourceFile::apply))));
+    }
+
+    static ImmutableList<ImmutableList<ImmutableList<NamespaceName>>> partitionNamespaces(
+        Graph<NamespaceName, DefaultEdge> namespaceGraph,
+        ToLongFunction<NamespaceName> weight,
+        int maxShards) {
+        // Edges point from each imported namespace to the namespaces that import it,
+        // so a topological order visits imported namespaces first
+        var waveIndices = Maps.mutable.<NamespaceName, Integer>empty();
+        MutableList<MutableList<NamespaceName>> waves = Lists.mutable.empty();
+
+        new TopologicalOrderIterator<>(namespaceGraph).forEachRemaining(nsName -> {
+            var waveIndex = Graphs.predecessorListOf(namespaceGraph, nsName)
+                .stream()
+                .mapToInt(imported -> waveIndices.get(imported) + 1)
+                .max()
+                .orElse(0);
+
+            waveIndices.put(nsName, waveIndex);
+
+            while (waves.size() <= waveIndex) {
+                waves.add(Lists.mutable.empty());
+            }
+
+            waves.get(waveIndex).add(nsName);
+        });
+
+        return waves.collect(wave -> balanceShards(wave, weight, maxShards)).toImmutable();
+    }
+
+    // Assigns the heaviest namespaces first, each to the lightest shard so far
+    static ImmutableList<ImmutableList<NamespaceName>> balanceShards(
+        MutableList<NamespaceName> wave,
+        ToLongFunction<NamespaceName> weight,
+        int maxShards) {
+        var shardCount = Math.max(1, Math.min(maxShards, wave.size()));
+        var shardWeights = new long[shardCount];
+        MutableList<MutableList<NamespaceName>> shards = Lists.mutable.empty();
+
+        for (var i = 0; i < shardCount; i++) {
+            shards.add(Lists.mutable.empty());
+        }
+
+        wave.toSortedListBy(nsName -> -weight.applyAsLong(nsName)).forEach(nsName -> {
+            var lightest = 0;
+            for (var i = 1; i < shardCount; i++) {
+                if (shardWeights[i] < shardWeights[lightest]) {
+                    lightest = i;
+                }
+            }
+            shards.get(lightest).add(nsName);
+            shardWeights[lightest] += weight.applyAsLong(nsName);
+        });
+
+        return shards.collect(MutableList::toImmutable).toImmutable();
+    }
+
+    // One line per source file, with tab-separated fields: wave index, shard index, source file
+    public void write(Path planFile) throws IOException {
+        var lines = Lists.mutable.<String>empty();
+
+        waves.forEachWithIndex((wave, waveIndex) -> {
+            wave.forEachWithIndex((shard, shardIndex) -> {
+                shard.forEach(sourcePath -> {
+                    lines.add(waveIndex + "\t" + shardIndex + "\t" + sourcePath);
+                });
+            });
+        });
+
+        Files.createDirectories(planFile.toAbsolutePath().getParent());
+        Files.write(planFile, lines, StandardCharsets.UTF_8);
+    }
+}
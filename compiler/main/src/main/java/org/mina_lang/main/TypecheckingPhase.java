@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2023-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.main;
@@ -17,6 +17,7 @@ import org.mina_lang.parser.ANTLRDiagnosticReporter;
 import org.mina_lang.syntax.NamespaceNode;
 import org.mina_lang.typechecker.TypeEnvironment;
 import org.mina_lang.typechecker.Typechecker;
+import org.mina_lang.typechecker.TypecheckerProfiler;
 import org.mina_lang.typechecker.scopes.ImportedTypesScope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +32,8 @@ public class TypecheckingPhase extends GraphPhase<NamespaceNode<Name>, Namespace
 
     private final Map<NamespaceName, Scope<Meta<Attributes>>> classpathScopes;
 
+    private boolean profiling = false;
+
     public TypecheckingPhase(
         Graph<NamespaceName, DefaultEdge> namespaceGraph,
         Map<NamespaceName, Scope<Meta<Attributes>>> classpathScopes,
@@ -40,6 +43,11 @@ public class TypecheckingPhase extends GraphPhase<NamespaceNode<Name>, Namespace
         this.classpathScopes = classpathScopes;
     }
 
+    public TypecheckingPhase withProfiling(boolean profiling) {
+        this.profiling = profiling;
+        return this;
+    }
+
     @Override
     public Optional<NamespaceNode<Attributes>> getNamespaceNode(NamespaceName namespaceName) {
         return Optional.ofNullable(transformedNodes.get(namespaceName));
@@ -80,7 +88,8 @@ public class TypecheckingPhase extends GraphPhase<NamespaceNode<Name>, Namespace
                 logger.info("Typechecking namespace {}", nsName.canonicalName());
                 var typeEnvironment = TypeEnvironment.withBuiltInTypes();
                 typeEnvironment.pushScope(importScope);
-                var typechecker = new Typechecker(nsDiagnostics, typeEnvironment);
+                var profiler = profiling ? new TypecheckerProfiler() : null;
+                var typechecker = new Typechecker(nsDiagnostics, typeEnvironment, profiler);
                 return typechecker.typecheck(renamedNode);
             });
 
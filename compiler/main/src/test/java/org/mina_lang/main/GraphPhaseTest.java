@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2023-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.main;
@@ -40,6 +40,15 @@ public class GraphPhaseTest {
 
     @Property(tries = 100)
     void graphTraversalIsTopological(@ForAll("namespaceGraph") DirectedAcyclicGraph<NamespaceName, DefaultEdge> graph) {
+        checkTopologicalTraversal(graph, PhaseExecutor.REACTOR);
+    }
+
+    @Property(tries = 100)
+    void forkJoinGraphTraversalIsTopological(@ForAll("namespaceGraph") DirectedAcyclicGraph<NamespaceName, DefaultEdge> graph) {
+        checkTopologicalTraversal(graph, PhaseExecutor.FORK_JOIN);
+    }
+
+    private void checkTopologicalTraversal(DirectedAcyclicGraph<NamespaceName, DefaultEdge> graph, PhaseExecutor executor) {
         var visited = new ConcurrentLinkedQueue<NamespaceName>();
         var namespaceNodes = new ConcurrentHashMap<NamespaceName, NamespaceNode<Void>>();
         var scopedDiagnostics = new ConcurrentHashMap<NamespaceName, ANTLRDiagnosticReporter>();
@@ -74,7 +83,7 @@ public class GraphPhaseTest {
             }
         };
 
-        StepVerifier.create(phase.runPhase())
+        StepVerifier.create(phase.withExecutor(executor).runPhase())
                 .expectNext(namespaceNodes)
                 .expectComplete()
                 .verify();
@@ -0,0 +1,144 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.main;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mina_lang.codegen.jvm.CodegenOptions;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+
+public class LiftedLambdaCompilationTest {
+    static final String SOURCE = """
+        namespace Mina/Test/LiftedLambdas {
+            let scaleAndShift(x: Int, scale: Int, offset: Int): Int = {
+                let apply = (n: Int) -> n * scale - offset
+                apply(x) + apply(1)
+            }
+
+            let choose(x: Int, flag: Boolean, offset: Int): Int = {
+                let pick = (n: Int) -> if flag then n + offset else n - offset
+                pick(x)
+            }
+
+            let escaping(scale: Int): Int -> Int = {
+                let multiply = (n: Int) -> n * scale
+                multiply
+            }
+        }""";
+
+    static final String NAMESPACE_CLASS = "Mina/Test/LiftedLambdas/$namespace";
+
+    static final String LAMBDA_METAFACTORY = "java/lang/invoke/LambdaMetafactory";
+
+    @TempDir
+    Path tempDir;
+
+    Path destinationDir;
+
+    @BeforeEach
+    void compile() throws Exception {
+        var sourceDir = Files.createDirectories(tempDir.resolve("src"));
+        destinationDir = Files.createDirectories(tempDir.resolve("classes"));
+        Files.writeString(sourceDir.resolve("LiftedLambdas.mina"), SOURCE);
+
+        var diagnostics = new ErrorCollector();
+        var options = CompilerOptions.defaults().withCodegen(CodegenOptions.defaults().withVerificationRate(1.0));
+
+        new Main(diagnostics)
+            .compileSourcePaths(options, new URL[0], destinationDir, sourceDir)
+            .get(1, TimeUnit.MINUTES);
+
+        assertThat(diagnostics.getErrors(), is(empty()));
+    }
+
+    MethodNode method(String name) throws Exception {
+        var classNode = new ClassNode();
+        var classBytes = Files.readAllBytes(destinationDir.resolve(NAMESPACE_CLASS + ".class"));
+        new ClassReader(classBytes).accept(classNode, 0);
+        return classNode.methods.stream()
+            .filter(method -> method.name.equals(name))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    List<String> lambdaMetafactoryCalls(MethodNode method) {
+        return StreamSupport.stream(method.instructions.spliterator(), false)
+            .filter(insn -> insn instanceof InvokeDynamicInsnNode)
+            .map(insn -> ((InvokeDynamicInsnNode) insn).bsm.getOwner())
+            .filter(LAMBDA_METAFACTORY::equals)
+            .toList();
+    }
+
+    boolean containsInvokeDynamic(MethodNode method) {
+        return StreamSupport.stream(method.instructions.spliterator(), false)
+            .anyMatch(insn -> insn instanceof InvokeDynamicInsnNode);
+    }
+
+    List<String> staticCallsWithinNamespace(MethodNode method) {
+        return StreamSupport.stream(method.instructions.spliterator(), false)
+            .filter(insn -> insn.getOpcode() == INVOKESTATIC)
+            .map(insn -> (MethodInsnNode) insn)
+            .filter(insn -> insn.owner.equals(NAMESPACE_CLASS))
+            .map(insn -> insn.name)
+            .toList();
+    }
+
+    Object invoke(String methodName, Class<?>[] paramTypes, Object... args) throws Exception {
+        try (var classLoader = URLClassLoader.newInstance(new URL[] { destinationDir.toUri().toURL() })) {
+            var namespaceClass = Class.forName(NAMESPACE_CLASS.replace('/', '.'), true, classLoader);
+            return namespaceClass.getMethod(methodName, paramTypes).invoke(null, args);
+        }
+    }
+
+    @Test
+    void callsAppliedLambdasWithCapturedVariablesStatically() throws Exception {
+        var scaleAndShift = method("scaleAndShift");
+
+        assertThat(containsInvokeDynamic(scaleAndShift), is(false));
+        assertThat(lambdaMetafactoryCalls(scaleAndShift), is(empty()));
+        // Both applications call the lifted method
+        assertThat(staticCallsWithinNamespace(scaleAndShift), contains(startsWith("lambda$"), startsWith("lambda$")));
+
+        var intParams = new Class<?>[] { int.class, int.class, int.class };
+        // (5 * 3 - 2) + (1 * 3 - 2), which differs if the captured variables are passed in the wrong order
+        assertThat(invoke("scaleAndShift", intParams, 5, 3, 2), is(14));
+        assertThat(invoke("scaleAndShift", intParams, 0, 7, 1), is(5));
+    }
+
+    @Test
+    void passesCapturedVariablesOfDifferentTypes() throws Exception {
+        var choose = method("choose");
+
+        assertThat(containsInvokeDynamic(choose), is(false));
+        assertThat(staticCallsWithinNamespace(choose), contains(startsWith("lambda$")));
+
+        var params = new Class<?>[] { int.class, boolean.class, int.class };
+        assertThat(invoke("choose", params, 10, true, 3), is(13));
+        assertThat(invoke("choose", params, 10, false, 3), is(7));
+    }
+
+    @Test
+    void allocatesEscapingLambdas() throws Exception {
+        // The lambda is returned, so it must be allocated as a closure
+        assertThat(lambdaMetafactoryCalls(method("escaping")), hasSize(1));
+    }
+}
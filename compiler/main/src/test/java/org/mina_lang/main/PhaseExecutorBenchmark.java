@@ -0,0 +1,139 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.main;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+// Times the compilation of a generated workspace of many small namespaces with each phase executor.
+// This is excluded from the test task, and runs with `./gradlew :compiler:mina-compiler-main:benchmark`.
+// The executors take turns within each iteration, so that both are measured under the same conditions.
+@Tag("benchmark")
+public class PhaseExecutorBenchmark {
+    static final int NAMESPACES = 500;
+    // Each namespace imports a few of the namespaces defined shortly before it
+    static final int MAX_IMPORTS = 3;
+    static final int IMPORT_WINDOW = 20;
+
+    static final int WARMUP_ITERATIONS = 3;
+    static final int MEASURED_ITERATIONS = 7;
+
+    @TempDir
+    Path tempDir;
+
+    static String namespaceSource(int index, TreeSet<Integer> imports) {
+        var source = new StringBuilder();
+
+        source.append("namespace Mina/Benchmark/Namespace").append(index).append(" {\n");
+
+        for (var imported : imports) {
+            source.append("    import Mina/Benchmark/Namespace").append(imported)
+                .append(".{value").append(imported).append("}\n");
+        }
+
+        source.append("\n");
+        source.append("    data Box").append(index).append("[A] {\n");
+        source.append("        case Box").append(index).append("(value: A)\n");
+        source.append("    }\n\n");
+
+        source.append("    let value").append(index).append(": Int = ").append(index);
+        for (var imported : imports) {
+            source.append(" + value").append(imported);
+        }
+        source.append("\n\n");
+
+        source.append("    let box").append(index).append("(n: Int): Box").append(index).append("[Int] = ")
+            .append("Box").append(index).append("(n + value").append(index).append(")\n");
+
+        source.append("    let unbox").append(index).append("(box: Box").append(index).append("[Int]): Int = ")
+            .append("match box with {\n")
+            .append("        case Box").append(index).append(" { value } -> value\n")
+            .append("    }\n");
+
+        source.append("}\n");
+
+        return source.toString();
+    }
+
+    Path generateSources() throws IOException {
+        var sourceDir = Files.createDirectories(tempDir.resolve("src"));
+        // A fixed seed keeps the namespace graph the same from run to run
+        var random = new Random(42);
+
+        for (var index = 0; index < NAMESPACES; index++) {
+            var imports = new TreeSet<Integer>();
+            if (index > 0) {
+                var importCount = random.nextInt(MAX_IMPORTS + 1);
+                for (var i = 0; i < importCount; i++) {
+                    imports.add(Math.max(0, index - 1 - random.nextInt(IMPORT_WINDOW)));
+                }
+            }
+            Files.writeString(sourceDir.resolve("Namespace" + index + ".mina"), namespaceSource(index, imports));
+        }
+
+        return sourceDir;
+    }
+
+    long compile(Path sourceDir, PhaseExecutor executor, int iteration) throws Exception {
+        var destinationDir = Files.createDirectories(tempDir.resolve("classes-" + executor + "-" + iteration));
+        var diagnostics = new ErrorCollector();
+        var options = CompilerOptions.defaults().withPhaseExecutor(executor);
+
+        var startTime = System.nanoTime();
+
+        new Main(diagnostics)
+            .compileSourcePaths(options, new URL[0], destinationDir, sourceDir)
+            .get(5, TimeUnit.MINUTES);
+
+        var elapsed = System.nanoTime() - startTime;
+
+        assertThat(diagnostics.getErrors(), is(empty()));
+
+        return elapsed;
+    }
+
+    @Test
+    void comparePhaseExecutors() throws Exception {
+        var sourceDir = generateSources();
+        var timings = new EnumMap<PhaseExecutor, List<Long>>(PhaseExecutor.class);
+
+        for (var iteration = 0; iteration < WARMUP_ITERATIONS + MEASURED_ITERATIONS; iteration++) {
+            for (var executor : PhaseExecutor.values()) {
+                var elapsed = compile(sourceDir, executor, iteration);
+                if (iteration >= WARMUP_ITERATIONS) {
+                    timings.computeIfAbsent(executor, key -> new ArrayList<>()).add(elapsed);
+                }
+            }
+        }
+
+        System.out.printf("Compiling %d namespaces, %d measured iterations after %d warmup iterations%n",
+            NAMESPACES, MEASURED_ITERATIONS, WARMUP_ITERATIONS);
+
+        timings.forEach((executor, elapsed) -> {
+            var sorted = elapsed.stream().sorted().toList();
+            System.out.printf("%-10s median %6d ms, min %6d ms, max %6d ms%n",
+                executor,
+                TimeUnit.NANOSECONDS.toMillis(sorted.get(sorted.size() / 2)),
+                TimeUnit.NANOSECONDS.toMillis(sorted.get(0)),
+                TimeUnit.NANOSECONDS.toMillis(sorted.get(sorted.size() - 1)));
+        });
+    }
+}
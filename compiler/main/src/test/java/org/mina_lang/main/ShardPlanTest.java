@@ -0,0 +1,104 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.main;
+
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Maps;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DirectedAcyclicGraph;
+import org.junit.jupiter.api.Test;
+import org.mina_lang.common.names.NamespaceName;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ShardPlanTest {
+    @Property(tries = 100)
+    void wavesFollowImports(
+        @ForAll("namespaceGraph") DirectedAcyclicGraph<NamespaceName, DefaultEdge> graph,
+        @ForAll @IntRange(min = 1, max = 8) int maxShards) {
+        var waves = ShardPlan.partitionNamespaces(graph, nsName -> nsName.name().length(), maxShards);
+        var waveIndices = Maps.mutable.<NamespaceName, Integer>empty();
+
+        waves.forEachWithIndex((wave, waveIndex) -> {
+            assertThat(wave.size(), is(both(greaterThan(0)).and(lessThanOrEqualTo(maxShards))));
+            wave.forEach(shard -> {
+                assertThat(shard, is(not(empty())));
+                shard.forEach(nsName -> {
+                    assertThat(waveIndices.put(nsName, waveIndex), is(nullValue()));
+                });
+            });
+        });
+
+        assertThat(waveIndices.keySet(), is(equalTo(graph.vertexSet())));
+
+        graph.edgeSet().forEach(edge -> {
+            var imported = graph.getEdgeSource(edge);
+            var importer = graph.getEdgeTarget(edge);
+            assertThat(waveIndices.get(imported), is(lessThan(waveIndices.get(importer))));
+        });
+    }
+
+    @Test
+    void balancesShardsByWeight() {
+        var wave = Lists.mutable.of("A", "B", "C", "D", "E")
+            .collect(name -> new NamespaceName(Lists.immutable.of("Mina", "Test"), name));
+
+        var weights = Map.of("A", 5L, "B", 4L, "C", 3L, "D", 3L, "E", 1L);
+
+        var shards = ShardPlan.balanceShards(wave, nsName -> weights.get(nsName.name()), 2);
+
+        assertThat(shards.size(), is(2));
+        assertThat(
+            shards.collect(shard -> shard.sumOfLong(nsName -> weights.get(nsName.name()))).toSet(),
+            is(equalTo(Set.of(8L))));
+    }
+
+    @Provide
+    private Arbitrary<DirectedAcyclicGraph<NamespaceName, DefaultEdge>> namespaceGraph() {
+        return Arbitraries.recursive(
+                () -> namespaceName().map(startNs -> {
+                    return DirectedAcyclicGraph
+                            .<NamespaceName, DefaultEdge>createBuilder(DefaultEdge.class)
+                            .addVertex(startNs)
+                            .build();
+                }), this::addNamespace, 0, 10);
+    }
+
+    private Arbitrary<NamespaceName> namespaceName() {
+        return Arbitraries
+                .strings()
+                .alpha()
+                .ofMinLength(1)
+                .ofMaxLength(10)
+                .map(ident -> new NamespaceName(
+                        Lists.immutable.of("Mina", "Test", "Main"),
+                        ident));
+    }
+
+    private Arbitrary<DirectedAcyclicGraph<NamespaceName, DefaultEdge>> addNamespace(
+            Arbitrary<DirectedAcyclicGraph<NamespaceName, DefaultEdge>> existing) {
+        return existing.flatMap(graph -> {
+            return namespaceName()
+                    .filter(newNs -> !graph.containsVertex(newNs))
+                    .flatMap(newNs -> {
+                        return Arbitraries.of(Set.copyOf(graph.vertexSet())).list().map(ancestors -> {
+                            graph.addVertex(newNs);
+
+                            ancestors.forEach(ancestorNs -> {
+                                graph.addEdge(ancestorNs, newNs);
+                            });
+
+                            return graph;
+                        });
+                    });
+        });
+    }
+}
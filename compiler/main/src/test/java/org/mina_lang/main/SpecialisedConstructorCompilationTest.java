@@ -0,0 +1,134 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.main;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mina_lang.codegen.jvm.CodegenOptions;
+
+import java.io.IOException;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SpecialisedConstructorCompilationTest {
+    static final String SOURCE = """
+        namespace Mina/Test/Specialised {
+            data Option[A] {
+                case Some(value: A)
+                case None()
+            }
+
+            let someInt(n: Int): Option[Int] = Some(n)
+
+            let some[A](a: A): Option[A] = Some(a)
+
+            let valueOr(opt: Option[Int], fallback: Int): Int = match opt with {
+                case Some { value } -> value
+                case None {} -> fallback
+            }
+        }""";
+
+    static final String PACKAGE = "Mina.Test.Specialised";
+
+    @TempDir
+    Path tempDir;
+
+    URLClassLoader classLoader;
+
+    @AfterEach
+    void teardown() throws IOException {
+        if (classLoader != null) {
+            classLoader.close();
+        }
+    }
+
+    Class<?> compile(CodegenOptions codegenOptions) throws Exception {
+        var sourceDir = Files.createDirectories(tempDir.resolve("src"));
+        var destinationDir = Files.createDirectories(tempDir.resolve("classes"));
+        Files.writeString(sourceDir.resolve("Specialised.mina"), SOURCE);
+
+        var diagnostics = new ErrorCollector();
+        var options = CompilerOptions.defaults().withCodegen(codegenOptions.withVerificationRate(1.0));
+
+        new Main(diagnostics)
+            .compileSourcePaths(options, new URL[0], destinationDir, sourceDir)
+            .get(1, TimeUnit.MINUTES);
+
+        assertThat(diagnostics.getErrors(), is(empty()));
+
+        classLoader = URLClassLoader.newInstance(new URL[] { destinationDir.toUri().toURL() });
+
+        return Class.forName(PACKAGE + ".$namespace", true, classLoader);
+    }
+
+    Class<?> loadClass(String name) throws ClassNotFoundException {
+        return Class.forName(PACKAGE + "." + name, true, classLoader);
+    }
+
+    @Test
+    void compilesConstructorsIntoRecordsByDefault() throws Exception {
+        var namespaceClass = compile(CodegenOptions.defaults());
+        var someClass = loadClass("Some");
+
+        assertThat(someClass.isRecord(), is(true));
+        assertThat(Modifier.isFinal(someClass.getModifiers()), is(true));
+
+        var some = namespaceClass.getMethod("someInt", int.class).invoke(null, 3);
+        assertThat(some.getClass(), is(equalTo(someClass)));
+
+        var valueOr = namespaceClass.getMethod("valueOr", loadClass("Option"), int.class);
+        assertThat(valueOr.invoke(null, some, 0), is(3));
+    }
+
+    @Test
+    void compilesSpecialisedConstructorsIntoSealedClasses() throws Exception {
+        compile(CodegenOptions.defaults().withSpecialiseConstructors(true));
+
+        var someClass = loadClass("Some");
+        var specialisedClass = loadClass("Some$I");
+
+        // Record classes are required to be final, so a constructor with specialisations can't be one
+        assertThat(someClass.isRecord(), is(false));
+        assertThat(someClass.isSealed(), is(true));
+        assertThat(someClass.getPermittedSubclasses(), is(arrayContaining(specialisedClass)));
+        assertThat(loadClass("None").isRecord(), is(true));
+
+        assertThat(specialisedClass.getSuperclass(), is(equalTo(someClass)));
+        assertThat(Modifier.isFinal(specialisedClass.getModifiers()), is(true));
+        assertThat(specialisedClass.getDeclaredField("value").getType(), is(equalTo(int.class)));
+    }
+
+    @Test
+    void specialisedInstancesBehaveLikeGenericInstances() throws Exception {
+        var namespaceClass = compile(CodegenOptions.defaults().withSpecialiseConstructors(true));
+
+        var someClass = loadClass("Some");
+        var specialised = namespaceClass.getMethod("someInt", int.class).invoke(null, 3);
+        var generic = namespaceClass.getMethod("some", Object.class).invoke(null, 3);
+
+        assertThat(specialised.getClass(), is(equalTo(loadClass("Some$I"))));
+        assertThat(generic.getClass(), is(equalTo(someClass)));
+
+        // The generic accessor of a specialised instance boxes its unboxed field
+        assertThat(someClass.getMethod("value").invoke(specialised), is(3));
+
+        assertThat(specialised, is(equalTo(generic)));
+        assertThat(generic, is(equalTo(specialised)));
+        assertThat(specialised.hashCode(), is(generic.hashCode()));
+        assertThat(specialised.toString(), is(generic.toString()));
+
+        var valueOr = namespaceClass.getMethod("valueOr", loadClass("Option"), int.class);
+        assertThat(valueOr.invoke(null, specialised, 0), is(3));
+        assertThat(valueOr.invoke(null, generic, 0), is(3));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.main;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mina_lang.codegen.jvm.CodegenOptions;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.objectweb.asm.Opcodes.GOTO;
+import static org.objectweb.asm.Opcodes.INVOKESTATIC;
+
+public class TailCallCompilationTest {
+    static final String SOURCE = """
+        namespace Mina/Test/TailCalls {
+            let countDown(n: Int, acc: Int): Int =
+                if n == 0 then acc else countDown(n - 1, acc + 1)
+
+            let isEven(n: Int): Boolean =
+                if n == 0 then true else isOdd(n - 1)
+
+            let isOdd(n: Int): Boolean =
+                if n == 0 then false else isEven(n - 1)
+        }""";
+
+    static final String NAMESPACE_CLASS = "Mina/Test/TailCalls/$namespace";
+
+    // Deep enough to overflow the stack if any of these calls used a stack frame
+    static final int DEPTH = 1_000_000;
+
+    @TempDir
+    Path tempDir;
+
+    Path compile(CodegenOptions codegenOptions) throws Exception {
+        var sourceDir = Files.createDirectories(tempDir.resolve("src"));
+        var destinationDir = Files.createDirectories(tempDir.resolve("classes"));
+        Files.writeString(sourceDir.resolve("TailCalls.mina"), SOURCE);
+
+        var diagnostics = new ErrorCollector();
+        var options = CompilerOptions.defaults().withCodegen(codegenOptions.withVerificationRate(1.0));
+
+        new Main(diagnostics)
+            .compileSourcePaths(options, new URL[0], destinationDir, sourceDir)
+            .get(1, TimeUnit.MINUTES);
+
+        assertThat(diagnostics.getErrors(), is(empty()));
+
+        return destinationDir;
+    }
+
+    ClassNode readNamespaceClass(Path destinationDir) throws Exception {
+        var classNode = new ClassNode();
+        var classBytes = Files.readAllBytes(destinationDir.resolve(NAMESPACE_CLASS + ".class"));
+        new ClassReader(classBytes).accept(classNode, 0);
+        return classNode;
+    }
+
+    MethodNode method(ClassNode classNode, String name) {
+        return classNode.methods.stream()
+            .filter(method -> method.name.equals(name))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    List<String> staticCallsWithinNamespace(MethodNode method) {
+        return StreamSupport.stream(method.instructions.spliterator(), false)
+            .filter(insn -> insn.getOpcode() == INVOKESTATIC)
+            .map(insn -> (MethodInsnNode) insn)
+            .filter(insn -> insn.owner.equals(NAMESPACE_CLASS))
+            .map(insn -> insn.name)
+            .toList();
+    }
+
+    boolean containsJump(MethodNode method) {
+        return StreamSupport.stream(method.instructions.spliterator(), false)
+            .anyMatch(insn -> insn instanceof JumpInsnNode && insn.getOpcode() == GOTO);
+    }
+
+    Object invoke(Path destinationDir, String methodName, Object... args) throws Exception {
+        try (var classLoader = URLClassLoader.newInstance(new URL[] { destinationDir.toUri().toURL() })) {
+            var namespaceClass = Class.forName(NAMESPACE_CLASS.replace('/', '.'), true, classLoader);
+            var method = namespaceClass.getMethod(methodName, Arrays.stream(args).map(arg -> int.class).toArray(Class[]::new));
+            return method.invoke(null, args);
+        }
+    }
+
+    void assertSelfTailCallIsJump(Path destinationDir) throws Exception {
+        var countDown = method(readNamespaceClass(destinationDir), "countDown");
+        assertThat(staticCallsWithinNamespace(countDown), not(hasItem("countDown")));
+        assertThat(containsJump(countDown), is(true));
+        assertThat(invoke(destinationDir, "countDown", DEPTH, 0), is(DEPTH));
+    }
+
+    @Test
+    void compilesSelfTailCallsIntoJumps() throws Exception {
+        assertSelfTailCallIsJump(compile(CodegenOptions.defaults()));
+    }
+
+    @Test
+    void compilesSelfTailCallsIntoJumpsWithMutualTailCalls() throws Exception {
+        assertSelfTailCallIsJump(compile(CodegenOptions.defaults().withMutualTailCalls(true)));
+    }
+
+    @Test
+    void compilesMutualTailCallsIntoCallsByDefault() throws Exception {
+        var destinationDir = compile(CodegenOptions.defaults());
+        var namespaceClass = readNamespaceClass(destinationDir);
+
+        assertThat(staticCallsWithinNamespace(method(namespaceClass, "isEven")), contains("isOdd"));
+        assertThat(staticCallsWithinNamespace(method(namespaceClass, "isOdd")), contains("isEven"));
+        assertThat(namespaceClass.methods.stream().map(method -> method.name).toList(), not(hasItem(startsWith("tailcalls$"))));
+
+        assertThat(invoke(destinationDir, "isEven", 10), is(true));
+    }
+
+    @Test
+    void compilesMutualTailCallsIntoJumpsWhenEnabled() throws Exception {
+        var destinationDir = compile(CodegenOptions.defaults().withMutualTailCalls(true));
+        var namespaceClass = readNamespaceClass(destinationDir);
+
+        // The functions enter a shared method in which they jump to each other
+        var groupMethod = method(namespaceClass, "tailcalls$isEven");
+        assertThat(staticCallsWithinNamespace(groupMethod), is(empty()));
+        assertThat(containsJump(groupMethod), is(true));
+
+        assertThat(staticCallsWithinNamespace(method(namespaceClass, "isEven")), contains("tailcalls$isEven"));
+        assertThat(staticCallsWithinNamespace(method(namespaceClass, "isOdd")), contains("tailcalls$isEven"));
+
+        assertThat(invoke(destinationDir, "isEven", DEPTH), is(true));
+        assertThat(invoke(destinationDir, "isOdd", DEPTH + 1), is(true));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.optimiser;
+
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.ImmutableSet;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.factory.Sets;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.names.LocalName;
+import org.mina_lang.syntax.*;
+
+public class EscapeAnalysis {
+    // The lambdas bound in a block which are only ever applied directly.
+    // These don't need to be allocated as closures, as they can be compiled into
+    // static methods which receive their free variables as extra arguments.
+    private final ImmutableSet<LocalName> nonEscapingLambdas;
+
+    // The non-escaping lambdas which are only applied in tail position of the block result.
+    // These can be compiled as join points.
+    private final ImmutableSet<LocalName> joinPoints;
+
+    private EscapeAnalysis(ImmutableSet<LocalName> nonEscapingLambdas, ImmutableSet<LocalName> joinPoints) {
+        this.nonEscapingLambdas = nonEscapingLambdas;
+        this.joinPoints = joinPoints;
+    }
+
+    public ImmutableSet<LocalName> nonEscapingLambdas() {
+        return nonEscapingLambdas;
+    }
+
+    public ImmutableSet<LocalName> joinPoints() {
+        return joinPoints;
+    }
+
+    public static EscapeAnalysis analyse(BlockNode<Attributes> block) {
+        MutableMap<LocalName, Integer> candidates = Maps.mutable.empty();
+
+        block.declarations().forEach(let -> {
+            if (let.meta().meta().name() instanceof LocalName letName &&
+                    let.expr() instanceof LambdaNode<Attributes> lambda) {
+                candidates.put(letName, lambda.params().size());
+            }
+        });
+
+        if (candidates.isEmpty()) {
+            return new EscapeAnalysis(Sets.immutable.empty(), Sets.immutable.empty());
+        }
+
+        var uses = new Uses(candidates);
+
+        block.declarations().forEach(let -> uses.visit(let.expr(), false, false));
+        block.result().ifPresent(result -> uses.visit(result, false, true));
+
+        var nonEscaping = candidates.keysView()
+                .reject(uses.escaping::contains)
+                .toSet()
+                .toImmutable();
+
+        var joinPoints = nonEscaping
+                .reject(uses.nonTailApplications::contains);
+
+        return new EscapeAnalysis(nonEscaping, joinPoints);
+    }
+
+    public static ImmutableSet<LocalName> nonEscapingLambdas(BlockNode<Attributes> block) {
+        return analyse(block).nonEscapingLambdas();
+    }
+
+    static class Uses {
+        final MutableMap<LocalName, Integer> candidates;
+        final MutableSet<LocalName> escaping = Sets.mutable.empty();
+        final MutableSet<LocalName> nonTailApplications = Sets.mutable.empty();
+
+        Uses(MutableMap<LocalName, Integer> candidates) {
+            this.candidates = candidates;
+        }
+
+        void visit(ExprNode<Attributes> expr, boolean inLambda, boolean tail) {
+            if (expr instanceof ApplyNode<Attributes> apply) {
+                ExprNode<Attributes> appliedExpr;
+                ImmutableList<ExprNode<Attributes>> appliedArgs;
+                if (apply.expr() instanceof SelectNode<Attributes> select) {
+                    appliedExpr = select.selection();
+                    appliedArgs = Lists.immutable.of(select.receiver()).newWithAll(apply.args());
+                } else {
+                    appliedExpr = apply.expr();
+                    appliedArgs = apply.args();
+                }
+
+                // Saturated applications outside of any lambda body can be compiled into direct calls
+                if (!inLambda &&
+                        appliedExpr instanceof ReferenceNode<Attributes> reference &&
+                        reference.meta().meta().name() instanceof LocalName localName &&
+                        candidates.containsKey(localName) &&
+                        candidates.get(localName) == appliedArgs.size()) {
+                    if (!tail) {
+                        nonTailApplications.add(localName);
+                    }
+                } else {
+                    visit(appliedExpr, inLambda, false);
+                }
+
+                appliedArgs.forEach(arg -> visit(arg, inLambda, false));
+            } else if (expr instanceof SelectNode<Attributes> select) {
+                visit(select.receiver(), inLambda, false);
+                visit(select.selection(), inLambda, false);
+            } else if (expr instanceof BlockNode<Attributes> block) {
+                block.declarations().forEach(let -> visit(let.expr(), inLambda, false));
+                block.result().ifPresent(result -> visit(result, inLambda, tail));
+            } else if (expr instanceof IfNode<Attributes> ifExpr) {
+                visit(ifExpr.condition(), inLambda, false);
+                visit(ifExpr.consequent(), inLambda, tail);
+                visit(ifExpr.alternative(), inLambda, tail);
+            } else if (expr instanceof LambdaNode<Attributes> lambda) {
+                // Any reference from a lambda body would have to be captured as a closure
+                visit(lambda.body(), true, false);
+            } else if (expr instanceof MatchNode<Attributes> match) {
+                visit(match.scrutinee(), inLambda, false);
+                match.cases().forEach(cse -> visit(cse.consequent(), inLambda, tail));
+            } else if (expr instanceof UnaryOpNode<Attributes> unOp) {
+                visit(unOp.operand(), inLambda, false);
+            } else if (expr instanceof BinaryOpNode<Attributes> binOp) {
+                visit(binOp.leftOperand(), inLambda, false);
+                visit(binOp.rightOperand(), inLambda, false);
+            } else if (expr instanceof ReferenceNode<Attributes> reference) {
+                if (reference.meta().meta().name() instanceof LocalName localName &&
+                        candidates.containsKey(localName)) {
+                    escaping.add(localName);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.optimiser;
+
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.impl.factory.Lists;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.names.ConstructorName;
+import org.mina_lang.common.names.LetName;
+import org.mina_lang.common.names.LocalName;
+import org.mina_lang.common.types.QuantifiedType;
+import org.mina_lang.common.types.Type;
+import org.mina_lang.common.types.TypeApply;
+import org.mina_lang.syntax.*;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+public class KnownCalls {
+    // A statically known callee: a reference to a top-level function or constructor,
+    // along with any leading arguments that were bound by a selection.
+    public record KnownCallee(ReferenceNode<Attributes> callee, ImmutableList<ExprNode<Attributes>> boundArgs) {
+        public int arity() {
+            return calleeArity(callee) - boundArgs.size();
+        }
+
+        // Rewrites the arguments of an application of this callee into the arguments of the underlying function
+        public ImmutableList<ExprNode<Attributes>> appliedArgs(ImmutableList<ExprNode<Attributes>> args) {
+            return boundArgs.newWithAll(args);
+        }
+    }
+
+    static int calleeArity(ReferenceNode<Attributes> callee) {
+        var type = (Type) callee.meta().meta().sort();
+        while (type instanceof QuantifiedType quant) {
+            type = quant.body();
+        }
+        return Type.isFunction(type) ? ((TypeApply) type).typeArguments().size() - 1 : -1;
+    }
+
+    // Finds the statically known callee of an expression, following aliases of known callees bound in enclosing blocks.
+    public static Optional<KnownCallee> knownCallee(
+            ExprNode<Attributes> expr,
+            Function<LocalName, Optional<KnownCallee>> aliases) {
+        if (expr instanceof ReferenceNode<Attributes> reference) {
+            var name = reference.meta().meta().name();
+            if (name instanceof LocalName localName) {
+                return aliases.apply(localName);
+            } else if ((name instanceof LetName || name instanceof ConstructorName) && calleeArity(reference) >= 0) {
+                return Optional.of(new KnownCallee(reference, Lists.immutable.empty()));
+            }
+        } else if (expr instanceof SelectNode<Attributes> select && isTrivial(select.receiver())) {
+            // The receiver is evaluated again at each call site, so it must be a variable or literal
+            return knownCallee(select.selection(), aliases)
+                .filter(callee -> callee.boundArgs().isEmpty())
+                .map(callee -> new KnownCallee(callee.callee(), Lists.immutable.of(select.receiver())));
+        }
+
+        return Optional.empty();
+    }
+
+    // Finds the statically known callee of a saturated application of a local variable.
+    // Applications of top-level functions and constructors by name are already direct calls.
+    public static Optional<KnownCallee> knownLocalCall(
+            ExprNode<Attributes> appliedExpr,
+            ImmutableList<ExprNode<Attributes>> appliedArgs,
+            Function<LocalName, Optional<KnownCallee>> aliases) {
+        if (appliedExpr instanceof ReferenceNode<Attributes> reference &&
+                reference.meta().meta().name() instanceof LocalName) {
+            return knownCallee(reference, aliases)
+                .filter(callee -> callee.arity() == appliedArgs.size());
+        }
+        return Optional.empty();
+    }
+
+    static boolean isTrivial(ExprNode<Attributes> expr) {
+        return expr instanceof LiteralNode<Attributes> ||
+            (expr instanceof ReferenceNode<Attributes> reference &&
+                !(reference.meta().meta().name() instanceof ConstructorName));
+    }
+}
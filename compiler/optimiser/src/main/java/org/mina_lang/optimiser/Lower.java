@@ -6,7 +6,9 @@ package org.mina_lang.optimiser;
 
 import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
 import org.mina_lang.common.Attributes;
 import org.mina_lang.common.names.*;
 import org.mina_lang.common.types.*;
@@ -19,11 +21,13 @@ import org.mina_lang.ina.String;
 import org.mina_lang.syntax.*;
 
 import java.util.List;
+import java.util.Optional;
 
 public class Lower {
     private final SyntheticNameSupply nameSupply;
     private final MetaNodePrinter<Attributes> nodePrinter = new MetaNodePrinter<>();
     private final InaNodePrinter printer = new InaNodePrinter();
+    private final MutableMap<LocalName, KnownCalls.KnownCallee> knownCallees = Maps.mutable.empty();
 
     public Lower(SyntheticNameSupply nameSupply) {
         this.nameSupply = nameSupply;
@@ -140,6 +144,10 @@ public class Lower {
                 bindings.isEmpty() ? body : new Block(body.type(), bindings.toImmutableList(), body)));
     }
 
+    Optional<KnownCalls.KnownCallee> lookupKnownCallee(LocalName name) {
+        return Optional.ofNullable(knownCallees.get(name));
+    }
+
     Param lowerParam(ParamNode<Attributes> param) {
         var name = (LocalName) param.meta().meta().name();
         var type = (Type) param.meta().meta().sort();
@@ -203,6 +211,13 @@ public class Lower {
             appliedArgs = apply.args();
         }
 
+        // Call local aliases of known functions directly
+        var knownCall = KnownCalls.knownLocalCall(appliedExpr, appliedArgs, this::lookupKnownCallee);
+        if (knownCall.isPresent()) {
+            appliedExpr = knownCall.get().callee();
+            appliedArgs = knownCall.get().appliedArgs(appliedArgs);
+        }
+
         var funType = (TypeApply) getUnderlyingType(appliedExpr);
         var returnType = funType.typeArguments().getLast();
 
@@ -222,17 +237,35 @@ public class Lower {
     }
 
     Expression lowerBlock(BlockNode<Attributes> block, List<LocalBinding> bindings) {
+        var joinPoints = EscapeAnalysis.analyse(block).joinPoints();
+
         // Flatten nested blocks into the enclosing scope
         block.declarations().forEach(let -> {
             var letName = (LocalName) let.meta().meta().name();
             var letType = (Type) let.meta().meta().sort();
-            var letExpr = lowerExpr(let.expr(), bindings);
-            bindings.add(new LetAssign(letName, letType, letExpr));
+            if (joinPoints.contains(letName) && let.expr() instanceof LambdaNode<Attributes> lambda) {
+                // Lambdas which are only applied in tail position don't need a closure
+                var params = lambda.params().collect(this::lowerParam);
+                MutableList<LocalBinding> joinBindings = Lists.mutable.empty();
+                var body = lowerExpr(lambda.body(), joinBindings);
+                bindings.add(new Join(
+                    letName, letType, params,
+                    joinBindings.isEmpty() ? body : new Block(body.type(), joinBindings.toImmutableList(), body)));
+            } else {
+                var letExpr = lowerExpr(let.expr(), bindings);
+                bindings.add(new LetAssign(letName, letType, letExpr));
+                KnownCalls.knownCallee(let.expr(), this::lookupKnownCallee)
+                    .ifPresent(callee -> knownCallees.put(letName, callee));
+            }
         });
 
-        return block.result()
-            .map(result -> lowerExpr(result, bindings))
+        var result = block.result()
+            .map(expr -> lowerExpr(expr, bindings))
             .orElse(Unit.INSTANCE);
+
+        block.declarations().forEach(let -> knownCallees.remove(let.meta().meta().name()));
+
+        return result;
     }
 
     Expression lowerIf(IfNode<Attributes> ifExpr, List<LocalBinding> bindings) {
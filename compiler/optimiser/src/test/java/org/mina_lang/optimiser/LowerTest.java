@@ -876,6 +876,115 @@ public class LowerTest {
         });
     }
 
+    @Test
+    void lowersAppliedLocalFunctionToJoin() {
+        withLowering(lower -> {
+            List<LocalBinding> bindings = Lists.mutable.empty();
+
+            // {
+            //   let a = 1
+            //   let f = b -> b + a
+            //   f(2)
+            // }
+            var tail = lower.lowerExpr(LOCAL_FUNCTION_APPLIED_BLOCK_NODE, bindings);
+
+            // {
+            //   let a = 1
+            //   join f(b) = b + a
+            //   f(2)
+            // }
+            var expectedBindings = List.of(
+                new LetAssign(
+                    new LocalName("a", 0),
+                    Type.INT,
+                    new Int(1)),
+                new Join(
+                    new LocalName("f", 1),
+                    LET_INC_TYPE,
+                    Lists.immutable.of(new Param(new LocalName("b", 2), Type.INT)),
+                    new BinOp(
+                        Type.INT,
+                        new Reference(new LocalName("b", 2), Type.INT),
+                        BinaryOp.ADD,
+                        new Reference(new LocalName("a", 0), Type.INT)))
+            );
+            var expectedTail = new Apply(
+                Type.INT,
+                new Reference(new LocalName("f", 1), LET_INC_TYPE),
+                Lists.immutable.of(new Int(2)));
+
+            assertThat(bindings, is(expectedBindings));
+            assertThat(tail, is(expectedTail));
+        });
+    }
+
+    @Test
+    void lowersEscapingLocalFunctionToLambda() {
+        withLowering(lower -> {
+            List<LocalBinding> bindings = Lists.mutable.empty();
+
+            // {
+            //   let a = 1
+            //   let f = b -> b + a
+            //   f
+            // }
+            var tail = lower.lowerExpr(LOCAL_FUNCTION_ESCAPING_BLOCK_NODE, bindings);
+
+            var expectedBindings = List.of(
+                new LetAssign(
+                    new LocalName("a", 0),
+                    Type.INT,
+                    new Int(1)),
+                new LetAssign(
+                    new LocalName("f", 1),
+                    LET_INC_TYPE,
+                    new Lambda(
+                        LET_INC_TYPE,
+                        Lists.immutable.of(new Param(new LocalName("b", 2), Type.INT)),
+                        new BinOp(
+                            Type.INT,
+                            new Reference(new LocalName("b", 2), Type.INT),
+                            BinaryOp.ADD,
+                            new Reference(new LocalName("a", 0), Type.INT))))
+            );
+            var expectedTail = new Reference(new LocalName("f", 1), LET_INC_TYPE);
+
+            assertThat(bindings, is(expectedBindings));
+            assertThat(tail, is(expectedTail));
+        });
+    }
+
+    @Test
+    void lowersAppliedLocalAliasToDirectCall() {
+        withLowering(lower -> {
+            List<LocalBinding> bindings = Lists.mutable.empty();
+
+            // {
+            //   let f = inc
+            //   f(1)
+            // }
+            var tail = lower.lowerExpr(LOCAL_ALIAS_APPLIED_BLOCK_NODE, bindings);
+
+            // {
+            //   let f = inc
+            //   inc(1)
+            // }
+            var expectedBindings = List.of(
+                new LetAssign(
+                    new LocalName("f", 0),
+                    LET_INC_TYPE,
+                    new Reference(LET_INC_NAME, LET_INC_TYPE))
+            );
+            var expectedTail = new Apply(
+                Type.INT,
+                new Reference(LET_INC_NAME, LET_INC_TYPE),
+                Lists.immutable.of(new Int(1)));
+
+            assertThat(bindings, is(expectedBindings));
+            assertThat(tail, is(expectedTail));
+        });
+    }
+
     @Test
     void lowersMatchNodeWithIdPattern() {
         withLowering(lower -> {
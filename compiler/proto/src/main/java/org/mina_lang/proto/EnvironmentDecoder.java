@@ -0,0 +1,216 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.proto;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Maps;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.Meta;
+import org.mina_lang.common.Scope;
+import org.mina_lang.common.TopLevelScope;
+import org.mina_lang.common.names.*;
+import org.mina_lang.common.types.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+// Decodes the declarations of an Environment on demand.
+// Names and sorts are decoded the first time that they are referenced and are shared thereafter,
+// so looking up a single declaration only decodes the names and sorts that it refers to.
+// Decoders are not thread-safe.
+public class EnvironmentDecoder {
+    private final Environment env;
+    private final int stringBase;
+    private final int sortBase;
+    private final Name[] names;
+    private final Sort[] sorts;
+
+    public EnvironmentDecoder(Environment env) {
+        var version = env.hasVersion() ? env.getVersion() : 1;
+
+        if (version < 1 || version > ProtobufWriter.FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported interface format version " + version);
+        }
+
+        this.env = env;
+        // Version 1 interfaces don't refer to the shared dictionary
+        this.stringBase = version >= 2 ? InterfaceDictionary.strings.size() : 0;
+        this.sortBase = version >= 2 ? InterfaceDictionary.sorts.size() : 0;
+        this.names = new Name[env.getNamesCount()];
+        this.sorts = new Sort[env.getSortsCount()];
+    }
+
+    public Optional<Meta<Attributes>> lookupValue(String name) {
+        return lookup(env.getValuesMap(), name);
+    }
+
+    public Optional<Meta<Attributes>> lookupType(String name) {
+        return lookup(env.getTypesMap(), name);
+    }
+
+    public Scope<Meta<Attributes>> toScope() {
+        MutableMap<String, Meta<Attributes>> values = Maps.mutable.empty();
+        MutableMap<String, Meta<Attributes>> types = Maps.mutable.empty();
+        decodeAll(env.getValuesMap(), values);
+        decodeAll(env.getTypesMap(), types);
+
+        MutableMap<ConstructorName, MutableMap<String, Meta<Attributes>>> fields = Maps.mutable.empty();
+        for (var i = 0; i < env.getFieldsCount(); i++) {
+            var entry = env.getFields(i);
+            MutableMap<String, Meta<Attributes>> entryFields = Maps.mutable.empty();
+            decodeAll(entry.getFieldsMap(), entryFields);
+            fields.put((ConstructorName) name(entry.getConstructor()), entryFields);
+        }
+
+        return new TopLevelScope<>(values, types, fields);
+    }
+
+    private Optional<Meta<Attributes>> lookup(Map<Integer, org.mina_lang.proto.Attributes> source, String name) {
+        for (var entry : source.entrySet()) {
+            if (name.equals(string(entry.getKey()))) {
+                return Optional.of(decode(entry.getValue()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void decodeAll(
+        Map<Integer, org.mina_lang.proto.Attributes> source,
+        Map<String, Meta<Attributes>> destination
+    ) {
+        for (var entry : source.entrySet()) {
+            destination.put(string(entry.getKey()), decode(entry.getValue()));
+        }
+    }
+
+    private Meta<Attributes> decode(org.mina_lang.proto.Attributes proto) {
+        return Meta.of(name(proto.getName()), sort(proto.getSort()));
+    }
+
+    String string(int index) {
+        return index < stringBase
+            ? InterfaceDictionary.strings.get(index)
+            : env.getStrings(index - stringBase);
+    }
+
+    Name name(int index) {
+        var name = names[index];
+        if (name == null) {
+            name = decodeName(env.getNames(index));
+            names[index] = name;
+        }
+        return name;
+    }
+
+    Sort sort(int index) {
+        if (index < sortBase) {
+            return InterfaceDictionary.sorts.get(index);
+        }
+        var sort = sorts[index - sortBase];
+        if (sort == null) {
+            sort = decodeSort(env.getSorts(index - sortBase));
+            sorts[index - sortBase] = sort;
+        }
+        return sort;
+    }
+
+    private QualifiedName qualifiedName(org.mina_lang.proto.names.QualifiedName proto) {
+        return new QualifiedName((NamespaceName) name(proto.getNamespace()), string(proto.getName()));
+    }
+
+    private Name decodeName(org.mina_lang.proto.names.Name proto) {
+        return switch (proto.getNameCase()) {
+            case NAME_NOT_SET -> null;
+            case FORALL -> new ForAllVarName(string(proto.getForall().getName()));
+            case EXISTS -> new ExistsVarName(string(proto.getExists().getName()));
+            case BUILTIN -> new BuiltInName(string(proto.getBuiltIn().getName()));
+            case NAMESPACE -> {
+                var namespace = proto.getNamespace();
+                MutableList<String> pkg = Lists.mutable.empty();
+                for (var i = 0; i < namespace.getPkgCount(); i++) {
+                    pkg.add(string(namespace.getPkg(i)));
+                }
+                yield new NamespaceName(pkg.toImmutable(), string(namespace.getName()));
+            }
+            case LET -> new LetName(qualifiedName(proto.getLet().getName()));
+            case DATA -> new DataName(qualifiedName(proto.getData().getName()));
+            case CONSTR -> {
+                var constr = proto.getConstr();
+                yield new ConstructorName((DataName) name(constr.getEnclosing()), qualifiedName(constr.getName()));
+            }
+            case FIELD -> {
+                var field = proto.getField();
+                yield new FieldName((ConstructorName) name(field.getConstr()), string(field.getName()));
+            }
+        };
+    }
+
+    private Sort decodeSort(org.mina_lang.proto.types.Sort proto) {
+        return switch (proto.getSortCase()) {
+            case SORT_NOT_SET -> null;
+            case TYPEKIND -> TypeKind.INSTANCE;
+            case HIGHERKIND -> {
+                var higher = proto.getHigherKind();
+                MutableList<Kind> args = Lists.mutable.of();
+                for (var i = 0; i < higher.getArgsCount(); i++) {
+                    args.add((Kind) sort(higher.getArgs(i)));
+                }
+                yield new HigherKind(
+                    args.toImmutableList(),
+                    (Kind) sort(higher.getResult())
+                );
+            }
+            case BUILTIN -> {
+                var builtIn = proto.getBuiltIn();
+                var builtInName = string(builtIn.getName());
+                yield Type.builtIns.getIfAbsent(
+                    builtInName,
+                    () -> new BuiltInType(builtInName, (Kind) sort(builtIn.getKind()))
+                );
+            }
+            case QUANTTY -> {
+                var quant = proto.getQuantTy();
+                MutableList<TypeVar> args = Lists.mutable.of();
+                for (var i = 0; i < quant.getArgsCount(); i++) {
+                    args.add((TypeVar) sort(quant.getArgs(i)));
+                }
+                yield new QuantifiedType(
+                    args.toImmutableList(),
+                    (Type) sort(quant.getBody()),
+                    (Kind) sort(quant.getKind())
+                );
+            }
+            case TYCON -> {
+                var tyCon = proto.getTyCon();
+                yield new TypeConstructor(
+                    qualifiedName(tyCon.getName()),
+                    (Kind) sort(tyCon.getKind())
+                );
+            }
+            case TYAPP -> {
+                var tyApp = proto.getTyApp();
+                MutableList<Type> args = Lists.mutable.of();
+                for (var i = 0; i < tyApp.getArgsCount(); i++) {
+                    args.add((Type) sort(tyApp.getArgs(i)));
+                }
+                yield new TypeApply(
+                    (Type) sort(tyApp.getTyp()),
+                    args.toImmutableList(),
+                    (Kind) sort(tyApp.getKind())
+                );
+            }
+            case FORALL -> {
+                var forall = proto.getForall();
+                yield new ForAllVar(string(forall.getName()), (Kind) sort(forall.getKind()));
+            }
+            case EXISTS -> {
+                var exists = proto.getExists();
+                yield new ExistsVar(string(exists.getName()), (Kind) sort(exists.getKind()));
+            }
+        };
+    }
+}
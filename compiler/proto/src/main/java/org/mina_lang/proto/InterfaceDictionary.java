@@ -0,0 +1,57 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.proto;
+
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+import org.mina_lang.common.types.*;
+
+// The strings and sorts which are shared by the interfaces of every namespace.
+// Interfaces refer to these by index rather than encoding them again in every namespace,
+// and decoding them yields the same instances every time.
+// Entries can only be added to the dictionary along with a new interface format version.
+final class InterfaceDictionary {
+    static final int MAX_FUNCTION_ARITY = 8;
+
+    static final ImmutableList<String> strings;
+
+    static final ImmutableList<Sort> sorts;
+
+    static {
+        MutableList<String> dictStrings = Lists.mutable.empty();
+        MutableList<Sort> dictSorts = Lists.mutable.empty();
+
+        dictSorts.add(TypeKind.INSTANCE);
+
+        // The order of the dictionary is part of the interface format, so it is spelled out here
+        var builtIns = Lists.immutable.of(
+            Type.UNIT, Type.BOOLEAN, Type.CHAR, Type.STRING,
+            Type.INT, Type.LONG, Type.FLOAT, Type.DOUBLE);
+
+        builtIns.forEach(builtIn -> {
+            dictStrings.add(builtIn.name());
+            dictSorts.add(builtIn);
+        });
+
+        dictStrings.add("->");
+
+        // The kinds and type constructors of functions with up to MAX_FUNCTION_ARITY arguments
+        for (var arity = 0; arity <= MAX_FUNCTION_ARITY; arity++) {
+            var argKinds = Lists.immutable.<Kind>empty();
+            for (var i = 0; i <= arity; i++) {
+                argKinds = argKinds.newWith(TypeKind.INSTANCE);
+            }
+            var functionKind = new HigherKind(argKinds, TypeKind.INSTANCE);
+            dictSorts.add(functionKind);
+            dictSorts.add(new BuiltInType("->", functionKind));
+        }
+
+        strings = dictStrings.toImmutable();
+        sorts = dictSorts.toImmutable();
+    }
+
+    private InterfaceDictionary() {}
+}
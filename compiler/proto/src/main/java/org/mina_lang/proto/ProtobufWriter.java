@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2024-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.proto;
@@ -22,10 +22,14 @@ import java.util.Map;
 import java.util.function.Supplier;
 
 public class ProtobufWriter {
+    public static final int FORMAT_VERSION = 2;
+
     public Environment toProto(Scope<Meta<org.mina_lang.common.Attributes>> topLevelScope) {
-        var builder = Environment.newBuilder();
+        var builder = Environment.newBuilder().setVersion(FORMAT_VERSION);
 
+        // The strings and sorts of the shared dictionary are referenced rather than encoded
         MutableObjectIntMap<String> stringIndices = ObjectIntMaps.mutable.empty();
+        InterfaceDictionary.strings.forEachWithIndex(stringIndices::put);
         List<String> strings = Lists.mutable.empty();
 
         MutableObjectIntMap<org.mina_lang.common.names.Name> nameIndices = ObjectIntMaps.mutable.empty();
@@ -33,6 +37,7 @@ public class ProtobufWriter {
         var nameVisitor = new NameEncodingVisitor(stringIndices, strings, nameIndices, namesEncoded);
 
         MutableObjectIntMap<org.mina_lang.common.types.Sort> sortIndices = ObjectIntMaps.mutable.empty();
+        InterfaceDictionary.sorts.forEachWithIndex(sortIndices::put);
         Map<org.mina_lang.common.types.Sort, Sort> sortsEncoded = new LinkedHashMap<>();
         var sortVisitor = new SortEncodingVisitor(stringIndices, strings, sortIndices, sortsEncoded, nameVisitor);
 
@@ -110,7 +115,7 @@ public class ProtobufWriter {
 
         private int recordString(String string) {
             return stringIndices.getIfAbsentPut(string, () -> {
-                var index = strings.size();
+                var index = InterfaceDictionary.strings.size() + strings.size();
                 strings.add(string);
                 return index;
             });
@@ -273,16 +278,16 @@ public class ProtobufWriter {
 
         private int recordString(String string) {
             return stringIndices.getIfAbsentPut(string, () -> {
-                var index = strings.size();
+                var index = InterfaceDictionary.strings.size() + strings.size();
                 strings.add(string);
                 return index;
             });
         }
 
         private void recordSort(org.mina_lang.common.types.Sort original, Supplier<Sort> encoder) {
-            if (!sortsEncoded.containsKey(original)) {
+            if (!sortIndices.containsKey(original)) {
                 var encoded = encoder.get();
-                sortIndices.put(original, sortsEncoded.size());
+                sortIndices.put(original, InterfaceDictionary.sorts.size() + sortsEncoded.size());
                 sortsEncoded.put(original, encoded);
             }
         }
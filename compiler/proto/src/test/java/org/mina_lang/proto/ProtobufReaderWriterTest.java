@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2024-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.proto;
@@ -7,12 +7,26 @@ package org.mina_lang.proto;
 import net.jqwik.api.ForAll;
 import net.jqwik.api.Property;
 import net.jqwik.api.ShrinkingMode;
+import org.eclipse.collections.api.factory.Lists;
+import org.eclipse.collections.api.factory.Maps;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.mina_lang.common.Attributes;
+import org.mina_lang.common.Meta;
+import org.mina_lang.common.TopLevelScope;
+import org.mina_lang.common.names.LetName;
+import org.mina_lang.common.names.NamespaceName;
+import org.mina_lang.common.names.QualifiedName;
+import org.mina_lang.common.types.Type;
+import org.mina_lang.proto.names.Name;
+import org.mina_lang.proto.types.BuiltInType;
+import org.mina_lang.proto.types.Sort;
 import org.mina_lang.syntax.NamespaceNode;
 
+import java.util.Optional;
+
 import static org.hamcrest.MatcherAssert.assertThat;
-import static org.hamcrest.Matchers.equalTo;
-import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.*;
 
 public class ProtobufReaderWriterTest {
     ProtobufWriter writer = new ProtobufWriter();
@@ -26,4 +40,72 @@ public class ProtobufReaderWriterTest {
         assertThat(roundTripScope.types(), is(equalTo(originalScope.types())));
         assertThat(roundTripScope.fields(), is(equalTo(originalScope.fields())));
     }
+
+    @Property(shrinking = ShrinkingMode.OFF)
+    void looksUpIndividualDeclarations(@ForAll NamespaceNode<Attributes> namespace) {
+        var originalScope = namespace.getScope();
+        var environment = writer.toProto(originalScope);
+
+        originalScope.values().forEach((name, meta) -> {
+            assertThat(reader.decoder(environment).lookupValue(name), is(equalTo(Optional.of(meta))));
+        });
+
+        originalScope.types().forEach((name, meta) -> {
+            assertThat(reader.decoder(environment).lookupType(name), is(equalTo(Optional.of(meta))));
+        });
+    }
+
+    @Test
+    void referencesSharedDictionary() {
+        var nsName = new NamespaceName(Lists.immutable.of("Mina", "Test"), "Main");
+        var letName = new LetName(new QualifiedName(nsName, "inc"));
+        var scope = new TopLevelScope<Meta<Attributes>>(
+            Maps.mutable.of("inc", Meta.of(letName, Type.function(Type.INT, Type.INT))),
+            Maps.mutable.empty(),
+            Maps.mutable.empty());
+
+        var environment = writer.toProto(scope);
+
+        assertThat(environment.getVersion(), is(ProtobufWriter.FORMAT_VERSION));
+        // Only the function application needs to be encoded
+        assertThat(environment.getSortsCount(), is(1));
+        assertThat(environment.getStringsList(), not(hasItem("Int")));
+
+        var first = reader.fromProto(environment).lookupValue("inc").orElseThrow();
+        var second = reader.fromProto(environment).lookupValue("inc").orElseThrow();
+        var firstFunction = (org.mina_lang.common.types.TypeApply) first.meta().sort();
+        var secondFunction = (org.mina_lang.common.types.TypeApply) second.meta().sort();
+
+        assertThat(firstFunction, is(equalTo(Type.function(Type.INT, Type.INT))));
+        assertThat(firstFunction.type(), is(sameInstance(secondFunction.type())));
+    }
+
+    @Test
+    void readsUnversionedEnvironments() {
+        var environment = Environment.newBuilder()
+            .addAllStrings(Lists.immutable.of("Mina", "Test", "Main", "answer", "Int"))
+            .addNames(Name.newBuilder().setNamespace(
+                org.mina_lang.proto.names.NamespaceName.newBuilder().addPkg(0).addPkg(1).setName(2)))
+            .addNames(Name.newBuilder().setLet(
+                org.mina_lang.proto.names.LetName.newBuilder().setName(
+                    org.mina_lang.proto.names.QualifiedName.newBuilder().setNamespace(0).setName(3))))
+            .addSorts(Sort.newBuilder().setTypeKind(com.google.protobuf.Empty.getDefaultInstance()))
+            .addSorts(Sort.newBuilder().setBuiltIn(BuiltInType.newBuilder().setName(4).setKind(0)))
+            .putValues(3, org.mina_lang.proto.Attributes.newBuilder().setName(1).setSort(1).build())
+            .build();
+
+        var nsName = new NamespaceName(Lists.immutable.of("Mina", "Test"), "Main");
+        var expected = Meta.of(new LetName(new QualifiedName(nsName, "answer")), Type.INT);
+
+        assertThat(reader.fromProto(environment).lookupValue("answer"), is(equalTo(Optional.of(expected))));
+    }
+
+    @Test
+    void rejectsUnsupportedVersions() {
+        var environment = Environment.newBuilder()
+            .setVersion(ProtobufWriter.FORMAT_VERSION + 1)
+            .build();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> reader.fromProto(environment));
+    }
 }
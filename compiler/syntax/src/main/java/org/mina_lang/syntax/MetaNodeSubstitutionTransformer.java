@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.syntax;
@@ -23,7 +23,12 @@ public class MetaNodeSubstitutionTransformer implements MetaNodeMetaTransformer<
 
     @Override
     public Meta<Attributes> updateMeta(Meta<Attributes> meta) {
-        var substituted = meta.meta().sort().accept(sortTransformer);
+        var sort = meta.meta().sort();
+        var substituted = sort.accept(sortTransformer);
+        // Most sorts are already solved by the end of typechecking, so avoid reallocating their metadata
+        if (substituted == sort) {
+            return meta;
+        }
         var attributes = meta.meta().withSort(substituted);
         return meta.withMeta(attributes);
     }
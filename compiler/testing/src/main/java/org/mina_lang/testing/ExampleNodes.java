@@ -5,6 +5,7 @@
 package org.mina_lang.testing;
 
 import com.opencastsoftware.yvette.Range;
+import org.eclipse.collections.api.list.ImmutableList;
 import org.eclipse.collections.impl.factory.Lists;
 import org.mina_lang.common.Attributes;
 import org.mina_lang.common.Meta;
@@ -798,6 +799,84 @@ public interface ExampleNodes {
                 boolNode(Meta.nameless(Type.BOOLEAN), true))),
         Optional.empty());
 
+    /**
+     * Typed example nodes for block declarations of a local function which captures a local variable.
+     * <pre><code>
+     * let a = 1
+     * let f = b -> b + a
+     * </code></pre>
+     */
+    ImmutableList<LetNode<Attributes>> LOCAL_FUNCTION_DECLARATIONS = Lists.immutable.of(
+        letNode(
+            Meta.of(new LocalName("a", 0), Type.INT),
+            "a",
+            intNode(Meta.nameless(Type.INT), 1)),
+        letNode(
+            Meta.of(new LocalName("f", 1), LET_INC_TYPE),
+            "f",
+            lambdaNode(
+                Meta.nameless(LET_INC_TYPE),
+                Lists.immutable.of(paramNode(Meta.of(new LocalName("b", 2), Type.INT), "b")),
+                binaryOpNode(
+                    Meta.nameless(Type.INT),
+                    refNode(Meta.of(new LocalName("b", 2), Type.INT), "b"),
+                    BinaryOp.ADD,
+                    refNode(Meta.of(new LocalName("a", 0), Type.INT), "a")))));
+
+    /**
+     * A typed example node for a block that declares a local function which is only applied directly.
+     * <pre><code>
+     * {
+     *     let a = 1
+     *     let f = b -> b + a
+     *     f(2)
+     * }
+     * </code></pre>
+     */
+    BlockNode<Attributes> LOCAL_FUNCTION_APPLIED_BLOCK_NODE = blockNode(
+        Meta.nameless(Type.INT),
+        LOCAL_FUNCTION_DECLARATIONS,
+        applyNode(
+            Meta.nameless(Type.INT),
+            refNode(Meta.of(new LocalName("f", 1), LET_INC_TYPE), "f"),
+            Lists.immutable.of(intNode(Meta.nameless(Type.INT), 2))));
+
+    /**
+     * A typed example node for a block that declares a local function which escapes the block.
+     * <pre><code>
+     * {
+     *     let a = 1
+     *     let f = b -> b + a
+     *     f
+     * }
+     * </code></pre>
+     */
+    BlockNode<Attributes> LOCAL_FUNCTION_ESCAPING_BLOCK_NODE = blockNode(
+        Meta.nameless(LET_INC_TYPE),
+        LOCAL_FUNCTION_DECLARATIONS,
+        refNode(Meta.of(new LocalName("f", 1), LET_INC_TYPE), "f"));
+
+    /**
+     * A typed example node for a block that declares a local alias of a top-level function and applies it.
+     * <pre><code>
+     * {
+     *     let f = inc
+     *     f(1)
+     * }
+     * </code></pre>
+     */
+    BlockNode<Attributes> LOCAL_ALIAS_APPLIED_BLOCK_NODE = blockNode(
+        Meta.nameless(Type.INT),
+        Lists.immutable.of(
+            letNode(
+                Meta.of(new LocalName("f", 0), LET_INC_TYPE),
+                "f",
+                refNode(LET_INC_META, "inc"))),
+        applyNode(
+            Meta.nameless(Type.INT),
+            refNode(Meta.of(new LocalName("f", 0), LET_INC_TYPE), "f"),
+            Lists.immutable.of(intNode(Meta.nameless(Type.INT), 1))));
+
     /**
      * A typed example node for a match node which scrutinises an integer with an identifier pattern.
      * <pre><code>
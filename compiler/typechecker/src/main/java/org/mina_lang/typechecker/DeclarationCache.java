@@ -0,0 +1,30 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.typechecker;
+
+import org.eclipse.collections.api.list.ImmutableList;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.names.Name;
+import org.mina_lang.common.types.UnsolvedVariableSupply;
+import org.mina_lang.syntax.DeclarationNode;
+
+import java.util.Optional;
+
+// Allows the typechecked declarations of a previous run to be reused when typechecking a namespace again.
+// Both methods are called before the top-level types of the declaration group are updated in the environment,
+// so the environment contains the same signatures for the declarations that the group depends upon.
+// Cached declarations must not reuse the synthetic type variables of a previous run,
+// so any that they contain are replaced with fresh variables from the current run's variable supply.
+public interface DeclarationCache {
+    Optional<ImmutableList<DeclarationNode<Attributes>>> lookup(
+        ImmutableList<DeclarationNode<Name>> declarationGroup,
+        TypeEnvironment environment,
+        UnsolvedVariableSupply varSupply);
+
+    void store(
+        ImmutableList<DeclarationNode<Name>> declarationGroup,
+        ImmutableList<DeclarationNode<Attributes>> typecheckedGroup,
+        TypeEnvironment environment);
+}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.typechecker;
@@ -29,6 +29,7 @@ public class Kindchecker {
     private TypeAnnotationFolder typeFolder;
     private SortSubstitutionTransformer sortTransformer;
     private KindPrinter kindPrinter = new KindPrinter();
+    private TypecheckerProfiler profiler;
 
     public Kindchecker(
             LocalDiagnosticReporter diagnostics,
@@ -42,8 +43,19 @@ public class Kindchecker {
         this.typeFolder = new TypeAnnotationFolder(environment);
     }
 
+    public Kindchecker(
+            LocalDiagnosticReporter diagnostics,
+            TypeEnvironment environment,
+            UnsolvedVariableSupply varSupply,
+            SortSubstitutionTransformer sortTransformer,
+            TypecheckerProfiler profiler) {
+        this(diagnostics, environment, varSupply, sortTransformer);
+        this.profiler = profiler;
+    }
+
     <A> A withScope(TypingScope scope, Supplier<A> fn) {
         environment.pushScope(scope);
+        recordScopeDepth();
         var result = fn.get();
         environment.popScope(scope.getClass());
         return result;
@@ -51,11 +63,18 @@ public class Kindchecker {
 
     void withScope(TypingScope scope, Runnable fn) {
         environment.pushScope(scope);
+        recordScopeDepth();
         fn.run();
         environment.popScope(scope.getClass());
         return;
     }
 
+    void recordScopeDepth() {
+        if (profiler != null) {
+            profiler.recordScopeDepth(environment.scopes().size());
+        }
+    }
+
     UnsolvedKind newUnsolvedKind() {
         var newUnsolved = varSupply.newUnsolvedKind();
         environment.putUnsolvedKind(newUnsolved);
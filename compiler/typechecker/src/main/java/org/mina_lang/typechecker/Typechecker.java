@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.typechecker;
@@ -20,6 +20,7 @@ import org.mina_lang.common.types.*;
 import org.mina_lang.syntax.*;
 import org.mina_lang.typechecker.scopes.*;
 
+import java.util.IdentityHashMap;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -36,13 +37,41 @@ public class Typechecker {
     private final SortSubstitutionTransformer sortTransformer;
     private final SortPrinter sortPrinter = new SortPrinter(new KindPrinter(), new TypePrinter());
 
+    // The result of a subtype check between ground types doesn't depend on the type substitution,
+    // so it can be reused for the rest of the namespace.
+    // Checks are keyed by the identity of the subtype and supertype, so that a lookup never has to
+    // hash or compare the structure of a type. Substitution preserves the identity of ground types,
+    // so the same instances reach this cache whenever the same declarations or constructors are checked.
+    final IdentityHashMap<Type, IdentityHashMap<Type, Boolean>> groundSubTypeChecks = new IdentityHashMap<>();
+
+    // Only present when profiling has been requested
+    private final TypecheckerProfiler profiler;
+
+    // Only present when the results of a previous run can be reused
+    private DeclarationCache declarationCache;
+
     public Typechecker(LocalDiagnosticReporter diagnostics, TypeEnvironment environment) {
+        this(diagnostics, environment, null);
+    }
+
+    public Typechecker(LocalDiagnosticReporter diagnostics, TypeEnvironment environment, TypecheckerProfiler profiler) {
         this.diagnostics = diagnostics;
         this.environment = environment;
         this.varSupply = new UnsolvedVariableSupply();
         this.typeFolder = new TypeAnnotationFolder(environment);
         this.sortTransformer = environment.sortTransformer();
-        this.kindchecker = new Kindchecker(diagnostics, environment, varSupply, sortTransformer);
+        this.profiler = profiler;
+        this.kindchecker = new Kindchecker(diagnostics, environment, varSupply, sortTransformer, profiler);
+
+        if (profiler != null) {
+            environment.typeSubstitution().countOperations();
+            environment.kindSubstitution().countOperations();
+        }
+    }
+
+    public Typechecker withDeclarationCache(DeclarationCache declarationCache) {
+        this.declarationCache = declarationCache;
+        return this;
     }
 
     public TypeEnvironment getEnvironment() {
@@ -51,6 +80,7 @@ public class Typechecker {
 
     <A> A withScope(TypingScope scope, Supplier<A> fn) {
         environment.pushScope(scope);
+        recordScopeDepth();
         var result = fn.get();
         environment.popScope(scope.getClass());
         return result;
@@ -58,10 +88,23 @@ public class Typechecker {
 
     void withScope(TypingScope scope, Runnable fn) {
         environment.pushScope(scope);
+        recordScopeDepth();
         fn.run();
         environment.popScope(scope.getClass());
     }
 
+    void recordScopeDepth() {
+        if (profiler != null) {
+            profiler.recordScopeDepth(environment.scopes().size());
+        }
+    }
+
+    <A> A profile(DeclarationNode<?> declaration, Named name, Supplier<A> fn) {
+        return profiler != null
+            ? profiler.profile(name, declaration.range(), environment, varSupply, fn)
+            : fn.get();
+    }
+
     UnsolvedKind newUnsolvedKind() {
         var newUnsolved = varSupply.newUnsolvedKind();
         environment.putUnsolvedKind(newUnsolved);
@@ -86,14 +129,18 @@ public class Typechecker {
         return newSynthetic;
     }
 
+    // Each declaration group is substituted and defaulted as soon as it has been inferred,
+    // so there is no need for another substitution pass over the whole namespace
     public NamespaceNode<Attributes> typecheck(NamespaceNode<Name> namespace) {
-        var metaTransformer = new MetaNodeSubstitutionTransformer(sortTransformer);
-        return inferNamespace(namespace).accept(metaTransformer);
+        var typecheckedNamespace = inferNamespace(namespace);
+        if (profiler != null) {
+            profiler.report(diagnostics, TypecheckerProfiler.DEFAULT_REPORT_LIMIT);
+        }
+        return typecheckedNamespace;
     }
 
     public ImmutableList<DeclarationNode<Attributes>> typecheck(ImmutableList<DeclarationNode<Name>> node) {
-        var metaTransformer = new MetaNodeSubstitutionTransformer(sortTransformer);
-        return inferDeclarationGroup(node).collect(decl -> decl.accept(metaTransformer));
+        return inferDeclarationGroup(node);
     }
 
     public DeclarationNode<Attributes> typecheck(DeclarationNode<Name> node) {
@@ -477,6 +524,24 @@ public class Typechecker {
         var solvedSubType = subType.accept(sortTransformer.getTypeTransformer());
         var solvedSuperType = superType.accept(sortTransformer.getTypeTransformer());
 
+        if (solvedSubType == solvedSuperType) {
+            // Every type is a subtype of itself
+            return true;
+        } else if (!solvedSubType.containsUnsolved() && !solvedSuperType.containsUnsolved()) {
+            var superTypeChecks = groundSubTypeChecks.computeIfAbsent(solvedSubType, subTy -> new IdentityHashMap<>());
+            var cachedResult = superTypeChecks.get(solvedSuperType);
+            if (cachedResult != null) {
+                return cachedResult;
+            }
+            var result = checkSolvedSubType(solvedSubType, solvedSuperType);
+            superTypeChecks.put(solvedSuperType, result);
+            return result;
+        } else {
+            return checkSolvedSubType(solvedSubType, solvedSuperType);
+        }
+    }
+
+    boolean checkSolvedSubType(Type solvedSubType, Type solvedSuperType) {
         if (solvedSubType instanceof ForAllVar subTy &&
                 solvedSuperType instanceof ForAllVar supTy &&
                 subTy.name().equals(supTy.name())) {
@@ -698,36 +763,41 @@ public class Typechecker {
 
     ImmutableList<DeclarationNode<Attributes>> inferDeclarationGroup(
             ImmutableList<DeclarationNode<Name>> declarationGroup) {
+        var cachedGroup = declarationCache != null
+            ? declarationCache.lookup(declarationGroup, environment, varSupply)
+            : Optional.<ImmutableList<DeclarationNode<Attributes>>>empty();
+
+        if (cachedGroup.isPresent()) {
+            cachedGroup.get().forEach(this::updateTopLevel);
+            return cachedGroup.get();
+        }
+
         var inferredGroup = declarationGroup
-                .collect(this::inferDeclaration)
-                .collect(this::defaultKinds)
+                .collect(decl -> profile(decl, (Named) decl.meta().meta(), () -> inferDeclaration(decl)))
                 .collect(this::checkPrincipalTypes)
-                .collect(this::defaultUnsolvedTypes);
+                .collect(decl -> profile(decl, (Named) decl.meta().meta().name(), () -> defaultDeclaration(decl)));
+
+        if (declarationCache != null) {
+            declarationCache.store(declarationGroup, inferredGroup, environment);
+        }
 
         inferredGroup.forEach(this::updateTopLevel);
 
         return inferredGroup;
     }
 
-    DeclarationNode<Attributes> defaultKinds(DeclarationNode<Attributes> declaration) {
-        if (declaration instanceof DataNode<Attributes> data) {
-            var kindDefaulting = new KindDefaultingTransformer(environment.kindSubstitution());
-            var sortTransformer = new SortSubstitutionTransformer(environment.typeSubstitution(), kindDefaulting);
-            return data.accept(new MetaNodeSubstitutionTransformer(sortTransformer));
-        } else {
-            return declaration;
-        }
-    }
-
-    DeclarationNode<Attributes> defaultUnsolvedTypes(DeclarationNode<Attributes> declaration) {
-        if (declaration instanceof DataNode<Attributes> data) {
-            return data;
-        } else {
-            var kindTransformer = sortTransformer.getKindTransformer();
-            var typeDefaulting = new TypeDefaultingTransformer(environment.typeSubstitution(), kindTransformer, varSupply);
-            var sortTransformer = new SortSubstitutionTransformer(typeDefaulting, kindTransformer);
-            return declaration.accept(new MetaNodeSubstitutionTransformer(sortTransformer));
-        }
+    // Substitutes the solved variables of a declaration and defaults the unsolved ones in a single traversal.
+    // Unsolved kinds are defaulted to *, while unsolved types are replaced with synthetic type variables,
+    // except within data declarations whose types come from their annotations.
+    // Kinds are defaulted in every kind of declaration so that no unsolved variables are left behind
+    // for later declaration groups to solve, which would leave this declaration's metadata out of date.
+    DeclarationNode<Attributes> defaultDeclaration(DeclarationNode<Attributes> declaration) {
+        var kindDefaulting = new KindDefaultingTransformer(environment.kindSubstitution());
+        var typeTransformer = declaration instanceof DataNode
+            ? new TypeSubstitutionTransformer(environment.typeSubstitution(), kindDefaulting)
+            : new TypeDefaultingTransformer(environment.typeSubstitution(), kindDefaulting, varSupply);
+        var sortTransformer = new SortSubstitutionTransformer(typeTransformer, kindDefaulting);
+        return declaration.accept(new MetaNodeSubstitutionTransformer(sortTransformer));
     }
 
     DeclarationNode<Attributes> checkPrincipalTypes(DeclarationNode<Attributes> declaration) {
@@ -0,0 +1,94 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.typechecker;
+
+import com.opencastsoftware.yvette.Range;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.impl.factory.Maps;
+import org.mina_lang.common.diagnostics.LocalDiagnosticReporter;
+import org.mina_lang.common.names.Named;
+import org.mina_lang.common.types.UnsolvedVariableSupply;
+
+import java.util.Comparator;
+import java.util.function.Supplier;
+
+// Records what it costs to typecheck each top-level declaration of a namespace,
+// so that declarations which cause pathological inference can be tracked down.
+// Profiling is opt-in, and the most expensive declarations are reported as hints.
+public class TypecheckerProfiler {
+    public static final int DEFAULT_REPORT_LIMIT = 10;
+
+    public record DeclarationCost(
+        String name,
+        Range range,
+        long elapsedNanos,
+        long unsolvedTypes,
+        long unions,
+        long finds,
+        int peakScopeDepth) {
+
+        DeclarationCost plus(DeclarationCost other) {
+            return new DeclarationCost(
+                name, range,
+                elapsedNanos + other.elapsedNanos(),
+                unsolvedTypes + other.unsolvedTypes(),
+                unions + other.unions(),
+                finds + other.finds(),
+                Math.max(peakScopeDepth, other.peakScopeDepth()));
+        }
+
+        String message() {
+            return String.format(
+                "Typechecking %s took %.3f ms, created %d unsolved types, performed %d unions and %d finds, and reached a scope depth of %d",
+                name, elapsedNanos / 1_000_000.0, unsolvedTypes, unions, finds, peakScopeDepth);
+        }
+    }
+
+    // A declaration is profiled separately for each stage of inferring its declaration group
+    private final MutableMap<String, DeclarationCost> costs = Maps.mutable.empty();
+
+    private int peakScopeDepth = 0;
+
+    <A> A profile(Named name, Range range, TypeEnvironment environment, UnsolvedVariableSupply varSupply, Supplier<A> fn) {
+        var startUnsolved = varSupply.unsolvedTypeCount();
+        var startUnions = environment.typeSubstitution().unionCount() + environment.kindSubstitution().unionCount();
+        var startFinds = environment.typeSubstitution().findCount() + environment.kindSubstitution().findCount();
+        peakScopeDepth = environment.scopes().size();
+        var startTime = System.nanoTime();
+
+        try {
+            return fn.get();
+        } finally {
+            var cost = new DeclarationCost(
+                name.canonicalName(),
+                range,
+                System.nanoTime() - startTime,
+                varSupply.unsolvedTypeCount() - startUnsolved,
+                environment.typeSubstitution().unionCount() + environment.kindSubstitution().unionCount() - startUnions,
+                environment.typeSubstitution().findCount() + environment.kindSubstitution().findCount() - startFinds,
+                peakScopeDepth);
+
+            costs.merge(cost.name(), cost, DeclarationCost::plus);
+        }
+    }
+
+    void recordScopeDepth(int scopeDepth) {
+        peakScopeDepth = Math.max(peakScopeDepth, scopeDepth);
+    }
+
+    public ImmutableList<DeclarationCost> mostExpensive(int limit) {
+        return costs.valuesView()
+            .toSortedList(Comparator.comparingLong(DeclarationCost::elapsedNanos).reversed())
+            .take(limit)
+            .toImmutable();
+    }
+
+    public void report(LocalDiagnosticReporter diagnostics, int limit) {
+        mostExpensive(limit).forEach(cost -> {
+            diagnostics.reportHint(cost.range(), cost.message());
+        });
+    }
+}
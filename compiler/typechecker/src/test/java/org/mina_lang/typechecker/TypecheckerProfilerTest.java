@@ -0,0 +1,43 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.typechecker;
+
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.jupiter.api.Test;
+import org.mina_lang.common.diagnostics.NamespaceDiagnosticReporter;
+
+import java.net.URI;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TypecheckerProfilerTest {
+    @Test
+    void recordsCostOfEachDeclaration() {
+        var baseCollector = new ErrorCollector();
+        var dummyUri = URI.create("file:///Mina/Test/Typechecker.mina");
+        var scopedCollector = new NamespaceDiagnosticReporter(baseCollector, dummyUri);
+        var profiler = new TypecheckerProfiler();
+        var typechecker = new Typechecker(scopedCollector, TypeEnvironment.withBuiltInTypes(), profiler);
+
+        typechecker.typecheck(Lists.immutable.of(ExampleNodes.List.NAMED_NODE));
+
+        assertThat(baseCollector.getDiagnostics(), is(empty()));
+
+        var costs = profiler.mostExpensive(TypecheckerProfiler.DEFAULT_REPORT_LIMIT);
+        assertThat(costs.size(), is(1));
+
+        var listCost = costs.getFirst();
+        assertThat(listCost.name(), is(equalTo("Mina/Test/Kindchecker.List")));
+        assertThat(listCost.range(), is(equalTo(ExampleNodes.List.NAMED_NODE.range())));
+        assertThat(listCost.elapsedNanos(), is(greaterThan(0L)));
+        assertThat(listCost.finds(), is(greaterThan(0L)));
+        assertThat(listCost.peakScopeDepth(), is(greaterThan(1)));
+
+        profiler.report(scopedCollector, TypecheckerProfiler.DEFAULT_REPORT_LIMIT);
+
+        assertThat(baseCollector.getErrors(), contains(startsWith("Typechecking Mina/Test/Kindchecker.List took")));
+    }
+}
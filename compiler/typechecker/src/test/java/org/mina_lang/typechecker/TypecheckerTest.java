@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.typechecker;
@@ -85,6 +85,30 @@ public class TypecheckerTest {
         assertThat(typecheckedNode, is(equalTo(expectedNode)));
     }
 
+    void testSuccessfulTypecheckGroup(
+            TypeEnvironment environment,
+            DeclarationNode<Name> originalNode,
+            DeclarationNode<Attributes> expectedNode) {
+        var baseCollector = new ErrorCollector();
+        var dummyUri = URI.create("file:///Mina/Test/Typechecker.mina");
+        var scopedCollector = new NamespaceDiagnosticReporter(baseCollector, dummyUri);
+        var typechecker = new Typechecker(scopedCollector, environment);
+        var typecheckedNodes = typechecker.typecheck(Lists.immutable.of(originalNode));
+        assertThat(baseCollector.getDiagnostics(), is(empty()));
+        assertThat(typecheckedNodes.getFirst(), is(equalTo(expectedNode)));
+        assertNoUnsolvedVariables(typecheckedNodes.getFirst());
+    }
+
+    void assertNoUnsolvedVariables(DeclarationNode<Attributes> declaration) {
+        declaration.accept(new MetaNodeMetaTransformer<Attributes, Attributes>() {
+            @Override
+            public Meta<Attributes> updateMeta(Meta<Attributes> meta) {
+                assertThat(meta.meta().sort().containsUnsolved(), is(false));
+                return meta;
+            }
+        });
+    }
+
     ErrorCollector testFailedTypecheck(
             TypeEnvironment environment,
             DeclarationNode<Name> originalNode) {
@@ -838,6 +862,115 @@ public class TypecheckerTest {
         testSuccessfulTypecheck(TypeEnvironment.withBuiltInTypes(), originalNode, expectedNode);
     }
 
+    // Declaration groups
+
+    @Test
+    @DisplayName("Let declaration groups are fully substituted")
+    void typecheckLetDeclarationGroup() {
+        var letName = new LetName(new QualifiedName(ExampleNodes.TYPECHECKER_NAMESPACE, "testIf"));
+
+        /*- let testIf = bool -> if bool then 1 else 2 */
+        var originalNode = letNode(
+                Meta.of(letName),
+                "testIf",
+                lambdaNode(
+                        ExampleNodes.namelessMeta(),
+                        Lists.immutable.of(ExampleNodes.Param.namedNode("bool")),
+                        ifNode(
+                                ExampleNodes.namelessMeta(),
+                                ExampleNodes.LocalVar.namedNode("bool"),
+                                ExampleNodes.Int.namedNode(1),
+                                ExampleNodes.Int.namedNode(2))));
+
+        var boolToInt = Type.function(Type.BOOLEAN, Type.INT);
+
+        var expectedNode = letNode(
+                Meta.of(letName, boolToInt),
+                "testIf",
+                lambdaNode(
+                        ExampleNodes.namelessMeta(boolToInt),
+                        Lists.immutable.of(ExampleNodes.Param.typedNode("bool", Type.BOOLEAN)),
+                        ifNode(
+                                ExampleNodes.namelessMeta(Type.INT),
+                                ExampleNodes.LocalVar.typedNode("bool", Type.BOOLEAN),
+                                ExampleNodes.Int.typedNode(1),
+                                ExampleNodes.Int.typedNode(2))));
+
+        testSuccessfulTypecheckGroup(TypeEnvironment.withBuiltInTypes(), originalNode, expectedNode);
+    }
+
+    @Test
+    @DisplayName("Letfn declaration groups are fully substituted and their unsolved kinds are defaulted")
+    void typecheckLetFnDeclarationGroup() {
+        var tyVarA = new ForAllVar("A", TypeKind.INSTANCE);
+        var tyVarAName = new ForAllVarName("A");
+        var tyVarAMeta = Meta.of(tyVarAName, TypeKind.INSTANCE);
+
+        var letName = new LetName(new QualifiedName(ExampleNodes.TYPECHECKER_NAMESPACE, "ignore"));
+
+        // Nothing constrains the kind of A, so it is defaulted to *
+        var letType = new QuantifiedType(
+                Lists.immutable.of(tyVarA),
+                Type.function(Type.INT, Type.INT),
+                new HigherKind(TypeKind.INSTANCE, TypeKind.INSTANCE));
+
+        /*- let ignore[A](x: Int): Int = x */
+        var originalNode = letFnNode(
+                Meta.of(letName),
+                "ignore",
+                Lists.immutable.of(forAllVarNode(Meta.of(tyVarAName), "A")),
+                Lists.immutable.of(ExampleNodes.Param.namedNode("x", ExampleNodes.Int.NAMED_TYPE_NODE)),
+                ExampleNodes.Int.NAMED_TYPE_NODE,
+                ExampleNodes.LocalVar.namedNode("x"));
+
+        var expectedNode = letFnNode(
+                Meta.of(letName, letType),
+                "ignore",
+                Lists.immutable.of(forAllVarNode(tyVarAMeta, "A")),
+                Lists.immutable.of(ExampleNodes.Param.typedNode("x", Type.INT, ExampleNodes.Int.KINDED_TYPE_NODE)),
+                ExampleNodes.Int.KINDED_TYPE_NODE,
+                ExampleNodes.LocalVar.typedNode("x", Type.INT));
+
+        testSuccessfulTypecheckGroup(TypeEnvironment.withBuiltInTypes(), originalNode, expectedNode);
+    }
+
+    @Test
+    @DisplayName("Data declaration groups are fully substituted and their unsolved kinds are defaulted")
+    void typecheckDataDeclarationGroup() {
+        var qualName = new QualifiedName(ExampleNodes.TYPECHECKER_NAMESPACE, "Proxy");
+        var dataName = new DataName(qualName);
+        var constrName = new ConstructorName(dataName, qualName);
+
+        var tyVarA = new ForAllVar("A", TypeKind.INSTANCE);
+        var tyVarAName = new ForAllVarName("A");
+
+        // Nothing constrains the kind of A, so it is defaulted to *
+        var dataKind = new HigherKind(TypeKind.INSTANCE, TypeKind.INSTANCE);
+        var dataType = new TypeConstructor(qualName, dataKind);
+
+        var constrType = new QuantifiedType(
+                Lists.immutable.of(tyVarA),
+                Type.function(new TypeApply(dataType, Lists.immutable.of(tyVarA), TypeKind.INSTANCE)),
+                dataKind);
+
+        /*- data Proxy[A] { case Proxy() } */
+        var originalNode = dataNode(
+                Meta.<Name>of(dataName),
+                "Proxy",
+                Lists.immutable.of(forAllVarNode(Meta.<Name>of(tyVarAName), "A")),
+                Lists.immutable.of(
+                        constructorNode(Meta.<Name>of(constrName), "Proxy", Lists.immutable.empty(), Optional.empty())));
+
+        var expectedNode = dataNode(
+                Meta.of(dataName, dataKind),
+                "Proxy",
+                Lists.immutable.of(forAllVarNode(Meta.of(tyVarAName, TypeKind.INSTANCE), "A")),
+                Lists.immutable.of(
+                        constructorNode(Meta.of(constrName, constrType), "Proxy", Lists.immutable.empty(), Optional.empty())));
+
+        testSuccessfulTypecheckGroup(TypeEnvironment.withBuiltInTypes(), originalNode, expectedNode);
+    }
+
     // Expressions
 
     @Test
@@ -1696,6 +1829,58 @@ public class TypecheckerTest {
         assertThat(typechecker.checkSubType(type, type), is(true));
     }
 
+    @Test
+    @DisplayName("Subtype checks between ground types are cached by the identity of the types")
+    void cachesGroundSubTypeChecksByIdentity() {
+        var baseCollector = new ErrorCollector();
+        var dummyUri = URI.create("file:///Mina/Test/Typechecker.mina");
+        var scopedCollector = new NamespaceDiagnosticReporter(baseCollector, dummyUri);
+        var typechecker = new Typechecker(scopedCollector, TypeEnvironment.withBuiltInTypes());
+
+        Type subType = Type.function(Type.INT, Type.BOOLEAN);
+        Type superType = Type.function(Type.INT, Type.BOOLEAN);
+        Type otherSubType = Type.function(Type.INT, Type.BOOLEAN);
+
+        assertThat(typechecker.checkSubType(subType, superType), is(true));
+        assertThat(typechecker.groundSubTypeChecks.get(subType), hasEntry(sameInstance(superType), is(true)));
+
+        // Replacing the cached result shows whether the next check is answered from the cache
+        typechecker.groundSubTypeChecks.get(subType).put(superType, false);
+        assertThat(typechecker.checkSubType(subType, superType), is(false));
+
+        // Structurally equal types which are different instances are checked again
+        assertThat(typechecker.checkSubType(otherSubType, superType), is(true));
+        assertThat(typechecker.groundSubTypeChecks.size(), is(2));
+    }
+
+    @Test
+    @DisplayName("Subtype checks involving unsolved types are not cached")
+    void doesNotCacheUnsolvedSubTypeChecks() {
+        var baseCollector = new ErrorCollector();
+        var dummyUri = URI.create("file:///Mina/Test/Typechecker.mina");
+        var scopedCollector = new NamespaceDiagnosticReporter(baseCollector, dummyUri);
+        var typechecker = new Typechecker(scopedCollector, TypeEnvironment.withBuiltInTypes());
+        var unsolved = typechecker.newUnsolvedType(TypeKind.INSTANCE);
+
+        assertThat(typechecker.checkSubType(Type.function(Type.INT, unsolved), Type.function(Type.INT, Type.INT)), is(true));
+        assertThat(typechecker.groundSubTypeChecks.isEmpty(), is(true));
+    }
+
+    @Property
+    @Label("Cached subtype checks between ground types agree with uncached checks")
+    void cachedGroundSubTypeChecksAgreeWithUncachedChecks(@ForAll("types") Type subType, @ForAll("types") Type superType) {
+        var baseCollector = new ErrorCollector();
+        var dummyUri = URI.create("file:///Mina/Test/Typechecker.mina");
+        var scopedCollector = new NamespaceDiagnosticReporter(baseCollector, dummyUri);
+        var cachingTypechecker = new Typechecker(scopedCollector, TypeEnvironment.withBuiltInTypes());
+        var uncachedTypechecker = new Typechecker(scopedCollector, TypeEnvironment.withBuiltInTypes());
+
+        var expected = uncachedTypechecker.checkSolvedSubType(subType, superType);
+
+        assertThat(cachingTypechecker.checkSubType(subType, superType), is(expected));
+        assertThat(cachingTypechecker.checkSubType(subType, superType), is(expected));
+    }
+
     @Provide
     Arbitrary<Type> types() {
         return Arbitraries.lazyOf(
@@ -26,6 +26,10 @@ buildInfo {
 
 dependencies {
     implementation(libs.gradleBspPlugin)
+
+    // Classpath ABI Extraction
+    implementation(libs.asm)
+
     compileOnly(project(":compiler:mina-compiler-main"))
     compileOnly(libs.apacheCommonsLang)
     compileOnly(libs.yvette)
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.gradle;
@@ -238,6 +238,232 @@ class MinaPluginFunctionalTest {
             containsString("GradleTest.java:11: error: cannot find symbol"));
     }
 
+    @Test
+    void recompilesOnlyAffectedNamespaces() throws IOException {
+        var runner = GradleRunner.create();
+
+        writeString(getSettingsFile(), "");
+
+        writeString(getBuildFile(),
+            "plugins {",
+            "  id('java')",
+            "  id('org.mina-lang.gradle')",
+            "}",
+            "",
+            "repositories {",
+            "  mavenLocal()",
+            "  mavenCentral()",
+            "}",
+            "",
+            "mina {",
+            "  minaVersion = \"" + BuildInfo.version + "\"",
+            "}");
+
+        writeString(getMinaSourceFile("Foo"),
+            "namespace Mina/Examples/Foo {",
+            "  let bar = 1",
+            "}");
+
+        writeString(getMinaSourceFile("Gradle"),
+            "namespace Mina/Examples/Gradle {",
+            "  import Mina/Examples/Foo.bar",
+            "  let foo = bar",
+            "}");
+
+        writeString(getMinaSourceFile("Unrelated"),
+            "namespace Mina/Examples/Unrelated {",
+            "  let baz = 2",
+            "}");
+
+        BuildResult initialResult = runBuild(
+            runner,
+            GradleRunner::build,
+            "compileMina", "--info", "--stacktrace");
+
+        assertThat(
+            initialResult.task(":compileMina").getOutcome(),
+            is(equalTo(TaskOutcome.SUCCESS)));
+
+        var unrelatedClass = projectDir.resolve("build/classes/mina/main/Mina/Examples/Unrelated/$namespace.class");
+        var unrelatedModified = Files.getLastModifiedTime(unrelatedClass);
+
+        writeString(getMinaSourceFile("Foo"),
+            "namespace Mina/Examples/Foo {",
+            "  let bar = 3",
+            "}");
+
+        BuildResult incrementalResult = runBuild(
+            runner,
+            GradleRunner::build,
+            "compileMina", "--info", "--stacktrace");
+
+        assertThat(
+            incrementalResult.task(":compileMina").getOutcome(),
+            is(equalTo(TaskOutcome.SUCCESS)));
+
+        assertThat(
+            incrementalResult.getOutput(),
+            containsString("Compiling 1 changed source files and 1 importing namespaces"));
+
+        assertThat(
+            Files.getLastModifiedTime(unrelatedClass),
+            is(equalTo(unrelatedModified)));
+    }
+
+    @Test
+    void reusesCompilerAcrossBuilds() throws IOException {
+        var runner = GradleRunner.create();
+
+        writeString(getSettingsFile(), "");
+
+        writeString(getBuildFile(),
+            "plugins {",
+            "  id('java')",
+            "  id('org.mina-lang.gradle')",
+            "}",
+            "",
+            "repositories {",
+            "  mavenLocal()",
+            "  mavenCentral()",
+            "}",
+            "",
+            "mina {",
+            "  minaVersion = \"" + BuildInfo.version + "\"",
+            "}");
+
+        writeString(getMinaSourceFile("Gradle"),
+            "namespace Mina/Examples/Gradle {",
+            "  let foo = 1",
+            "}");
+
+        BuildResult firstResult = runBuild(
+            runner,
+            GradleRunner::build,
+            "compileMina", "--info", "--stacktrace");
+
+        assertThat(
+            firstResult.task(":compileMina").getOutcome(),
+            is(equalTo(TaskOutcome.SUCCESS)));
+
+        BuildResult secondResult = runBuild(
+            runner,
+            GradleRunner::build,
+            "clean", "compileMina", "--info", "--stacktrace");
+
+        assertThat(
+            secondResult.task(":compileMina").getOutcome(),
+            is(equalTo(TaskOutcome.SUCCESS)));
+
+        assertThat(
+            secondResult.getOutput(),
+            not(containsString("Creating Mina compiler for classpath")));
+    }
+
+    @Test
+    void avoidsRecompilingForImplementationChanges() throws IOException {
+        var runner = GradleRunner.create();
+
+        writeString(getSettingsFile(), "include('lib', 'app')");
+
+        writeString(getBuildFile());
+
+        writeString(getSubprojectFile("lib", "build.gradle"),
+            "plugins {",
+            "  id('java-library')",
+            "  id('org.mina-lang.gradle')",
+            "}",
+            "",
+            "repositories {",
+            "  mavenLocal()",
+            "  mavenCentral()",
+            "}",
+            "",
+            "mina {",
+            "  minaVersion = \"" + BuildInfo.version + "\"",
+            "}");
+
+        writeString(getSubprojectFile("app", "build.gradle"),
+            "plugins {",
+            "  id('java')",
+            "  id('org.mina-lang.gradle')",
+            "}",
+            "",
+            "repositories {",
+            "  mavenLocal()",
+            "  mavenCentral()",
+            "}",
+            "",
+            "mina {",
+            "  minaVersion = \"" + BuildInfo.version + "\"",
+            "}",
+            "",
+            "dependencies {",
+            "  implementation(project(':lib'))",
+            "}");
+
+        var libSource = getSubprojectFile("lib", "src/main/mina/Mina/Examples/Lib.mina");
+
+        writeString(libSource,
+            "namespace Mina/Examples/Lib {",
+            "  let bar = 1",
+            "}");
+
+        writeString(getSubprojectFile("app", "src/main/mina/Mina/Examples/App.mina"),
+            "namespace Mina/Examples/App {",
+            "  import Mina/Examples/Lib.bar",
+            "  let foo = bar",
+            "}");
+
+        BuildResult initialResult = runBuild(
+            runner,
+            GradleRunner::build,
+            ":app:compileMina", "--info", "--stacktrace");
+
+        assertThat(
+            initialResult.task(":app:compileMina").getOutcome(),
+            is(equalTo(TaskOutcome.SUCCESS)));
+
+        // Changing the value of `bar` doesn't change its type
+        writeString(libSource,
+            "namespace Mina/Examples/Lib {",
+            "  let bar = 2",
+            "}");
+
+        BuildResult implementationChangeResult = runBuild(
+            runner,
+            GradleRunner::build,
+            ":app:compileMina", "--info", "--stacktrace");
+
+        assertThat(
+            implementationChangeResult.task(":lib:compileMina").getOutcome(),
+            is(equalTo(TaskOutcome.SUCCESS)));
+
+        assertThat(
+            implementationChangeResult.task(":app:compileMina").getOutcome(),
+            is(equalTo(TaskOutcome.UP_TO_DATE)));
+
+        // Changing the type of `bar` does
+        writeString(libSource,
+            "namespace Mina/Examples/Lib {",
+            "  let bar = \"bar\"",
+            "}");
+
+        BuildResult abiChangeResult = runBuild(
+            runner,
+            GradleRunner::build,
+            ":app:compileMina", "--info", "--stacktrace");
+
+        assertThat(
+            abiChangeResult.task(":app:compileMina").getOutcome(),
+            is(equalTo(TaskOutcome.SUCCESS)));
+    }
+
+    private Path getSubprojectFile(String project, String path) throws IOException {
+        var file = projectDir.resolve(project).resolve(path);
+        Files.createDirectories(file.getParent());
+        return file;
+    }
+
     private void deleteFile(Path file) throws IOException {
         Files.delete(file);
     }
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.gradle;
@@ -27,6 +27,7 @@ import org.gradle.api.tasks.compile.AbstractCompile;
 import org.gradle.internal.Cast;
 import org.gradle.jvm.toolchain.JavaLauncher;
 import org.gradle.jvm.toolchain.JavaToolchainService;
+import org.mina_lang.gradle.compiler.MinaCompilerService;
 
 import javax.inject.Inject;
 import java.util.concurrent.Callable;
@@ -40,6 +41,7 @@ public class MinaBasePlugin implements Plugin<Project> {
 
     public static final String MINAC_CONFIGURATION_NAME = "minac";
     public static final String MINA_EXTENSION_NAME = "mina";
+    public static final String MINA_COMPILER_SERVICE_NAME = "minaCompiler";
 
     @Inject
     public MinaBasePlugin(ObjectFactory objectFactory, JvmPluginServices jvmPluginServices, JvmLanguageUtilities jvmEcosystemUtilities) {
@@ -82,7 +84,12 @@ public class MinaBasePlugin implements Plugin<Project> {
     }
 
     private void configureCompileDefaults(Project project) {
+        Provider<MinaCompilerService> compilerService = project.getGradle().getSharedServices()
+            .registerIfAbsent(MINA_COMPILER_SERVICE_NAME, MinaCompilerService.class, spec -> {});
+
         project.getTasks().withType(MinaCompile.class).configureEach(compile -> {
+            compile.getCompilerService().convention(compilerService);
+            compile.usesService(compilerService);
         });
     }
 
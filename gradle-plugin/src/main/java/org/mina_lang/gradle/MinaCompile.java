@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.gradle;
@@ -10,6 +10,7 @@ import org.gradle.api.artifacts.Configuration;
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.FileCollection;
 import org.gradle.api.file.FileTree;
+import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.internal.file.FileOperations;
 import org.gradle.api.internal.tasks.compile.HasCompileOptions;
 import org.gradle.api.model.ObjectFactory;
@@ -22,13 +23,26 @@ import org.gradle.internal.execution.history.OutputsCleaner;
 import org.gradle.internal.file.Deleter;
 import org.gradle.internal.file.FileType;
 import org.gradle.jvm.toolchain.JavaLauncher;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
 import org.gradle.workers.WorkQueue;
 import org.gradle.workers.WorkerExecutor;
+import org.mina_lang.gradle.classpath.ClasspathAbi;
+import org.mina_lang.gradle.compiler.MinaCompilerService;
 
 import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
 @CacheableTask
 @NonNullApi
@@ -46,6 +60,10 @@ public abstract class MinaCompile extends AbstractCompile implements HasCompileO
         this.minaCompilerClasspath = getObjectFactory().fileCollection().from(minacConfig.getAsFileTree());
         this.fileOperations = fileOperations;
         this.deleter = deleter;
+        getNamespaceOutputsFile().convention(
+            project.getLayout().getBuildDirectory().file("mina/" + getName() + "/namespace-outputs"));
+        // The classpath is fingerprinted by its ABI, so we need to declare its dependencies separately
+        dependsOn((Callable<FileCollection>) this::getClasspath);
     }
 
     @Nested
@@ -64,6 +82,13 @@ public abstract class MinaCompile extends AbstractCompile implements HasCompileO
     @Nested
     public abstract Property<JavaLauncher> getJavaLauncher();
 
+    @Internal
+    public abstract Property<MinaCompilerService> getCompilerService();
+
+    // Records the outputs of each namespace for the next incremental compilation
+    @LocalState
+    public abstract RegularFileProperty getNamespaceOutputsFile();
+
     @Inject
     public abstract ObjectFactory getObjectFactory();
 
@@ -71,6 +96,19 @@ public abstract class MinaCompile extends AbstractCompile implements HasCompileO
     public abstract WorkerExecutor getWorkerExecutor();
 
     @Override
+    @Internal
+    public FileCollection getClasspath() {
+        return super.getClasspath();
+    }
+
+    // Only changes to the Mina environments and signatures of classpath entries require recompilation
+    @Input
+    public String getClasspathAbi() {
+        return ClasspathAbi.fingerprint(getClasspath());
+    }
+
+    @Override
+    @Incremental
     @SkipWhenEmpty
     @IgnoreEmptyDirectories
     @PathSensitive(PathSensitivity.RELATIVE)
@@ -113,29 +151,143 @@ public abstract class MinaCompile extends AbstractCompile implements HasCompileO
     }
 
     @TaskAction
-    public void compile() {
-        cleanupStaleOutputFiles();
+    public void compile(InputChanges inputChanges) {
+        var workQueue = createWorkQueue();
+
+        if (getMinaCompileOptions().getShards() > 1) {
+            compileSharded(workQueue);
+        } else {
+            compileIncrementally(workQueue, inputChanges);
+        }
+    }
+
+    private boolean useCompilerService() {
+        return !getOptions().isFork() && getCompilerService().isPresent();
+    }
 
-        WorkQueue workQueue = getOptions().isFork() ? getWorkerExecutor().processIsolation(spec -> {
-            spec.getClasspath().from(getMinaCompilerClasspath());
-            spec.forkOptions(opts -> {
-                ForkOptions forkOpts = getOptions().getForkOptions();
-                opts.setWorkingDir(getProject().getLayout().getProjectDirectory());
-                opts.setExecutable(getJavaLauncher().get().getExecutablePath().getAsFile().getAbsolutePath());
-                opts.setJvmArgs(forkOpts.getJvmArgs());
-                opts.setMinHeapSize(forkOpts.getMemoryInitialSize());
-                opts.setMaxHeapSize(forkOpts.getMemoryMaximumSize());
+    private WorkQueue createWorkQueue() {
+        if (getOptions().isFork()) {
+            return getWorkerExecutor().processIsolation(spec -> {
+                spec.getClasspath().from(getMinaCompilerClasspath());
+                spec.forkOptions(opts -> {
+                    ForkOptions forkOpts = getOptions().getForkOptions();
+                    opts.setWorkingDir(getProject().getLayout().getProjectDirectory());
+                    opts.setExecutable(getJavaLauncher().get().getExecutablePath().getAsFile().getAbsolutePath());
+                    opts.setJvmArgs(forkOpts.getJvmArgs());
+                    opts.setMinHeapSize(forkOpts.getMemoryInitialSize());
+                    opts.setMaxHeapSize(forkOpts.getMemoryMaximumSize());
+                });
             });
-        }) : getWorkerExecutor().classLoaderIsolation(spec -> {
-            spec.getClasspath().from(getMinaCompilerClasspath());
-        });
+        } else if (useCompilerService()) {
+            // The compiler service provides its own class loader for the compiler
+            return getWorkerExecutor().noIsolation();
+        } else {
+            return getWorkerExecutor().classLoaderIsolation(spec -> {
+                spec.getClasspath().from(getMinaCompilerClasspath());
+            });
+        }
+    }
+
+    private void configureCompileParameters(MinaCompileParameters params) {
+        params.getCompilerClassName().set("org.mina_lang.cli.MinaCommandLine");
+        params.getMinaCompileOptions().set(getMinaCompileOptions());
+        params.getDestinationDirectory().set(getDestinationDirectory());
+        params.getClasspath().from(getClasspath());
+        if (useCompilerService()) {
+            params.getCompilerService().set(getCompilerService());
+            params.getCompilerClasspath().from(getMinaCompilerClasspath());
+        }
+    }
+
+    private void compileIncrementally(WorkQueue workQueue, InputChanges inputChanges) {
+        var namespaceOutputsFile = getNamespaceOutputsFile().get().getAsFile();
+
+        // We can only compile incrementally if we know which outputs belong to each namespace
+        var incremental = inputChanges.isIncremental() && namespaceOutputsFile.isFile();
+
+        var changedSourceFiles = new ArrayList<File>();
+        var removedSourceFiles = new ArrayList<File>();
+
+        if (incremental) {
+            for (FileChange change : inputChanges.getFileChanges(getSource())) {
+                if (change.getFileType() == org.gradle.api.file.FileType.DIRECTORY) {
+                    continue;
+                } else if (change.getChangeType() == ChangeType.REMOVED) {
+                    removedSourceFiles.add(change.getFile());
+                } else {
+                    changedSourceFiles.add(change.getFile());
+                }
+            }
+        } else {
+            cleanupStaleOutputFiles();
+        }
 
         workQueue.submit(MinaCompileAction.class, params -> {
-            params.getCompilerClassName().set("org.mina_lang.cli.MinaCommandLine");
-            params.getMinaCompileOptions().set(getMinaCompileOptions());
-            params.getDestinationDirectory().set(getDestinationDirectory());
-            params.getClasspath().from(getClasspath());
+            configureCompileParameters(params);
             params.getSourceFiles().from(getSource());
+            params.getIncremental().set(incremental);
+            params.getChangedSourceFiles().from(changedSourceFiles);
+            params.getRemovedSourceFiles().from(removedSourceFiles);
+            params.getNamespaceOutputsFile().set(getNamespaceOutputsFile());
+        });
+    }
+
+    private void compileSharded(WorkQueue workQueue) {
+        cleanupStaleOutputFiles();
+
+        try {
+            // Sharded compilations don't record the outputs of each namespace,
+            // so the next incremental compilation has to start from scratch
+            Files.deleteIfExists(getNamespaceOutputsFile().get().getAsFile().toPath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete namespace outputs file", e);
+        }
+
+        var shardPlanFile = new File(getTemporaryDir(), "shard-plan");
+
+        workQueue.submit(MinaPlanShardsAction.class, params -> {
+            params.getSourceFiles().from(getSource());
+            params.getMaxShards().set(getMinaCompileOptions().getShards());
+            params.getShardPlanFile().set(shardPlanFile);
+            if (useCompilerService()) {
+                params.getCompilerService().set(getCompilerService());
+                params.getCompilerClasspath().from(getMinaCompilerClasspath());
+            }
         });
+
+        workQueue.await();
+
+        for (var wave : readShardPlan(shardPlanFile)) {
+            for (var shard : wave) {
+                workQueue.submit(MinaCompileAction.class, params -> {
+                    configureCompileParameters(params);
+                    params.getSourceFiles().from(shard);
+                    params.getIncremental().set(false);
+                });
+            }
+
+            // Later waves resolve the namespaces compiled by earlier waves from the destination directory
+            workQueue.await();
+        }
+    }
+
+    private Collection<List<List<File>>> readShardPlan(File shardPlanFile) {
+        var waves = new TreeMap<Integer, TreeMap<Integer, List<File>>>();
+
+        try {
+            for (var line : Files.readAllLines(shardPlanFile.toPath(), StandardCharsets.UTF_8)) {
+                var fields = line.split("\t", 3);
+                var wave = waves.computeIfAbsent(Integer.parseInt(fields[0]), index -> new TreeMap<>());
+                var shard = wave.computeIfAbsent(Integer.parseInt(fields[1]), index -> new ArrayList<>());
+                shard.add(new File(fields[2]));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read shard plan", e);
+        }
+
+        return waves.values()
+            .stream()
+            .map(wave -> List.copyOf(wave.values()))
+            .toList();
     }
 }
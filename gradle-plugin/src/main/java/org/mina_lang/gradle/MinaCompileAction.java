@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2023-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.gradle;
@@ -22,7 +22,13 @@ public abstract class MinaCompileAction implements WorkAction<MinaCompileParamet
 
     @Override
     public void execute() {
-        var compiler = new MinaApiCompiler(problems);
+        var compilerService = getParameters().getCompilerService();
+
+        // Reuse the daemon's compiler when we aren't running in an isolated worker
+        var compiler = compilerService.isPresent()
+            ? compilerService.get().compilerFor(getParameters().getCompilerClasspath(), problems)
+            : new MinaApiCompiler(problems);
+
         try {
             compiler.compile(getParameters());
         } catch (IOException e) {
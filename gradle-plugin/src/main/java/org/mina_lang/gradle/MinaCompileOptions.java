@@ -1,11 +1,26 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.gradle;
 
+import org.gradle.api.tasks.Input;
 import org.gradle.api.tasks.compile.AbstractOptions;
 
 public abstract class MinaCompileOptions extends AbstractOptions {
     private static final long serialVersionUID = 0L;
+
+    private int shards = 1;
+
+    // The number of workers to split compilation between.
+    // When this is more than one, the sources are compiled in waves that follow their imports,
+    // and each wave is split into shards that are compiled by separate workers.
+    @Input
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
 }
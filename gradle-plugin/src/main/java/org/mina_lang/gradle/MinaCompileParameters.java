@@ -1,13 +1,15 @@
 /*
- * SPDX-FileCopyrightText:  © 2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.gradle;
 
 import org.gradle.api.file.ConfigurableFileCollection;
 import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
 import org.gradle.api.provider.Property;
 import org.gradle.workers.WorkParameters;
+import org.mina_lang.gradle.compiler.MinaCompilerService;
 
 public interface MinaCompileParameters extends WorkParameters {
     Property<String> getCompilerClassName();
@@ -15,4 +17,10 @@ public interface MinaCompileParameters extends WorkParameters {
     ConfigurableFileCollection getClasspath();
     DirectoryProperty getDestinationDirectory();
     ConfigurableFileCollection getSourceFiles();
+    Property<Boolean> getIncremental();
+    ConfigurableFileCollection getChangedSourceFiles();
+    ConfigurableFileCollection getRemovedSourceFiles();
+    RegularFileProperty getNamespaceOutputsFile();
+    Property<MinaCompilerService> getCompilerService();
+    ConfigurableFileCollection getCompilerClasspath();
 }
@@ -0,0 +1,37 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.gradle;
+
+import org.gradle.api.problems.Problems;
+import org.gradle.internal.UncheckedException;
+import org.gradle.workers.WorkAction;
+import org.mina_lang.gradle.compiler.MinaApiCompiler;
+
+import javax.inject.Inject;
+import java.io.IOException;
+
+public abstract class MinaPlanShardsAction implements WorkAction<MinaShardParameters> {
+    private Problems problems;
+
+    @Inject
+    public MinaPlanShardsAction(Problems problems) {
+        this.problems = problems;
+    }
+
+    @Override
+    public void execute() {
+        var compilerService = getParameters().getCompilerService();
+
+        var compiler = compilerService.isPresent()
+            ? compilerService.get().compilerFor(getParameters().getCompilerClasspath(), problems)
+            : new MinaApiCompiler(problems);
+
+        try {
+            compiler.planShards(getParameters());
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.gradle;
+
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkParameters;
+import org.mina_lang.gradle.compiler.MinaCompilerService;
+
+public interface MinaShardParameters extends WorkParameters {
+    ConfigurableFileCollection getSourceFiles();
+    Property<Integer> getMaxShards();
+    RegularFileProperty getShardPlanFile();
+    Property<MinaCompilerService> getCompilerService();
+    ConfigurableFileCollection getCompilerClasspath();
+}
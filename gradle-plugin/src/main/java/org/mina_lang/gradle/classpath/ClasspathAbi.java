@@ -0,0 +1,224 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.gradle.classpath;
+
+import org.objectweb.asm.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarFile;
+
+// Fingerprints the parts of a classpath that can affect the compilation of Mina code.
+// For each class this is the Mina environment attribute along with the signatures of the
+// class and its non-private members, so that changes to the implementation of upstream code
+// don't cause downstream Mina code to be recompiled.
+// Fingerprints are cached for jars and class files until they are modified.
+public class ClasspathAbi {
+    private static final String ENVIRONMENT_ATTRIBUTE = "MinaEnvironment";
+
+    private static final Attribute[] prototypes = new Attribute[] {
+        new EnvironmentAttribute(new byte[0])
+    };
+
+    record CachedFingerprint(long lastModified, long length, byte[] fingerprint) {}
+
+    private static final ConcurrentHashMap<File, CachedFingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    public static String fingerprint(Iterable<File> classpath) {
+        var digest = newDigest();
+
+        for (var entry : classpath) {
+            if (entry.isDirectory()) {
+                digest.update(directoryFingerprint(entry.toPath()));
+            } else if (entry.isFile() && entry.getName().endsWith(".jar")) {
+                digest.update(cachedFingerprint(entry, ClasspathAbi::jarFingerprint));
+            }
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    interface Fingerprinter {
+        byte[] fingerprint(File file) throws IOException;
+    }
+
+    static byte[] cachedFingerprint(File file, Fingerprinter fingerprinter) {
+        var lastModified = file.lastModified();
+        var length = file.length();
+        var cached = fingerprints.get(file);
+
+        if (cached != null && cached.lastModified() == lastModified && cached.length() == length) {
+            return cached.fingerprint();
+        }
+
+        try {
+            var fingerprint = fingerprinter.fingerprint(file);
+            fingerprints.put(file, new CachedFingerprint(lastModified, length, fingerprint));
+            return fingerprint;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to fingerprint classpath entry " + file, e);
+        }
+    }
+
+    static byte[] directoryFingerprint(Path directory) {
+        var digest = newDigest();
+
+        try (var files = Files.walk(directory)) {
+            files
+                .filter(file -> Files.isRegularFile(file) && file.toString().endsWith(".class"))
+                .sorted()
+                .forEach(classFile -> {
+                    var relativePath = directory.relativize(classFile).toString().replace(File.separatorChar, '/');
+                    var classFingerprint = cachedFingerprint(classFile.toFile(), ClasspathAbi::classFileFingerprint);
+                    if (classFingerprint.length > 0) {
+                        digest.update(relativePath.getBytes(StandardCharsets.UTF_8));
+                        digest.update(classFingerprint);
+                    }
+                });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to fingerprint classpath entry " + directory, e);
+        }
+
+        return digest.digest();
+    }
+
+    static byte[] jarFingerprint(File jar) throws IOException {
+        var digest = newDigest();
+
+        try (var jarFile = new JarFile(jar)) {
+            var classEntries = jarFile.stream()
+                .filter(entry -> !entry.isDirectory() && entry.getName().endsWith(".class"))
+                .sorted(Comparator.comparing(entry -> entry.getName()))
+                .toList();
+
+            for (var entry : classEntries) {
+                try (var classData = jarFile.getInputStream(entry)) {
+                    var classFingerprint = classFingerprint(classData);
+                    if (classFingerprint.length > 0) {
+                        digest.update(entry.getName().getBytes(StandardCharsets.UTF_8));
+                        digest.update(classFingerprint);
+                    }
+                }
+            }
+        }
+
+        return digest.digest();
+    }
+
+    static byte[] classFileFingerprint(File classFile) throws IOException {
+        try (var classData = Files.newInputStream(classFile.toPath())) {
+            return classFingerprint(classData);
+        }
+    }
+
+    // Returns an empty fingerprint for classes that aren't visible outside of their package
+    static byte[] classFingerprint(InputStream classData) throws IOException {
+        var abiVisitor = new AbiVisitor();
+        new ClassReader(classData).accept(abiVisitor, prototypes, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return abiVisitor.fingerprint();
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class AbiVisitor extends ClassVisitor {
+        private boolean visible = false;
+        private String classSignature = "";
+        private byte[] environment = new byte[0];
+        private final List<String> members = new ArrayList<>();
+
+        AbiVisitor() {
+            super(Opcodes.ASM9);
+        }
+
+        static boolean isVisible(int access) {
+            return (access & (Opcodes.ACC_PUBLIC | Opcodes.ACC_PROTECTED)) != 0;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+            visible = isVisible(access);
+            classSignature = String.join(" ",
+                Integer.toString(access), name, String.valueOf(signature), String.valueOf(superName),
+                String.join(",", interfaces));
+        }
+
+        @Override
+        public void visitAttribute(Attribute attribute) {
+            if (attribute instanceof EnvironmentAttribute env) {
+                environment = env.data();
+            }
+        }
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String descriptor, String signature, Object value) {
+            if (isVisible(access)) {
+                members.add(String.join(" ",
+                    "field", Integer.toString(access), name, descriptor, String.valueOf(signature)));
+            }
+            return null;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+            if (isVisible(access) && !"<clinit>".equals(name)) {
+                var sortedExceptions = exceptions == null ? new String[0] : exceptions.clone();
+                Arrays.sort(sortedExceptions);
+                members.add(String.join(" ",
+                    "method", Integer.toString(access), name, descriptor, String.valueOf(signature),
+                    String.join(",", sortedExceptions)));
+            }
+            return null;
+        }
+
+        byte[] fingerprint() {
+            if (!visible) {
+                return new byte[0];
+            }
+
+            var digest = newDigest();
+            digest.update(classSignature.getBytes(StandardCharsets.UTF_8));
+            digest.update(environment);
+            members.stream().sorted().forEach(member -> digest.update(member.getBytes(StandardCharsets.UTF_8)));
+            return digest.digest();
+        }
+    }
+
+    static class EnvironmentAttribute extends Attribute {
+        private final byte[] data;
+
+        EnvironmentAttribute(byte[] data) {
+            super(ENVIRONMENT_ATTRIBUTE);
+            this.data = data;
+        }
+
+        byte[] data() {
+            return data;
+        }
+
+        @Override
+        protected Attribute read(ClassReader classReader, int offset, int length, char[] charBuffer, int codeAttributeOffset, Label[] labels) {
+            return new EnvironmentAttribute(classReader.readBytes(offset, length));
+        }
+    }
+}
@@ -1,34 +1,53 @@
 /*
- * SPDX-FileCopyrightText:  © 2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2024-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.gradle.compiler;
 
 import org.apache.commons.lang3.function.Failable;
+import org.gradle.api.file.FileCollection;
 import org.gradle.api.problems.Problems;
 import org.gradle.internal.UncheckedException;
+import org.mina_lang.common.diagnostics.BaseDiagnosticCollector;
 import org.mina_lang.gradle.MinaCompilationException;
 import org.mina_lang.gradle.MinaCompileParameters;
+import org.mina_lang.gradle.MinaShardParameters;
 import org.mina_lang.gradle.diagnostics.MinaProblemReporter;
+import org.mina_lang.gradle.diagnostics.WorkActionExecutor;
+import org.mina_lang.main.ClasspathScopeCache;
+import org.mina_lang.main.CompilerOptions;
 import org.mina_lang.main.Main;
+import org.mina_lang.main.NamespaceOutputs;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 public class MinaApiCompiler implements MinaCompiler {
 
     private Problems problems;
+    private ClasspathScopeCache classpathScopeCache;
 
     public MinaApiCompiler(Problems problems) {
+        this(problems, new ClasspathScopeCache());
+    }
+
+    public MinaApiCompiler(Problems problems, ClasspathScopeCache classpathScopeCache) {
         this.problems = problems;
+        this.classpathScopeCache = classpathScopeCache;
     }
 
     @Override
     public void compile(MinaCompileParameters compileParameters) throws IOException {
-        var problemReporter = new MinaProblemReporter(problems);
-        var compiler = new Main(problemReporter);
+        // Problems are reported on this thread, as Gradle requires
+        var deliveryExecutor = new WorkActionExecutor();
+        var problemReporter = new MinaProblemReporter(problems, deliveryExecutor);
+        var compiler = new Main(problemReporter, classpathScopeCache);
 
         var classpath = Failable.stream(compileParameters.getClasspath().getFiles())
             .map(file -> file.toURI().toURL())
@@ -38,29 +57,78 @@ public class MinaApiCompiler implements MinaCompiler {
             .getDestinationDirectory().get()
             .getAsFile().toPath();
 
-        var sourcePaths = compileParameters
-            .getSourceFiles().getFiles()
-            .stream()
-            .map(File::toPath)
-            .toArray(Path[]::new);
+        var incremental = compileParameters.getIncremental().getOrElse(false);
+
+        // When compiling incrementally, only the changed sources and their importers are recompiled
+        var sourcePaths = toPaths(incremental
+            ? compileParameters.getChangedSourceFiles()
+            : compileParameters.getSourceFiles());
+
+        var removedPaths = incremental
+            ? toPaths(compileParameters.getRemovedSourceFiles())
+            : Set.<Path>of();
+
+        // Sharded compilations don't record their outputs
+        var outputsPath = compileParameters
+            .getNamespaceOutputsFile()
+            .map(file -> file.getAsFile().toPath())
+            .getOrNull();
 
         try {
-            var compilation = compiler.compileSourcePaths(classpath, destDir, sourcePaths);
+            var previousOutputs = incremental
+                ? NamespaceOutputs.read(outputsPath)
+                : NamespaceOutputs.empty();
 
-            while (!compilation.isDone()) {
-                problemReporter.reportProblems();
+            // The outputs are only recorded again if compilation succeeds,
+            // so that a failed compilation is followed by a full compilation
+            if (outputsPath != null) {
+                Files.deleteIfExists(outputsPath);
             }
 
-            problemReporter.reportProblems();
+            var reporting = problemReporter.reportProblems();
+
+            var compilation = compiler
+                .compileSourceChanges(CompilerOptions.defaults(), classpath, destDir, previousOutputs, sourcePaths, removedPaths)
+                .whenComplete((result, error) -> problemReporter.complete());
 
-            problemReporter.getDiagnostics().forEach(diagnostic -> {
-            });
+            // Diagnostics are reported as they are published, until both have finished
+            var finished = CompletableFuture.allOf(compilation, reporting);
+            deliveryExecutor.runUntil(finished);
+            finished.join();
 
             if (problemReporter.hasErrors()) {
                 throw new MinaCompilationException("Compilation failed. See above for more details.");
             }
+
+            if (outputsPath != null) {
+                compilation.join().write(outputsPath);
+            }
         } catch (Exception e) {
             UncheckedException.throwAsUncheckedException(e);
         }
     }
+
+    @Override
+    public void planShards(MinaShardParameters shardParameters) throws IOException {
+        // Any problems with the sources are reported when they are compiled
+        var planner = new Main(new BaseDiagnosticCollector() {}, classpathScopeCache);
+
+        var sourcePaths = toPaths(shardParameters.getSourceFiles()).toArray(Path[]::new);
+
+        var planPath = shardParameters
+            .getShardPlanFile().get()
+            .getAsFile().toPath();
+
+        planner
+            .planShards(shardParameters.getMaxShards().get(), sourcePaths)
+            .join()
+            .write(planPath);
+    }
+
+    private Set<Path> toPaths(FileCollection files) {
+        return files.getFiles()
+            .stream()
+            .map(File::toPath)
+            .collect(Collectors.toSet());
+    }
 }
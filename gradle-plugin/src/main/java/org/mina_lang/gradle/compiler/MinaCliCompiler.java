@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2024-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.gradle.compiler;
@@ -7,11 +7,15 @@ package org.mina_lang.gradle.compiler;
 import org.gradle.internal.UncheckedException;
 import org.mina_lang.gradle.MinaCompilationException;
 import org.mina_lang.gradle.MinaCompileParameters;
+import org.mina_lang.gradle.MinaShardParameters;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.stream.Stream;
@@ -54,4 +58,22 @@ public class MinaCliCompiler implements MinaCompiler {
             UncheckedException.throwAsUncheckedException(e);
         }
     }
+
+    // The command line compiler can't analyse the imports of the sources,
+    // so every source file is planned into a single shard which is compiled in one wave
+    @Override
+    public void planShards(MinaShardParameters shardParameters) throws IOException {
+        var planPath = shardParameters
+            .getShardPlanFile().get()
+            .getAsFile().toPath();
+
+        var lines = shardParameters
+            .getSourceFiles().getFiles()
+            .stream()
+            .map(sourceFile -> "0\t0\t" + sourceFile.getAbsolutePath())
+            .toList();
+
+        Files.createDirectories(planPath.toAbsolutePath().getParent());
+        Files.write(planPath, lines, StandardCharsets.UTF_8);
+    }
 }
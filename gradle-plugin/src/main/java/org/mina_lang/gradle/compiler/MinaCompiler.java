@@ -1,13 +1,16 @@
 /*
- * SPDX-FileCopyrightText:  © 2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2024-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.gradle.compiler;
 
 import org.mina_lang.gradle.MinaCompileParameters;
+import org.mina_lang.gradle.MinaShardParameters;
 
 import java.io.IOException;
 
 public interface MinaCompiler {
     void compile(MinaCompileParameters compileParameters) throws IOException;
+
+    void planShards(MinaShardParameters shardParameters) throws IOException;
 }
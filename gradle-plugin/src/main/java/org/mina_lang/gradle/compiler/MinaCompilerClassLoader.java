@@ -0,0 +1,65 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.gradle.compiler;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+// Loads the Mina compiler along with the plugin classes that use it.
+// The compiler and its dependencies are loaded from the compiler classpath in preference to the plugin's
+// class loader, but the Java, Gradle and logging APIs and the plugin's own API types are shared with the plugin,
+// so that compilers loaded this way can be called through the MinaCompiler interface.
+public class MinaCompilerClassLoader extends URLClassLoader {
+    private static final String COMPILER_PACKAGE = MinaCompiler.class.getPackageName() + ".";
+    private static final String DIAGNOSTICS_PACKAGE = "org.mina_lang.gradle.diagnostics.";
+    private static final String PLUGIN_PACKAGE = "org.mina_lang.gradle.";
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
+    public MinaCompilerClassLoader(URL[] urls, ClassLoader pluginClassLoader) {
+        super("mina-compiler", urls, pluginClassLoader);
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        synchronized (getClassLoadingLock(name)) {
+            var loadedClass = findLoadedClass(name);
+
+            if (loadedClass == null && isCompilerClass(name)) {
+                try {
+                    loadedClass = findClass(name);
+                } catch (ClassNotFoundException e) {
+                    // Fall back to the plugin's class loader
+                }
+            }
+
+            if (loadedClass == null) {
+                return super.loadClass(name, resolve);
+            }
+
+            if (resolve) {
+                resolveClass(loadedClass);
+            }
+
+            return loadedClass;
+        }
+    }
+
+    static boolean isCompilerClass(String name) {
+        if (name.startsWith("java.") ||
+            name.startsWith("javax.") ||
+            name.startsWith("org.gradle.") ||
+            name.startsWith("org.slf4j.")) {
+            return false;
+        } else if (name.startsWith(PLUGIN_PACKAGE)) {
+            return name.startsWith(DIAGNOSTICS_PACKAGE) ||
+                (name.startsWith(COMPILER_PACKAGE) && !name.equals(MinaCompiler.class.getName()));
+        } else {
+            return true;
+        }
+    }
+}
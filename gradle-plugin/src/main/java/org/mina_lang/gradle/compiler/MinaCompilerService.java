@@ -0,0 +1,147 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.gradle.compiler;
+
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.problems.Problems;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.internal.UncheckedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Provides compilers which are kept alive in the Gradle daemon between builds.
+// Each distinct compiler classpath gets its own class loader, so that the compiler's code stays warm
+// along with the ANTLR parser caches and the scopes that have been decoded from the classpath.
+public abstract class MinaCompilerService implements BuildService<BuildServiceParameters.None> {
+    private static final Logger logger = LoggerFactory.getLogger(MinaCompilerService.class);
+
+    private static final int MAX_COMPILERS = 2;
+
+    // The proportion of the maximum heap in use above which cached compiler state is discarded
+    private static final double HEAP_PRESSURE_THRESHOLD = 0.85;
+
+    private static final String API_COMPILER_CLASS_NAME = "org.mina_lang.gradle.compiler.MinaApiCompiler";
+    private static final String SCOPE_CACHE_CLASS_NAME = "org.mina_lang.main.ClasspathScopeCache";
+
+    // Build services only live as long as a build, so the compilers are held statically
+    // in order to survive for as long as the plugin's class loader
+    private static final Map<List<ClasspathEntry>, CachedCompiler> compilers = new LinkedHashMap<>(4, 0.75f, true);
+
+    record ClasspathEntry(File file, long lastModified, long length) {
+        static ClasspathEntry of(File file) {
+            return new ClasspathEntry(file.getAbsoluteFile(), file.lastModified(), file.length());
+        }
+    }
+
+    record CachedCompiler(MinaCompilerClassLoader classLoader, MethodHandle constructor, Object scopeCache, MethodHandle clearCache) {
+        MinaCompiler compilerFor(Problems problems) throws Throwable {
+            return (MinaCompiler) constructor.invoke(problems, scopeCache);
+        }
+
+        void clear() throws Throwable {
+            clearCache.invoke(scopeCache);
+        }
+    }
+
+    public MinaCompiler compilerFor(FileCollection compilerClasspath, Problems problems) {
+        var classpathKey = compilerClasspath.getFiles()
+            .stream()
+            .map(ClasspathEntry::of)
+            .toList();
+
+        try {
+            synchronized (compilers) {
+                relieveHeapPressure(classpathKey);
+
+                var compiler = compilers.get(classpathKey);
+
+                if (compiler == null) {
+                    logger.info("Creating Mina compiler for classpath {}", compilerClasspath.getAsPath());
+                    compiler = createCompiler(classpathKey);
+                    compilers.put(classpathKey, compiler);
+                    evictCompilers(MAX_COMPILERS);
+                }
+
+                return compiler.compilerFor(problems);
+            }
+        } catch (Throwable e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+
+    CachedCompiler createCompiler(List<ClasspathEntry> classpath) throws Exception {
+        var urls = new ArrayList<URL>();
+
+        for (var entry : classpath) {
+            urls.add(entry.file().toURI().toURL());
+        }
+
+        // The compiler adapter classes are loaded from the plugin's own jar
+        urls.add(pluginLocation());
+
+        var classLoader = new MinaCompilerClassLoader(
+            urls.toArray(URL[]::new),
+            MinaCompilerService.class.getClassLoader());
+
+        var lookup = MethodHandles.publicLookup();
+        var apiCompilerClass = classLoader.loadClass(API_COMPILER_CLASS_NAME);
+        var scopeCacheClass = classLoader.loadClass(SCOPE_CACHE_CLASS_NAME);
+
+        var constructor = lookup.findConstructor(
+            apiCompilerClass, MethodType.methodType(void.class, Problems.class, scopeCacheClass));
+
+        var clearCache = lookup.findVirtual(
+            scopeCacheClass, "clear", MethodType.methodType(void.class));
+
+        var scopeCache = scopeCacheClass.getConstructor().newInstance();
+
+        return new CachedCompiler(classLoader, constructor, scopeCache, clearCache);
+    }
+
+    URL pluginLocation() {
+        return MinaCompilerService.class
+            .getProtectionDomain()
+            .getCodeSource()
+            .getLocation();
+    }
+
+    void relieveHeapPressure(List<ClasspathEntry> classpathKey) throws Throwable {
+        var runtime = Runtime.getRuntime();
+        var usedMemory = runtime.totalMemory() - runtime.freeMemory();
+
+        if (usedMemory > runtime.maxMemory() * HEAP_PRESSURE_THRESHOLD) {
+            logger.info("Discarding cached Mina compiler state due to heap pressure");
+
+            var requestedCompiler = compilers.remove(classpathKey);
+            evictCompilers(0);
+
+            if (requestedCompiler != null) {
+                requestedCompiler.clear();
+                compilers.put(classpathKey, requestedCompiler);
+            }
+        }
+    }
+
+    // Evicted class loaders aren't closed, as another project may still be compiling with them;
+    // they are released once the compilers loaded from them are no longer in use
+    void evictCompilers(int maxCompilers) {
+        var iterator = compilers.values().iterator();
+        while (compilers.size() > maxCompilers && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
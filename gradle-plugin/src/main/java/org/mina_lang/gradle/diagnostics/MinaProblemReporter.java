@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2024-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.gradle.diagnostics;
@@ -14,6 +14,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class MinaProblemReporter extends BaseDiagnosticCollector {
     private static Logger logger = LoggerFactory.getLogger(MinaProblemReporter.class);
@@ -23,7 +26,8 @@ public class MinaProblemReporter extends BaseDiagnosticCollector {
     private ReportHandler reportHandler;
     private StringBuilder stringBuilder;
 
-    public MinaProblemReporter(Problems problems) {
+    public MinaProblemReporter(Problems problems, Executor deliveryExecutor) {
+        super(deliveryExecutor);
         this.reporter = problems.getReporter();
         this.stringBuilder = new StringBuilder();
         this.reportHandler = GraphicalReportHandler.builder()
@@ -32,9 +36,13 @@ public class MinaProblemReporter extends BaseDiagnosticCollector {
             .buildFor(stringBuilder);
     }
 
-    public void reportProblems() {
-        Diagnostic diagnostic;
-        while ((diagnostic = diagnostics.poll()) != null) {
+    // Reports diagnostics to Gradle as they are published by the compiler
+    public CompletableFuture<Void> reportProblems() {
+        return onDiagnostics(this::reportProblems);
+    }
+
+    void reportProblems(List<Diagnostic> diagnostics) {
+        for (var diagnostic : diagnostics) {
             // Report diagnostic via the Problems API
             var location = diagnostic.location();
             var message = diagnostic.message();
@@ -0,0 +1,38 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.gradle.diagnostics;
+
+import org.gradle.internal.UncheckedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+
+// Queues tasks until they are run by the thread of a work action.
+// Gradle's Problems API and logging must be used from the work action which reports the problems,
+// so the compiler's diagnostics are delivered here rather than on the compiler's own threads.
+public class WorkActionExecutor implements Executor {
+    private final LinkedBlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+    }
+
+    // Runs queued tasks on the calling thread until `done` completes and no tasks remain
+    public void runUntil(CompletableFuture<?> done) {
+        // Wakes up the calling thread if it is waiting for a task when `done` completes
+        done.whenComplete((result, error) -> execute(() -> {}));
+
+        try {
+            while (!done.isDone() || !tasks.isEmpty()) {
+                tasks.take().run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            UncheckedException.throwAsUncheckedException(e);
+        }
+    }
+}
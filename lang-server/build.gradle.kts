@@ -32,6 +32,18 @@ dependencies {
     // Compiler Main
     implementation(project(":compiler:mina-compiler-main"))
 
+    // Parser
+    implementation(project(":compiler:mina-compiler-parser"))
+
+    // Renamer
+    implementation(project(":compiler:mina-compiler-renamer"))
+
+    // Typechecker
+    implementation(project(":compiler:mina-compiler-typechecker"))
+
+    // Protobuf Serialization
+    implementation(project(":compiler:mina-compiler-proto"))
+
     // Logging
     implementation(libs.bundles.slf4j)
     runtimeOnly(libs.logback)
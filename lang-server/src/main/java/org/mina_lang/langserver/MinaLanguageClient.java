@@ -0,0 +1,16 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver;
+
+import org.eclipse.lsp4j.jsonrpc.services.JsonNotification;
+import org.eclipse.lsp4j.services.LanguageClient;
+import org.mina_lang.langserver.scheduling.SchedulerMetricsParams;
+
+// The notifications that the Mina language server sends in addition to those of the protocol.
+// Each is only sent to clients which opt in to it with an experimental client capability.
+public interface MinaLanguageClient extends LanguageClient {
+    @JsonNotification("mina/schedulerMetrics")
+    void schedulerMetrics(SchedulerMetricsParams params);
+}
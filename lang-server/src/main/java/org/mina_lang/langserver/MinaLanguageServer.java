@@ -1,9 +1,11 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.langserver;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
 import org.eclipse.lsp4j.*;
 import org.eclipse.lsp4j.jsonrpc.CancelChecker;
 import org.eclipse.lsp4j.jsonrpc.CompletableFutures;
@@ -11,8 +13,15 @@ import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
 import org.eclipse.lsp4j.jsonrpc.messages.ResponseError;
 import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode;
 import org.eclipse.lsp4j.services.*;
+import org.mina_lang.langserver.cache.WorkspaceCache;
+import org.mina_lang.langserver.diagnostics.DiagnosticsPublisher;
 import org.mina_lang.langserver.documents.MinaTextDocumentService;
+import org.mina_lang.langserver.index.SymbolIndex;
 import org.mina_lang.langserver.notebooks.MinaNotebookDocumentService;
+import org.mina_lang.langserver.scheduling.RequestScheduler;
+import org.mina_lang.langserver.scheduling.RequestScheduler.Lane;
+import org.mina_lang.langserver.scheduling.SchedulerMetricsParams;
+import org.mina_lang.langserver.semantic.SemanticTokensProvider;
 import org.mina_lang.langserver.util.DaemonThreadFactory;
 import org.mina_lang.langserver.workspace.MinaWorkspaceService;
 import org.slf4j.Logger;
@@ -30,11 +39,18 @@ import java.util.function.Function;
 public class MinaLanguageServer implements LanguageServer, LanguageClientAware {
     private static Logger logger = LoggerFactory.getLogger(MinaLanguageServer.class);
 
+    static final int METRICS_INTERVAL_SECONDS = 10;
+
     private int exitCode = ExitCode.OK;
     private LanguageClient client;
     private MinaTextDocumentService documentService;
     private MinaWorkspaceService workspaceService;
     private NotebookDocumentService notebookDocumentService;
+    private SymbolIndex symbolIndex = new SymbolIndex();
+    private WorkspaceCache workspaceCache;
+    private DiagnosticsPublisher diagnosticsPublisher = new DiagnosticsPublisher(
+        params -> ifShouldNotify(() -> client.publishDiagnostics(params)),
+        DiagnosticsPublisher.DEFAULT_WINDOW);
 
     private AtomicBoolean initialized = new AtomicBoolean(false);
     private AtomicBoolean shutdown = new AtomicBoolean(false);
@@ -42,9 +58,18 @@ public class MinaLanguageServer implements LanguageServer, LanguageClientAware {
     private AtomicReference<ClientCapabilities> clientCapabilities = new AtomicReference<>();
 
     private ThreadFactory threadFactory = DaemonThreadFactory.create(logger, "mina-langserver-%d");
-    private ExecutorService executor = Executors.newCachedThreadPool(threadFactory);
+    private RequestScheduler scheduler = RequestScheduler.create(threadFactory);
+    private volatile CompletableFuture<?> workspaceCacheLoaded = new CompletableFuture<>();
+
+    private ThreadFactory metricsThreadFactory = DaemonThreadFactory.create(logger, "mina-langserver-metrics-%d");
+    private ScheduledExecutorService metricsExecutor = Executors.newSingleThreadScheduledExecutor(metricsThreadFactory);
 
     public MinaLanguageServer() {
+        this(WorkspaceCache.inUserCacheDirectory());
+    }
+
+    public MinaLanguageServer(WorkspaceCache workspaceCache) {
+        this.workspaceCache = workspaceCache;
         this.documentService = new MinaTextDocumentService(this);
         this.workspaceService = new MinaWorkspaceService(this);
         this.notebookDocumentService = new MinaNotebookDocumentService(this);
@@ -58,8 +83,20 @@ public class MinaLanguageServer implements LanguageServer, LanguageClientAware {
         return shutdown.get();
     }
 
-    public ExecutorService getExecutor() {
-        return executor;
+    public RequestScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public SymbolIndex getSymbolIndex() {
+        return symbolIndex;
+    }
+
+    public WorkspaceCache getWorkspaceCache() {
+        return workspaceCache;
+    }
+
+    public DiagnosticsPublisher getDiagnosticsPublisher() {
+        return diagnosticsPublisher;
     }
 
     public LanguageClient getClient() {
@@ -71,8 +108,12 @@ public class MinaLanguageServer implements LanguageServer, LanguageClientAware {
     }
 
     public <A> CompletableFuture<A> ifInitialized(Function<CancelChecker, A> action) {
+        return ifInitialized(Lane.INTERACTIVE, action);
+    }
+
+    public <A> CompletableFuture<A> ifInitialized(Lane lane, Function<CancelChecker, A> action) {
         if (isInitialized() && !isShutdown()) {
-            return CompletableFutures.computeAsync(executor, action);
+            return CompletableFutures.computeAsync(scheduler.executor(lane), action);
         } else {
             var error = isShutdown()
                 ? new ResponseError(ResponseErrorCode.InvalidRequest, "Server has been shut down", null)
@@ -87,6 +128,12 @@ public class MinaLanguageServer implements LanguageServer, LanguageClientAware {
         return ifInitialized(action).thenCompose(x -> x);
     }
 
+    // Waits for the workspace cache to be loaded, raising the priority of loading it to that of the waiting work
+    public CompletableFuture<Void> whenWorkspaceCacheLoaded(Lane lane) {
+        return scheduler.dependOn(lane, workspaceCacheLoaded)
+            .handle((result, error) -> null);
+    }
+
     public void ifShouldNotify(Runnable action) {
         if (isInitialized() && !isShutdown()) {
             action.run();
@@ -102,22 +149,35 @@ public class MinaLanguageServer implements LanguageServer, LanguageClientAware {
         return hasWorkspaceCapabilities && clientWorkspaceCapabilities.getWorkspaceFolders();
     }
 
+    // Clients opt in to the `mina/schedulerMetrics` notification with the experimental capability `{ "schedulerMetrics": true }`
+    boolean supportsSchedulerMetrics(ClientCapabilities capabilities) {
+        return capabilities != null &&
+            capabilities.getExperimental() instanceof JsonObject experimental &&
+            experimental.get("schedulerMetrics") instanceof JsonPrimitive enabled &&
+            enabled.isBoolean() &&
+            enabled.getAsBoolean();
+    }
+
     void setWorkspaceFolders(InitializeParams params) {
         var supportsWorkspaceFolders = supportsWorkspaceFolders(params.getCapabilities());
         var hasWorkspaceFolders = params.getWorkspaceFolders() != null;
         var hasWorkspaceRoot = params.getRootUri() != null;
 
+        List<WorkspaceFolder> workspaceFolders;
+
         if (supportsWorkspaceFolders && hasWorkspaceFolders) {
-            workspaceService.setWorkspaceFolders(params.getWorkspaceFolders());
+            workspaceFolders = params.getWorkspaceFolders();
         } else if (hasWorkspaceRoot) {
             var rootUri = params.getRootUri();
             var workspacePathSegments = URI.create(rootUri).getPath().split("/");
             var workspaceName = workspacePathSegments[workspacePathSegments.length - 1];
-            var workspaceRoot = new WorkspaceFolder(rootUri, workspaceName);
-            workspaceService.setWorkspaceFolders(List.of(workspaceRoot));
+            workspaceFolders = List.of(new WorkspaceFolder(rootUri, workspaceName));
         } else {
-            workspaceService.setWorkspaceFolders(List.of());
+            workspaceFolders = List.of();
         }
+
+        workspaceService.setWorkspaceFolders(workspaceFolders);
+        workspaceCache.selectWorkspace(workspaceFolders.stream().map(folder -> URI.create(folder.getUri())).toList());
     }
 
     ServerCapabilities getServerCapabilities(InitializeParams params) {
@@ -132,6 +192,16 @@ public class MinaLanguageServer implements LanguageServer, LanguageClientAware {
 
         serverCapabilities.setTextDocumentSync(textDocumentSyncOptions);
 
+        serverCapabilities.setDefinitionProvider(Boolean.TRUE);
+        serverCapabilities.setReferencesProvider(Boolean.TRUE);
+        serverCapabilities.setWorkspaceSymbolProvider(Boolean.TRUE);
+
+        var semanticTokensOptions = new SemanticTokensWithRegistrationOptions(SemanticTokensProvider.LEGEND);
+        semanticTokensOptions.setFull(new SemanticTokensServerFull(Boolean.TRUE));
+        semanticTokensOptions.setRange(Boolean.TRUE);
+
+        serverCapabilities.setSemanticTokensProvider(semanticTokensOptions);
+
         var workspaceCapabilities = new WorkspaceServerCapabilities();
 
         var workspaceFoldersOptions = new WorkspaceFoldersOptions();
@@ -156,7 +226,7 @@ public class MinaLanguageServer implements LanguageServer, LanguageClientAware {
 
     @Override
     public CompletableFuture<InitializeResult> initialize(InitializeParams params) {
-        return CompletableFutures.computeAsync(executor, cancelToken -> {
+        return CompletableFutures.computeAsync(scheduler.executor(Lane.INTERACTIVE), cancelToken -> {
             cancelToken.checkCanceled();
 
             setWorkspaceFolders(params);
@@ -171,8 +241,59 @@ public class MinaLanguageServer implements LanguageServer, LanguageClientAware {
 
     @Override
     public void initialized(InitializedParams params) {
+        workspaceCacheLoaded = loadWorkspaceCache();
         initialized.set(true);
         workspaceService.initialiseBuildServers();
+        if (supportsSchedulerMetrics(clientCapabilities.get())) {
+            metricsExecutor.scheduleAtFixedRate(this::reportSchedulerMetrics, METRICS_INTERVAL_SECONDS, METRICS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    CompletableFuture<?> loadWorkspaceCache() {
+        var loading = scheduler.submit(Lane.BACKGROUND, () -> {
+            var entries = workspaceCache.load();
+            entries.forEach(this::indexCacheEntry);
+            logger.info("Loaded {} entries from the workspace cache", entries.size());
+            return entries;
+        });
+
+        loading.whenComplete((entries, error) -> {
+            if (error != null) {
+                logger.error("Error while loading the workspace cache", error);
+            } else {
+                // Cached entries are usable straight away, but they must be checked against their sources
+                entries.forEach(entry -> scheduler.submit(Lane.BACKGROUND, () -> revalidateCacheEntry(entry)));
+            }
+        });
+
+        return loading;
+    }
+
+    void reportSchedulerMetrics() {
+        var metrics = scheduler.collectMetrics();
+        // Idle servers don't send metrics
+        if (client instanceof MinaLanguageClient minaClient && metrics.anySatisfy(lane -> lane.completed() > 0 || lane.queued() > 0)) {
+            ifShouldNotify(() -> minaClient.schedulerMetrics(new SchedulerMetricsParams(metrics.toList())));
+        }
+    }
+
+    void indexCacheEntry(WorkspaceCache.Entry entry) {
+        // Documents which were analysed before the cache was loaded are already up to date
+        if (!symbolIndex.containsDocument(entry.uri())) {
+            entry.symbols().ifPresentOrElse(
+                symbols -> symbolIndex.indexDocumentSymbols(entry.uri(), symbols),
+                () -> symbolIndex.indexClasspathScope(entry.uri(), entry.scope()));
+        }
+    }
+
+    void revalidateCacheEntry(WorkspaceCache.Entry entry) {
+        if (!isShutdown() && workspaceCache.isStale(entry)) {
+            logger.info("Evicting stale workspace cache entry for {}", entry.uri());
+            workspaceCache.evict(entry);
+            if (documentService.getAnalyser().getAnalysis(entry.uri().toString()).isEmpty()) {
+                symbolIndex.removeDocument(entry.uri());
+            }
+        }
     }
 
     @Override
@@ -198,9 +319,11 @@ public class MinaLanguageServer implements LanguageServer, LanguageClientAware {
                 exitCode = ExitCode.SOFTWARE;
             }
 
-            executor.shutdown();
+            metricsExecutor.shutdown();
+            diagnosticsPublisher.shutdown();
+            scheduler.shutdown();
 
-            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+            if (!scheduler.awaitTermination(1, TimeUnit.MINUTES)) {
                 exitCode = ExitCode.SOFTWARE;
             }
         } catch (InterruptedException | ExecutionException e) {
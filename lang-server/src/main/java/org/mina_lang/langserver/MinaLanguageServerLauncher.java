@@ -1,11 +1,10 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.langserver;
 
 import org.eclipse.lsp4j.launch.LSPLauncher;
-import org.eclipse.lsp4j.services.LanguageClient;
 import org.mina_lang.BuildInfo;
 import org.mina_lang.langserver.util.DaemonThreadFactory;
 import org.newsclub.net.unix.AFUNIXSocket;
@@ -54,9 +53,9 @@ public class MinaLanguageServerLauncher implements Callable<Integer> {
         var threadFactory = DaemonThreadFactory.create(logger, "mina-langserver-listener-%d");
         var executor = Executors.newSingleThreadExecutor(threadFactory);
 
-        var launcher = new LSPLauncher.Builder<LanguageClient>()
+        var launcher = new LSPLauncher.Builder<MinaLanguageClient>()
                 .setLocalService(server)
-                .setRemoteInterface(LanguageClient.class)
+                .setRemoteInterface(MinaLanguageClient.class)
                 .setInput(in)
                 .setOutput(out)
                 .setExecutorService(executor)
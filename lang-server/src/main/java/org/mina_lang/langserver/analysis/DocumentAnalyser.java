@@ -0,0 +1,207 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.analysis;
+
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.Meta;
+import org.mina_lang.common.Scope;
+import org.mina_lang.common.diagnostics.NamespaceDiagnosticReporter;
+import org.mina_lang.common.names.Name;
+import org.mina_lang.common.names.Named;
+import org.mina_lang.common.names.NamespaceName;
+import org.mina_lang.main.ImportScopePopulation;
+import org.mina_lang.parser.ANTLRDiagnosticReporter;
+import org.mina_lang.parser.Parser;
+import org.mina_lang.renamer.NameEnvironment;
+import org.mina_lang.renamer.Renamer;
+import org.mina_lang.renamer.scopes.ImportedNamesScope;
+import org.mina_lang.syntax.NamespaceNode;
+import org.mina_lang.typechecker.TypeEnvironment;
+import org.mina_lang.typechecker.Typechecker;
+import org.mina_lang.typechecker.scopes.ImportedTypesScope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Parses, renames and typechecks the open documents of the workspace.
+// Imports are resolved against the latest analysis of the other open documents,
+// and otherwise against the scopes of namespaces which are not open, such as those in the workspace cache.
+public class DocumentAnalyser {
+    private static final Logger logger = LoggerFactory.getLogger(DocumentAnalyser.class);
+
+    private final ConcurrentHashMap<String, DocumentAnalysis> analyses = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, TypecheckedDeclarationCache> declarationCaches = new ConcurrentHashMap<>();
+
+    private final Function<NamespaceName, Optional<Scope<Meta<Attributes>>>> namespaceScopes;
+
+    public DocumentAnalyser() {
+        this(namespaceName -> Optional.empty());
+    }
+
+    public DocumentAnalyser(Function<NamespaceName, Optional<Scope<Meta<Attributes>>>> namespaceScopes) {
+        this.namespaceScopes = namespaceScopes;
+    }
+
+    public Optional<DocumentAnalysis> getAnalysis(String uri) {
+        return Optional.ofNullable(analyses.get(uri));
+    }
+
+    TypecheckedDeclarationCache getDeclarationCache(String uri) {
+        return declarationCaches.get(uri);
+    }
+
+    public void removeDocument(String uri) {
+        analyses.remove(uri);
+        declarationCaches.remove(uri);
+    }
+
+    public DocumentAnalysis analyse(TextDocumentItem document) {
+        var uri = document.getUri();
+        var collector = new DocumentDiagnosticCollector();
+        var diagnostics = new ANTLRDiagnosticReporter(collector, URI.create(uri));
+
+        logger.info("Analysing version {} of {}", document.getVersion(), uri);
+
+        var parsed = parse(document.getText(), diagnostics);
+
+        var renamed = parsed.flatMap(parsedNode -> {
+            return new NameImports(diagnostics)
+                .populateImportScope(parsedNode, new ImportedNamesScope())
+                .map(importScope -> {
+                    var nameEnvironment = NameEnvironment.withBuiltInNames();
+                    nameEnvironment.pushScope(importScope);
+                    return new Renamer(diagnostics, nameEnvironment).rename(parsedNode);
+                });
+        }).filter(renamedNode -> !diagnostics.hasErrors());
+
+        var typechecked = renamed.flatMap(renamedNode -> {
+            return new TypeImports(diagnostics)
+                .populateImportScope(renamedNode, new ImportedTypesScope())
+                .map(importScope -> {
+                    var typeEnvironment = TypeEnvironment.withBuiltInTypes();
+                    typeEnvironment.pushScope(importScope);
+                    var declarationCache = declarationCaches.computeIfAbsent(uri, key -> new TypecheckedDeclarationCache());
+                    var typechecker = new Typechecker(diagnostics, typeEnvironment).withDeclarationCache(declarationCache);
+                    return declarationCache.withSource(document.getText(), collector, () -> typechecker.typecheck(renamedNode));
+                });
+        });
+
+        var importsResolved = parsed
+            .map(parsedNode -> parsedNode.imports().allSatisfy(imp -> resolvesNamespace(imp.namespace().getName())))
+            .orElse(true);
+
+        var analysis = new DocumentAnalysis(
+            uri, document.getVersion(),
+            parsed, renamed, typechecked,
+            collector.getDiagnostics(),
+            importsResolved);
+
+        // Analyses of different versions of a document may complete out of order
+        return analyses.merge(uri, analysis, (existing, proposed) -> {
+            return proposed.version() >= existing.version() ? proposed : existing;
+        });
+    }
+
+    Optional<NamespaceNode<Void>> parse(String source, ANTLRDiagnosticReporter diagnostics) {
+        try {
+            var parsed = new Parser(diagnostics).parse(source);
+            return diagnostics.hasErrors() ? Optional.empty() : Optional.of(parsed);
+        } catch (RuntimeException e) {
+            // The syntax tree can't always be built for a document with syntax errors
+            if (diagnostics.hasErrors()) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    // Namespaces are found in the open documents or in the scopes of namespaces which are not open
+    boolean resolvesNamespace(NamespaceName namespaceName) {
+        return analysisOf(namespaceName).flatMap(DocumentAnalysis::renamed).isPresent() ||
+            namespaceScopes.apply(namespaceName).isPresent();
+    }
+
+    Optional<DocumentAnalysis> analysisOf(NamespaceName namespaceName) {
+        return analyses.values().stream()
+            .filter(analysis -> analysis.parsed().map(NamespaceNode::getName).filter(namespaceName::equals).isPresent())
+            .findFirst();
+    }
+
+    class NameImports implements ImportScopePopulation<Name, ImportedNamesScope> {
+        private final NamespaceDiagnosticReporter diagnostics;
+
+        NameImports(NamespaceDiagnosticReporter diagnostics) {
+            this.diagnostics = diagnostics;
+        }
+
+        @Override
+        public Optional<NamespaceNode<Name>> getNamespaceNode(NamespaceName namespaceName) {
+            return analysisOf(namespaceName).flatMap(DocumentAnalysis::renamed);
+        }
+
+        @Override
+        public NamespaceDiagnosticReporter getNamespaceDiagnostics(NamespaceName namespaceName) {
+            return diagnostics;
+        }
+
+        @Override
+        public Optional<Scope<Meta<Attributes>>> getClasspathScope(NamespaceName namespaceName) {
+            return namespaceScopes.apply(namespaceName);
+        }
+
+        @Override
+        public Named getName(Meta<Name> meta) {
+            return (Named) meta.meta();
+        }
+
+        @Override
+        public Meta<Name> transformMeta(Meta<Attributes> meta) {
+            return new Meta<>(meta.range(), meta.meta().name());
+        }
+    }
+
+    class TypeImports implements ImportScopePopulation<Attributes, ImportedTypesScope> {
+        private final NamespaceDiagnosticReporter diagnostics;
+
+        TypeImports(NamespaceDiagnosticReporter diagnostics) {
+            this.diagnostics = diagnostics;
+        }
+
+        @Override
+        public Optional<NamespaceNode<Attributes>> getNamespaceNode(NamespaceName namespaceName) {
+            return analysisOf(namespaceName).flatMap(DocumentAnalysis::typechecked);
+        }
+
+        @Override
+        public NamespaceDiagnosticReporter getNamespaceDiagnostics(NamespaceName namespaceName) {
+            return diagnostics;
+        }
+
+        @Override
+        public Optional<Scope<Meta<Attributes>>> getClasspathScope(NamespaceName namespaceName) {
+            return namespaceScopes.apply(namespaceName);
+        }
+
+        @Override
+        public Named getName(Meta<Attributes> meta) {
+            return (Named) meta.meta().name();
+        }
+
+        @Override
+        public Meta<Attributes> transformMeta(Meta<Attributes> meta) {
+            return meta;
+        }
+
+        @Override
+        public Scope<Meta<Attributes>> transformScope(Scope<Meta<Attributes>> scope) {
+            return scope;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.analysis;
+
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.diagnostics.Diagnostic;
+import org.mina_lang.common.names.Name;
+import org.mina_lang.syntax.NamespaceNode;
+
+import java.util.List;
+import java.util.Optional;
+
+// The result of analysing one version of a document.
+// The later phases are only present when the earlier phases reported no errors.
+// The imports of a document are resolved if each imported namespace was found in the workspace,
+// as otherwise its diagnostics may report namespaces that are only missing from the workspace.
+public record DocumentAnalysis(
+    String uri,
+    int version,
+    Optional<NamespaceNode<Void>> parsed,
+    Optional<NamespaceNode<Name>> renamed,
+    Optional<NamespaceNode<Attributes>> typechecked,
+    List<Diagnostic> diagnostics,
+    boolean importsResolved) {
+}
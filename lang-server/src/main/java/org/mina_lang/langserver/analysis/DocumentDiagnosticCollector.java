@@ -0,0 +1,11 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.analysis;
+
+import org.mina_lang.common.diagnostics.BaseDiagnosticCollector;
+
+public class DocumentDiagnosticCollector extends BaseDiagnosticCollector {
+
+}
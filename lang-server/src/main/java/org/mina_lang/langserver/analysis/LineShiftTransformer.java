@@ -0,0 +1,62 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.analysis;
+
+import com.opencastsoftware.yvette.Range;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.Meta;
+import org.mina_lang.syntax.*;
+
+import static org.mina_lang.syntax.SyntaxNodes.*;
+
+// Moves a typechecked declaration to another line of the document, without changing its columns.
+class LineShiftTransformer implements MetaNodeMetaTransformer<Attributes, Attributes> {
+    private final int lineDelta;
+
+    LineShiftTransformer(int lineDelta) {
+        this.lineDelta = lineDelta;
+    }
+
+    Range shift(Range range) {
+        if (range == Range.EMPTY) {
+            return range;
+        }
+
+        return new Range(
+            range.start().line() + lineDelta, range.start().character(),
+            range.end().line() + lineDelta, range.end().character());
+    }
+
+    NamespaceIdNode shift(NamespaceIdNode id) {
+        return nsIdNode(shift(id.range()), id.pkg(), id.ns());
+    }
+
+    QualifiedIdNode shift(QualifiedIdNode id) {
+        return idNode(shift(id.range()), id.ns().map(this::shift), id.name());
+    }
+
+    @Override
+    public Meta<Attributes> updateMeta(Meta<Attributes> meta) {
+        return meta.withRange(shift(meta.range()));
+    }
+
+    @Override
+    public ReferenceNode<Attributes> visitReference(Meta<Attributes> meta, QualifiedIdNode id) {
+        return refNode(updateMeta(meta), shift(id));
+    }
+
+    @Override
+    public TypeReferenceNode<Attributes> visitTypeReference(Meta<Attributes> meta, QualifiedIdNode id) {
+        return typeRefNode(updateMeta(meta), shift(id));
+    }
+
+    @Override
+    public ConstructorPatternNode<Attributes> visitConstructorPattern(
+            Meta<Attributes> meta, QualifiedIdNode id,
+            ImmutableList<FieldPatternNode<Attributes>> fields) {
+        return constructorPatternNode(updateMeta(meta), shift(id), fields);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.analysis;
+
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.Meta;
+import org.mina_lang.common.names.LocalName;
+import org.mina_lang.common.types.*;
+import org.mina_lang.syntax.DeclarationNode;
+import org.mina_lang.syntax.MetaNode;
+import org.mina_lang.syntax.MetaNodeMetaTransformer;
+import org.mina_lang.syntax.SyntaxNode;
+import org.mina_lang.syntax.SyntaxNodeVisitor;
+
+// Renumbers the local variables and synthetic type variables of a typechecked declaration from a previous run,
+// so that they can't collide with those of the declarations which are typechecked by the current run.
+// The renamer numbers local variables across the whole namespace, so a declaration's local variables
+// are shifted by the difference between the index of its first local variable in each run.
+// Synthetic type variables are replaced with fresh variables from the current run's variable supply.
+class LocalRenumberingTransformer implements MetaNodeMetaTransformer<Attributes, Attributes> {
+    private final int localDelta;
+    private final SyntheticVarReplacer typeTransformer;
+
+    LocalRenumberingTransformer(int localDelta, UnsolvedVariableSupply varSupply) {
+        this.localDelta = localDelta;
+        this.typeTransformer = new SyntheticVarReplacer(varSupply);
+    }
+
+    @Override
+    public Meta<Attributes> updateMeta(Meta<Attributes> meta) {
+        var attributes = meta.meta();
+
+        var newName = localDelta != 0 && attributes.name() instanceof LocalName local
+            ? new LocalName(local.name(), local.index() + localDelta)
+            : attributes.name();
+
+        var newSort = attributes.sort() instanceof Type type
+            ? type.accept(typeTransformer)
+            : attributes.sort();
+
+        if (newName == attributes.name() && newSort == attributes.sort()) {
+            return meta;
+        }
+
+        return meta.withMeta(new Attributes(newName, newSort));
+    }
+
+    static boolean containsSyntheticVars(DeclarationNode<Attributes> declaration) {
+        var finder = new SyntheticVarFinder();
+        declaration.accept(finder);
+        return finder.found;
+    }
+
+    // Searches the sorts of every node of a typechecked declaration for synthetic type variables
+    static class SyntheticVarFinder implements SyntaxNodeVisitor {
+        private final SyntheticVarFolder folder = new SyntheticVarFolder();
+        boolean found = false;
+
+        @Override
+        public void visit(SyntaxNode node) {
+            if (!found &&
+                    node instanceof MetaNode<?> metaNode &&
+                    metaNode.meta().meta() instanceof Attributes attributes &&
+                    attributes.sort() instanceof Type type) {
+                found = type.accept(folder);
+            }
+        }
+    }
+
+    static class SyntheticVarFolder implements TypeFolder<Boolean> {
+        @Override
+        public Boolean visitQuantifiedType(QuantifiedType quant) {
+            return quant.body().accept(this);
+        }
+
+        @Override
+        public Boolean visitTypeConstructor(TypeConstructor tyCon) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitBuiltInType(BuiltInType primTy) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitTypeApply(TypeApply tyApp) {
+            return tyApp.type().accept(this) || tyApp.typeArguments().anySatisfy(tyArg -> tyArg.accept(this));
+        }
+
+        @Override
+        public Boolean visitForAllVar(ForAllVar forall) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitExistsVar(ExistsVar exists) {
+            return false;
+        }
+
+        @Override
+        public Boolean visitSyntheticVar(SyntheticVar syn) {
+            return true;
+        }
+
+        @Override
+        public Boolean visitUnsolvedType(UnsolvedType unsolved) {
+            return false;
+        }
+    }
+
+    // Replaces each synthetic type variable with a fresh one, rebuilding only the types which contain them
+    static class SyntheticVarReplacer implements TypeTransformer {
+        private final UnsolvedVariableSupply varSupply;
+        private final MutableIntObjectMap<SyntheticVar> replacements = IntObjectMaps.mutable.empty();
+
+        SyntheticVarReplacer(UnsolvedVariableSupply varSupply) {
+            this.varSupply = varSupply;
+        }
+
+        @Override
+        public QuantifiedType visitQuantifiedType(QuantifiedType quant) {
+            var newBody = quant.body().accept(this);
+            return newBody == quant.body() ? quant : new QuantifiedType(quant.args(), newBody, quant.kind());
+        }
+
+        @Override
+        public TypeConstructor visitTypeConstructor(TypeConstructor tyCon) {
+            return tyCon;
+        }
+
+        @Override
+        public BuiltInType visitBuiltInType(BuiltInType primTy) {
+            return primTy;
+        }
+
+        @Override
+        public TypeApply visitTypeApply(TypeApply tyApp) {
+            var newType = tyApp.type().accept(this);
+            var newArgs = tyApp.typeArguments().collect(tyArg -> tyArg.accept(this));
+
+            if (newType == tyApp.type() && newArgs.zip(tyApp.typeArguments()).allSatisfy(pair -> pair.getOne() == pair.getTwo())) {
+                return tyApp;
+            }
+
+            return new TypeApply(newType, newArgs, tyApp.kind());
+        }
+
+        @Override
+        public MonoType visitForAllVar(ForAllVar forall) {
+            return forall;
+        }
+
+        @Override
+        public MonoType visitExistsVar(ExistsVar exists) {
+            return exists;
+        }
+
+        @Override
+        public MonoType visitSyntheticVar(SyntheticVar syn) {
+            return replacements.getIfAbsentPut(syn.id(), () -> varSupply.newSyntheticVar(syn.kind()));
+        }
+
+        @Override
+        public MonoType visitUnsolvedType(UnsolvedType unsolved) {
+            return unsolved;
+        }
+    }
+}
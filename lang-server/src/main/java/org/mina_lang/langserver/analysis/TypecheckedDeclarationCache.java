@@ -0,0 +1,265 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.analysis;
+
+import com.opencastsoftware.yvette.Position;
+import com.opencastsoftware.yvette.Range;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.map.ImmutableMap;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.ImmutableSet;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.diagnostics.Diagnostic;
+import org.mina_lang.common.diagnostics.DiagnosticCollector;
+import org.mina_lang.common.names.*;
+import org.mina_lang.common.types.Sort;
+import org.mina_lang.common.types.UnsolvedVariableSupply;
+import org.mina_lang.langserver.documents.TextDocument;
+import org.mina_lang.syntax.*;
+import org.mina_lang.typechecker.DeclarationCache;
+import org.mina_lang.typechecker.TypeEnvironment;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// Reuses the typechecked declarations of a document between edits.
+// Each declaration is keyed by its source text and the signatures of the top-level declarations that it references
+// from outside of its own declaration group, so a declaration is only inferred again when its own text
+// or the signature of one of its dependencies has changed.
+// Declarations which have only moved to another line are shifted to their new location,
+// and their local variables and synthetic type variables are renumbered to fit into the current run.
+public class TypecheckedDeclarationCache implements DeclarationCache {
+    record DeclarationKey(Named name, String source, int startColumn, ImmutableMap<Named, Sort> signatures) {}
+
+    record CachedDeclaration(
+        int startLine,
+        int firstLocalIndex,
+        boolean containsSyntheticVars,
+        DeclarationNode<Attributes> declaration) {}
+
+    // Entries which are not used by the next run are evicted when it completes
+    private MutableMap<DeclarationKey, CachedDeclaration> previousEntries = Maps.mutable.empty();
+    private MutableMap<DeclarationKey, CachedDeclaration> currentEntries = Maps.mutable.empty();
+
+    private String source;
+    private int[] lineIndices;
+    private DiagnosticCollector diagnostics;
+
+    private int hitCount = 0;
+    private int missCount = 0;
+
+    public synchronized <A> A withSource(String source, DiagnosticCollector diagnostics, Supplier<A> fn) {
+        this.source = source;
+        this.lineIndices = TextDocument.getLineIndices(source);
+        this.diagnostics = diagnostics;
+        try {
+            return fn.get();
+        } finally {
+            this.previousEntries = currentEntries;
+            this.currentEntries = Maps.mutable.empty();
+            this.source = null;
+            this.lineIndices = null;
+            this.diagnostics = null;
+        }
+    }
+
+    public int hitCount() {
+        return hitCount;
+    }
+
+    public int missCount() {
+        return missCount;
+    }
+
+    public int size() {
+        return previousEntries.size();
+    }
+
+    @Override
+    public Optional<ImmutableList<DeclarationNode<Attributes>>> lookup(
+            ImmutableList<DeclarationNode<Name>> declarationGroup,
+            TypeEnvironment environment,
+            UnsolvedVariableSupply varSupply) {
+        var groupNames = declaredNames(declarationGroup);
+        var cachedGroup = Lists.mutable.<DeclarationNode<Attributes>>empty();
+
+        for (var declaration : declarationGroup) {
+            var dependencies = DependencyCollector.collect(declaration);
+            var key = keyOf(declaration, dependencies, groupNames, environment);
+            var cached = key.map(previousEntries::get).orElse(null);
+
+            if (cached == null) {
+                missCount += declarationGroup.size();
+                return Optional.empty();
+            }
+
+            currentEntries.put(key.get(), cached);
+
+            var cachedDeclaration = cached.declaration();
+
+            var lineDelta = declaration.range().start().line() - cached.startLine();
+            if (lineDelta != 0) {
+                cachedDeclaration = cachedDeclaration.accept(new LineShiftTransformer(lineDelta));
+            }
+
+            // Edits to earlier declarations change the indices that the renamer gives to this declaration's locals
+            var localDelta = dependencies.firstLocalIndex - cached.firstLocalIndex();
+            if (localDelta != 0 || cached.containsSyntheticVars()) {
+                cachedDeclaration = cachedDeclaration.accept(new LocalRenumberingTransformer(localDelta, varSupply));
+            }
+
+            cachedGroup.add(cachedDeclaration);
+        }
+
+        hitCount += declarationGroup.size();
+
+        return Optional.of(cachedGroup.toImmutable());
+    }
+
+    @Override
+    public void store(
+            ImmutableList<DeclarationNode<Name>> declarationGroup,
+            ImmutableList<DeclarationNode<Attributes>> typecheckedGroup,
+            TypeEnvironment environment) {
+        // The diagnostics for a declaration are not cached, so declarations with errors are always inferred again
+        if (hasDiagnostics(declarationGroup)) {
+            return;
+        }
+
+        var groupNames = declaredNames(declarationGroup);
+
+        declarationGroup.zip(typecheckedGroup).forEach(pair -> {
+            var declaration = pair.getOne();
+            var typechecked = pair.getTwo();
+            var dependencies = DependencyCollector.collect(declaration);
+            keyOf(declaration, dependencies, groupNames, environment).ifPresent(key -> {
+                var startLine = declaration.range().start().line();
+                var containsSyntheticVars = LocalRenumberingTransformer.containsSyntheticVars(typechecked);
+                currentEntries.put(key, new CachedDeclaration(
+                    startLine, dependencies.firstLocalIndex, containsSyntheticVars, typechecked));
+            });
+        });
+    }
+
+    Optional<DeclarationKey> keyOf(
+            DeclarationNode<Name> declaration,
+            DependencyCollector dependencies,
+            ImmutableSet<Named> groupNames,
+            TypeEnvironment environment) {
+        var range = declaration.range();
+
+        var signatures = Maps.mutable.<Named, Sort>empty();
+
+        for (var dependency : dependencies.dependencies.keyValuesView()) {
+            var dependencyName = dependency.getOne();
+
+            // The signatures of the group's own declarations are still being inferred
+            if (groupNames.contains(dependencyName)) {
+                continue;
+            }
+
+            var environmentMeta = dependencyName instanceof DataName
+                ? environment.lookupType(dependency.getTwo())
+                : environment.lookupValue(dependency.getTwo());
+
+            var signature = environmentMeta.map(meta -> meta.meta().sort()).orElse(null);
+
+            if (signature == null || signature.containsUnsolved()) {
+                return Optional.empty();
+            }
+
+            signatures.put(dependencyName, signature);
+        }
+
+        return Optional.of(new DeclarationKey(
+            (Named) declaration.meta().meta(),
+            source.substring(offsetOf(range.start()), offsetOf(range.end())),
+            range.start().character(),
+            signatures.toImmutable()));
+    }
+
+    ImmutableSet<Named> declaredNames(ImmutableList<DeclarationNode<Name>> declarationGroup) {
+        return declarationGroup.flatCollect(declaration -> {
+            var declarationName = (Named) declaration.meta().meta();
+            if (declaration instanceof DataNode<Name> data) {
+                return data.constructors()
+                    .collect(constr -> (Named) constr.meta().meta())
+                    .newWith(declarationName);
+            } else {
+                return Lists.immutable.of(declarationName);
+            }
+        }).toSet().toImmutable();
+    }
+
+    boolean hasDiagnostics(ImmutableList<DeclarationNode<Name>> declarationGroup) {
+        List<Diagnostic> reported = diagnostics.getDiagnostics();
+        return reported.stream().anyMatch(diagnostic -> {
+            var diagnosticRange = diagnostic.location().range();
+            return declarationGroup.anySatisfy(declaration -> contains(declaration.range(), diagnosticRange));
+        });
+    }
+
+    static boolean contains(Range outer, Range inner) {
+        return compare(outer.start(), inner.start()) <= 0 && compare(inner.end(), outer.end()) <= 0;
+    }
+
+    static int compare(Position left, Position right) {
+        return left.line() != right.line()
+            ? Integer.compare(left.line(), right.line())
+            : Integer.compare(left.character(), right.character());
+    }
+
+    int offsetOf(Position position) {
+        var line = Math.min(position.line(), lineIndices.length - 1);
+        return Math.min(lineIndices[line] + position.character(), source.length());
+    }
+
+    // Collects the top-level declarations referenced by a declaration,
+    // along with the names that the typechecker uses to look them up,
+    // and the index of the declaration's first local variable.
+    static class DependencyCollector implements SyntaxNodeVisitor {
+        final MutableMap<Named, String> dependencies = Maps.mutable.empty();
+
+        // Remains at the maximum value for declarations without any local variables
+        int firstLocalIndex = Integer.MAX_VALUE;
+
+        static DependencyCollector collect(DeclarationNode<Name> declaration) {
+            var collector = new DependencyCollector();
+            declaration.accept(collector);
+            return collector;
+        }
+
+        @Override
+        public void visit(SyntaxNode node) {
+            if (node instanceof MetaNode<?> metaNode && metaNode.meta().meta() instanceof LocalName local) {
+                firstLocalIndex = Math.min(firstLocalIndex, local.index());
+            }
+        }
+
+        void addDependency(Object name, QualifiedIdNode id) {
+            if (name instanceof LetName || name instanceof DataName || name instanceof ConstructorName) {
+                dependencies.putIfAbsent((Named) name, id.canonicalName());
+            }
+        }
+
+        @Override
+        public void visitReference(ReferenceNode<?> ref) {
+            addDependency(ref.meta().meta(), ref.id());
+        }
+
+        @Override
+        public void visitTypeReference(TypeReferenceNode<?> tyRef) {
+            addDependency(tyRef.meta().meta(), tyRef.id());
+        }
+
+        @Override
+        public void visitConstructorPattern(ConstructorPatternNode<?> constrPat) {
+            addDependency(constrPat.meta().meta(), constrPat.id());
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2023-2024 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.langserver.bsp;
@@ -124,7 +124,14 @@ public class MinaBuildClient implements BuildClient {
 
     @Override
     public void onBuildPublishDiagnostics(PublishDiagnosticsParams params) {
-        languageClient.publishDiagnostics(Conversions.toLspPublishDiagnostics(params));
+        var diagnostics = Conversions.toLspPublishDiagnostics(params);
+        // Builds report diagnostics for a document repeatedly, so they are coalesced like those of document analysis.
+        // Each build target's diagnostics are kept separately, as only that target's reports replace them.
+        languageServer.getDiagnosticsPublisher().publishBuild(
+            diagnostics.getUri(),
+            params.getBuildTarget().getUri(),
+            diagnostics.getDiagnostics(),
+            !Boolean.FALSE.equals(params.getReset()));
     }
 
     @Override
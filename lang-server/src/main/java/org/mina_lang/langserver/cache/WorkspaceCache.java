@@ -0,0 +1,222 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.cache;
+
+import dev.dirs.BaseDirectories;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.impl.factory.Lists;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.Meta;
+import org.mina_lang.common.Scope;
+import org.mina_lang.common.names.NamespaceName;
+import org.mina_lang.langserver.index.SymbolIndex.DocumentSymbols;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+// A cache of the namespace interfaces and symbols of the workspace, which persists between language server sessions.
+// Document entries hold the interface of a typechecked namespace and the symbols that its document defines and references,
+// and classpath entries hold the interface of a namespace class.
+// Each entry is stored in its own file, which is named by the hash of its source URI and the hash of the source content,
+// so that an entry remains valid for as long as its source has the same content.
+// Entries are trusted as soon as they are loaded, so they must be revalidated against their sources afterwards.
+// Each workspace has its own cache directory, which is named by the hash of its workspace folders,
+// so that the symbols and namespaces of one checkout are never visible in another.
+public class WorkspaceCache {
+    private static final Logger logger = LoggerFactory.getLogger(WorkspaceCache.class);
+
+    private static final String ENTRY_SUFFIX = ".entry";
+
+    public enum Kind { DOCUMENT, CLASSPATH }
+
+    public record Entry(
+        Kind kind,
+        URI uri,
+        String contentHash,
+        NamespaceName namespace,
+        Scope<Meta<Attributes>> scope,
+        Optional<DocumentSymbols> symbols) {
+
+        String fileName() {
+            return hash(uri.toString().getBytes(StandardCharsets.UTF_8)) + "-" + contentHash + ENTRY_SUFFIX;
+        }
+    }
+
+    private final Path baseDirectory;
+    private volatile Path cacheDirectory;
+
+    private final ConcurrentHashMap<URI, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<NamespaceName, Entry> namespaceEntries = new ConcurrentHashMap<>();
+
+    public WorkspaceCache(Path baseDirectory) {
+        this.baseDirectory = baseDirectory;
+        this.cacheDirectory = baseDirectory;
+    }
+
+    public static WorkspaceCache inUserCacheDirectory() {
+        var userCacheDirectory = Paths.get(BaseDirectories.get().cacheDir);
+        return new WorkspaceCache(userCacheDirectory.resolve("mina").resolve("lang-server"));
+    }
+
+    public Path getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    // Selects the cache directory of the workspace with the given folders, which must happen before the cache is loaded.
+    // The directory is chosen once per session, so it's unaffected by folders added to or removed from the workspace later.
+    public void selectWorkspace(Collection<URI> workspaceFolders) {
+        var workspaceKey = workspaceFolders.stream()
+            .map(URI::toString)
+            .sorted()
+            .collect(Collectors.joining("\n"));
+        this.cacheDirectory = baseDirectory.resolve(hash(workspaceKey.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public Optional<Entry> getEntry(URI uri) {
+        return Optional.ofNullable(entries.get(uri));
+    }
+
+    public Optional<Scope<Meta<Attributes>>> lookupScope(NamespaceName namespace) {
+        return Optional.ofNullable(namespaceEntries.get(namespace)).map(Entry::scope);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Entries which can't be read are deleted, as they were written by another version of the server
+    // or were only partially written
+    public ImmutableList<Entry> load() {
+        var loaded = Lists.mutable.<Entry>empty();
+
+        try {
+            Files.createDirectories(cacheDirectory);
+            try (var entryFiles = Files.newDirectoryStream(cacheDirectory, "*" + ENTRY_SUFFIX)) {
+                for (var entryFile : entryFiles) {
+                    try {
+                        var entry = read(entryFile);
+                        var superseded = entries.put(entry.uri(), entry);
+                        namespaceEntries.put(entry.namespace(), entry);
+                        loaded.add(entry);
+                        // Two entries for a source remain if the server exited while replacing one of them.
+                        // Only one is kept, and revalidation evicts it if it was the stale one.
+                        if (superseded != null) {
+                            loaded.remove(superseded);
+                            deleteEntryFile(superseded);
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        logger.warn("Discarding unreadable workspace cache entry {}", entryFile, e);
+                        Files.deleteIfExists(entryFile);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Unable to load the workspace cache from {}", cacheDirectory, e);
+        }
+
+        return loaded.toImmutable();
+    }
+
+    Entry read(Path entryFile) throws IOException {
+        try (var channel = FileChannel.open(entryFile, StandardOpenOption.READ)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return WorkspaceCacheCodec.decode(buffer);
+        }
+    }
+
+    public void storeDocument(URI uri, String text, NamespaceName namespace, Scope<Meta<Attributes>> scope, DocumentSymbols symbols) {
+        var contentHash = hash(text.getBytes(StandardCharsets.UTF_8));
+        store(new Entry(Kind.DOCUMENT, uri, contentHash, namespace, scope, Optional.of(symbols)));
+    }
+
+    public void storeClasspathScope(URI uri, byte[] classData, NamespaceName namespace, Scope<Meta<Attributes>> scope) {
+        store(new Entry(Kind.CLASSPATH, uri, hash(classData), namespace, scope, Optional.empty()));
+    }
+
+    synchronized void store(Entry entry) {
+        var existing = entries.get(entry.uri());
+
+        if (existing != null && existing.contentHash().equals(entry.contentHash())) {
+            return;
+        }
+
+        var entryFile = cacheDirectory.resolve(entry.fileName());
+
+        try {
+            Files.createDirectories(cacheDirectory);
+            // Entries are moved into place so that readers never see a partially written entry
+            var tempFile = Files.createTempFile(cacheDirectory, "entry", ".tmp");
+            Files.write(tempFile, WorkspaceCacheCodec.encode(entry));
+            Files.move(tempFile, entryFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Unable to store workspace cache entry for {}", entry.uri(), e);
+            return;
+        }
+
+        entries.put(entry.uri(), entry);
+        namespaceEntries.put(entry.namespace(), entry);
+
+        if (existing != null) {
+            deleteEntryFile(existing);
+        }
+    }
+
+    public synchronized void evict(Entry entry) {
+        if (entries.remove(entry.uri(), entry)) {
+            namespaceEntries.remove(entry.namespace(), entry);
+            deleteEntryFile(entry);
+        }
+    }
+
+    void deleteEntryFile(Entry entry) {
+        try {
+            Files.deleteIfExists(cacheDirectory.resolve(entry.fileName()));
+        } catch (IOException e) {
+            logger.warn("Unable to delete workspace cache entry for {}", entry.uri(), e);
+        }
+    }
+
+    // An entry is stale if its source no longer exists or its content has changed
+    public boolean isStale(Entry entry) {
+        try {
+            return !hash(readSource(entry.uri())).equals(entry.contentHash());
+        } catch (IOException | RuntimeException e) {
+            return true;
+        }
+    }
+
+    byte[] readSource(URI uri) throws IOException {
+        if ("file".equals(uri.getScheme())) {
+            return Files.readAllBytes(Paths.get(uri));
+        } else {
+            // Classpath entries may refer to classes within a jar
+            try (var source = uri.toURL().openStream()) {
+                return source.readAllBytes();
+            }
+        }
+    }
+
+    static String hash(byte[] content) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
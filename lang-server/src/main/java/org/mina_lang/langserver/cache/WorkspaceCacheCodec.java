@@ -0,0 +1,208 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.cache;
+
+import com.opencastsoftware.yvette.Range;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.factory.Lists;
+import org.mina_lang.common.names.*;
+import org.mina_lang.langserver.index.SymbolIndex.DocumentSymbols;
+import org.mina_lang.proto.Environment;
+import org.mina_lang.proto.ProtobufReader;
+import org.mina_lang.proto.ProtobufWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+// The binary format of a workspace cache entry:
+// a header containing a magic number and the format version, followed by the kind of entry,
+// its source URI, the content hash of the source, the namespace name, the length-prefixed protobuf environment
+// of the namespace and, for document entries, the symbols defined and referenced by the document.
+// Integers are big-endian and strings are length-prefixed UTF-8.
+class WorkspaceCacheCodec {
+    static final int MAGIC = 0x4D494E41;
+    static final int FORMAT_VERSION = 1;
+
+    private static final byte LET_NAME = 0;
+    private static final byte DATA_NAME = 1;
+    private static final byte CONSTRUCTOR_NAME = 2;
+    private static final byte FIELD_NAME = 3;
+
+    private static final ProtobufWriter protobufWriter = new ProtobufWriter();
+    private static final ProtobufReader protobufReader = new ProtobufReader();
+
+    static byte[] encode(WorkspaceCache.Entry entry) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var output = new DataOutputStream(bytes);
+
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        output.writeByte(entry.kind().ordinal());
+        writeString(output, entry.uri().toString());
+        writeString(output, entry.contentHash());
+        writeNamespaceName(output, entry.namespace());
+
+        var environment = protobufWriter.toProto(entry.scope()).toByteArray();
+        output.writeInt(environment.length);
+        output.write(environment);
+
+        if (entry.symbols().isPresent()) {
+            var symbols = entry.symbols().get();
+            writeOccurrences(output, symbols.definitions(), symbols.definitionRanges());
+            writeOccurrences(output, symbols.references(), symbols.referenceRanges());
+        }
+
+        output.flush();
+
+        return bytes.toByteArray();
+    }
+
+    static WorkspaceCache.Entry decode(ByteBuffer input) throws IOException {
+        if (input.getInt() != MAGIC || input.getInt() != FORMAT_VERSION) {
+            throw new IOException("Unrecognised workspace cache entry format");
+        }
+
+        var kind = WorkspaceCache.Kind.values()[input.get()];
+        var uri = URI.create(readString(input));
+        var contentHash = readString(input);
+        var namespace = readNamespaceName(input);
+
+        // The environment is parsed directly from the input buffer, which may be a mapped file
+        var environmentLength = input.getInt();
+        var environment = Environment.parseFrom(input.slice(input.position(), environmentLength));
+        input.position(input.position() + environmentLength);
+        var scope = protobufReader.fromProto(environment);
+
+        Optional<DocumentSymbols> symbols = Optional.empty();
+
+        if (kind == WorkspaceCache.Kind.DOCUMENT) {
+            var definitions = Lists.mutable.<Named>empty();
+            var definitionRanges = Lists.mutable.<Range>empty();
+            readOccurrences(input, definitions, definitionRanges);
+
+            var references = Lists.mutable.<Named>empty();
+            var referenceRanges = Lists.mutable.<Range>empty();
+            readOccurrences(input, references, referenceRanges);
+
+            symbols = Optional.of(new DocumentSymbols(
+                definitions.toImmutable(), definitionRanges.toImmutable(),
+                references.toImmutable(), referenceRanges.toImmutable()));
+        }
+
+        return new WorkspaceCache.Entry(kind, uri, contentHash, namespace, scope, symbols);
+    }
+
+    static void writeOccurrences(DataOutputStream output, ImmutableList<Named> names, ImmutableList<Range> ranges) throws IOException {
+        output.writeInt(names.size());
+        for (var i = 0; i < names.size(); i++) {
+            writeNamed(output, names.get(i));
+            writeRange(output, ranges.get(i));
+        }
+    }
+
+    static void readOccurrences(ByteBuffer input, MutableList<Named> names, MutableList<Range> ranges) throws IOException {
+        var count = input.getInt();
+        for (var i = 0; i < count; i++) {
+            names.add(readNamed(input));
+            ranges.add(readRange(input));
+        }
+    }
+
+    static void writeNamed(DataOutputStream output, Named name) throws IOException {
+        if (name instanceof LetName let) {
+            output.writeByte(LET_NAME);
+            writeQualifiedName(output, let.name());
+        } else if (name instanceof DataName data) {
+            output.writeByte(DATA_NAME);
+            writeQualifiedName(output, data.name());
+        } else if (name instanceof ConstructorName constr) {
+            output.writeByte(CONSTRUCTOR_NAME);
+            writeConstructorName(output, constr);
+        } else if (name instanceof FieldName field) {
+            output.writeByte(FIELD_NAME);
+            writeConstructorName(output, field.constructor());
+            writeString(output, field.name());
+        } else {
+            throw new IOException("Unable to encode symbol " + name);
+        }
+    }
+
+    static Named readNamed(ByteBuffer input) throws IOException {
+        var tag = input.get();
+        return switch (tag) {
+            case LET_NAME -> new LetName(readQualifiedName(input));
+            case DATA_NAME -> new DataName(readQualifiedName(input));
+            case CONSTRUCTOR_NAME -> readConstructorName(input);
+            case FIELD_NAME -> new FieldName(readConstructorName(input), readString(input));
+            default -> throw new IOException("Unrecognised symbol tag " + tag);
+        };
+    }
+
+    static void writeConstructorName(DataOutputStream output, ConstructorName constr) throws IOException {
+        writeQualifiedName(output, constr.enclosing().name());
+        writeQualifiedName(output, constr.name());
+    }
+
+    static ConstructorName readConstructorName(ByteBuffer input) {
+        var enclosing = new DataName(readQualifiedName(input));
+        return new ConstructorName(enclosing, readQualifiedName(input));
+    }
+
+    static void writeQualifiedName(DataOutputStream output, QualifiedName name) throws IOException {
+        writeNamespaceName(output, name.ns());
+        writeString(output, name.name());
+    }
+
+    static QualifiedName readQualifiedName(ByteBuffer input) {
+        var ns = readNamespaceName(input);
+        return new QualifiedName(ns, readString(input));
+    }
+
+    static void writeNamespaceName(DataOutputStream output, NamespaceName name) throws IOException {
+        output.writeInt(name.pkg().size());
+        for (var segment : name.pkg()) {
+            writeString(output, segment);
+        }
+        writeString(output, name.name());
+    }
+
+    static NamespaceName readNamespaceName(ByteBuffer input) {
+        var segmentCount = input.getInt();
+        var pkg = Lists.mutable.<String>withInitialCapacity(segmentCount);
+        for (var i = 0; i < segmentCount; i++) {
+            pkg.add(readString(input));
+        }
+        return new NamespaceName(pkg.toImmutable(), readString(input));
+    }
+
+    static void writeRange(DataOutputStream output, Range range) throws IOException {
+        output.writeInt(range.start().line());
+        output.writeInt(range.start().character());
+        output.writeInt(range.end().line());
+        output.writeInt(range.end().character());
+    }
+
+    static Range readRange(ByteBuffer input) {
+        return new Range(input.getInt(), input.getInt(), input.getInt(), input.getInt());
+    }
+
+    static void writeString(DataOutputStream output, String string) throws IOException {
+        var bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(ByteBuffer input) {
+        var bytes = new byte[input.getInt()];
+        input.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.diagnostics;
+
+import org.eclipse.lsp4j.Diagnostic;
+import org.eclipse.lsp4j.PublishDiagnosticsParams;
+import org.mina_lang.langserver.util.DaemonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Publishes the diagnostics of documents to the client.
+// A document's diagnostics come from several sources: the analysis of its open version, and each build target
+// of the build server which reports on it. Each source has its own set of diagnostics, and the sets are merged
+// into a single notification, so that no source can overwrite the diagnostics of another.
+// Updates for a document are held for a short window, so that a burst of updates such as those
+// produced while typing or during a build is coalesced into a single notification with the latest diagnostics.
+// Analysis updates for versions of a document which have been superseded by a newer version are dropped,
+// and diagnostics are only sent when they differ from those which were last sent for the document.
+public class DiagnosticsPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(DiagnosticsPublisher.class);
+
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(50);
+
+    private static final int NO_DIAGNOSTICS_HASH = List.of().hashCode();
+
+    // The publishing state of a document, which is only accessed within the map's atomic updates
+    static class DocumentState {
+        // The version of the open document that the analysis diagnostics belong to, or null if it isn't open
+        Integer latestVersion = null;
+        List<Diagnostic> analysisDiagnostics = List.of();
+        final Map<String, List<Diagnostic>> buildDiagnostics = new LinkedHashMap<>();
+        boolean flushScheduled = false;
+        boolean published = false;
+        int publishedHash = NO_DIAGNOSTICS_HASH;
+
+        List<Diagnostic> mergedDiagnostics() {
+            var merged = new ArrayList<>(analysisDiagnostics);
+            buildDiagnostics.values().forEach(merged::addAll);
+            return List.copyOf(merged);
+        }
+
+        boolean isDiscardable() {
+            return latestVersion == null && analysisDiagnostics.isEmpty() && buildDiagnostics.isEmpty();
+        }
+    }
+
+    private final Consumer<PublishDiagnosticsParams> client;
+    private final long windowNanos;
+
+    private final ConcurrentHashMap<String, DocumentState> documents = new ConcurrentHashMap<>();
+
+    // Notifications are sent from a single thread so that they can't be reordered
+    private final ScheduledExecutorService publishExecutor = Executors.newSingleThreadScheduledExecutor(
+        DaemonThreadFactory.create(logger, "mina-langserver-diagnostics-%d"));
+
+    public DiagnosticsPublisher(Consumer<PublishDiagnosticsParams> client, Duration window) {
+        this.client = client;
+        this.windowNanos = window.toNanos();
+    }
+
+    public void publishAnalysis(String uri, int version, List<Diagnostic> diagnostics) {
+        documents.compute(uri, (key, existing) -> {
+            var state = existing != null ? existing : new DocumentState();
+
+            if (state.latestVersion != null && version < state.latestVersion) {
+                logger.debug("Dropping diagnostics for superseded version {} of {}", version, uri);
+                return existing;
+            }
+
+            state.latestVersion = version;
+            state.analysisDiagnostics = List.copyOf(diagnostics);
+
+            return scheduleFlush(uri, state);
+        });
+    }
+
+    // Build servers either replace the diagnostics that a build target reported for a document, or add to them
+    public void publishBuild(String uri, String buildTarget, List<Diagnostic> diagnostics, boolean reset) {
+        documents.compute(uri, (key, existing) -> {
+            var state = existing != null ? existing : new DocumentState();
+
+            if (reset) {
+                if (diagnostics.isEmpty()) {
+                    state.buildDiagnostics.remove(buildTarget);
+                } else {
+                    state.buildDiagnostics.put(buildTarget, List.copyOf(diagnostics));
+                }
+            } else if (!diagnostics.isEmpty()) {
+                var targetDiagnostics = new ArrayList<>(state.buildDiagnostics.getOrDefault(buildTarget, List.of()));
+                targetDiagnostics.addAll(diagnostics);
+                state.buildDiagnostics.put(buildTarget, List.copyOf(targetDiagnostics));
+            }
+
+            return scheduleFlush(uri, state);
+        });
+    }
+
+    // The analysis diagnostics of a closed document are cleared, but those reported by builds remain
+    public void removeAnalysis(String uri) {
+        documents.computeIfPresent(uri, (key, state) -> {
+            state.latestVersion = null;
+            state.analysisDiagnostics = List.of();
+            return scheduleFlush(uri, state);
+        });
+    }
+
+    DocumentState scheduleFlush(String uri, DocumentState state) {
+        if (!state.flushScheduled) {
+            try {
+                publishExecutor.schedule(() -> flush(uri), windowNanos, TimeUnit.NANOSECONDS);
+                state.flushScheduled = true;
+            } catch (RejectedExecutionException e) {
+                // The server is exiting, so there is no client to publish to
+            }
+        }
+
+        return state;
+    }
+
+    void flush(String uri) {
+        var notifications = new ArrayList<PublishDiagnosticsParams>(1);
+
+        documents.computeIfPresent(uri, (key, state) -> {
+            state.flushScheduled = false;
+
+            var diagnostics = state.mergedDiagnostics();
+
+            // A hash collision suppresses a change, but the next change to the document's diagnostics is still sent
+            var diagnosticsHash = diagnostics.hashCode();
+            if (!state.published || diagnosticsHash != state.publishedHash) {
+                state.published = true;
+                state.publishedHash = diagnosticsHash;
+                notifications.add(new PublishDiagnosticsParams(uri, diagnostics, state.latestVersion));
+            }
+
+            // Once a closed document has no diagnostics left, there is nothing more to publish for it
+            return state.isDiscardable() ? null : state;
+        });
+
+        notifications.forEach(params -> {
+            try {
+                client.accept(params);
+            } catch (RuntimeException e) {
+                logger.error("Error while publishing diagnostics for {}", params.getUri(), e);
+            }
+        });
+    }
+
+    public void shutdown() {
+        publishExecutor.shutdown();
+    }
+}
@@ -1,16 +1,35 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.langserver.documents;
 
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.impl.factory.Lists;
 import org.eclipse.lsp4j.*;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.services.TextDocumentService;
+import org.mina_lang.common.names.Name;
+import org.mina_lang.common.names.Named;
 import org.mina_lang.langserver.MinaLanguageServer;
+import org.mina_lang.langserver.analysis.DocumentAnalyser;
+import org.mina_lang.langserver.analysis.DocumentAnalysis;
+import org.mina_lang.langserver.index.SymbolIndex;
+import org.mina_lang.langserver.scheduling.RequestScheduler.Lane;
+import org.mina_lang.langserver.semantic.SemanticTokensProvider;
+import org.mina_lang.langserver.util.Conversions;
+import org.mina_lang.syntax.NamespaceNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
 
 
 public class MinaTextDocumentService implements TextDocumentService {
@@ -18,34 +37,231 @@ public class MinaTextDocumentService implements TextDocumentService {
 
     private MinaLanguageServer server;
     private MinaTextDocuments documents = new MinaTextDocuments();
+    private DocumentAnalyser analyser;
+    private ConcurrentHashMap<String, CompletableFuture<DocumentAnalysis>> analysisTasks = new ConcurrentHashMap<>();
+    private SemanticTokensProvider semanticTokens = new SemanticTokensProvider();
 
     public MinaTextDocumentService(MinaLanguageServer server) {
         this.server = server;
+        // Imports of namespaces which are not open are resolved using the workspace cache
+        this.analyser = new DocumentAnalyser(server.getWorkspaceCache()::lookupScope);
     }
 
     @Override
     public void didOpen(DidOpenTextDocumentParams params) {
         server.ifShouldNotify(() -> {
             documents.addDocument(params);
+            analyseDocument(params.getTextDocument());
         });
     }
 
     @Override
     public void didChange(DidChangeTextDocumentParams params) {
         server.ifShouldNotify(() -> {
-            documents.updateDocument(params);
+            var updatedDocument = documents.updateDocument(params);
+            if (updatedDocument != null) {
+                analyseDocument(updatedDocument);
+            }
         });
     }
 
     @Override
     public void didClose(DidCloseTextDocumentParams params) {
         server.ifShouldNotify(() -> {
+            var uri = params.getTextDocument().getUri();
             documents.removeDocument(params);
+            analyser.removeDocument(uri);
+            analysisTasks.remove(uri);
+            semanticTokens.removeDocument(uri);
+            server.getDiagnosticsPublisher().removeAnalysis(uri);
         });
     }
 
     @Override
     public void didSave(DidSaveTextDocumentParams params) {
+        server.ifShouldNotify(() -> {
+            var savedDocument = documents.getDocument(params.getTextDocument().getUri());
+            if (savedDocument != null) {
+                // Only saved content is cached, as cache entries are validated against the files on disk
+                analyseDocument(savedDocument).thenAcceptAsync(
+                    analysis -> cacheDocument(savedDocument, analysis),
+                    server.getScheduler().executor(Lane.BACKGROUND));
+            }
+        });
+    }
+
+    CompletableFuture<DocumentAnalysis> analyseDocument(TextDocumentItem document) {
+        var uri = document.getUri();
+
+        // A version which was superseded while it was queued isn't analysed, so that a burst of edits
+        // doesn't hold up the analysis of the latest version behind the analysis of every earlier one
+        var analysisTask = server.getScheduler().submit(Lane.DOCUMENT_SYNC, () -> {
+            return isSuperseded(document) ? null : analyser.analyse(document);
+        });
+
+        analysisTasks.put(uri, analysisTask);
+
+        return analysisTask
+            .thenCompose(analysis -> {
+                if (analysis == null) {
+                    return latestAnalysisOf(uri);
+                }
+                // Closed documents stay in the index, as they are still part of the workspace
+                analysis.renamed().ifPresent(renamed -> {
+                    server.getSymbolIndex().indexNamespace(URI.create(analysis.uri()), renamed);
+                });
+                publishDiagnostics(analysis);
+                return CompletableFuture.completedFuture(analysis);
+            })
+            .whenComplete((analysis, error) -> {
+                if (error != null) {
+                    logger.error("Error while analysing {}", document.getUri(), error);
+                }
+            });
+    }
+
+    void publishDiagnostics(DocumentAnalysis analysis) {
+        // Diagnostics aren't published for documents which were closed while they were being analysed
+        if (documents.getDocument(analysis.uri()) != null) {
+            // Imports aren't resolved against the build classpath, so the diagnostics of a document which
+            // imports a namespace from outside of the workspace are left to the build server
+            var diagnostics = analysis.importsResolved()
+                ? analysis.diagnostics().stream().map(Conversions::toLspDiagnostic).toList()
+                : List.<Diagnostic>of();
+            server.getDiagnosticsPublisher().publishAnalysis(analysis.uri(), analysis.version(), diagnostics);
+        }
+    }
+
+    // Requests which need the analysis of the current version of a document raise the priority of analysing it
+    CompletableFuture<DocumentAnalysis> analysisOf(TextDocumentItem document) {
+        var uri = document.getUri();
+
+        var analysed = analyser.getAnalysis(uri).filter(analysis -> analysis.version() >= document.getVersion());
+        if (analysed.isPresent()) {
+            return CompletableFuture.completedFuture(analysed.get());
+        }
+
+        var analysisTask = analysisTasks.get(uri);
+        if (analysisTask != null) {
+            return server.getScheduler().dependOn(Lane.INTERACTIVE, analysisTask).thenCompose(analysis -> {
+                return analysis != null ? CompletableFuture.completedFuture(analysis) : latestAnalysisOf(uri);
+            });
+        }
+
+        return analyseDocument(document);
+    }
+
+    boolean isSuperseded(TextDocumentItem document) {
+        var latestDocument = documents.getDocument(document.getUri());
+        return latestDocument != null && latestDocument.getVersion() > document.getVersion();
+    }
+
+    // The analysis of a superseded version is replaced by that of the latest version of the document
+    CompletableFuture<DocumentAnalysis> latestAnalysisOf(String uri) {
+        var latestDocument = documents.getDocument(uri);
+        if (latestDocument != null) {
+            return analysisOf(latestDocument);
+        }
+
+        // The document was closed after the newer version was queued
+        return analyser.getAnalysis(uri)
+            .map(CompletableFuture::completedFuture)
+            .orElseGet(() -> CompletableFuture.failedFuture(new CancellationException("The document " + uri + " was closed")));
+    }
+
+    void cacheDocument(TextDocumentItem document, DocumentAnalysis analysis) {
+        // Interfaces of namespaces with errors may be incomplete
+        if (analysis.version() != document.getVersion() || !analysis.diagnostics().isEmpty()) {
+            return;
+        }
+
+        analysis.renamed().ifPresent(renamed -> {
+            analysis.typechecked().ifPresent(typechecked -> {
+                server.getWorkspaceCache().storeDocument(
+                    URI.create(document.getUri()), document.getText(),
+                    typechecked.getName(), typechecked.getScope(),
+                    SymbolIndex.symbolsOf(renamed));
+            });
+        });
+    }
+
+    @Override
+    public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> definition(DefinitionParams params) {
+        return server.ifInitializedAsync(cancelToken -> {
+            return server.whenWorkspaceCacheLoaded(Lane.INTERACTIVE).thenApply(loaded -> {
+                var definitions = findOccurrences(params.getTextDocument(), params.getPosition(), SymbolIndex::findDefinitions);
+                return Either.forLeft(definitions);
+            });
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<? extends Location>> references(ReferenceParams params) {
+        return server.ifInitializedAsync(cancelToken -> {
+            return server.whenWorkspaceCacheLoaded(Lane.INTERACTIVE).thenApply(loaded -> {
+                var references = findOccurrences(params.getTextDocument(), params.getPosition(), SymbolIndex::findReferences);
+                if (params.getContext().isIncludeDeclaration()) {
+                    references.addAll(findOccurrences(params.getTextDocument(), params.getPosition(), SymbolIndex::findDefinitions));
+                }
+                return references;
+            });
+        });
+    }
+
+    @Override
+    public CompletableFuture<SemanticTokens> semanticTokensFull(SemanticTokensParams params) {
+        var uri = params.getTextDocument().getUri();
+        return server.ifInitializedAsync(cancelToken -> {
+            return updateSemanticTokens(uri).thenApply(updated -> semanticTokens.full(uri));
+        });
+    }
+
+    @Override
+    public CompletableFuture<Either<SemanticTokens, SemanticTokensDelta>> semanticTokensFullDelta(SemanticTokensDeltaParams params) {
+        var uri = params.getTextDocument().getUri();
+        return server.ifInitializedAsync(cancelToken -> {
+            return updateSemanticTokens(uri).thenApply(updated -> semanticTokens.fullDelta(uri, params.getPreviousResultId()));
+        });
+    }
+
+    @Override
+    public CompletableFuture<SemanticTokens> semanticTokensRange(SemanticTokensRangeParams params) {
+        var uri = params.getTextDocument().getUri();
+        return server.ifInitializedAsync(cancelToken -> {
+            return updateSemanticTokens(uri).thenApply(updated -> semanticTokens.range(uri, params.getRange()));
+        });
+    }
+
+    CompletableFuture<Void> updateSemanticTokens(String uri) {
+        var document = documents.getDocument(uri);
+
+        // Documents which only changed whitespace or comments don't need to be analysed again
+        if (document == null || semanticTokens.reuseTokens(document)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return analysisOf(document).thenAccept(analysis -> {
+            var renamed = analysis.version() == document.getVersion()
+                ? analysis.renamed()
+                : Optional.<NamespaceNode<Name>>empty();
+            semanticTokens.classifyTokens(document, renamed);
+        });
+    }
+
+    List<Location> findOccurrences(
+            TextDocumentIdentifier document, Position position,
+            BiFunction<SymbolIndex, Named, ImmutableList<SymbolIndex.Occurrence>> find) {
+        var index = server.getSymbolIndex();
+        var documentUri = URI.create(document.getUri());
+        return index.symbolAt(documentUri, Conversions.toMinaPosition(position))
+            .map(symbol -> find.apply(index, symbol)
+                .collect(occurrence -> Conversions.toLspLocation(occurrence.location()))
+                .toList())
+            .orElseGet(Lists.mutable::empty);
+    }
+
+    public DocumentAnalyser getAnalyser() {
+        return analyser;
     }
 
     public Set<TextDocumentItem> getAllDocuments() {
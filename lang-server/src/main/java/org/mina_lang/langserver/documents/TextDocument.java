@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.langserver.documents;
@@ -18,7 +18,7 @@ public class TextDocument {
     private TextDocument() {
     }
 
-    private static int[] getLineIndices(String documentText) {
+    public static int[] getLineIndices(String documentText) {
         var indices = IntLists.mutable.empty();
         var matcher = LINE_ENDINGS.matcher(documentText);
 
@@ -0,0 +1,374 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.index;
+
+import com.opencastsoftware.yvette.Position;
+import com.opencastsoftware.yvette.Range;
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.list.primitive.MutableIntList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.map.primitive.MutableIntObjectMap;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.factory.Sets;
+import org.eclipse.collections.impl.factory.primitive.IntLists;
+import org.eclipse.collections.impl.factory.primitive.IntObjectMaps;
+import org.eclipse.collections.impl.factory.primitive.ObjectIntMaps;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.Location;
+import org.mina_lang.common.Meta;
+import org.mina_lang.common.Scope;
+import org.mina_lang.common.names.*;
+import org.mina_lang.syntax.*;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// An index of the top-level symbols that are defined and referenced by each document of the workspace,
+// and of the symbols defined by namespaces on the classpath.
+// Symbols are interned as integer ids, and the occurrences within each document are stored in primitive arrays,
+// so that the entries for a document can be replaced wholesale whenever it is renamed again.
+// The documents which define or reference each symbol are tracked by id,
+// so that finding references only needs to search the documents which mention the symbol.
+public class SymbolIndex {
+    public record Occurrence(Named symbol, Location location) {}
+
+    public record DocumentSymbols(
+        ImmutableList<Named> definitions,
+        ImmutableList<Range> definitionRanges,
+        ImmutableList<Named> references,
+        ImmutableList<Range> referenceRanges) {}
+
+    record DocumentOccurrences(int[] definitionIds, Range[] definitionRanges, int[] referenceIds, Range[] referenceRanges) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Symbol ids are only held by the occurrences of documents, so once no document defines or references
+    // a symbol its id is reclaimed, and reused for the next symbol that is interned
+    private final MutableObjectIntMap<Named> symbolIds = ObjectIntMaps.mutable.empty();
+    private final MutableList<Named> symbols = Lists.mutable.empty();
+    private final MutableList<String> searchNames = Lists.mutable.empty();
+    private final MutableIntList freeIds = IntLists.mutable.empty();
+
+    private final MutableMap<URI, DocumentOccurrences> documents = Maps.mutable.empty();
+    private final MutableIntObjectMap<MutableSet<URI>> definingDocuments = IntObjectMaps.mutable.empty();
+    private final MutableIntObjectMap<MutableSet<URI>> referencingDocuments = IntObjectMaps.mutable.empty();
+
+    public static boolean isIndexed(Object name) {
+        return name instanceof LetName ||
+            name instanceof DataName ||
+            name instanceof ConstructorName ||
+            name instanceof FieldName;
+    }
+
+    public int symbolCount() {
+        lock.readLock().lock();
+        try {
+            return definingDocuments.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean containsDocument(URI uri) {
+        lock.readLock().lock();
+        try {
+            return documents.containsKey(uri);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static DocumentSymbols symbolsOf(NamespaceNode<Name> namespace) {
+        var collector = new OccurrenceCollector();
+        namespace.accept(collector);
+        return collector.toDocumentSymbols();
+    }
+
+    public void indexNamespace(URI uri, NamespaceNode<Name> namespace) {
+        indexDocumentSymbols(uri, symbolsOf(namespace));
+    }
+
+    // Library namespaces don't have source locations, so their symbols are located at the namespace class
+    public void indexClasspathScope(URI uri, Scope<Meta<Attributes>> scope) {
+        var collector = new OccurrenceCollector();
+        scope.types().forEachValue(meta -> collector.addDefinition(meta.meta().name(), Range.EMPTY));
+        scope.values().forEachValue(meta -> collector.addDefinition(meta.meta().name(), Range.EMPTY));
+        scope.fields().forEachValue(fields -> {
+            fields.forEachValue(meta -> collector.addDefinition(meta.meta().name(), Range.EMPTY));
+        });
+        indexDocumentSymbols(uri, collector.toDocumentSymbols());
+    }
+
+    public void removeDocument(URI uri) {
+        lock.writeLock().lock();
+        try {
+            var existing = removeOccurrences(uri);
+            if (existing != null) {
+                releaseUnreferenced(existing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ImmutableList<Occurrence> search(String query, int limit) {
+        var lowerCaseQuery = query.toLowerCase(Locale.ROOT);
+        var results = Lists.mutable.<Occurrence>empty();
+
+        lock.readLock().lock();
+        try {
+            for (var id = 0; id < symbols.size() && results.size() < limit; id++) {
+                var definedIn = definingDocuments.get(id);
+                if (definedIn != null && searchNames.get(id).contains(lowerCaseQuery)) {
+                    collectOccurrences(id, definedIn, true, results);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return results.take(limit).toImmutable();
+    }
+
+    public ImmutableList<Occurrence> findDefinitions(Named symbol) {
+        return findOccurrences(symbol, true);
+    }
+
+    public ImmutableList<Occurrence> findReferences(Named symbol) {
+        return findOccurrences(symbol, false);
+    }
+
+    public Optional<Named> symbolAt(URI uri, Position position) {
+        lock.readLock().lock();
+        try {
+            var occurrences = documents.get(uri);
+            if (occurrences == null) {
+                return Optional.empty();
+            }
+
+            var id = innermostAt(occurrences.referenceIds(), occurrences.referenceRanges(), position);
+            if (id < 0) {
+                id = innermostAt(occurrences.definitionIds(), occurrences.definitionRanges(), position);
+            }
+
+            return id < 0 ? Optional.empty() : Optional.of(symbols.get(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    ImmutableList<Occurrence> findOccurrences(Named symbol, boolean definitions) {
+        var results = Lists.mutable.<Occurrence>empty();
+
+        lock.readLock().lock();
+        try {
+            if (symbolIds.containsKey(symbol)) {
+                var id = symbolIds.get(symbol);
+                var documentUris = definitions ? definingDocuments.get(id) : referencingDocuments.get(id);
+                if (documentUris != null) {
+                    collectOccurrences(id, documentUris, definitions, results);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return results.toImmutable();
+    }
+
+    void collectOccurrences(int id, MutableSet<URI> documentUris, boolean definitions, MutableList<Occurrence> results) {
+        var symbol = symbols.get(id);
+        documentUris.forEach(uri -> {
+            var occurrences = documents.get(uri);
+            var ids = definitions ? occurrences.definitionIds() : occurrences.referenceIds();
+            var ranges = definitions ? occurrences.definitionRanges() : occurrences.referenceRanges();
+            for (var i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    results.add(new Occurrence(symbol, new Location(uri, ranges[i])));
+                }
+            }
+        });
+    }
+
+    int innermostAt(int[] ids, Range[] ranges, Position position) {
+        var innermost = -1;
+        Range innermostRange = null;
+        for (var i = 0; i < ids.length; i++) {
+            var range = ranges[i];
+            if (contains(range, position) && (innermostRange == null || contains(innermostRange, range.start()))) {
+                innermost = ids[i];
+                innermostRange = range;
+            }
+        }
+        return innermost;
+    }
+
+    static boolean contains(Range range, Position position) {
+        return compare(range.start(), position) <= 0 && compare(position, range.end()) <= 0;
+    }
+
+    static int compare(Position left, Position right) {
+        return left.line() != right.line()
+            ? Integer.compare(left.line(), right.line())
+            : Integer.compare(left.character(), right.character());
+    }
+
+    int internSymbol(Named symbol) {
+        return symbolIds.getIfAbsentPut(symbol, () -> {
+            var searchName = symbol.localName().toLowerCase(Locale.ROOT);
+
+            if (freeIds.isEmpty()) {
+                symbols.add(symbol);
+                searchNames.add(searchName);
+                return symbols.size() - 1;
+            }
+
+            var id = freeIds.removeAtIndex(freeIds.size() - 1);
+            symbols.set(id, symbol);
+            searchNames.set(id, searchName);
+            return id;
+        });
+    }
+
+    int internedSymbolCount() {
+        return symbolIds.size();
+    }
+
+    int allocatedIdCount() {
+        return symbols.size();
+    }
+
+    // Reclaims the ids of the symbols that a document mentioned, if no other document mentions them
+    void releaseUnreferenced(DocumentOccurrences occurrences) {
+        releaseUnreferenced(occurrences.definitionIds());
+        releaseUnreferenced(occurrences.referenceIds());
+    }
+
+    void releaseUnreferenced(int[] ids) {
+        for (var id : ids) {
+            var symbol = symbols.get(id);
+            // The symbol is null if its id was already released by an earlier occurrence
+            if (symbol != null && !definingDocuments.containsKey(id) && !referencingDocuments.containsKey(id)) {
+                symbolIds.remove(symbol);
+                symbols.set(id, null);
+                searchNames.set(id, null);
+                freeIds.add(id);
+            }
+        }
+    }
+
+    public Optional<DocumentSymbols> getDocumentSymbols(URI uri) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(documents.get(uri)).map(occurrences -> {
+                return new DocumentSymbols(
+                    IntLists.immutable.of(occurrences.definitionIds()).collect(symbols::get),
+                    Lists.immutable.of(occurrences.definitionRanges()),
+                    IntLists.immutable.of(occurrences.referenceIds()).collect(symbols::get),
+                    Lists.immutable.of(occurrences.referenceRanges()));
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void indexDocumentSymbols(URI uri, DocumentSymbols documentSymbols) {
+        lock.writeLock().lock();
+        try {
+            var existing = removeOccurrences(uri);
+
+            var definitionIds = documentSymbols.definitions().collectInt(this::internSymbol).toArray();
+            var referenceIds = documentSymbols.references().collectInt(this::internSymbol).toArray();
+
+            documents.put(uri, new DocumentOccurrences(
+                definitionIds, documentSymbols.definitionRanges().toArray(new Range[0]),
+                referenceIds, documentSymbols.referenceRanges().toArray(new Range[0])));
+
+            for (var id : definitionIds) {
+                definingDocuments.getIfAbsentPut(id, Sets.mutable::empty).add(uri);
+            }
+
+            for (var id : referenceIds) {
+                referencingDocuments.getIfAbsentPut(id, Sets.mutable::empty).add(uri);
+            }
+
+            // Symbols which are still mentioned by the new version of the document keep their ids
+            if (existing != null) {
+                releaseUnreferenced(existing);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    DocumentOccurrences removeOccurrences(URI uri) {
+        var existing = documents.remove(uri);
+        if (existing != null) {
+            removeDocumentFrom(definingDocuments, existing.definitionIds(), uri);
+            removeDocumentFrom(referencingDocuments, existing.referenceIds(), uri);
+        }
+        return existing;
+    }
+
+    static void removeDocumentFrom(MutableIntObjectMap<MutableSet<URI>> documentsById, int[] ids, URI uri) {
+        for (var id : ids) {
+            var documentUris = documentsById.get(id);
+            if (documentUris != null) {
+                documentUris.remove(uri);
+                if (documentUris.isEmpty()) {
+                    documentsById.remove(id);
+                }
+            }
+        }
+    }
+
+    static class OccurrenceCollector implements SyntaxNodeVisitor {
+        final MutableList<Named> definitions = Lists.mutable.empty();
+        final MutableList<Range> definitionRanges = Lists.mutable.empty();
+        final MutableList<Named> references = Lists.mutable.empty();
+        final MutableList<Range> referenceRanges = Lists.mutable.empty();
+
+        DocumentSymbols toDocumentSymbols() {
+            return new DocumentSymbols(
+                definitions.toImmutable(), definitionRanges.toImmutable(),
+                references.toImmutable(), referenceRanges.toImmutable());
+        }
+
+        void addDefinition(Object name, Range range) {
+            if (isIndexed(name)) {
+                definitions.add((Named) name);
+                definitionRanges.add(range);
+            }
+        }
+
+        void addReference(Object name, Range range) {
+            if (isIndexed(name)) {
+                references.add((Named) name);
+                referenceRanges.add(range);
+            }
+        }
+
+        @Override
+        public void visit(SyntaxNode node) {
+            if (node instanceof LetNode<?> ||
+                node instanceof LetFnNode<?> ||
+                node instanceof DataNode<?> ||
+                node instanceof ConstructorNode<?> ||
+                node instanceof ConstructorParamNode<?>) {
+                var metaNode = (MetaNode<?>) node;
+                addDefinition(metaNode.meta().meta(), metaNode.range());
+            } else if (node instanceof MetaNode<?> metaNode) {
+                addReference(metaNode.meta().meta(), metaNode.range());
+            }
+        }
+    }
+}
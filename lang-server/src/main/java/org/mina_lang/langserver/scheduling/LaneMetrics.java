@@ -0,0 +1,17 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.scheduling;
+
+// The tasks of a scheduler lane which completed since the metrics were last collected,
+// with the time that they spent waiting in the queue and running.
+public record LaneMetrics(
+    RequestScheduler.Lane lane,
+    int queued,
+    int running,
+    long completed,
+    double meanWaitMillis,
+    double maxWaitMillis,
+    double meanRunMillis,
+    double maxRunMillis) {}
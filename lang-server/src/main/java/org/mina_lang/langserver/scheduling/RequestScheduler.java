@@ -0,0 +1,270 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.scheduling;
+
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.factory.Lists;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Runs the work of the language server on a fixed number of worker threads, in separate lanes for
+// interactive requests, processing of document changes and background work such as indexing.
+// Workers always take the oldest task from the highest priority lane that has one,
+// and background work is never allowed to occupy every worker,
+// so that requests and document changes don't queue behind a burst of background work.
+// When an interactive request depends on a queued task from a lower priority lane,
+// the task inherits the priority of the request.
+public class RequestScheduler {
+    // Lanes are declared in priority order
+    public enum Lane { INTERACTIVE, DOCUMENT_SYNC, BACKGROUND }
+
+    public static final class ScheduledTask<A> extends CompletableFuture<A> {
+        private final Supplier<A> action;
+        private final long submittedNanos = System.nanoTime();
+        private Lane lane;
+        private A result;
+        private Throwable failure;
+
+        ScheduledTask(Lane lane, Supplier<A> action) {
+            this.lane = lane;
+            this.action = action;
+        }
+
+        void run() {
+            try {
+                result = action.get();
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+
+        void publish() {
+            if (failure != null) {
+                completeExceptionally(failure);
+            } else {
+                complete(result);
+            }
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition taskAvailable = lock.newCondition();
+
+    private final EnumMap<Lane, ArrayDeque<ScheduledTask<?>>> queues = new EnumMap<>(Lane.class);
+    private final EnumMap<Lane, LaneStatistics> statistics = new EnumMap<>(Lane.class);
+    private final int[] running = new int[Lane.values().length];
+    private final int[] limits = new int[Lane.values().length];
+
+    private final MutableList<Thread> workers = Lists.mutable.empty();
+    private boolean shutdown = false;
+
+    public RequestScheduler(ThreadFactory threadFactory, int parallelism) {
+        if (parallelism < 2) {
+            throw new IllegalArgumentException("At least two workers are required, but " + parallelism + " were requested");
+        }
+
+        for (var lane : Lane.values()) {
+            queues.put(lane, new ArrayDeque<>());
+            statistics.put(lane, new LaneStatistics());
+            limits[lane.ordinal()] = parallelism;
+        }
+
+        // Keep a worker free for requests and document changes
+        limits[Lane.BACKGROUND.ordinal()] = parallelism - 1;
+
+        for (var i = 0; i < parallelism; i++) {
+            var worker = threadFactory.newThread(this::work);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    public static RequestScheduler create(ThreadFactory threadFactory) {
+        return new RequestScheduler(threadFactory, Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    public <A> ScheduledTask<A> submit(Lane lane, Supplier<A> action) {
+        var task = new ScheduledTask<>(lane, action);
+
+        lock.lock();
+        try {
+            if (shutdown) {
+                task.completeExceptionally(new IllegalStateException("The scheduler has been shut down"));
+            } else {
+                queues.get(lane).add(task);
+                taskAvailable.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return task;
+    }
+
+    public CompletableFuture<Void> submit(Lane lane, Runnable action) {
+        return submit(lane, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public Executor executor(Lane lane) {
+        return action -> submit(lane, action);
+    }
+
+    // Raises the priority of a queued task when work in a higher priority lane needs its result
+    public <A> CompletableFuture<A> dependOn(Lane lane, CompletableFuture<A> dependency) {
+        if (dependency instanceof ScheduledTask<A> task) {
+            lock.lock();
+            try {
+                if (lane.compareTo(task.lane) < 0 && queues.get(task.lane).remove(task)) {
+                    task.lane = lane;
+                    queues.get(lane).add(task);
+                    taskAvailable.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return dependency;
+    }
+
+    public ImmutableList<LaneMetrics> collectMetrics() {
+        lock.lock();
+        try {
+            return Lists.immutable.of(Lane.values()).collect(lane -> {
+                return statistics.get(lane).collect(lane, queues.get(lane).size(), running[lane.ordinal()]);
+            });
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            taskAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        var deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (var worker : workers) {
+            var remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis > 0) {
+                worker.join(remainingMillis);
+            }
+            if (worker.isAlive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    ScheduledTask<?> nextTask() {
+        for (var lane : Lane.values()) {
+            var queue = queues.get(lane);
+            if (!queue.isEmpty() && running[lane.ordinal()] < limits[lane.ordinal()]) {
+                return queue.poll();
+            }
+        }
+        return null;
+    }
+
+    void work() {
+        while (true) {
+            ScheduledTask<?> task;
+            Lane lane;
+
+            lock.lock();
+            try {
+                while ((task = nextTask()) == null) {
+                    // Queued tasks are still run after shutdown, but no more can be submitted
+                    if (shutdown && queues.values().stream().allMatch(ArrayDeque::isEmpty)) {
+                        return;
+                    }
+                    taskAvailable.await();
+                }
+                lane = task.lane;
+                running[lane.ordinal()]++;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            var startedNanos = System.nanoTime();
+
+            // Tasks may have been cancelled while they were queued
+            if (!task.isDone()) {
+                task.run();
+            }
+
+            var finishedNanos = System.nanoTime();
+
+            lock.lock();
+            try {
+                running[lane.ordinal()]--;
+                statistics.get(lane).record(startedNanos - task.submittedNanos, finishedNanos - startedNanos);
+                // A task from a lane which was at its limit may be runnable now
+                taskAvailable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            // Dependent work is run after the worker has been released, so it is not counted against the lane
+            task.publish();
+        }
+    }
+
+    // The latency statistics of a lane since they were last collected
+    static class LaneStatistics {
+        long completed = 0;
+        long totalWaitNanos = 0;
+        long maxWaitNanos = 0;
+        long totalRunNanos = 0;
+        long maxRunNanos = 0;
+
+        void record(long waitNanos, long runNanos) {
+            completed++;
+            totalWaitNanos += waitNanos;
+            maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+            totalRunNanos += runNanos;
+            maxRunNanos = Math.max(maxRunNanos, runNanos);
+        }
+
+        LaneMetrics collect(Lane lane, int queued, int running) {
+            var metrics = new LaneMetrics(
+                lane, queued, running, completed,
+                toMillis(completed == 0 ? 0 : totalWaitNanos / completed), toMillis(maxWaitNanos),
+                toMillis(completed == 0 ? 0 : totalRunNanos / completed), toMillis(maxRunNanos));
+
+            completed = 0;
+            totalWaitNanos = 0;
+            maxWaitNanos = 0;
+            totalRunNanos = 0;
+            maxRunNanos = 0;
+
+            return metrics;
+        }
+
+        static double toMillis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
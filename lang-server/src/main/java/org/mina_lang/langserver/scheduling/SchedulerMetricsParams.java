@@ -0,0 +1,9 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.scheduling;
+
+import java.util.List;
+
+public record SchedulerMetricsParams(List<LaneMetrics> lanes) {}
@@ -0,0 +1,76 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.semantic;
+
+import com.opencastsoftware.yvette.Position;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.Token;
+import org.mina_lang.parser.MinaLexer;
+
+import java.util.Arrays;
+
+// The significant tokens of a document, which are the tokens that are not whitespace or comments.
+// Lines and characters are zero-based, as in the ranges of the syntax tree.
+record LexedDocument(int[] types, String[] texts, int[] lines, int[] characters) {
+    static LexedDocument lex(String source) {
+        var lexer = new MinaLexer(CharStreams.fromString(source));
+        // Lexer errors are reported when the document is parsed
+        lexer.removeErrorListeners();
+
+        var tokens = lexer.getAllTokens().stream()
+            .filter(token -> token.getChannel() == Token.DEFAULT_CHANNEL)
+            .toList();
+
+        var size = tokens.size();
+        var types = new int[size];
+        var texts = new String[size];
+        var lines = new int[size];
+        var characters = new int[size];
+
+        for (var i = 0; i < size; i++) {
+            var token = tokens.get(i);
+            types[i] = token.getType();
+            texts[i] = token.getText();
+            lines[i] = token.getLine() - 1;
+            characters[i] = token.getCharPositionInLine();
+        }
+
+        return new LexedDocument(types, texts, lines, characters);
+    }
+
+    int size() {
+        return types.length;
+    }
+
+    int length(int index) {
+        return texts[index].length();
+    }
+
+    // Documents with the same significant tokens differ only in their whitespace and comments
+    boolean hasSameTokens(LexedDocument other) {
+        return Arrays.equals(types, other.types) && Arrays.equals(texts, other.texts);
+    }
+
+    // Returns the index of the first token which starts at or after the position
+    int firstTokenFrom(Position position) {
+        var low = 0;
+        var high = size();
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (compareStart(mid, position) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    int compareStart(int index, Position position) {
+        return lines[index] != position.line()
+            ? Integer.compare(lines[index], position.line())
+            : Integer.compare(characters[index], position.character());
+    }
+}
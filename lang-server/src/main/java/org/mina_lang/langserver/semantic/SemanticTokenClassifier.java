@@ -0,0 +1,149 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.semantic;
+
+import com.opencastsoftware.yvette.Range;
+import org.eclipse.collections.api.set.MutableSet;
+import org.eclipse.collections.impl.factory.Sets;
+import org.mina_lang.common.names.*;
+import org.mina_lang.syntax.*;
+
+import java.util.Arrays;
+
+import static org.mina_lang.langserver.semantic.SemanticTokensProvider.*;
+
+// Classifies the tokens of a document which name something, using the names in its renamed syntax tree.
+// Local names are only classified once the whole tree has been visited,
+// as the syntax tree is visited bottom-up so the uses of a parameter can be visited before the parameter itself.
+class SemanticTokenClassifier implements SyntaxNodeVisitor {
+    private final LexedDocument lexed;
+    private final Named[] tokenNames;
+    private final boolean[] definitions;
+    private final boolean[] typeReferences;
+    private final MutableSet<LocalName> parameters = Sets.mutable.empty();
+
+    SemanticTokenClassifier(LexedDocument lexed) {
+        this.lexed = lexed;
+        this.tokenNames = new Named[lexed.size()];
+        this.definitions = new boolean[lexed.size()];
+        this.typeReferences = new boolean[lexed.size()];
+    }
+
+    static ClassifiedTokens classify(LexedDocument lexed, NamespaceNode<Name> namespace) {
+        var classifier = new SemanticTokenClassifier(lexed);
+        namespace.accept(classifier);
+        return classifier.toClassifiedTokens();
+    }
+
+    ClassifiedTokens toClassifiedTokens() {
+        var tokenIndices = new int[tokenNames.length];
+        var tokenTypes = new int[tokenNames.length];
+        var tokenModifiers = new int[tokenNames.length];
+        var count = 0;
+
+        for (var index = 0; index < tokenNames.length; index++) {
+            var name = tokenNames[index];
+            if (name == null) {
+                continue;
+            }
+
+            var modifiers = definitions[index] ? DECLARATION : 0;
+            int type;
+
+            if (name instanceof DataName) {
+                type = TYPE;
+            } else if (name instanceof ConstructorName) {
+                type = ENUM_MEMBER;
+            } else if (name instanceof FieldName) {
+                type = PROPERTY;
+            } else if (name instanceof TypeVarName) {
+                type = TYPE_PARAMETER;
+            } else if (name instanceof BuiltInName) {
+                type = typeReferences[index] ? TYPE : FUNCTION;
+                modifiers |= DEFAULT_LIBRARY;
+            } else if (name instanceof LocalName local && parameters.contains(local)) {
+                type = PARAMETER;
+                modifiers |= READONLY;
+            } else {
+                type = VARIABLE;
+                modifiers |= READONLY;
+            }
+
+            tokenIndices[count] = index;
+            tokenTypes[count] = type;
+            tokenModifiers[count] = modifiers;
+            count++;
+        }
+
+        return new ClassifiedTokens(
+            Arrays.copyOf(tokenIndices, count),
+            Arrays.copyOf(tokenTypes, count),
+            Arrays.copyOf(tokenModifiers, count));
+    }
+
+    // Qualified ids end with the name, and other nodes start with their name,
+    // so each node's name is found by searching for its text from the end or the start of its range
+    int findToken(Range range, String text, boolean searchFromEnd) {
+        var found = -1;
+        for (var index = lexed.firstTokenFrom(range.start()); index < lexed.size() && lexed.compareStart(index, range.end()) < 0; index++) {
+            if (lexed.texts()[index].equals(text)) {
+                found = index;
+                if (!searchFromEnd) {
+                    break;
+                }
+            }
+        }
+        return found;
+    }
+
+    void addToken(Object name, Range range, String text, boolean searchFromEnd, boolean definition, boolean typeReference) {
+        if (!(name instanceof Named named) || name instanceof NamespaceName) {
+            return;
+        }
+
+        var index = findToken(range, text, searchFromEnd);
+        if (index >= 0) {
+            tokenNames[index] = named;
+            definitions[index] = definition;
+            typeReferences[index] = typeReference;
+        }
+    }
+
+    @Override
+    public void visit(SyntaxNode node) {
+        if (node instanceof ReferenceNode<?> ref) {
+            addToken(ref.meta().meta(), ref.id().range(), ref.id().name(), true, false, false);
+        } else if (node instanceof TypeReferenceNode<?> tyRef) {
+            addToken(tyRef.meta().meta(), tyRef.id().range(), tyRef.id().name(), true, false, true);
+        } else if (node instanceof ConstructorPatternNode<?> constrPat) {
+            addToken(constrPat.meta().meta(), constrPat.id().range(), constrPat.id().name(), true, false, false);
+        } else if (node instanceof FieldPatternNode<?> fieldPat) {
+            addToken(fieldPat.meta().meta(), fieldPat.range(), fieldPat.field(), false, false, false);
+        } else if (node instanceof ForAllVarNode<?> forAll) {
+            addToken(forAll.meta().meta(), forAll.range(), forAll.name(), false, false, false);
+        } else if (node instanceof ExistsVarNode<?> exists) {
+            addToken(exists.meta().meta(), exists.range(), exists.name(), false, false, false);
+        } else if (node instanceof ParamNode<?> param) {
+            if (param.meta().meta() instanceof LocalName local) {
+                parameters.add(local);
+            }
+            addToken(param.meta().meta(), param.range(), param.name(), false, true, false);
+        } else if (node instanceof IdPatternNode<?> idPat) {
+            addToken(idPat.meta().meta(), idPat.range(), idPat.name(), false, true, false);
+        } else if (node instanceof AliasPatternNode<?> aliasPat) {
+            addToken(aliasPat.meta().meta(), aliasPat.range(), aliasPat.alias(), false, true, false);
+        } else if (node instanceof LetNode<?> let) {
+            addToken(let.meta().meta(), let.range(), let.name(), false, true, false);
+        } else if (node instanceof LetFnNode<?> letFn) {
+            addToken(letFn.meta().meta(), letFn.range(), letFn.name(), false, true, false);
+        } else if (node instanceof DataNode<?> data) {
+            addToken(data.meta().meta(), data.range(), data.name(), false, true, false);
+        } else if (node instanceof ConstructorNode<?> constr) {
+            addToken(constr.meta().meta(), constr.range(), constr.name(), false, true, false);
+        } else if (node instanceof ConstructorParamNode<?> constrParam) {
+            addToken(constrParam.meta().meta(), constrParam.range(), constrParam.name(), false, true, false);
+        }
+    }
+}
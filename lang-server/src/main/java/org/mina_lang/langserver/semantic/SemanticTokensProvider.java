@@ -0,0 +1,225 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.semantic;
+
+import org.eclipse.lsp4j.*;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.mina_lang.common.names.Name;
+import org.mina_lang.langserver.util.Conversions;
+import org.mina_lang.syntax.NamespaceNode;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Provides the semantic tokens of the open documents.
+// The tokens of the latest version of each document are cached along with its significant lexer tokens,
+// so that a version which only changes whitespace or comments reuses the classification of the previous version
+// without waiting for the document to be analysed.
+// The token array most recently sent for each document is kept so that deltas can be computed against it.
+public class SemanticTokensProvider {
+    static final int TYPE = 0;
+    static final int TYPE_PARAMETER = 1;
+    static final int ENUM_MEMBER = 2;
+    static final int PROPERTY = 3;
+    static final int FUNCTION = 4;
+    static final int VARIABLE = 5;
+    static final int PARAMETER = 6;
+
+    static final int DECLARATION = 1;
+    static final int READONLY = 1 << 1;
+    static final int DEFAULT_LIBRARY = 1 << 2;
+
+    public static final SemanticTokensLegend LEGEND = new SemanticTokensLegend(
+        List.of(
+            SemanticTokenTypes.Type,
+            SemanticTokenTypes.TypeParameter,
+            SemanticTokenTypes.EnumMember,
+            SemanticTokenTypes.Property,
+            SemanticTokenTypes.Function,
+            SemanticTokenTypes.Variable,
+            SemanticTokenTypes.Parameter),
+        List.of(
+            SemanticTokenModifiers.Declaration,
+            SemanticTokenModifiers.Readonly,
+            SemanticTokenModifiers.DefaultLibrary));
+
+    // The indices of the classified lexer tokens, in document order, with their token types and modifiers
+    record ClassifiedTokens(int[] tokenIndices, int[] tokenTypes, int[] tokenModifiers) {
+        static final ClassifiedTokens EMPTY = new ClassifiedTokens(new int[0], new int[0], new int[0]);
+    }
+
+    record LexedVersion(int version, LexedDocument lexed) {}
+
+    record DocumentTokens(String resultId, int version, LexedDocument lexed, ClassifiedTokens classified, int[] data) {}
+
+    private final AtomicLong resultIds = new AtomicLong(0);
+
+    private final ConcurrentHashMap<String, LexedVersion> lexedDocuments = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, DocumentTokens> latestTokens = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, DocumentTokens> sentTokens = new ConcurrentHashMap<>();
+
+    public void removeDocument(String uri) {
+        lexedDocuments.remove(uri);
+        latestTokens.remove(uri);
+        sentTokens.remove(uri);
+    }
+
+    // Returns false when the tokens of the document can only be classified by analysing the document
+    public boolean reuseTokens(TextDocumentItem document) {
+        var latest = latestTokens.get(document.getUri());
+
+        if (latest == null) {
+            return false;
+        } else if (latest.version() == document.getVersion()) {
+            return true;
+        }
+
+        var lexed = lex(document);
+
+        if (!lexed.hasSameTokens(latest.lexed())) {
+            return false;
+        }
+
+        updateTokens(document, lexed, latest.classified());
+
+        return true;
+    }
+
+    // Documents which can't be renamed keep the tokens of their last version that could be
+    public void classifyTokens(TextDocumentItem document, Optional<NamespaceNode<Name>> renamed) {
+        var lexed = lex(document);
+
+        if (renamed.isPresent()) {
+            updateTokens(document, lexed, SemanticTokenClassifier.classify(lexed, renamed.get()));
+        } else if (!latestTokens.containsKey(document.getUri())) {
+            updateTokens(document, lexed, ClassifiedTokens.EMPTY);
+        }
+    }
+
+    public SemanticTokens full(String uri) {
+        var latest = latestTokens.get(uri);
+
+        if (latest == null) {
+            return new SemanticTokens(List.of());
+        }
+
+        sentTokens.put(uri, latest);
+
+        return new SemanticTokens(latest.resultId(), boxed(latest.data(), 0, latest.data().length));
+    }
+
+    public Either<SemanticTokens, SemanticTokensDelta> fullDelta(String uri, String previousResultId) {
+        var latest = latestTokens.get(uri);
+        var previous = sentTokens.get(uri);
+
+        if (latest == null || previous == null || !previous.resultId().equals(previousResultId)) {
+            return Either.forLeft(full(uri));
+        }
+
+        sentTokens.put(uri, latest);
+
+        var edits = previous == latest
+            ? List.<SemanticTokensEdit>of()
+            : List.of(diff(previous.data(), latest.data()));
+
+        return Either.forRight(new SemanticTokensDelta(edits, latest.resultId()));
+    }
+
+    public SemanticTokens range(String uri, Range range) {
+        var latest = latestTokens.get(uri);
+
+        if (latest == null) {
+            return new SemanticTokens(List.of());
+        }
+
+        var data = encode(latest.lexed(), latest.classified(), Optional.of(range));
+
+        return new SemanticTokens(boxed(data, 0, data.length));
+    }
+
+    LexedDocument lex(TextDocumentItem document) {
+        var lexedVersion = lexedDocuments.compute(document.getUri(), (uri, existing) -> {
+            return existing != null && existing.version() == document.getVersion()
+                ? existing
+                : new LexedVersion(document.getVersion(), LexedDocument.lex(document.getText()));
+        });
+        return lexedVersion.lexed();
+    }
+
+    void updateTokens(TextDocumentItem document, LexedDocument lexed, ClassifiedTokens classified) {
+        var resultId = String.valueOf(resultIds.incrementAndGet());
+        var data = encode(lexed, classified, Optional.empty());
+        var updated = new DocumentTokens(resultId, document.getVersion(), lexed, classified, data);
+
+        // Tokens for different versions of a document may be classified out of order
+        latestTokens.merge(document.getUri(), updated, (existing, proposed) -> {
+            return proposed.version() >= existing.version() ? proposed : existing;
+        });
+    }
+
+    // Encodes the classified tokens using the relative positions of the protocol,
+    // optionally only including the tokens which start within a range
+    static int[] encode(LexedDocument lexed, ClassifiedTokens classified, Optional<Range> range) {
+        var rangeStart = range.map(r -> Conversions.toMinaPosition(r.getStart()));
+        var rangeEnd = range.map(r -> Conversions.toMinaPosition(r.getEnd()));
+
+        var indices = classified.tokenIndices();
+        var data = new int[indices.length * 5];
+        var dataSize = 0;
+        var previousLine = 0;
+        var previousCharacter = 0;
+
+        for (var i = 0; i < indices.length; i++) {
+            var tokenIndex = indices[i];
+
+            if (rangeStart.isPresent() && lexed.compareStart(tokenIndex, rangeStart.get()) < 0) {
+                continue;
+            } else if (rangeEnd.isPresent() && lexed.compareStart(tokenIndex, rangeEnd.get()) >= 0) {
+                break;
+            }
+
+            var line = lexed.lines()[tokenIndex];
+            var character = lexed.characters()[tokenIndex];
+
+            data[dataSize++] = line - previousLine;
+            data[dataSize++] = line == previousLine ? character - previousCharacter : character;
+            data[dataSize++] = lexed.length(tokenIndex);
+            data[dataSize++] = classified.tokenTypes()[i];
+            data[dataSize++] = classified.tokenModifiers()[i];
+
+            previousLine = line;
+            previousCharacter = character;
+        }
+
+        return Arrays.copyOf(data, dataSize);
+    }
+
+    // Replaces the tokens between the common prefix and suffix of the previous and current arrays
+    static SemanticTokensEdit diff(int[] previous, int[] current) {
+        var maxCommon = Math.min(previous.length, current.length);
+
+        var prefix = 0;
+        while (prefix < maxCommon && previous[prefix] == current[prefix]) {
+            prefix++;
+        }
+
+        var suffix = 0;
+        while (suffix < maxCommon - prefix && previous[previous.length - 1 - suffix] == current[current.length - 1 - suffix]) {
+            suffix++;
+        }
+
+        return new SemanticTokensEdit(
+            prefix,
+            previous.length - prefix - suffix,
+            boxed(current, prefix, current.length - suffix));
+    }
+
+    static List<Integer> boxed(int[] data, int from, int to) {
+        return Arrays.stream(data, from, to).boxed().toList();
+    }
+}
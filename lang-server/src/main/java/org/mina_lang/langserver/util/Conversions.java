@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2023-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.langserver.util;
@@ -7,6 +7,11 @@ package org.mina_lang.langserver.util;
 import ch.epfl.scala.bsp4j.ShowMessageParams;
 import com.opencastsoftware.yvette.Severity;
 import org.eclipse.lsp4j.*;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
+import org.mina_lang.common.names.ConstructorName;
+import org.mina_lang.common.names.DataName;
+import org.mina_lang.common.names.FieldName;
+import org.mina_lang.common.names.Named;
 
 public class Conversions {
     public static DiagnosticSeverity toLspSeverity(ch.epfl.scala.bsp4j.DiagnosticSeverity bspSeverity) {
@@ -25,12 +30,16 @@ public class Conversions {
         return new Position(minaPosition.line(), minaPosition.character());
     }
 
+    public static com.opencastsoftware.yvette.Position toMinaPosition(Position lspPosition) {
+        return new com.opencastsoftware.yvette.Position(lspPosition.getLine(), lspPosition.getCharacter());
+    }
+
     public static Range toLspRange(ch.epfl.scala.bsp4j.Range bspRange) {
         return new Range(toLspPosition(bspRange.getStart()), toLspPosition(bspRange.getEnd()));
     }
 
     public static Range toLspRange(com.opencastsoftware.yvette.Range minaRange) {
-        return new Range(toLspPosition(minaRange.start()), toLspPosition(minaRange.start()));
+        return new Range(toLspPosition(minaRange.start()), toLspPosition(minaRange.end()));
     }
 
     public static Location toLspLocation(ch.epfl.scala.bsp4j.Location bspLocation) {
@@ -88,6 +97,28 @@ public class Conversions {
         return diagnostic;
     }
 
+    public static SymbolKind toLspSymbolKind(Named minaName) {
+        if (minaName instanceof DataName) {
+            return SymbolKind.Class;
+        } else if (minaName instanceof ConstructorName) {
+            return SymbolKind.Constructor;
+        } else if (minaName instanceof FieldName) {
+            return SymbolKind.Field;
+        } else {
+            return SymbolKind.Function;
+        }
+    }
+
+    public static WorkspaceSymbol toLspWorkspaceSymbol(Named minaName, org.mina_lang.common.Location minaLocation) {
+        var canonicalName = minaName.canonicalName();
+        var containerName = canonicalName.substring(0, Math.max(0, canonicalName.length() - minaName.localName().length() - 1));
+        return new WorkspaceSymbol(
+            minaName.localName(),
+            toLspSymbolKind(minaName),
+            Either.forLeft(toLspLocation(minaLocation)),
+            containerName);
+    }
+
     public static PublishDiagnosticsParams toLspPublishDiagnostics(ch.epfl.scala.bsp4j.PublishDiagnosticsParams bspPublishDiagnostics) {
         return new PublishDiagnosticsParams(
             bspPublishDiagnostics.getTextDocument().getUri(),
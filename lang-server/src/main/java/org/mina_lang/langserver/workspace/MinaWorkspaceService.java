@@ -1,5 +1,5 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.langserver.workspace;
@@ -8,12 +8,18 @@ import dev.dirs.BaseDirectories;
 import org.eclipse.lsp4j.DidChangeConfigurationParams;
 import org.eclipse.lsp4j.DidChangeWatchedFilesParams;
 import org.eclipse.lsp4j.DidChangeWorkspaceFoldersParams;
+import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.WorkspaceFolder;
+import org.eclipse.lsp4j.WorkspaceSymbol;
+import org.eclipse.lsp4j.WorkspaceSymbolParams;
+import org.eclipse.lsp4j.jsonrpc.messages.Either;
 import org.eclipse.lsp4j.services.WorkspaceService;
 import org.mina_lang.langserver.MinaLanguageServer;
 import org.mina_lang.langserver.bsp.BuildServerConnector;
 import org.mina_lang.langserver.bsp.BuildServerProcessLauncher;
 import org.mina_lang.langserver.bsp.ConnectionFileDiscovery;
+import org.mina_lang.langserver.scheduling.RequestScheduler.Lane;
+import org.mina_lang.langserver.util.Conversions;
 import org.mina_lang.langserver.util.DaemonThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +32,8 @@ import java.util.concurrent.*;
 public class MinaWorkspaceService implements WorkspaceService {
     private static Logger logger = LoggerFactory.getLogger(MinaWorkspaceService.class);
 
+    static final int WORKSPACE_SYMBOL_LIMIT = 256;
+
     private MinaLanguageServer server;
     private BuildServerProcessLauncher launcher;
     private ConnectionFileDiscovery discovery;
@@ -75,6 +83,19 @@ public class MinaWorkspaceService implements WorkspaceService {
         }
     }
 
+    @Override
+    public CompletableFuture<Either<List<? extends SymbolInformation>, List<? extends WorkspaceSymbol>>> symbol(WorkspaceSymbolParams params) {
+        return server.ifInitializedAsync(cancelToken -> {
+            return server.whenWorkspaceCacheLoaded(Lane.INTERACTIVE).thenApply(loaded -> {
+                var symbols = server.getSymbolIndex()
+                    .search(params.getQuery(), WORKSPACE_SYMBOL_LIMIT)
+                    .collect(occurrence -> Conversions.toLspWorkspaceSymbol(occurrence.symbol(), occurrence.location()))
+                    .toList();
+                return Either.forRight(symbols);
+            });
+        });
+    }
+
     public void setWorkspaceFolders(List<WorkspaceFolder> folders) {
         workspaceFolders.clear();
         workspaceFolders.addAll(folders);
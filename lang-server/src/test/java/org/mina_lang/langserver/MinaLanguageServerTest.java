@@ -1,9 +1,10 @@
 /*
- * SPDX-FileCopyrightText:  © 2022-2023 David Gregory
+ * SPDX-FileCopyrightText:  © 2022-2025 David Gregory
  * SPDX-License-Identifier: Apache-2.0
  */
 package org.mina_lang.langserver;
 
+import com.google.gson.JsonObject;
 import org.eclipse.collections.impl.block.function.checked.ThrowingFunction;
 import org.eclipse.lsp4j.*;
 import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
@@ -12,10 +13,12 @@ import org.eclipse.lsp4j.services.LanguageClient;
 import org.eclipse.lsp4j.services.LanguageServer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mina_lang.BuildInfo;
+import org.mina_lang.langserver.cache.WorkspaceCache;
 import org.newsclub.net.unix.AFUNIXServerSocket;
 import picocli.CommandLine;
 
@@ -273,6 +276,22 @@ public class MinaLanguageServerTest {
         assertThat(exitCode.join(), is(0));
     }
 
+    @Test
+    void sendsSchedulerMetricsOnlyToClientsWhichOptIn() {
+        var server = new MinaLanguageServer(new WorkspaceCache(tempDir.resolve("cache")));
+        var capabilities = new ClientCapabilities();
+
+        assertThat(server.supportsSchedulerMetrics(capabilities), is(false));
+
+        var experimental = new JsonObject();
+        experimental.addProperty("schedulerMetrics", false);
+        capabilities.setExperimental(experimental);
+        assertThat(server.supportsSchedulerMetrics(capabilities), is(false));
+
+        experimental.addProperty("schedulerMetrics", true);
+        assertThat(server.supportsSchedulerMetrics(capabilities), is(true));
+    }
+
     static Stream<ThrowingFunction<BiConsumer<TestClient, LanguageServer>, CompletableFuture<Integer>>> clientServerProvider() {
         return Stream.of(
                 /*MinaLanguageServerTest::withInOutStreams,*/
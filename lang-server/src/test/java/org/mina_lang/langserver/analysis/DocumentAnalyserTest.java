@@ -0,0 +1,183 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.analysis;
+
+import org.eclipse.collections.api.list.ImmutableList;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.junit.jupiter.api.Test;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.names.LocalName;
+import org.mina_lang.syntax.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class DocumentAnalyserTest {
+    static final String URI = "file:///Mina/Test/Analysis.mina";
+
+    static final String SOURCE = """
+        namespace Mina/Test/Analysis {
+            data Option[A] {
+                case Some(value: A)
+                case None()
+            }
+
+            let some: [A] { A -> Option[A] } = Some
+
+            let one = 1
+
+            let someOne = some(one)
+        }""";
+
+    DeclarationNode<Attributes> getLet(NamespaceNode<Attributes> namespace, String name) {
+        return namespace.declarationGroups()
+            .flatCollect(group -> group)
+            .detect(decl -> decl instanceof LetNode<Attributes> let && let.name().equals(name));
+    }
+
+    @Test
+    void reusesDeclarationsWithUnchangedDependencies() {
+        var analyser = new DocumentAnalyser();
+
+        var firstAnalysis = analyser.analyse(new TextDocumentItem(URI, "mina", 1, SOURCE));
+        assertThat(firstAnalysis.diagnostics(), is(empty()));
+
+        var declarationCache = analyser.getDeclarationCache(URI);
+        assertThat(declarationCache.hitCount(), is(0));
+        assertThat(declarationCache.size(), is(4));
+
+        // The type of `one` doesn't change, so only `one` needs to be inferred again
+        var secondAnalysis = analyser.analyse(new TextDocumentItem(URI, "mina", 2, SOURCE.replace("let one = 1", "let one = 2")));
+        assertThat(secondAnalysis.diagnostics(), is(empty()));
+        assertThat(declarationCache.hitCount(), is(3));
+
+        var firstNamespace = firstAnalysis.typechecked().get();
+        var secondNamespace = secondAnalysis.typechecked().get();
+        assertThat(getLet(secondNamespace, "someOne"), is(sameInstance(getLet(firstNamespace, "someOne"))));
+
+        // The type of `one` changes, so `someOne` needs to be inferred again too
+        var thirdAnalysis = analyser.analyse(new TextDocumentItem(URI, "mina", 3, SOURCE.replace("let one = 1", "let one = 'a'")));
+        assertThat(thirdAnalysis.diagnostics(), is(empty()));
+        assertThat(declarationCache.hitCount(), is(5));
+        assertThat(declarationCache.size(), is(4));
+
+        var thirdNamespace = thirdAnalysis.typechecked().get();
+        assertThat(getLet(thirdNamespace, "someOne"), is(not(equalTo(getLet(secondNamespace, "someOne")))));
+    }
+
+    @Test
+    void shiftsDeclarationsWhichHaveMoved() {
+        var analyser = new DocumentAnalyser();
+
+        var firstAnalysis = analyser.analyse(new TextDocumentItem(URI, "mina", 1, SOURCE));
+        assertThat(firstAnalysis.diagnostics(), is(empty()));
+
+        var movedSource = SOURCE.replace("namespace Mina/Test/Analysis {\n", "namespace Mina/Test/Analysis {\n\n");
+        var secondAnalysis = analyser.analyse(new TextDocumentItem(URI, "mina", 2, movedSource));
+        assertThat(secondAnalysis.diagnostics(), is(empty()));
+        assertThat(analyser.getDeclarationCache(URI).hitCount(), is(4));
+
+        var firstSomeOne = getLet(firstAnalysis.typechecked().get(), "someOne");
+        var secondSomeOne = getLet(secondAnalysis.typechecked().get(), "someOne");
+        var renamedSomeOne = secondAnalysis.renamed().get().declarationGroups()
+            .flatCollect(group -> group)
+            .detect(decl -> decl instanceof LetNode<?> let && let.name().equals("someOne"));
+
+        assertThat(secondSomeOne.range(), is(equalTo(renamedSomeOne.range())));
+        assertThat(secondSomeOne.range().start().line(), is(firstSomeOne.range().start().line() + 1));
+        assertThat(secondSomeOne.meta().meta(), is(equalTo(firstSomeOne.meta().meta())));
+    }
+
+    static final String RENUMBERING_SOURCE = """
+        namespace Mina/Test/Renumbering {
+            let first = 1
+
+            let second(a: Int): Int = {
+                let b = a
+                b
+            }
+        }""";
+
+    ImmutableList<LocalName> localNames(NamespaceNode<?> namespace) {
+        var localNames = Lists.mutable.<LocalName>empty();
+        namespace.accept(new SyntaxNodeVisitor() {
+            @Override
+            public void visit(SyntaxNode node) {
+                if (node instanceof MetaNode<?> metaNode) {
+                    var name = metaNode.meta().meta() instanceof Attributes attributes
+                        ? attributes.name()
+                        : metaNode.meta().meta();
+                    if (name instanceof LocalName local) {
+                        localNames.add(local);
+                    }
+                }
+            }
+        });
+        return localNames.toImmutable();
+    }
+
+    @Test
+    void renumbersLocalsOfDeclarationsAfterEditsToEarlierDeclarations() {
+        var analyser = new DocumentAnalyser();
+
+        var firstAnalysis = analyser.analyse(new TextDocumentItem(URI, "mina", 1, RENUMBERING_SOURCE));
+        assertThat(firstAnalysis.diagnostics(), is(empty()));
+
+        // The new local in `first` shifts the indices that the renamer gives to the locals of `second`
+        var editedSource = RENUMBERING_SOURCE.replace("let first = 1", """
+            let first = {
+                    let c = 1
+                    c
+                }""");
+
+        var secondAnalysis = analyser.analyse(new TextDocumentItem(URI, "mina", 2, editedSource));
+        assertThat(secondAnalysis.diagnostics(), is(empty()));
+        assertThat(analyser.getDeclarationCache(URI).hitCount(), is(1));
+
+        var renamedLocals = localNames(secondAnalysis.renamed().get());
+        var typecheckedLocals = localNames(secondAnalysis.typechecked().get());
+
+        assertThat(typecheckedLocals.toList(), is(equalTo(renamedLocals.toList())));
+        assertThat(typecheckedLocals.toSet().size(), is(3));
+    }
+
+    @Test
+    void recordsWhetherImportsWereResolved() {
+        var analyser = new DocumentAnalyser();
+        analyser.analyse(new TextDocumentItem(URI, "mina", 1, SOURCE));
+
+        var workspaceImport = analyser.analyse(new TextDocumentItem("file:///Mina/Test/Imports.mina", "mina", 1, """
+            namespace Mina/Test/Imports {
+                import Mina/Test/Analysis.{some}
+
+                let two = some(2)
+            }"""));
+
+        assertThat(workspaceImport.diagnostics(), is(empty()));
+        assertThat(workspaceImport.importsResolved(), is(true));
+
+        // The namespace may be on the build classpath, which isn't searched
+        var classpathImport = analyser.analyse(new TextDocumentItem("file:///Mina/Test/Classpath.mina", "mina", 1, """
+            namespace Mina/Test/Classpath {
+                import Mina/Test/Elsewhere.{some}
+
+                let two = some(2)
+            }"""));
+
+        assertThat(classpathImport.diagnostics(), is(not(empty())));
+        assertThat(classpathImport.importsResolved(), is(false));
+    }
+
+    @Test
+    void skipsTypecheckingWhenParsingFails() {
+        var analyser = new DocumentAnalyser();
+
+        var analysis = analyser.analyse(new TextDocumentItem(URI, "mina", 1, SOURCE.replace("let one = 1", "let one =")));
+
+        assertThat(analysis.diagnostics(), is(not(empty())));
+        assertThat(analysis.typechecked().isPresent(), is(false));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.analysis;
+
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.jupiter.api.Test;
+import org.mina_lang.common.Attributes;
+import org.mina_lang.common.Meta;
+import org.mina_lang.common.names.*;
+import org.mina_lang.common.types.*;
+import org.mina_lang.syntax.LambdaNode;
+import org.mina_lang.syntax.LetNode;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mina_lang.syntax.SyntaxNodes.*;
+
+public class LocalRenumberingTransformerTest {
+    static final LetName LET_NAME = new LetName(
+        new QualifiedName(new NamespaceName(Lists.immutable.of("Mina", "Test"), "Renumbering"), "identity"));
+
+    /*- let identity = x -> x */
+    LetNode<Attributes> identity(Type paramType) {
+        var paramName = new LocalName("x", 0);
+        var fnType = Type.function(paramType, paramType);
+        return letNode(
+            Meta.of(LET_NAME, fnType),
+            "identity",
+            lambdaNode(
+                Meta.nameless(fnType),
+                Lists.immutable.of(paramNode(Meta.of(paramName, paramType), "x")),
+                refNode(Meta.of(paramName, paramType), "x")));
+    }
+
+    @Test
+    void shiftsLocalsAndReplacesSyntheticVars() {
+        var cachedVar = new SyntheticVar(0, TypeKind.INSTANCE);
+        var cachedDeclaration = identity(cachedVar);
+
+        // The current run has already given out the id of the cached synthetic variable
+        var varSupply = new UnsolvedVariableSupply();
+        varSupply.newSyntheticVar(TypeKind.INSTANCE);
+
+        assertThat(LocalRenumberingTransformer.containsSyntheticVars(cachedDeclaration), is(true));
+
+        var renumbered = (LetNode<Attributes>) cachedDeclaration.accept(new LocalRenumberingTransformer(2, varSupply));
+        var lambda = (LambdaNode<Attributes>) renumbered.expr();
+        var param = lambda.params().getFirst();
+
+        assertThat(param.meta().meta().name(), is(equalTo(new LocalName("x", 2))));
+        assertThat(lambda.body().meta().meta().name(), is(equalTo(new LocalName("x", 2))));
+
+        var freshVar = (SyntheticVar) param.meta().meta().sort();
+        assertThat(freshVar.id(), is(not(cachedVar.id())));
+        assertThat(freshVar.kind(), is(TypeKind.INSTANCE));
+
+        // Every occurrence of a cached synthetic variable is replaced by the same fresh variable
+        assertThat(lambda.body().meta().meta().sort(), is(sameInstance(freshVar)));
+        assertThat(renumbered.meta().meta().sort(), is(equalTo(Type.function(freshVar, freshVar))));
+    }
+
+    @Test
+    void keepsGroundTypes() {
+        var cachedDeclaration = identity(Type.INT);
+
+        assertThat(LocalRenumberingTransformer.containsSyntheticVars(cachedDeclaration), is(false));
+
+        var renumbered = (LetNode<Attributes>) cachedDeclaration.accept(new LocalRenumberingTransformer(1, new UnsolvedVariableSupply()));
+        var param = ((LambdaNode<Attributes>) renumbered.expr()).params().getFirst();
+
+        assertThat(param.meta().meta().name(), is(equalTo(new LocalName("x", 1))));
+        assertThat(param.meta().meta().sort(), is(sameInstance(Type.INT)));
+        assertThat(renumbered.meta().meta().sort(), is(sameInstance(cachedDeclaration.meta().meta().sort())));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.cache;
+
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mina_lang.common.names.Named;
+import org.mina_lang.common.names.NamespaceName;
+import org.mina_lang.langserver.analysis.DocumentAnalyser;
+import org.mina_lang.langserver.index.SymbolIndex;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class WorkspaceCacheTest {
+    static final String SOURCE = """
+        namespace Mina/Test/Options {
+            data Option[A] {
+                case Some(value: A)
+                case None()
+            }
+
+            let some: [A] { A -> Option[A] } = Some
+        }""";
+
+    static final NamespaceName NAMESPACE = new NamespaceName(Lists.immutable.of("Mina", "Test"), "Options");
+
+    @TempDir
+    Path tempDir;
+
+    Path storeSource(WorkspaceCache cache) throws IOException {
+        var sourceFile = Files.writeString(tempDir.resolve("Options.mina"), SOURCE);
+        var sourceUri = sourceFile.toUri();
+
+        var analysis = new DocumentAnalyser().analyse(new TextDocumentItem(sourceUri.toString(), "mina", 1, SOURCE));
+        assertThat(analysis.diagnostics(), is(empty()));
+
+        var typechecked = analysis.typechecked().get();
+        var symbols = SymbolIndex.symbolsOf(analysis.renamed().get());
+
+        cache.storeDocument(sourceUri, SOURCE, typechecked.getName(), typechecked.getScope(), symbols);
+
+        return sourceFile;
+    }
+
+    @Test
+    void loadsStoredEntries() throws IOException {
+        var cacheDir = tempDir.resolve("cache");
+        var sourceFile = storeSource(new WorkspaceCache(cacheDir));
+
+        var cache = new WorkspaceCache(cacheDir);
+        var entries = cache.load();
+        assertThat(entries.toList(), hasSize(1));
+
+        var entry = entries.getFirst();
+        assertThat(entry.uri(), is(sourceFile.toUri()));
+        assertThat(entry.namespace(), is(NAMESPACE));
+        assertThat(cache.isStale(entry), is(false));
+
+        var symbols = entry.symbols().get();
+        assertThat(symbols.definitions().collect(Named::localName), containsInAnyOrder("Option", "Some", "value", "None", "some"));
+        assertThat(symbols.definitionRanges().toList(), hasSize(5));
+        assertThat(symbols.references().toList(), is(not(empty())));
+
+        var scope = cache.lookupScope(NAMESPACE).get();
+        assertThat(scope.values().keysView(), containsInAnyOrder("some", "Some", "None"));
+        assertThat(scope.types().keysView(), contains("Option"));
+    }
+
+    @Test
+    void evictsStaleEntries() throws IOException {
+        var cacheDir = tempDir.resolve("cache");
+        var sourceFile = storeSource(new WorkspaceCache(cacheDir));
+
+        Files.writeString(sourceFile, SOURCE.replace("let some", "let someValue"));
+
+        var cache = new WorkspaceCache(cacheDir);
+        var entry = cache.load().getFirst();
+        assertThat(cache.isStale(entry), is(true));
+
+        cache.evict(entry);
+        assertThat(cache.lookupScope(NAMESPACE), is(Optional.empty()));
+        assertThat(new WorkspaceCache(cacheDir).load().toList(), is(empty()));
+    }
+
+    @Test
+    void loadsOnlyTheEntriesOfTheSelectedWorkspace() throws IOException {
+        var cacheDir = tempDir.resolve("cache");
+        var workspace = tempDir.toUri();
+        var otherWorkspace = tempDir.resolve("other").toUri();
+
+        var cache = new WorkspaceCache(cacheDir);
+        cache.selectWorkspace(List.of(workspace));
+        storeSource(cache);
+
+        var otherCache = new WorkspaceCache(cacheDir);
+        otherCache.selectWorkspace(List.of(otherWorkspace));
+        assertThat(otherCache.getCacheDirectory(), is(not(cache.getCacheDirectory())));
+        assertThat(otherCache.load().toList(), is(empty()));
+        assertThat(otherCache.lookupScope(NAMESPACE), is(Optional.empty()));
+
+        var sameCache = new WorkspaceCache(cacheDir);
+        sameCache.selectWorkspace(List.of(workspace));
+        assertThat(sameCache.load().toList(), hasSize(1));
+        assertThat(sameCache.lookupScope(NAMESPACE).isPresent(), is(true));
+    }
+
+    @Test
+    void discardsUnreadableEntries() throws IOException {
+        var cacheDir = Files.createDirectories(tempDir.resolve("cache"));
+        var entryFile = Files.write(cacheDir.resolve("unreadable.entry"), new byte[] { 1, 2, 3 });
+
+        assertThat(new WorkspaceCache(cacheDir).load().toList(), is(empty()));
+        assertThat(Files.exists(entryFile), is(false));
+    }
+}
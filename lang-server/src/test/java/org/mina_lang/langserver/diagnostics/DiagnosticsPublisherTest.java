@@ -0,0 +1,144 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.diagnostics;
+
+import org.eclipse.lsp4j.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class DiagnosticsPublisherTest {
+    static final String URI = "file:///workspace/Example.mina";
+    static final String TARGET = "file:///workspace/?id=main";
+    static final String TEST_TARGET = "file:///workspace/?id=test";
+    static final Duration WINDOW = Duration.ofMillis(100);
+
+    LinkedBlockingQueue<PublishDiagnosticsParams> published = new LinkedBlockingQueue<>();
+    DiagnosticsPublisher publisher = new DiagnosticsPublisher(published::add, WINDOW);
+
+    @AfterEach
+    void teardown() {
+        publisher.shutdown();
+    }
+
+    static Diagnostic error(String message) {
+        return new Diagnostic(new Range(new Position(0, 0), new Position(0, 5)), message, DiagnosticSeverity.Error, "minac");
+    }
+
+    PublishDiagnosticsParams nextPublished() throws InterruptedException {
+        return published.poll(5, TimeUnit.SECONDS);
+    }
+
+    void assertNothingPublished() throws InterruptedException {
+        assertThat(published.poll(WINDOW.toMillis() * 3, TimeUnit.MILLISECONDS), is(nullValue()));
+    }
+
+    @Test
+    void coalescesUpdatesWithinWindow() throws InterruptedException {
+        publisher.publishAnalysis(URI, 1, List.of(error("First")));
+        publisher.publishAnalysis(URI, 2, List.of(error("Second")));
+        publisher.publishAnalysis(URI, 3, List.of(error("Third")));
+
+        var params = nextPublished();
+        assertThat(params.getVersion(), is(3));
+        assertThat(params.getDiagnostics(), contains(error("Third")));
+
+        assertNothingPublished();
+    }
+
+    @Test
+    void dropsSupersededVersions() throws InterruptedException {
+        publisher.publishAnalysis(URI, 3, List.of(error("Third")));
+        publisher.publishAnalysis(URI, 2, List.of(error("Second")));
+
+        var params = nextPublished();
+        assertThat(params.getVersion(), is(3));
+
+        publisher.publishAnalysis(URI, 1, List.of(error("First")));
+        assertNothingPublished();
+    }
+
+    @Test
+    void skipsUnchangedDiagnostics() throws InterruptedException {
+        publisher.publishAnalysis(URI, 1, List.of(error("Unchanged")));
+        assertThat(nextPublished().getVersion(), is(1));
+
+        publisher.publishAnalysis(URI, 2, List.of(error("Unchanged")));
+        assertNothingPublished();
+
+        publisher.publishAnalysis(URI, 3, List.of());
+        var params = nextPublished();
+        assertThat(params.getVersion(), is(3));
+        assertThat(params.getDiagnostics(), is(empty()));
+    }
+
+    @Test
+    void clearsAnalysisDiagnosticsOfClosedDocuments() throws InterruptedException {
+        publisher.publishAnalysis(URI, 1, List.of(error("Error")));
+        assertThat(nextPublished().getDiagnostics(), hasSize(1));
+
+        publisher.publishAnalysis(URI, 2, List.of(error("Pending")));
+        publisher.removeAnalysis(URI);
+
+        var params = nextPublished();
+        assertThat(params.getUri(), is(URI));
+        assertThat(params.getDiagnostics(), is(empty()));
+
+        assertNothingPublished();
+    }
+
+    @Test
+    void mergesDiagnosticsFromEachSource() throws InterruptedException {
+        publisher.publishAnalysis(URI, 1, List.of(error("Analysis")));
+        publisher.publishBuild(URI, TARGET, List.of(error("Main")), true);
+        publisher.publishBuild(URI, TEST_TARGET, List.of(error("Test")), true);
+
+        var params = nextPublished();
+        assertThat(params.getVersion(), is(1));
+        assertThat(params.getDiagnostics(), contains(error("Analysis"), error("Main"), error("Test")));
+
+        // Updates from one source leave the diagnostics of the others in place
+        publisher.publishAnalysis(URI, 2, List.of());
+        assertThat(nextPublished().getDiagnostics(), contains(error("Main"), error("Test")));
+
+        publisher.publishBuild(URI, TARGET, List.of(), true);
+        assertThat(nextPublished().getDiagnostics(), contains(error("Test")));
+    }
+
+    @Test
+    void addsToBuildDiagnosticsUnlessReset() throws InterruptedException {
+        publisher.publishBuild(URI, TARGET, List.of(error("First")), true);
+        publisher.publishBuild(URI, TARGET, List.of(error("Second")), false);
+        assertThat(nextPublished().getDiagnostics(), contains(error("First"), error("Second")));
+
+        publisher.publishBuild(URI, TARGET, List.of(error("Third")), true);
+        var params = nextPublished();
+        assertThat(params.getVersion(), is(nullValue()));
+        assertThat(params.getDiagnostics(), contains(error("Third")));
+    }
+
+    @Test
+    void keepsBuildDiagnosticsOfClosedDocuments() throws InterruptedException {
+        publisher.publishAnalysis(URI, 1, List.of(error("Analysis")));
+        publisher.publishBuild(URI, TARGET, List.of(error("Build")), true);
+        assertThat(nextPublished().getDiagnostics(), hasSize(2));
+
+        publisher.removeAnalysis(URI);
+        var params = nextPublished();
+        assertThat(params.getVersion(), is(nullValue()));
+        assertThat(params.getDiagnostics(), contains(error("Build")));
+
+        // A reopened document may start again from an earlier version
+        publisher.publishAnalysis(URI, 1, List.of(error("Reopened")));
+        assertThat(nextPublished().getDiagnostics(), contains(error("Reopened"), error("Build")));
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.index;
+
+import com.opencastsoftware.yvette.Position;
+import com.opencastsoftware.yvette.Range;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.junit.jupiter.api.Test;
+import org.mina_lang.common.names.*;
+import org.mina_lang.langserver.analysis.DocumentAnalyser;
+
+import java.net.URI;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SymbolIndexTest {
+    static final URI OPTIONS_URI = URI.create("file:///Mina/Test/Options.mina");
+    static final URI USAGES_URI = URI.create("file:///Mina/Test/Usages.mina");
+
+    static final String OPTIONS_SOURCE = """
+        namespace Mina/Test/Options {
+            data Option[A] {
+                case Some(value: A)
+                case None()
+            }
+
+            let some: [A] { A -> Option[A] } = Some
+        }""";
+
+    static final String USAGES_SOURCE = """
+        namespace Mina/Test/Usages {
+            import Mina/Test/Options.{Option, Some, some}
+
+            let one: Option[Int] = some(1)
+
+            let two = Some(2)
+        }""";
+
+    static final NamespaceName OPTIONS_NAMESPACE = new NamespaceName(Lists.immutable.of("Mina", "Test"), "Options");
+    static final DataName OPTION_NAME = new DataName(new QualifiedName(OPTIONS_NAMESPACE, "Option"));
+    static final ConstructorName SOME_NAME = new ConstructorName(OPTION_NAME, new QualifiedName(OPTIONS_NAMESPACE, "Some"));
+    static final LetName SOME_FN_NAME = new LetName(new QualifiedName(OPTIONS_NAMESPACE, "some"));
+
+    DocumentAnalyser analyser = new DocumentAnalyser();
+    SymbolIndex index = new SymbolIndex();
+
+    void indexDocument(URI uri, int version, String source) {
+        var analysis = analyser.analyse(new TextDocumentItem(uri.toString(), "mina", version, source));
+        assertThat(analysis.diagnostics(), is(empty()));
+        index.indexNamespace(uri, analysis.renamed().get());
+    }
+
+    @Test
+    void findsDefinitionsAndReferencesAcrossDocuments() {
+        indexDocument(OPTIONS_URI, 1, OPTIONS_SOURCE);
+        indexDocument(USAGES_URI, 1, USAGES_SOURCE);
+
+        var someDefinitions = index.findDefinitions(SOME_NAME);
+        assertThat(someDefinitions.toList(), hasSize(1));
+        assertThat(someDefinitions.getFirst().location().uri(), is(OPTIONS_URI));
+
+        var someReferences = index.findReferences(SOME_NAME).collect(occurrence -> occurrence.location().uri());
+        assertThat(someReferences, containsInAnyOrder(OPTIONS_URI, USAGES_URI));
+
+        assertThat(index.findReferences(OPTION_NAME).toList(), hasSize(2));
+        assertThat(index.findReferences(SOME_FN_NAME).toList(), hasSize(1));
+
+        assertThat(index.symbolAt(USAGES_URI, new Position(3, 28)), is(equalTo(Optional.of(SOME_FN_NAME))));
+        assertThat(index.symbolAt(OPTIONS_URI, new Position(2, 14)), is(equalTo(Optional.of(SOME_NAME))));
+    }
+
+    @Test
+    void replacesTheOccurrencesOfChangedDocuments() {
+        indexDocument(OPTIONS_URI, 1, OPTIONS_SOURCE);
+        indexDocument(USAGES_URI, 1, USAGES_SOURCE);
+
+        indexDocument(USAGES_URI, 2, USAGES_SOURCE.replace("let two = Some(2)", "let two = 2"));
+
+        var someReferences = index.findReferences(SOME_NAME).collect(occurrence -> occurrence.location().uri());
+        assertThat(someReferences, contains(OPTIONS_URI));
+
+        index.removeDocument(OPTIONS_URI);
+
+        assertThat(index.findDefinitions(SOME_NAME).toList(), is(empty()));
+        assertThat(index.findReferences(SOME_FN_NAME).toList(), hasSize(1));
+    }
+
+    @Test
+    void reclaimsTheIdsOfSymbolsNoLongerMentioned() {
+        indexDocument(OPTIONS_URI, 1, OPTIONS_SOURCE);
+        indexDocument(USAGES_URI, 1, USAGES_SOURCE);
+
+        var allocatedIds = index.allocatedIdCount();
+        assertThat(index.internedSymbolCount(), is(allocatedIds));
+
+        // The symbols of the options document are still referenced by the usages document
+        index.removeDocument(OPTIONS_URI);
+        assertThat(index.findReferences(SOME_FN_NAME).toList(), hasSize(1));
+        assertThat(index.internedSymbolCount(), is(lessThan(allocatedIds)));
+
+        index.removeDocument(USAGES_URI);
+        assertThat(index.internedSymbolCount(), is(0));
+        assertThat(index.search("o", 10).toList(), is(empty()));
+
+        // Repeatedly reindexing the same documents reuses the reclaimed ids
+        for (var version = 2; version < 5; version++) {
+            indexDocument(OPTIONS_URI, version, OPTIONS_SOURCE);
+            indexDocument(USAGES_URI, version, USAGES_SOURCE);
+            index.removeDocument(USAGES_URI);
+            index.removeDocument(OPTIONS_URI);
+        }
+
+        assertThat(index.internedSymbolCount(), is(0));
+        assertThat(index.allocatedIdCount(), is(allocatedIds));
+
+        indexDocument(OPTIONS_URI, 5, OPTIONS_SOURCE);
+        indexDocument(USAGES_URI, 5, USAGES_SOURCE);
+        assertThat(index.findReferences(SOME_NAME).toList(), hasSize(2));
+        assertThat(index.symbolAt(USAGES_URI, new Position(3, 28)), is(equalTo(Optional.of(SOME_FN_NAME))));
+    }
+
+    @Test
+    void searchesSymbolsByName() {
+        indexDocument(OPTIONS_URI, 1, OPTIONS_SOURCE);
+        indexDocument(USAGES_URI, 1, USAGES_SOURCE);
+
+        var results = index.search("SOM", 10).collect(SymbolIndex.Occurrence::symbol);
+        assertThat(results, containsInAnyOrder(SOME_NAME, SOME_FN_NAME));
+
+        assertThat(index.search("o", 1).toList(), hasSize(1));
+    }
+
+    @Test
+    void indexesClasspathScopes() {
+        var analysis = analyser.analyse(new TextDocumentItem(OPTIONS_URI.toString(), "mina", 1, OPTIONS_SOURCE));
+        var classUri = URI.create("jar:file:///options.jar!/Mina/Test/Options.class");
+
+        index.indexClasspathScope(classUri, analysis.typechecked().get().getScope());
+
+        var someDefinitions = index.findDefinitions(SOME_NAME);
+        assertThat(someDefinitions.toList(), hasSize(1));
+        assertThat(someDefinitions.getFirst().location().uri(), is(classUri));
+        assertThat(someDefinitions.getFirst().location().range(), is(Range.EMPTY));
+
+        assertThat(index.findDefinitions(new FieldName(SOME_NAME, "value")).toList(), hasSize(1));
+        assertThat(index.symbolCount(), is(5));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.scheduling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mina_lang.langserver.scheduling.RequestScheduler.Lane;
+import org.mina_lang.langserver.util.DaemonThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RequestSchedulerTest {
+    private static final Logger logger = LoggerFactory.getLogger(RequestSchedulerTest.class);
+
+    RequestScheduler scheduler = new RequestScheduler(DaemonThreadFactory.create(logger, "scheduler-test-%d"), 2);
+
+    @AfterEach
+    void teardown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    Runnable awaiting(CountDownLatch latch) {
+        return () -> {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    @Test
+    void backgroundWorkDoesNotStarveRequests() throws Exception {
+        var release = new CountDownLatch(1);
+
+        var background = List.of(
+            scheduler.submit(Lane.BACKGROUND, awaiting(release)),
+            scheduler.submit(Lane.BACKGROUND, awaiting(release)),
+            scheduler.submit(Lane.BACKGROUND, awaiting(release)));
+
+        var request = scheduler.submit(Lane.INTERACTIVE, () -> "hover");
+        assertThat(request.get(5, TimeUnit.SECONDS), is("hover"));
+        assertThat(background.stream().noneMatch(task -> task.isDone()), is(true));
+
+        release.countDown();
+
+        for (var task : background) {
+            task.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void queuedDependenciesInheritPriority() throws Exception {
+        var releaseFirst = new CountDownLatch(1);
+        var releaseSecond = new CountDownLatch(1);
+        var order = new CopyOnWriteArrayList<String>();
+
+        var first = scheduler.submit(Lane.INTERACTIVE, awaiting(releaseFirst));
+        var second = scheduler.submit(Lane.INTERACTIVE, awaiting(releaseSecond));
+
+        var change = scheduler.submit(Lane.DOCUMENT_SYNC, () -> order.add("change"));
+        var index = scheduler.submit(Lane.BACKGROUND, () -> order.add("index"));
+
+        scheduler.dependOn(Lane.INTERACTIVE, index);
+
+        // Only one worker is released, so the queued tasks run one after the other
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        change.get(5, TimeUnit.SECONDS);
+        index.get(5, TimeUnit.SECONDS);
+
+        releaseSecond.countDown();
+        second.get(5, TimeUnit.SECONDS);
+
+        assertThat(order, contains("index", "change"));
+    }
+
+    @Test
+    void collectsLaneMetrics() throws Exception {
+        scheduler.submit(Lane.DOCUMENT_SYNC, () -> 1).get(5, TimeUnit.SECONDS);
+        scheduler.submit(Lane.DOCUMENT_SYNC, () -> 2).get(5, TimeUnit.SECONDS);
+        scheduler.submit(Lane.BACKGROUND, () -> 3).get(5, TimeUnit.SECONDS);
+
+        var metrics = scheduler.collectMetrics();
+        assertThat(metrics.collect(LaneMetrics::lane).toList(), contains(Lane.INTERACTIVE, Lane.DOCUMENT_SYNC, Lane.BACKGROUND));
+        assertThat(metrics.collectLong(LaneMetrics::completed).toArray(), is(new long[] { 0, 2, 1 }));
+
+        var collectedAgain = scheduler.collectMetrics();
+        assertThat(collectedAgain.allSatisfy(lane -> lane.completed() == 0), is(true));
+    }
+}
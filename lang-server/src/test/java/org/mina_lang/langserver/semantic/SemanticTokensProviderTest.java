@@ -0,0 +1,126 @@
+/*
+ * SPDX-FileCopyrightText:  © 2025 David Gregory
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package org.mina_lang.langserver.semantic;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextDocumentItem;
+import org.junit.jupiter.api.Test;
+import org.mina_lang.langserver.analysis.DocumentAnalyser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mina_lang.langserver.semantic.SemanticTokensProvider.*;
+
+public class SemanticTokensProviderTest {
+    static final String URI = "file:///Mina/Test/Tokens.mina";
+
+    static final String SOURCE = """
+        namespace Mina/Test/Tokens {
+            data Option[A] {
+                case Some(value: A)
+                case None()
+            }
+
+            let some: [A] { A -> Option[A] } = x -> Some(x)
+        }""";
+
+    DocumentAnalyser analyser = new DocumentAnalyser();
+    SemanticTokensProvider provider = new SemanticTokensProvider();
+
+    TextDocumentItem classify(int version, String source) {
+        var document = new TextDocumentItem(URI, "mina", version, source);
+        var analysis = analyser.analyse(document);
+        assertThat(analysis.diagnostics(), is(empty()));
+        provider.classifyTokens(document, analysis.renamed());
+        return document;
+    }
+
+    // Decodes the relative positions of the protocol into line:character:length:type:modifiers strings
+    static List<String> decode(List<Integer> data) {
+        var tokens = new ArrayList<String>();
+        var line = 0;
+        var character = 0;
+        for (var i = 0; i < data.size(); i += 5) {
+            character = data.get(i) == 0 ? character + data.get(i + 1) : data.get(i + 1);
+            line += data.get(i);
+            tokens.add(line + ":" + character + ":" + data.get(i + 2) + ":" + data.get(i + 3) + ":" + data.get(i + 4));
+        }
+        return tokens;
+    }
+
+    static List<Integer> applyEdit(List<Integer> data, org.eclipse.lsp4j.SemanticTokensEdit edit) {
+        var edited = new ArrayList<>(data.subList(0, edit.getStart()));
+        edited.addAll(edit.getData());
+        edited.addAll(data.subList(edit.getStart() + edit.getDeleteCount(), data.size()));
+        return edited;
+    }
+
+    @Test
+    void classifiesTokensUsingNames() {
+        classify(1, SOURCE);
+
+        var tokens = decode(provider.full(URI).getData());
+
+        assertThat(tokens, hasItems(
+            "1:9:6:" + TYPE + ":" + DECLARATION,
+            "1:16:1:" + TYPE_PARAMETER + ":0",
+            "2:13:4:" + ENUM_MEMBER + ":" + DECLARATION,
+            "2:18:5:" + PROPERTY + ":" + DECLARATION,
+            "6:8:4:" + VARIABLE + ":" + (DECLARATION | READONLY),
+            "6:25:6:" + TYPE + ":0",
+            "6:39:1:" + PARAMETER + ":" + (DECLARATION | READONLY),
+            "6:44:4:" + ENUM_MEMBER + ":0",
+            "6:49:1:" + PARAMETER + ":" + READONLY));
+    }
+
+    @Test
+    void reusesTokensWhenOnlyWhitespaceOrCommentsChange() {
+        classify(1, SOURCE);
+
+        var commented = SOURCE.replace("    let some", "    // A comment\n    let  some");
+        var document = new TextDocumentItem(URI, "mina", 2, commented);
+        assertThat(provider.reuseTokens(document), is(true));
+
+        var tokens = decode(provider.full(URI).getData());
+        assertThat(tokens, hasItem("7:9:4:" + VARIABLE + ":" + (DECLARATION | READONLY)));
+
+        var renamed = new TextDocumentItem(URI, "mina", 3, commented.replace("let  some", "let  someValue"));
+        assertThat(provider.reuseTokens(renamed), is(false));
+    }
+
+    @Test
+    void computesDeltasAgainstTheLastTokensSent() {
+        classify(1, SOURCE);
+        var first = provider.full(URI);
+
+        classify(2, SOURCE.replace("x -> Some(x)", "x -> Some(x)\n\n    let none: [A] { Option[A] } = None"));
+
+        var delta = provider.fullDelta(URI, first.getResultId());
+        assertThat(delta.isRight(), is(true));
+        assertThat(delta.getRight().getEdits(), hasSize(1));
+
+        var full = provider.full(URI);
+        assertThat(applyEdit(first.getData(), delta.getRight().getEdits().get(0)), is(equalTo(full.getData())));
+
+        assertThat(provider.fullDelta(URI, "unknown").isLeft(), is(true));
+    }
+
+    @Test
+    void restrictsTokensToRange() {
+        classify(1, SOURCE);
+
+        var tokens = decode(provider.range(URI, new Range(new Position(2, 0), new Position(3, 0))).getData());
+
+        // Positions are relative to the start of the document
+        assertThat(tokens, contains(
+            "2:13:4:" + ENUM_MEMBER + ":" + DECLARATION,
+            "2:18:5:" + PROPERTY + ":" + DECLARATION,
+            "2:25:1:" + TYPE_PARAMETER + ":0"));
+    }
+}